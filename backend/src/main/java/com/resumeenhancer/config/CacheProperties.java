@@ -0,0 +1,135 @@
+package com.resumeenhancer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binds app.cache.l1, the in-process cache that sits in front of Redis (or replaces it when
+// Redis is disabled; TTLs are keyed by cache namespace), app.cache.near-duplicate,
+// app.cache.compression (how values are stored in Redis), app.cache.stale-while-revalidate and
+// app.cache.disk (the persistent tier used instead of Redis).
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    private L1 l1 = new L1();
+    private NearDuplicate nearDuplicate = new NearDuplicate();
+    private Compression compression = new Compression();
+    private StaleWhileRevalidate staleWhileRevalidate = new StaleWhileRevalidate();
+    private Disk disk = new Disk();
+
+    public L1 getL1() { return l1; }
+    public void setL1(L1 l1) { this.l1 = l1; }
+
+    public NearDuplicate getNearDuplicate() { return nearDuplicate; }
+    public void setNearDuplicate(NearDuplicate nearDuplicate) { this.nearDuplicate = nearDuplicate; }
+
+    public Compression getCompression() { return compression; }
+    public void setCompression(Compression compression) { this.compression = compression; }
+
+    public StaleWhileRevalidate getStaleWhileRevalidate() { return staleWhileRevalidate; }
+    public void setStaleWhileRevalidate(StaleWhileRevalidate staleWhileRevalidate) { this.staleWhileRevalidate = staleWhileRevalidate; }
+
+    public Disk getDisk() { return disk; }
+    public void setDisk(Disk disk) { this.disk = disk; }
+
+    public static class L1 {
+        private boolean enabled = true;
+        private long maxSizeMb = 64;
+        private Duration defaultTtl = Duration.ofHours(1);
+        private Map<String, Duration> ttl = new LinkedHashMap<>();
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public long getMaxSizeMb() { return maxSizeMb; }
+        public void setMaxSizeMb(long maxSizeMb) { this.maxSizeMb = maxSizeMb; }
+
+        public Duration getDefaultTtl() { return defaultTtl; }
+        public void setDefaultTtl(Duration defaultTtl) { this.defaultTtl = defaultTtl; }
+
+        public Map<String, Duration> getTtl() { return ttl; }
+        public void setTtl(Map<String, Duration> ttl) { this.ttl = ttl; }
+    }
+
+    // Reuses an enhancement cached for a different but similar job description
+    public static class NearDuplicate {
+        private boolean enabled = false;
+        private double similarityThreshold = 0.875; // 1 - SimHash Hamming distance / 64
+        private long maxFamilies = 10000; // in-process index only
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public double getSimilarityThreshold() { return similarityThreshold; }
+        public void setSimilarityThreshold(double similarityThreshold) { this.similarityThreshold = similarityThreshold; }
+
+        public long getMaxFamilies() { return maxFamilies; }
+        public void setMaxFamilies(long maxFamilies) { this.maxFamilies = maxFamilies; }
+    }
+
+    public static class Compression {
+        private boolean enabled = true;
+        private int minBytes = 512; // smaller values are stored raw behind the header
+        private int level = 6;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getMinBytes() { return minBytes; }
+        public void setMinBytes(int minBytes) { this.minBytes = minBytes; }
+
+        public int getLevel() { return level; }
+        public void setLevel(int level) { this.level = level; }
+    }
+
+    // Past the soft TTL an entry is still served, and one background call refreshes it; the hard
+    // TTL is the Redis TTL (gpt-cache-hours), or the namespace's L1 TTL when Redis is disabled
+    public static class StaleWhileRevalidate {
+        private boolean enabled = true;
+        private List<String> namespaces = new ArrayList<>(List.of("gpt", "translation"));
+        private double softTtlRatio = 0.75; // of the hard TTL
+        private double jitter = 0.1; // per-key share of the soft TTL, so hot keys do not go stale together
+        private Duration refreshLockTtl = Duration.ofMinutes(2);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public List<String> getNamespaces() { return namespaces; }
+        public void setNamespaces(List<String> namespaces) { this.namespaces = namespaces; }
+
+        public double getSoftTtlRatio() { return softTtlRatio; }
+        public void setSoftTtlRatio(double softTtlRatio) { this.softTtlRatio = softTtlRatio; }
+
+        public double getJitter() { return jitter; }
+        public void setJitter(double jitter) { this.jitter = jitter; }
+
+        public Duration getRefreshLockTtl() { return refreshLockTtl; }
+        public void setRefreshLockTtl(Duration refreshLockTtl) { this.refreshLockTtl = refreshLockTtl; }
+    }
+
+    // Only opened when Redis is disabled; entries keep the Redis TTL (gpt-cache-hours)
+    public static class Disk {
+        private boolean enabled = true;
+        private String path = ""; // defaults to <app.storage.local-path>/cache
+        private long maxSizeMb = 256;
+        private int segmentSizeMb = 16;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public long getMaxSizeMb() { return maxSizeMb; }
+        public void setMaxSizeMb(long maxSizeMb) { this.maxSizeMb = maxSizeMb; }
+
+        public int getSegmentSizeMb() { return segmentSizeMb; }
+        public void setSegmentSizeMb(int segmentSizeMb) { this.segmentSizeMb = segmentSizeMb; }
+    }
+}
@@ -0,0 +1,50 @@
+package com.resumeenhancer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Binds app.gpt.profiles: one entry per operation (enhance, revise, analyze, suggestions,
+// translate) plus any named tiers they downgrade to. Unset fields fall back to OPENAI_*.
+@Component
+@ConfigurationProperties(prefix = "app.gpt")
+public class GptModelProperties {
+
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    public Map<String, Profile> getProfiles() { return profiles; }
+    public void setProfiles(Map<String, Profile> profiles) { this.profiles = profiles; }
+
+    public static class Profile {
+        private String model;
+        private Integer maxTokens;
+        private Double temperature;
+        private Long timeoutSeconds;
+        private Integer contextWindow;
+        private String downgradeTo; // profile used when less than downgrade-below-seconds remain
+        private Long downgradeBelowSeconds;
+
+        public String getModel() { return model; }
+        public void setModel(String model) { this.model = model; }
+
+        public Integer getMaxTokens() { return maxTokens; }
+        public void setMaxTokens(Integer maxTokens) { this.maxTokens = maxTokens; }
+
+        public Double getTemperature() { return temperature; }
+        public void setTemperature(Double temperature) { this.temperature = temperature; }
+
+        public Long getTimeoutSeconds() { return timeoutSeconds; }
+        public void setTimeoutSeconds(Long timeoutSeconds) { this.timeoutSeconds = timeoutSeconds; }
+
+        public Integer getContextWindow() { return contextWindow; }
+        public void setContextWindow(Integer contextWindow) { this.contextWindow = contextWindow; }
+
+        public String getDowngradeTo() { return downgradeTo; }
+        public void setDowngradeTo(String downgradeTo) { this.downgradeTo = downgradeTo; }
+
+        public Long getDowngradeBelowSeconds() { return downgradeBelowSeconds; }
+        public void setDowngradeBelowSeconds(Long downgradeBelowSeconds) { this.downgradeBelowSeconds = downgradeBelowSeconds; }
+    }
+}
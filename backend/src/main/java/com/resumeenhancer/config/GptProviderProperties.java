@@ -0,0 +1,55 @@
+package com.resumeenhancer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binds app.gpt.providers. When the list is empty the single app.openai endpoint is used.
+@Component
+@ConfigurationProperties(prefix = "app.gpt")
+public class GptProviderProperties {
+
+    private List<Provider> providers = new ArrayList<>();
+
+    public List<Provider> getProviders() { return providers; }
+    public void setProviders(List<Provider> providers) { this.providers = providers; }
+
+    public static class Provider {
+        private String name;
+        private String type = "openai"; // openai or stub
+        private String apiBase;
+        private String apiKey;
+        private Map<String, String> models = new LinkedHashMap<>(); // requested model -> this provider's name for it
+        private long timeoutSeconds = 60;
+        private long stubLatencyMillis = 200;
+        private boolean enabled = true;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+
+        public String getApiBase() { return apiBase; }
+        public void setApiBase(String apiBase) { this.apiBase = apiBase; }
+
+        public String getApiKey() { return apiKey; }
+        public void setApiKey(String apiKey) { this.apiKey = apiKey; }
+
+        public Map<String, String> getModels() { return models; }
+        public void setModels(Map<String, String> models) { this.models = models; }
+
+        public long getTimeoutSeconds() { return timeoutSeconds; }
+        public void setTimeoutSeconds(long timeoutSeconds) { this.timeoutSeconds = timeoutSeconds; }
+
+        public long getStubLatencyMillis() { return stubLatencyMillis; }
+        public void setStubLatencyMillis(long stubLatencyMillis) { this.stubLatencyMillis = stubLatencyMillis; }
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    }
+}
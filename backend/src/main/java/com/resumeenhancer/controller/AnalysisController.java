@@ -3,14 +3,22 @@ package com.resumeenhancer.controller;
 import com.resumeenhancer.dto.AnalyzeRequest;
 import com.resumeenhancer.dto.EnhancedResumeResponse;
 import com.resumeenhancer.dto.EnhanceRequest;
+import com.resumeenhancer.dto.EnhancementStreamEvent;
 import com.resumeenhancer.dto.TranslateRequest;
 import com.resumeenhancer.security.UserPrincipal;
 import com.resumeenhancer.service.EnhancedResumeService;
+import com.resumeenhancer.service.GptOverloadedException;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -32,43 +40,50 @@ public class AnalysisController {
     }
 
     @PostMapping("/analyze")
-    public ResponseEntity<EnhancedResumeResponse> analyzeResume(
+    public Mono<ResponseEntity<EnhancedResumeResponse>> analyzeResume(
             @Valid @RequestBody AnalyzeRequest request,
             @AuthenticationPrincipal UserPrincipal currentUser) {
-        try {
-            EnhancedResumeResponse response = enhancedResumeService.analyzeResume(request, currentUser.getId());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+        return enhancedResumeService.analyzeResumeAsync(request, currentUser.getId())
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(errorResponse(e).build()));
     }
 
     @PostMapping("/enhance")
-    public ResponseEntity<?> enhanceResume(
+    public Mono<ResponseEntity<?>> enhanceResume(
             @Valid @RequestBody EnhanceRequest request,
             @AuthenticationPrincipal UserPrincipal currentUser) {
-        try {
-            EnhancedResumeResponse response = enhancedResumeService.enhanceResume(request, currentUser.getId());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            System.err.println("Enhancement error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.badRequest()
-                .header("Content-Type", "application/json")
-                .body("{\"error\": \"" + e.getMessage() + "\"}");
-        }
+        return enhancedResumeService.enhanceResumeAsync(request, currentUser.getId())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    System.err.println("Enhancement error: " + e.getMessage());
+                    e.printStackTrace();
+                    return Mono.just(errorResponse(e)
+                        .header("Content-Type", "application/json")
+                        .body("{\"error\": \"" + e.getMessage() + "\"}"));
+                });
     }
 
     @PostMapping("/translate")
-    public ResponseEntity<EnhancedResumeResponse> translateResume(
+    public Mono<ResponseEntity<EnhancedResumeResponse>> translateResume(
             @Valid @RequestBody TranslateRequest request,
             @AuthenticationPrincipal UserPrincipal currentUser) {
-        try {
-            EnhancedResumeResponse response = enhancedResumeService.translateResume(request, currentUser.getId());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+        return enhancedResumeService.translateResumeAsync(request, currentUser.getId())
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(errorResponse(e).build()));
+    }
+
+    @PostMapping(value = "/enhance/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamEnhanceResume(
+            @Valid @RequestBody EnhanceRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return toServerSentEvents(enhancedResumeService.streamEnhanceResume(request, currentUser.getId()));
+    }
+
+    @PostMapping(value = "/translate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamTranslateResume(
+            @Valid @RequestBody TranslateRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return toServerSentEvents(enhancedResumeService.streamTranslateResume(request, currentUser.getId()));
     }
 
     @GetMapping("/enhanced/{id}")
@@ -96,22 +111,53 @@ public class AnalysisController {
     }
 
     @PostMapping("/suggestions")
-    public ResponseEntity<?> generateSuggestions(
+    public Mono<ResponseEntity<?>> generateSuggestions(
             @RequestBody Map<String, Object> request,
             @AuthenticationPrincipal UserPrincipal currentUser) {
-        try {
+        return Mono.defer(() -> {
             Long resumeId = Long.valueOf(request.get("resumeId").toString());
             String jobDescription = (String) request.get("jobDescription");
             String mode = (String) request.getOrDefault("mode", "local");
-            
-            List<String> suggestions = enhancedResumeService.generateSuggestions(resumeId, jobDescription, mode, currentUser.getId());
-            return ResponseEntity.ok(Map.of("suggestions", suggestions));
-        } catch (Exception e) {
-            System.err.println("Suggestions error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.badRequest()
-                .header("Content-Type", "application/json")
-                .body("{\"error\": \"" + e.getMessage() + "\"}");
+
+            return enhancedResumeService.generateSuggestionsAsync(resumeId, jobDescription, mode, currentUser.getId());
+        })
+                .<ResponseEntity<?>>map(suggestions -> ResponseEntity.ok(Map.of("suggestions", suggestions)))
+                .onErrorResume(e -> {
+                    System.err.println("Suggestions error: " + e.getMessage());
+                    e.printStackTrace();
+                    return Mono.just(errorResponse(e)
+                        .header("Content-Type", "application/json")
+                        .body("{\"error\": \"" + e.getMessage() + "\"}"));
+                });
+    }
+
+    // Capacity rejections from the GPT bulkhead map to 429/503 so clients can back off and retry
+    private ResponseEntity.BodyBuilder errorResponse(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof GptOverloadedException) {
+                GptOverloadedException overloaded = (GptOverloadedException) cause;
+                HttpStatus status = overloaded.getReason() == GptOverloadedException.Reason.QUEUE_FULL
+                        ? HttpStatus.TOO_MANY_REQUESTS
+                        : HttpStatus.SERVICE_UNAVAILABLE;
+                return ResponseEntity.status(status)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()));
+            }
         }
+        return ResponseEntity.badRequest();
+    }
+
+    private Flux<ServerSentEvent<Object>> toServerSentEvents(Flux<EnhancementStreamEvent> events) {
+        return events
+                .map(event -> ServerSentEvent.builder()
+                        .event(event.getType())
+                        .data(EnhancementStreamEvent.TOKEN.equals(event.getType()) ? event.getContent() : event.getResult())
+                        .build())
+                .onErrorResume(e -> {
+                    System.err.println("Streaming error: " + e.getMessage());
+                    return Flux.just(ServerSentEvent.builder()
+                            .event("error")
+                            .data((Object) Map.of("error", String.valueOf(e.getMessage())))
+                            .build());
+                });
     }
 }
@@ -0,0 +1,63 @@
+package com.resumeenhancer.controller;
+
+import com.resumeenhancer.dto.BatchJobRequest;
+import com.resumeenhancer.dto.BatchJobResponse;
+import com.resumeenhancer.security.UserPrincipal;
+import com.resumeenhancer.service.BatchJobService;
+import javax.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/batch/jobs")
+public class BatchJobController {
+
+    @Autowired
+    private BatchJobService batchJobService;
+
+    @PostMapping
+    public ResponseEntity<?> submitJob(
+            @Valid @RequestBody BatchJobRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        try {
+            BatchJobResponse response = batchJobService.submit(request, currentUser.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (Exception e) {
+            System.err.println("Batch job submission error: " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BatchJobResponse>> getJobs(@AuthenticationPrincipal UserPrincipal currentUser) {
+        return ResponseEntity.ok(batchJobService.getJobs(currentUser.getId()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BatchJobResponse> getJob(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        try {
+            return ResponseEntity.ok(batchJobService.getJob(id, currentUser.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<?> cancelJob(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        try {
+            return ResponseEntity.ok(batchJobService.cancel(id, currentUser.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.resumeenhancer.controller;
+
+import com.resumeenhancer.security.UserPrincipal;
+import com.resumeenhancer.service.CacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cache sizing data for operators: the most-hit keys and the memory each namespace holds.
+// Only the accounts listed in app.admin.emails may call it; with none listed it is closed.
+@RestController
+@RequestMapping("/admin/cache")
+public class CacheAdminController {
+
+    private static final int MAX_HOT_KEYS = 1000;
+    private static final int MAX_MEMORY_SAMPLE = 1000;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Value("${app.admin.emails:}")
+    private List<String> adminEmails;
+
+    @GetMapping("/hot-keys")
+    public ResponseEntity<Object> getHotKeys(@AuthenticationPrincipal UserPrincipal currentUser,
+                                             @RequestParam(defaultValue = "20") int limit) {
+        if (!isAdmin(currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(cacheService.getHotKeys(Math.max(1, Math.min(limit, MAX_HOT_KEYS))));
+    }
+
+    @GetMapping("/memory")
+    public ResponseEntity<Object> getMemory(@AuthenticationPrincipal UserPrincipal currentUser,
+                                            @RequestParam(defaultValue = "100") int sample) {
+        if (!isAdmin(currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Map<String, Object> memory = new LinkedHashMap<>();
+        memory.put("namespaces", cacheService.getNamespaceMemory(Math.max(1, Math.min(sample, MAX_MEMORY_SAMPLE))));
+        memory.put("redisUsedMemoryBytes", cacheService.getRedisUsedMemory());
+        return ResponseEntity.ok(memory);
+    }
+
+    private boolean isAdmin(UserPrincipal currentUser) {
+        return currentUser != null && adminEmails.stream()
+                .anyMatch(email -> email.trim().equalsIgnoreCase(currentUser.getUsername()));
+    }
+}
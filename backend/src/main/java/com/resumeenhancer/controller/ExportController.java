@@ -51,7 +51,6 @@ public class ExportController {
                 return ResponseEntity.ok()
                         .header(HttpHeaders.CONTENT_DISPOSITION, 
                                 "attachment; filename=\"" + filename + ".md\"")
-                        .header(HttpHeaders.CONTENT_TYPE, "text/markdown")
                         .body(new ExportResponse(null, "markdown", filename + ".md", 
                                (long) markdown.getBytes().length));
                         
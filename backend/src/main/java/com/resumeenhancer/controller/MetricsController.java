@@ -0,0 +1,90 @@
+package com.resumeenhancer.controller;
+
+import com.resumeenhancer.security.UserPrincipal;
+import com.resumeenhancer.service.CacheService;
+import com.resumeenhancer.service.CacheTagSweeper;
+import com.resumeenhancer.service.GptBulkhead;
+import com.resumeenhancer.service.GptCircuitBreaker;
+import com.resumeenhancer.service.GptModelPolicy;
+import com.resumeenhancer.service.GptProviderRouter;
+import com.resumeenhancer.service.GptService;
+import com.resumeenhancer.service.GptRequestCoalescer;
+import com.resumeenhancer.service.RedisSingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Operational stats for the GPT pipeline and the cache. They expose provider health and cache
+// contents, so like /admin/cache only the accounts listed in app.admin.emails may read them.
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    @Autowired
+    private GptService gptService;
+
+    @Autowired
+    private GptRequestCoalescer requestCoalescer;
+
+    @Autowired
+    private RedisSingleFlight redisSingleFlight;
+
+    @Autowired
+    private GptBulkhead bulkhead;
+
+    @Autowired
+    private GptCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private GptProviderRouter providerRouter;
+
+    @Autowired
+    private GptModelPolicy modelPolicy;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private CacheTagSweeper cacheTagSweeper;
+
+    @Value("${app.admin.emails:}")
+    private List<String> adminEmails;
+
+    @GetMapping("/gpt")
+    public ResponseEntity<Map<String, Object>> getGptMetrics(@AuthenticationPrincipal UserPrincipal currentUser) {
+        if (!isAdmin(currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("tokens", gptService.getTokenStats());
+        metrics.put("coalescing", requestCoalescer.getStats());
+        metrics.put("distributedSingleFlight", redisSingleFlight.getStats());
+        metrics.put("bulkhead", bulkhead.getStats());
+        metrics.put("circuitBreaker", circuitBreaker.getStats());
+        metrics.put("providers", providerRouter.getStats());
+        metrics.put("models", modelPolicy.getStats());
+        metrics.put("cache", cacheService.getStats());
+        metrics.put("cacheTagSweeper", cacheTagSweeper.getStats());
+        return ResponseEntity.ok(metrics);
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheMetrics(@AuthenticationPrincipal UserPrincipal currentUser) {
+        if (!isAdmin(currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(cacheService.getNamespaceStats());
+    }
+
+    private boolean isAdmin(UserPrincipal currentUser) {
+        return currentUser != null && adminEmails.stream()
+                .anyMatch(email -> email.trim().equalsIgnoreCase(currentUser.getUsername()));
+    }
+}
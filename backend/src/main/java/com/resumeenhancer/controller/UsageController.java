@@ -33,8 +33,8 @@ public class UsageController {
             ));
         }
 
-        int gptRemaining = usageTrackingService.getRemainingGptUsage(currentUser.getId());
-        int enhancementRemaining = usageTrackingService.getRemainingEnhancementUsage(currentUser.getId());
+        // Both counters come back from one MGET
+        UsageTrackingService.DailyUsage usage = usageTrackingService.getDailyUsage(currentUser.getId());
         
         // Calculate time until midnight UTC (when limits reset)
         LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
@@ -45,11 +45,11 @@ public class UsageController {
         String resetTimeFormatted = String.format("%02d:%02d", hoursUntilReset, minutesUntilReset);
 
         return ResponseEntity.ok(Map.of(
-            "gptRemaining", gptRemaining,
-            "enhancementRemaining", enhancementRemaining,
+            "gptRemaining", usage.getRemainingGpt(),
+            "enhancementRemaining", usage.getRemainingEnhancement(),
             "unlimited", false,
-            "canUseGpt", usageTrackingService.canUseGptService(currentUser.getId()),
-            "canUseEnhancement", usageTrackingService.canUseEnhancement(currentUser.getId()),
+            "canUseGpt", usage.canUseGpt(),
+            "canUseEnhancement", usage.canUseEnhancement(),
             "resetTimeUTC", nextMidnight.toString(),
             "hoursUntilReset", hoursUntilReset,
             "resetTimeFormatted", resetTimeFormatted
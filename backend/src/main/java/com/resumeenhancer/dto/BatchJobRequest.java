@@ -0,0 +1,30 @@
+package com.resumeenhancer.dto;
+
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class BatchJobRequest {
+    @NotEmpty
+    private List<Long> resumeIds;
+
+    private String jobDescription;
+
+    private String outputLanguage; // Target output language
+
+    private String callbackUrl; // Receives a POST with the job summary when it finishes
+
+    public BatchJobRequest() {}
+
+    // Getters and Setters
+    public List<Long> getResumeIds() { return resumeIds; }
+    public void setResumeIds(List<Long> resumeIds) { this.resumeIds = resumeIds; }
+
+    public String getJobDescription() { return jobDescription; }
+    public void setJobDescription(String jobDescription) { this.jobDescription = jobDescription; }
+
+    public String getOutputLanguage() { return outputLanguage; }
+    public void setOutputLanguage(String outputLanguage) { this.outputLanguage = outputLanguage; }
+
+    public String getCallbackUrl() { return callbackUrl; }
+    public void setCallbackUrl(String callbackUrl) { this.callbackUrl = callbackUrl; }
+}
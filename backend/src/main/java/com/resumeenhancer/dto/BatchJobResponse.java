@@ -0,0 +1,85 @@
+package com.resumeenhancer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchJobResponse {
+    private Long id;
+    private String status;
+    private int totalItems;
+    private long pending;
+    private long running;
+    private long done;
+    private long failed;
+    private long cancelled;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private List<Item> items; // omitted from listings and callbacks
+
+    public BatchJobResponse() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getTotalItems() { return totalItems; }
+    public void setTotalItems(int totalItems) { this.totalItems = totalItems; }
+
+    public long getPending() { return pending; }
+    public void setPending(long pending) { this.pending = pending; }
+
+    public long getRunning() { return running; }
+    public void setRunning(long running) { this.running = running; }
+
+    public long getDone() { return done; }
+    public void setDone(long done) { this.done = done; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getCancelled() { return cancelled; }
+    public void setCancelled(long cancelled) { this.cancelled = cancelled; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+
+    public static class Item {
+        private Long resumeId;
+        private String status;
+        private Long enhancedResumeId;
+        private String error;
+
+        public Item() {}
+
+        public Item(Long resumeId, String status, Long enhancedResumeId, String error) {
+            this.resumeId = resumeId;
+            this.status = status;
+            this.enhancedResumeId = enhancedResumeId;
+            this.error = error;
+        }
+
+        public Long getResumeId() { return resumeId; }
+        public void setResumeId(Long resumeId) { this.resumeId = resumeId; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public Long getEnhancedResumeId() { return enhancedResumeId; }
+        public void setEnhancedResumeId(Long enhancedResumeId) { this.enhancedResumeId = enhancedResumeId; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+}
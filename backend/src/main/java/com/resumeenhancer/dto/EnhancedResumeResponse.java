@@ -13,6 +13,7 @@ public class EnhancedResumeResponse {
     private List<String> suggestions;
     private String enhancementType;
     private LocalDateTime createdAt;
+    private boolean degraded; // true when GPT was unavailable and the local fallback was used
 
     public EnhancedResumeResponse() {}
 
@@ -49,4 +50,7 @@ public class EnhancedResumeResponse {
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public boolean isDegraded() { return degraded; }
+    public void setDegraded(boolean degraded) { this.degraded = degraded; }
 }
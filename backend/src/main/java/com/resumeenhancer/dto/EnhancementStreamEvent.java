@@ -0,0 +1,36 @@
+package com.resumeenhancer.dto;
+
+public class EnhancementStreamEvent {
+    public static final String TOKEN = "token";
+    public static final String DONE = "done";
+
+    private String type; // "token" or "done"
+    private String content;
+    private EnhancedResumeResponse result;
+
+    public EnhancementStreamEvent() {}
+
+    public EnhancementStreamEvent(String type, String content, EnhancedResumeResponse result) {
+        this.type = type;
+        this.content = content;
+        this.result = result;
+    }
+
+    public static EnhancementStreamEvent token(String content) {
+        return new EnhancementStreamEvent(TOKEN, content, null);
+    }
+
+    public static EnhancementStreamEvent done(EnhancedResumeResponse result) {
+        return new EnhancementStreamEvent(DONE, null, result);
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public EnhancedResumeResponse getResult() { return result; }
+    public void setResult(EnhancedResumeResponse result) { this.result = result; }
+}
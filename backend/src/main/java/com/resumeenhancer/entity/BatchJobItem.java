@@ -0,0 +1,84 @@
+package com.resumeenhancer.entity;
+
+import javax.persistence.*;
+
+import java.time.LocalDateTime;
+
+// One resume in a batch job; its status is the checkpoint a restarted worker resumes from
+@Entity
+@Table(name = "batch_job_items", indexes = {
+    @Index(name = "idx_batch_job_items_status", columnList = "status"),
+    @Index(name = "idx_batch_job_items_job", columnList = "batch_job_id")
+})
+public class BatchJobItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "batch_job_id", nullable = false)
+    private BatchJob batchJob;
+
+    @Column(name = "resume_id", nullable = false)
+    private Long resumeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "enhanced_resume_id")
+    private Long enhancedResumeId;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    // A RUNNING item whose lease has expired belonged to a worker that died and is picked up again
+    @Column(name = "leased_until")
+    private LocalDateTime leasedUntil;
+
+    // Worker id of the lease holder, so a restarted instance takes back only its own items
+    @Column(name = "leased_by", length = 100)
+    private String leasedBy;
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    public BatchJobItem() {}
+
+    public BatchJobItem(BatchJob batchJob, Long resumeId) {
+        this.batchJob = batchJob;
+        this.resumeId = resumeId;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public BatchJob getBatchJob() { return batchJob; }
+    public void setBatchJob(BatchJob batchJob) { this.batchJob = batchJob; }
+
+    public Long getResumeId() { return resumeId; }
+    public void setResumeId(Long resumeId) { this.resumeId = resumeId; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public Long getEnhancedResumeId() { return enhancedResumeId; }
+    public void setEnhancedResumeId(Long enhancedResumeId) { this.enhancedResumeId = enhancedResumeId; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getLeasedUntil() { return leasedUntil; }
+    public void setLeasedUntil(LocalDateTime leasedUntil) { this.leasedUntil = leasedUntil; }
+
+    public String getLeasedBy() { return leasedBy; }
+    public void setLeasedBy(String leasedBy) { this.leasedBy = leasedBy; }
+}
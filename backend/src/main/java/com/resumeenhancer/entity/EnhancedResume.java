@@ -32,6 +32,14 @@ public class EnhancedResume {
     @Column(name = "enhancement_type")
     private String enhancementType; // "rewrite", "translate", "suggest"
 
+    // Raw resume text this version was generated from, for incremental re-enhancement
+    @Column(name = "source_text", columnDefinition = "TEXT")
+    private String sourceText;
+
+    // Hash of model, prompt and job description; null for local/fallback output
+    @Column(name = "prompt_fingerprint", length = 64)
+    private String promptFingerprint;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -68,6 +76,12 @@ public class EnhancedResume {
     public String getEnhancementType() { return enhancementType; }
     public void setEnhancementType(String enhancementType) { this.enhancementType = enhancementType; }
 
+    public String getSourceText() { return sourceText; }
+    public void setSourceText(String sourceText) { this.sourceText = sourceText; }
+
+    public String getPromptFingerprint() { return promptFingerprint; }
+    public void setPromptFingerprint(String promptFingerprint) { this.promptFingerprint = promptFingerprint; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
@@ -0,0 +1,54 @@
+package com.resumeenhancer.repository;
+
+import com.resumeenhancer.entity.BatchJob;
+import com.resumeenhancer.entity.BatchJobItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BatchJobItemRepository extends JpaRepository<BatchJobItem, Long> {
+    List<BatchJobItem> findByBatchJobIdOrderByIdAsc(Long batchJobId);
+
+    // Items of cancelled or finished jobs are never handed out, whatever their own status. The job's
+    // owner is fetched too: the worker charges each item to that user's GPT quota.
+    @Query("select i from BatchJobItem i join fetch i.batchJob j join fetch j.user where i.status = :status and j.status in :jobStatuses order by i.id")
+    List<BatchJobItem> findWithJobByStatus(@Param("status") BatchJobItem.Status status,
+                                           @Param("jobStatuses") Collection<BatchJob.Status> jobStatuses, Pageable pageable);
+
+    @Query("select i.status, count(i) from BatchJobItem i where i.batchJob.id = :batchJobId group by i.status")
+    List<Object[]> countByStatus(@Param("batchJobId") Long batchJobId);
+
+    // Succeeds for exactly one worker, even with several application instances polling
+    @Transactional
+    @Modifying
+    @Query("update BatchJobItem i set i.status = :to, i.leasedUntil = :leasedUntil, i.leasedBy = :owner where i.id = :id and i.status = :from")
+    int claim(@Param("id") Long id, @Param("from") BatchJobItem.Status from, @Param("to") BatchJobItem.Status to,
+              @Param("leasedUntil") LocalDateTime leasedUntil, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("update BatchJobItem i set i.status = :to, i.leasedUntil = null, i.leasedBy = null where i.status = :from and i.leasedUntil < :now")
+    int requeueExpired(@Param("from") BatchJobItem.Status from, @Param("to") BatchJobItem.Status to,
+                       @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update BatchJobItem i set i.status = :to, i.leasedUntil = null, i.leasedBy = null where i.status = :from and i.leasedBy = :owner")
+    int requeueOwned(@Param("from") BatchJobItem.Status from, @Param("to") BatchJobItem.Status to,
+                     @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("update BatchJobItem i set i.status = :to where i.batchJob.id = :batchJobId and i.status = :from")
+    int updateStatus(@Param("batchJobId") Long batchJobId, @Param("from") BatchJobItem.Status from,
+                     @Param("to") BatchJobItem.Status to);
+}
@@ -0,0 +1,26 @@
+package com.resumeenhancer.repository;
+
+import com.resumeenhancer.entity.BatchJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BatchJobRepository extends JpaRepository<BatchJob, Long> {
+    List<BatchJob> findByUserIdOrderByCreatedAtDesc(Long userId);
+    Optional<BatchJob> findByIdAndUserId(Long id, Long userId);
+
+    // Conditional status changes; the row count tells the caller whether it won the transition
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update BatchJob j set j.status = :to, j.finishedAt = :finishedAt where j.id = :id and j.status = :from")
+    int transition(@Param("id") Long id, @Param("from") BatchJob.Status from, @Param("to") BatchJob.Status to,
+                   @Param("finishedAt") LocalDateTime finishedAt);
+}
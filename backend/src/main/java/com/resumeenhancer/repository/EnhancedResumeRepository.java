@@ -11,4 +11,6 @@ import java.util.Optional;
 public interface EnhancedResumeRepository extends JpaRepository<EnhancedResume, Long> {
     List<EnhancedResume> findByResumeIdOrderByCreatedAtDesc(Long resumeId);
     Optional<EnhancedResume> findByIdAndResumeUserId(Long id, Long userId);
+    Optional<EnhancedResume> findFirstByResumeIdAndEnhancementTypeAndPromptFingerprintOrderByCreatedAtDesc(
+            Long resumeId, String enhancementType, String promptFingerprint);
 }
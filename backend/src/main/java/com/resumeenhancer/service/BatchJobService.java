@@ -0,0 +1,147 @@
+package com.resumeenhancer.service;
+
+import com.resumeenhancer.dto.BatchJobRequest;
+import com.resumeenhancer.dto.BatchJobResponse;
+import com.resumeenhancer.entity.BatchJob;
+import com.resumeenhancer.entity.BatchJobItem;
+import com.resumeenhancer.entity.Resume;
+import com.resumeenhancer.entity.User;
+import com.resumeenhancer.repository.BatchJobItemRepository;
+import com.resumeenhancer.repository.BatchJobRepository;
+import com.resumeenhancer.repository.ResumeRepository;
+import com.resumeenhancer.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BatchJobService {
+
+    @Autowired
+    private BatchJobRepository batchJobRepository;
+
+    @Autowired
+    private BatchJobItemRepository batchJobItemRepository;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GptService gptService;
+
+    @Autowired
+    private CallbackUrlPolicy callbackUrlPolicy;
+
+    @Value("${app.batch.max-items:500}")
+    private int maxItems;
+
+    @Transactional
+    public BatchJobResponse submit(BatchJobRequest request, Long userId) {
+        if (!gptService.isServiceAvailable()) {
+            throw new RuntimeException("Batch enhancement requires the GPT service, which is not configured");
+        }
+        Set<Long> resumeIds = new LinkedHashSet<>(request.getResumeIds());
+        if (resumeIds.size() > maxItems) {
+            throw new RuntimeException("A batch job can contain at most " + maxItems + " resumes");
+        }
+        String callbackUrl = request.getCallbackUrl();
+        if (callbackUrl != null && !callbackUrl.isEmpty()) {
+            callbackUrlPolicy.validate(callbackUrl);
+        }
+
+        Map<Long, Resume> resumes = resumeRepository.findAllById(resumeIds).stream()
+                .filter(resume -> resume.getUser().getId().equals(userId))
+                .collect(Collectors.toMap(Resume::getId, resume -> resume));
+        for (Long resumeId : resumeIds) {
+            if (!resumes.containsKey(resumeId)) {
+                throw new RuntimeException("Resume not found: " + resumeId);
+            }
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        BatchJob job = new BatchJob();
+        job.setUser(user);
+        job.setJobDescription(request.getJobDescription());
+        job.setOutputLanguage(request.getOutputLanguage());
+        job.setCallbackUrl(callbackUrl != null && !callbackUrl.isEmpty() ? callbackUrl : null);
+        job.setTotalItems(resumeIds.size());
+        job = batchJobRepository.save(job);
+
+        List<BatchJobItem> items = new ArrayList<>();
+        for (Long resumeId : resumeIds) {
+            items.add(new BatchJobItem(job, resumeId));
+        }
+        batchJobItemRepository.saveAll(items);
+
+        System.out.println("Batch job " + job.getId() + " queued with " + items.size() + " resumes");
+        return toResponse(job, false);
+    }
+
+    public BatchJobResponse getJob(Long id, Long userId) {
+        BatchJob job = batchJobRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new RuntimeException("Batch job not found"));
+        return toResponse(job, true);
+    }
+
+    public List<BatchJobResponse> getJobs(Long userId) {
+        return batchJobRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(job -> toResponse(job, false))
+                .collect(Collectors.toList());
+    }
+
+    // Items already running finish and are recorded; everything still pending is dropped
+    @Transactional
+    public BatchJobResponse cancel(Long id, Long userId) {
+        BatchJob job = batchJobRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new RuntimeException("Batch job not found"));
+        LocalDateTime now = LocalDateTime.now();
+        if (batchJobRepository.transition(id, BatchJob.Status.QUEUED, BatchJob.Status.CANCELLED, now) == 0
+                && batchJobRepository.transition(id, BatchJob.Status.RUNNING, BatchJob.Status.CANCELLED, now) == 0) {
+            throw new RuntimeException("Batch job has already finished");
+        }
+        batchJobItemRepository.updateStatus(id, BatchJobItem.Status.PENDING, BatchJobItem.Status.CANCELLED);
+        return getJob(job.getId(), userId);
+    }
+
+    BatchJobResponse toResponse(BatchJob job, boolean withItems) {
+        BatchJobResponse response = new BatchJobResponse();
+        response.setId(job.getId());
+        response.setStatus(job.getStatus().name());
+        response.setTotalItems(job.getTotalItems());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setFinishedAt(job.getFinishedAt());
+
+        for (Object[] row : batchJobItemRepository.countByStatus(job.getId())) {
+            long count = ((Number) row[1]).longValue();
+            switch ((BatchJobItem.Status) row[0]) {
+                case PENDING: response.setPending(count); break;
+                case RUNNING: response.setRunning(count); break;
+                case DONE: response.setDone(count); break;
+                case FAILED: response.setFailed(count); break;
+                case CANCELLED: response.setCancelled(count); break;
+            }
+        }
+
+        if (withItems) {
+            response.setItems(batchJobItemRepository.findByBatchJobIdOrderByIdAsc(job.getId()).stream()
+                    .map(item -> new BatchJobResponse.Item(item.getResumeId(), item.getStatus().name(),
+                            item.getEnhancedResumeId(), item.getError()))
+                    .collect(Collectors.toList()));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,444 @@
+package com.resumeenhancer.service;
+
+import com.resumeenhancer.dto.BatchJobResponse;
+import com.resumeenhancer.entity.BatchJob;
+import com.resumeenhancer.entity.BatchJobItem;
+import com.resumeenhancer.entity.EnhancedResume;
+import com.resumeenhancer.repository.BatchJobItemRepository;
+import com.resumeenhancer.repository.BatchJobRepository;
+import com.resumeenhancer.repository.ResumeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Works through queued batch items. Items are claimed with a lease so a crashed worker's items
+// are picked up again, enhanced through GptService with parallelism capped by the bulkhead's free
+// slots minus a reserve for interactive requests, and each chunk's results are written in one
+// JDBC batch together with the item checkpoints.
+@Component
+public class BatchJobWorker {
+
+    private static final String INSERT_ENHANCED =
+            "insert into enhanced_resumes (resume_id, enhanced_text, language, enhancement_type, source_text, prompt_fingerprint, created_at) " +
+            "values (?, ?, ?, 'rewrite', ?, ?, ?)";
+    // Only the worker still holding the item's lease may settle it; a zero row count means the
+    // lease expired and the item was requeued or claimed by someone else
+    private static final String SETTLE_ITEM =
+            "update batch_job_items set status = ?, attempts = ?, error = ?, leased_until = null, leased_by = null " +
+            "where id = ? and status = 'RUNNING' and leased_until = ?";
+    private static final String LINK_ENHANCED = "update batch_job_items set enhanced_resume_id = ? where id = ?";
+    private static final String CANCELLED_JOBS = "select id from batch_jobs where status = 'CANCELLED' and id in (%s)";
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final List<BatchJob.Status> ACTIVE_JOBS = List.of(BatchJob.Status.QUEUED, BatchJob.Status.RUNNING);
+
+    @Autowired
+    private BatchJobRepository batchJobRepository;
+
+    @Autowired
+    private BatchJobItemRepository batchJobItemRepository;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private GptService gptService;
+
+    @Autowired
+    private BatchJobService batchJobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired(required = false)
+    private GptBulkhead bulkhead;
+
+    @Autowired(required = false)
+    private GptCircuitBreaker circuitBreaker;
+
+    @Autowired(required = false)
+    private UsageTrackingService usageTrackingService;
+
+    @Value("${app.batch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.batch.concurrency:4}")
+    private int concurrency;
+
+    // Bulkhead slots left free for interactive traffic
+    @Value("${app.batch.reserved-slots:2}")
+    private int reservedSlots;
+
+    @Value("${app.batch.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.batch.lease-seconds:300}")
+    private long leaseSeconds;
+
+    // Must stay the same across restarts of one instance and differ between instances; defaults to the host name
+    @Value("${app.batch.worker-id:}")
+    private String workerId;
+
+    private final CallbackUrlPolicy callbackUrlPolicy;
+    private final WebClient callbackClient;
+
+    // Boot's builder carries the application's Jackson settings, so callbacks match API responses.
+    // Redirects are not followed, and a connection whose peer the policy rejects is closed before
+    // the request is written, so DNS answers that change after validation cannot reach internal hosts.
+    public BatchJobWorker(WebClient.Builder webClientBuilder, CallbackUrlPolicy callbackUrlPolicy) {
+        this.callbackUrlPolicy = callbackUrlPolicy;
+        HttpClient httpClient = HttpClient.create()
+                .followRedirect(false)
+                .doOnConnected(connection -> {
+                    SocketAddress remote = connection.channel().remoteAddress();
+                    if (!(remote instanceof InetSocketAddress)
+                            || !callbackUrlPolicy.permitsConnection(((InetSocketAddress) remote).getAddress())) {
+                        connection.dispose();
+                        throw new IllegalStateException("Callback connection to " + remote + " refused");
+                    }
+                });
+        this.callbackClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @PostConstruct
+    void resolveWorkerId() {
+        if (workerId == null || workerId.isEmpty()) {
+            try {
+                workerId = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                workerId = UUID.randomUUID().toString();
+            }
+        }
+    }
+
+    // Only items this worker leased before it stopped; other instances' leases are live or expire
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedItems() {
+        if (enabled) {
+            int requeued = batchJobItemRepository.requeueOwned(BatchJobItem.Status.RUNNING, BatchJobItem.Status.PENDING, workerId);
+            if (requeued > 0) {
+                System.out.println("Batch worker " + workerId + " resuming " + requeued + " items interrupted by a restart");
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.batch.initial-delay-millis:5000}", fixedDelayString = "${app.batch.poll-millis:2000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Keep going while there is work and capacity, so a large job is not paced by the poll interval
+            int processed;
+            do {
+                processed = runOnce();
+            } while (processed > 0);
+        } catch (Exception e) {
+            System.err.println("Batch worker error: " + e.getMessage());
+        }
+    }
+
+    int runOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        int requeued = batchJobItemRepository.requeueExpired(BatchJobItem.Status.RUNNING, BatchJobItem.Status.PENDING, now);
+        if (requeued > 0) {
+            System.out.println("Batch worker requeued " + requeued + " items with expired leases");
+        }
+
+        int slots = availableSlots();
+        if (slots <= 0) {
+            return 0;
+        }
+
+        List<BatchJobItem> claimed = new ArrayList<>();
+        // Millisecond precision survives every database's timestamp type, so the checkpoint can match it exactly
+        LocalDateTime leasedUntil = now.plusSeconds(leaseSeconds).truncatedTo(ChronoUnit.MILLIS);
+        for (BatchJobItem item : batchJobItemRepository.findWithJobByStatus(BatchJobItem.Status.PENDING, ACTIVE_JOBS,
+                PageRequest.of(0, slots))) {
+            if (batchJobItemRepository.claim(item.getId(), BatchJobItem.Status.PENDING, BatchJobItem.Status.RUNNING,
+                    leasedUntil, workerId) == 1) {
+                claimed.add(item);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> jobIds = new LinkedHashSet<>();
+        for (BatchJobItem item : claimed) {
+            if (jobIds.add(item.getBatchJob().getId())) {
+                batchJobRepository.transition(item.getBatchJob().getId(), BatchJob.Status.QUEUED, BatchJob.Status.RUNNING, null);
+            }
+        }
+
+        List<Outcome> outcomes = Flux.fromIterable(claimed)
+                .flatMap(this::process, claimed.size())
+                .collectList()
+                .block();
+        checkpoint(outcomes, leasedUntil);
+
+        for (Long jobId : jobIds) {
+            finishIfDone(jobId);
+        }
+        // Back off until the next poll when GPT is rejecting work
+        for (Outcome outcome : outcomes) {
+            if (outcome.error != null && isCapacityRejection(outcome.error)) {
+                return 0;
+            }
+        }
+        return claimed.size();
+    }
+
+    private int availableSlots() {
+        if (circuitBreaker != null && circuitBreaker.getState() == GptCircuitBreaker.State.OPEN) {
+            return 0;
+        }
+        int slots = concurrency;
+        if (bulkhead != null) {
+            slots = Math.min(slots, bulkhead.headroom() - reservedSlots);
+        }
+        return slots;
+    }
+
+    private Mono<Outcome> process(BatchJobItem item) {
+        BatchJob job = item.getBatchJob();
+        return Mono.fromCallable(() -> resumeRepository.findById(item.getResumeId())
+                        .orElseThrow(() -> new IllegalStateException("Resume no longer exists")))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(resume -> {
+                    String rawText = resume.getRawText();
+                    if (rawText == null || rawText.trim().isEmpty()) {
+                        return Mono.error(new IllegalStateException("Resume text is not available"));
+                    }
+                    // Each item takes one unit of the owner's daily GPT quota, like an interactive enhancement
+                    Mono<String> enhancement = gptService.enhanceResumeAsync(rawText, job.getJobDescription(), job.getOutputLanguage());
+                    return (usageTrackingService != null ? usageTrackingService.withGptQuota(job.getUser().getId(), enhancement) : enhancement)
+                            .map(text -> Outcome.done(item, rawText, text,
+                                    gptService.enhancePromptFingerprint(job.getJobDescription(), job.getOutputLanguage())));
+                })
+                .onErrorResume(e -> Mono.just(Outcome.failed(item, e)));
+    }
+
+    // Results and item checkpoints commit together, so a crash never loses or duplicates a finished
+    // item. Items are settled first: the guarded update locks the rows this worker still leases, and
+    // only those get an enhanced resume, so an item whose lease ran out is never recorded twice.
+    private void checkpoint(List<Outcome> outcomes, LocalDateTime leasedUntil) {
+        int[] counts = transactionTemplate.execute(status -> {
+            Set<Long> cancelledJobs = cancelledJobs(outcomes);
+            List<Object[]> updates = new ArrayList<>();
+            for (Outcome outcome : outcomes) {
+                updates.add(itemUpdate(outcome, leasedUntil, cancelledJobs));
+            }
+            int[] settled = jdbcTemplate.batchUpdate(SETTLE_ITEM, updates);
+
+            List<Outcome> done = new ArrayList<>();
+            int lost = 0;
+            for (int i = 0; i < outcomes.size(); i++) {
+                if (settled[i] == 0) {
+                    lost++;
+                } else if (outcomes.get(i).error == null) {
+                    done.add(outcomes.get(i));
+                }
+            }
+            if (!done.isEmpty()) {
+                insertEnhanced(done);
+                List<Object[]> links = new ArrayList<>();
+                for (Outcome outcome : done) {
+                    links.add(new Object[] {outcome.enhancedResumeId, outcome.item.getId()});
+                }
+                jdbcTemplate.batchUpdate(LINK_ENHANCED, links);
+            }
+            return new int[] {done.size(), lost};
+        });
+
+        System.out.println("Batch worker checkpointed " + outcomes.size() + " items (" + counts[0] + " enhanced"
+                + (counts[1] > 0 ? ", " + counts[1] + " dropped after losing their lease" : "") + ")");
+    }
+
+    private Set<Long> cancelledJobs(List<Outcome> outcomes) {
+        Set<Long> jobIds = new LinkedHashSet<>();
+        for (Outcome outcome : outcomes) {
+            jobIds.add(outcome.item.getBatchJob().getId());
+        }
+        String placeholders = String.join(", ", Collections.nCopies(jobIds.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(String.format(CANCELLED_JOBS, placeholders), Long.class, jobIds.toArray()));
+    }
+
+    // One JDBC batch; generated ids link each item to its enhanced resume
+    private void insertEnhanced(List<Outcome> done) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ENHANCED, new String[] {"id"})) {
+                for (Outcome outcome : done) {
+                    statement.setLong(1, outcome.item.getResumeId());
+                    statement.setString(2, outcome.enhancedText);
+                    statement.setString(3, EnhancedResume.Language.ORIGINAL.name());
+                    statement.setString(4, outcome.sourceText);
+                    statement.setString(5, outcome.promptFingerprint);
+                    statement.setTimestamp(6, createdAt);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                int linked = 0;
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (linked < done.size() && keys.next()) {
+                        done.get(linked++).enhancedResumeId = keys.getLong(1);
+                    }
+                }
+                // Drivers need not return keys for batches; an unlinked item would end up DONE with no
+                // result, so the whole checkpoint rolls back and the items retry once their lease expires
+                if (linked != done.size()) {
+                    throw new IllegalStateException("Driver returned " + linked + " generated keys for "
+                            + done.size() + " enhanced resumes");
+                }
+            }
+            return null;
+        });
+    }
+
+    private Object[] itemUpdate(Outcome outcome, LocalDateTime leasedUntil, Set<Long> cancelledJobs) {
+        BatchJobItem item = outcome.item;
+        Timestamp lease = Timestamp.valueOf(leasedUntil);
+        if (outcome.error == null) {
+            return new Object[] {BatchJobItem.Status.DONE.name(), item.getAttempts() + 1, null, item.getId(), lease};
+        }
+
+        // Capacity and circuit rejections say nothing about the item, so they do not use up attempts.
+        // An exhausted quota fails the item at once: retrying would hold the queue head until midnight.
+        boolean rejected = isCapacityRejection(outcome.error);
+        boolean overQuota = isQuotaExhausted(outcome.error);
+        int attempts = rejected || overQuota ? item.getAttempts() : item.getAttempts() + 1;
+        boolean retry = !overQuota && (rejected || attempts < maxAttempts);
+        String message = String.valueOf(outcome.error.getMessage());
+        if (!retry) {
+            System.err.println("Batch item " + item.getId() + " failed after " + attempts + " attempts: " + message);
+        }
+        // A retry would never be claimed once the job is cancelled
+        BatchJobItem.Status next = !retry ? BatchJobItem.Status.FAILED
+                : cancelledJobs.contains(item.getBatchJob().getId()) ? BatchJobItem.Status.CANCELLED
+                : BatchJobItem.Status.PENDING;
+        return new Object[] {next.name(), attempts,
+                message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message, item.getId(), lease};
+    }
+
+    private boolean isCapacityRejection(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof GptUnavailableException || e instanceof GptOverloadedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isQuotaExhausted(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof GptQuotaExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void finishIfDone(Long jobId) {
+        BatchJob job = batchJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        BatchJobResponse summary = batchJobService.toResponse(job, false);
+        if (summary.getPending() > 0 || summary.getRunning() > 0) {
+            return;
+        }
+        if (batchJobRepository.transition(jobId, BatchJob.Status.RUNNING, BatchJob.Status.COMPLETED, LocalDateTime.now()) == 1) {
+            System.out.println("Batch job " + jobId + " completed: " + summary.getDone() + " enhanced, " + summary.getFailed() + " failed");
+            summary.setStatus(BatchJob.Status.COMPLETED.name());
+            notifyCallback(job.getCallbackUrl(), summary);
+        }
+    }
+
+    private void notifyCallback(String callbackUrl, BatchJobResponse summary) {
+        if (callbackUrl == null) {
+            return;
+        }
+        URI uri;
+        try {
+            uri = callbackUrlPolicy.validate(callbackUrl);
+        } catch (RuntimeException e) {
+            System.err.println("Batch job " + summary.getId() + " callback not sent: " + e.getMessage());
+            return;
+        }
+        callbackClient.post()
+                .uri(uri)
+                .bodyValue(summary)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofSeconds(10))
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2)))
+                .subscribe(
+                        response -> System.out.println("Batch job " + summary.getId() + " callback delivered"),
+                        e -> System.err.println("Batch job " + summary.getId() + " callback failed: " + e.getMessage()));
+    }
+
+    private static class Outcome {
+        final BatchJobItem item;
+        final String sourceText;
+        final String enhancedText;
+        final String promptFingerprint;
+        final Throwable error;
+        Long enhancedResumeId;
+
+        private Outcome(BatchJobItem item, String sourceText, String enhancedText, String promptFingerprint, Throwable error) {
+            this.item = item;
+            this.sourceText = sourceText;
+            this.enhancedText = enhancedText;
+            this.promptFingerprint = promptFingerprint;
+            this.error = error;
+        }
+
+        static Outcome done(BatchJobItem item, String sourceText, String enhancedText, String promptFingerprint) {
+            return new Outcome(item, sourceText, enhancedText, promptFingerprint, null);
+        }
+
+        static Outcome failed(BatchJobItem item, Throwable error) {
+            return new Outcome(item, null, null, null, error);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.resumeenhancer.service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Folds away differences that do not change what GPT would produce before cache keys are derived.
+// Job descriptions lose casing, whitespace, bullet and quote glyphs and the chrome job boards wrap
+// around a posting; resumes keep their formatting. Only the key is canonicalized; prompts keep the
+// user's text as entered.
+final class CacheKeyCanonicalizer {
+
+    // Whole lines that job boards add around a pasted posting (LinkedIn, Indeed, Glassdoor,
+    // Greenhouse, Lever, Workday)
+    private static final Pattern BOARD_BOILERPLATE_LINE = Pattern.compile(
+            "^(about the job|about this job|job description|full job description|job details|show more|show less"
+                    + "|see more|see less|read more|easy apply|apply|apply now|apply on company site|save|saved"
+                    + "|save job|share|report this job|report job|report|promoted|actively recruiting"
+                    + "|be an early applicant|over \\d+ applicants|\\d+ applicants|posted \\d+\\+? \\w+ ago"
+                    + "|reposted \\d+\\+? \\w+ ago|\\d+\\+? \\w+ ago|employer active \\d+ days? ago"
+                    + "|hiring ongoing|urgently hiring|responded to \\d+% or more applications.*"
+                    + "|you must create an indeed account.*|powered by (greenhouse|lever|workday)"
+                    + "|back to jobs|view all jobs|apply for this job|submit application"
+                    + "|\\d+(\\.\\d)? out of 5 stars|\\d(\\.\\d)? ★)$");
+
+    private static final Pattern BULLET_PREFIX = Pattern.compile("(?m)^[ \\t]*[\\u2022\\u2023\\u2043\\u2219\\u25AA\\u25AB\\u25CF\\u25CB\\u25E6\\u25A0\\u25A1\\u2013\\u2014\\u00B7*+>\\-][ \\t]*");
+    private static final Pattern NUMBERED_PREFIX = Pattern.compile("(?m)^[ \\t]*\\(?(\\d{1,2}|[a-z])[.)][ \\t]+");
+    private static final Pattern HORIZONTAL_SPACE = Pattern.compile("[ \\t\\u00A0\\u2000-\\u200B\\u202F\\u205F\\u3000]+");
+    private static final Pattern TRAILING_SPACE = Pattern.compile("(?m)[ \\t]+$");
+    private static final Pattern TRAILING_NEWLINES = Pattern.compile("\\n+$");
+    private static final Pattern ANY_SPACE = Pattern.compile("\\s+");
+    private static final Pattern REPEATED_PUNCTUATION = Pattern.compile("([!?.,;:\\-])\\1+");
+    private static final Pattern SPACE_BEFORE_PUNCTUATION = Pattern.compile(" ([!?.,;:])");
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private CacheKeyCanonicalizer() {
+    }
+
+    // Resume text ends up in the output and its Markdown must survive translation, so only line
+    // endings, the Unicode form and trailing whitespace are normalized
+    static String canonicalResume(String text) {
+        if (text == null) {
+            return null;
+        }
+        String result = Normalizer.normalize(text, Normalizer.Form.NFC).replace("\r\n", "\n").replace('\r', '\n');
+        result = TRAILING_SPACE.matcher(result).replaceAll("");
+        return TRAILING_NEWLINES.matcher(result).replaceAll("");
+    }
+
+    // Job descriptions only steer the prompt, so everything but the words and their order is folded
+    static String canonicalJobDescription(String text) {
+        if (text == null) {
+            return null;
+        }
+        String result = Normalizer.normalize(text, Normalizer.Form.NFKC).replace("\r\n", "\n").replace('\r', '\n');
+        result = foldPunctuationGlyphs(result).toLowerCase(Locale.ROOT);
+        result = BULLET_PREFIX.matcher(result).replaceAll("");
+        result = NUMBERED_PREFIX.matcher(result).replaceAll("");
+
+        StringBuilder kept = new StringBuilder(result.length());
+        for (String line : result.split("\n")) {
+            String trimmed = HORIZONTAL_SPACE.matcher(line).replaceAll(" ").trim();
+            if (!trimmed.isEmpty() && !BOARD_BOILERPLATE_LINE.matcher(trimmed).matches()) {
+                kept.append(trimmed).append('\n');
+            }
+        }
+
+        result = ANY_SPACE.matcher(kept).replaceAll(" ");
+        result = REPEATED_PUNCTUATION.matcher(result).replaceAll("$1");
+        result = SPACE_BEFORE_PUNCTUATION.matcher(result).replaceAll("$1");
+        return result.trim();
+    }
+
+    private static String foldPunctuationGlyphs(String text) {
+        StringBuilder folded = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char replacement;
+            switch (c) {
+                case '‘': case '’': case '‚': case '‛': case '′': case '`':
+                    replacement = '\''; break;
+                case '“': case '”': case '„': case '‟': case '″':
+                    replacement = '"'; break;
+                case '‐': case '‑': case '‒': case '−':
+                    replacement = '-'; break;
+                case '…':
+                    replacement = '.'; break;
+                default:
+                    replacement = c;
+            }
+            if (replacement != c && folded == null) {
+                folded = new StringBuilder(text.length()).append(text, 0, i);
+            }
+            if (folded != null) {
+                folded.append(replacement);
+            }
+        }
+        return folded != null ? folded.toString() : text;
+    }
+
+    // 64-bit SimHash over word shingles: postings that share most of their phrasing land a few
+    // bits apart, so similarity is 1 - hammingDistance / 64
+    static long simHash(String canonicalText) {
+        String[] words = canonicalText.split(" ");
+        int[] weights = new int[64];
+        int shingle = Math.min(3, words.length);
+        for (int i = 0; i + shingle <= words.length; i++) {
+            long hash = FNV_OFFSET;
+            for (int j = i; j < i + shingle; j++) {
+                hash = fnv1a(hash, words[j]);
+                hash = (hash ^ ' ') * FNV_PRIME;
+            }
+            hash = mix(hash);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+            }
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    static double similarity(long a, long b) {
+        return 1.0 - Long.bitCount(a ^ b) / 64.0;
+    }
+
+    private static long fnv1a(long hash, String word) {
+        for (byte b : word.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 finalizer; FNV alone leaves the low bits poorly mixed
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,153 @@
+package com.resumeenhancer.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-namespace (gpt, enhancement, translation, ...) counters for CacheService: hits by tier,
+// stale hits, misses, swallowed errors, get/set latency, value sizes and the completion tokens
+// a hit avoided generating. Hit counts per key are kept in a bounded Caffeine cache, whose
+// frequency-based admission keeps the hottest keys resident, for the admin hot-keys listing.
+class CacheMetrics {
+
+    static final int HOT_KEY_CAPACITY = 10_000;
+
+    private final Map<String, Namespace> namespaces = new ConcurrentHashMap<>();
+    private final Cache<String, LongAdder> keyHits = Caffeine.newBuilder()
+            .maximumSize(HOT_KEY_CAPACITY)
+            .build();
+
+    void hit(String cacheKey, String value, boolean local, long nanos) {
+        Namespace namespace = namespace(cacheKey);
+        (local ? namespace.l1Hits : namespace.l2Hits).increment();
+        namespace.gets.record(nanos);
+        namespace.tokensSaved.add(TokenEstimator.estimate(value));
+        keyHits.get(cacheKey, key -> new LongAdder()).increment();
+    }
+
+    void staleHit(String cacheKey) {
+        namespace(cacheKey).staleHits.increment();
+    }
+
+    void miss(String cacheKey, long nanos) {
+        Namespace namespace = namespace(cacheKey);
+        namespace.misses.increment();
+        namespace.gets.record(nanos);
+    }
+
+    void error(String cacheKey) {
+        namespace(cacheKey).errors.increment();
+    }
+
+    // storedBytes is the encoded size in Redis, or -1 when the value only went to the L1
+    void set(String cacheKey, String value, int storedBytes, long nanos) {
+        Namespace namespace = namespace(cacheKey);
+        namespace.sets.record(nanos);
+        namespace.valueChars.add(value.length());
+        namespace.maxValueChars.accumulate(value.length());
+        if (storedBytes >= 0) {
+            namespace.storedBytes.add(storedBytes);
+            namespace.storedValues.increment();
+        }
+    }
+
+    List<String> namespaceNames() {
+        return new ArrayList<>(new TreeMap<>(namespaces).keySet());
+    }
+
+    // Most-hit keys first
+    List<Map<String, Object>> hotKeys(int limit) {
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        keyHits.asMap().forEach((key, hits) -> counts.add(Map.entry(key, hits.sum())));
+        counts.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        List<Map<String, Object>> hotKeys = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : counts.subList(0, Math.min(limit, counts.size()))) {
+            Map<String, Object> hotKey = new LinkedHashMap<>();
+            hotKey.put("key", entry.getKey());
+            hotKey.put("namespace", LocalCache.namespaceOf(entry.getKey()));
+            hotKey.put("hits", entry.getValue());
+            hotKeys.add(hotKey);
+        }
+        return hotKeys;
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        new TreeMap<>(namespaces).forEach((name, namespace) -> stats.put(name, namespace.getStats()));
+        return stats;
+    }
+
+    private Namespace namespace(String cacheKey) {
+        return namespaces.computeIfAbsent(LocalCache.namespaceOf(cacheKey), name -> new Namespace());
+    }
+
+    private static class Namespace {
+        final LongAdder l1Hits = new LongAdder();
+        final LongAdder l2Hits = new LongAdder();
+        final LongAdder staleHits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder tokensSaved = new LongAdder();
+        final LongAdder valueChars = new LongAdder();
+        final LongAccumulator maxValueChars = new LongAccumulator(Math::max, 0);
+        final LongAdder storedBytes = new LongAdder();
+        final LongAdder storedValues = new LongAdder();
+        final Timer gets = new Timer();
+        final Timer sets = new Timer();
+
+        Map<String, Object> getStats() {
+            long hits = l1Hits.sum() + l2Hits.sum();
+            long lookups = hits + misses.sum();
+            long writes = sets.count.sum();
+            long stored = storedValues.sum();
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("hits", hits);
+            stats.put("l1Hits", l1Hits.sum());
+            stats.put("l2Hits", l2Hits.sum());
+            stats.put("staleHits", staleHits.sum());
+            stats.put("misses", misses.sum());
+            stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+            stats.put("errors", errors.sum());
+            stats.put("get", gets.getStats());
+            stats.put("set", sets.getStats());
+            stats.put("avgValueChars", writes == 0 ? 0 : valueChars.sum() / writes);
+            stats.put("maxValueChars", maxValueChars.get());
+            stats.put("avgStoredBytes", stored == 0 ? 0 : storedBytes.sum() / stored);
+            // Estimated from the cached completions; the prompt tokens a hit saves come on top
+            stats.put("estimatedTokensSaved", tokensSaved.sum());
+            return stats;
+        }
+    }
+
+    private static class Timer {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        Map<String, Object> getStats() {
+            long n = count.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", n);
+            stats.put("avgMicros", n == 0 ? 0.0 : totalNanos.sum() / 1000.0 / n);
+            stats.put("maxMicros", TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+            return stats;
+        }
+    }
+}
@@ -1,142 +1,824 @@
 package com.resumeenhancer.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.resumeenhancer.config.CacheProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+// Two-tier cache: a bounded in-process L1 in front of Redis (L2). Hot entries are served from
+// the heap without a network round-trip; clearCache tells the other instances to drop their L1
+// copies over Redis pub/sub. With Redis disabled the L1 is the only tier. An optional third tier
+// reuses enhancements cached for near-identical job descriptions (see NearDuplicateIndex).
+// Every write is also recorded in per-user, per-resume and per-namespace tag sets (see CacheTags),
+// so invalidating a resume deletes exactly its entries instead of scanning the keyspace.
+// Without Redis, a memory-mapped DiskCache under the storage directory takes its place as the
+// L2, so single-node installs keep their GPT results across restarts.
+// Entries of revalidated namespaces go stale at a soft TTL before they expire; callers keep
+// serving them while one background refresh (tryBeginRefresh) replaces them.
 @Service
 public class CacheService {
 
+    static final String INVALIDATION_CHANNEL = "resume_enhancer:cache:invalidate";
+    static final String TAG_PREFIX = "resume_enhancer:tag:";
+    static final String REFRESH_LOCK_PREFIX = "resume_enhancer:refresh:";
+
+    private static final String KEY_PREFIX = "resume_enhancer:";
+    private static final int INVALIDATION_BATCH = 500;
+
     @Autowired(required = false)
     private RedisTemplate<String, String> redisTemplate;
 
+    // Cache values; redisTemplate still handles keys, pub/sub and the near-duplicate index
+    @Autowired(required = false)
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+
     @Value("${app.cache.enable-redis:false}")
     private boolean enableRedisCache;
 
     @Value("${app.cache.gpt-cache-hours:24}")
     private int gptCacheHours;
 
+    @Value("${app.storage.local-path:./uploads}")
+    private String storagePath;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public String getCachedGptResponse(String input, String mode) {
-        if (!enableRedisCache) {
-            return null;
-        }
+    private final LocalCache localCache;
+    private final Cache<String, Set<String>> localTagIndex; // without Redis
+    private final CacheProperties.Disk diskProperties;
+    private DiskCache diskCache; // without Redis
+    private final CacheValueCodec codec;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final boolean nearDuplicateEnabled;
+    private final double similarityThreshold;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final boolean staleWhileRevalidate;
+    private final Set<String> revalidatedNamespaces;
+    private final double softTtlRatio;
+    private final double softTtlJitter;
+    private final Duration refreshLockTtl;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    // Bumped on every invalidation so an L2 read racing a clear does not repopulate the L1
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong l1Hits = new AtomicLong();
+    private final AtomicLong l2Hits = new AtomicLong();
+    private final AtomicLong nearDuplicateLookups = new AtomicLong();
+    private final AtomicLong nearDuplicateHits = new AtomicLong();
+    private final AtomicLong invalidationsPublished = new AtomicLong();
+    private final AtomicLong invalidationsReceived = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong refreshesStarted = new AtomicLong();
+    private final AtomicLong refreshesSkipped = new AtomicLong();
+    private final AtomicLong refreshesFailed = new AtomicLong();
+    private final CacheMetrics metrics = new CacheMetrics();
 
+    public CacheService(CacheProperties properties) {
+        CacheProperties.L1 l1 = properties.getL1();
+        this.localCache = l1.isEnabled()
+                ? new LocalCache(l1.getMaxSizeMb() * 1024 * 1024, l1.getDefaultTtl(), l1.getTtl())
+                : null;
+        Duration longestTtl = l1.getTtl().values().stream().reduce(l1.getDefaultTtl(), (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        this.localTagIndex = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(longestTtl)
+                .build();
+
+        CacheProperties.Compression compression = properties.getCompression();
+        this.codec = new CacheValueCodec(compression.isEnabled(), compression.getMinBytes(), compression.getLevel());
+
+        CacheProperties.NearDuplicate nearDuplicate = properties.getNearDuplicate();
+        this.nearDuplicateEnabled = nearDuplicate.isEnabled();
+        this.similarityThreshold = nearDuplicate.getSimilarityThreshold();
+        this.nearDuplicateIndex = new NearDuplicateIndex(nearDuplicate.getMaxFamilies(),
+                l1.getTtl().getOrDefault("gpt", l1.getDefaultTtl()));
+
+        CacheProperties.StaleWhileRevalidate swr = properties.getStaleWhileRevalidate();
+        this.staleWhileRevalidate = swr.isEnabled();
+        this.revalidatedNamespaces = Set.copyOf(swr.getNamespaces());
+        this.softTtlRatio = swr.getSoftTtlRatio();
+        this.softTtlJitter = swr.getJitter();
+        this.refreshLockTtl = swr.getRefreshLockTtl();
+        this.diskProperties = properties.getDisk();
+    }
+
+    // Failing to open the disk tier only costs persistence; the L1 keeps working
+    @PostConstruct
+    void openDiskCache() {
+        if (enableRedisCache || !diskProperties.isEnabled()) {
+            return;
+        }
+        Path directory = diskProperties.getPath().isEmpty()
+                ? Paths.get(storagePath, "cache")
+                : Paths.get(diskProperties.getPath());
+        long maxBytes = diskProperties.getMaxSizeMb() * 1024 * 1024;
+        // Compaction keeps the active segment next to the compacted ones within the bound
+        int segmentBytes = (int) Math.min(diskProperties.getSegmentSizeMb() * 1024L * 1024, maxBytes / 4);
         try {
-            String cacheKey = generateCacheKey("gpt", input, mode);
-            return redisTemplate.opsForValue().get(cacheKey);
+            diskCache = new DiskCache(directory, maxBytes, segmentBytes);
+            System.out.println("Disk cache opened in " + directory + ": " + diskCache.getStats().get("entries") + " entries");
         } catch (Exception e) {
-            return null; // Fail silently for cache misses
+            System.err.println("Failed to open disk cache: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void closeDiskCache() {
+        if (diskCache != null) {
+            diskCache.close();
+        }
+    }
+
+    private boolean hasL2() {
+        return enableRedisCache || diskCache != null;
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        if (!enableRedisCache || listenerContainer == null || localCache == null) {
+            return;
         }
+        listenerContainer.addMessageListener(
+                (Message message, byte[] pattern) -> onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public String getCachedGptResponse(String input, String mode) {
+        return get(gptKey(input, mode));
     }
 
     public void cacheGptResponse(String input, String mode, String response) {
-        if (!enableRedisCache || response == null) {
+        put(gptKey(input, mode), response);
+    }
+
+    public String getCachedEnhancement(Long resumeId, String jobDescription, String mode) {
+        return get(enhancementKey(resumeId, jobDescription, mode));
+    }
+
+    public void cacheEnhancement(Long resumeId, String jobDescription, String mode, String response) {
+        put(enhancementKey(resumeId, jobDescription, mode), response);
+    }
+
+    public String getCachedTranslation(String text, String targetLang, String mode) {
+        return get(translationKey(text, targetLang, mode));
+    }
+
+    public void cacheTranslation(String text, String targetLang, String mode, String response) {
+        put(translationKey(text, targetLang, mode), response);
+    }
+
+    // Prefer invalidateTag: a namespace prefix is served from its tag set, any other prefix needs
+    // an incremental SCAN over the whole keyspace
+    public void clearCache(String pattern) {
+        invalidateLocal(pattern);
+
+        if (!enableRedisCache) {
+            if (diskCache != null) {
+                diskCache.deletePrefix(pattern);
+            }
             return;
         }
 
         try {
-            String cacheKey = generateCacheKey("gpt", input, mode);
-            redisTemplate.opsForValue().set(cacheKey, response, Duration.ofHours(gptCacheHours));
+            String namespace = pattern.startsWith(KEY_PREFIX) && pattern.endsWith(":")
+                    ? pattern.substring(KEY_PREFIX.length(), pattern.length() - 1) : null;
+            if (namespace != null && !namespace.isEmpty() && namespace.indexOf(':') < 0) {
+                deleteTagged(CacheTags.namespace(namespace), false);
+            } else {
+                scanDelete(pattern);
+            }
+            publishInvalidation("prefix", pattern);
         } catch (Exception e) {
             // Fail silently for cache errors
         }
     }
 
-    public String getCachedEnhancement(Long resumeId, String jobDescription, String mode) {
+    public int invalidateResume(Long resumeId) {
+        return invalidateTag(CacheTags.resume(resumeId));
+    }
+
+    public int invalidateUser(Long userId) {
+        return invalidateTag(CacheTags.user(userId));
+    }
+
+    // Deletes every entry written under the tag; cost is proportional to those entries, not to
+    // the keyspace. Returns the number of keys removed.
+    public int invalidateTag(String tag) {
+        invalidationEpoch.incrementAndGet();
         if (!enableRedisCache) {
-            return null;
+            Set<String> keys = localTagIndex.asMap().remove(tag);
+            if (keys == null) {
+                return 0;
+            }
+            // Members already dropped through another tag or by expiry are not counted
+            int removed = 0;
+            for (String key : keys) {
+                boolean local = localCache != null && localCache.invalidate(key);
+                boolean disk = diskCache != null && diskCache.delete(key);
+                if (local || disk) {
+                    removed++;
+                }
+            }
+            return removed;
         }
 
         try {
-            String input = resumeId + "|" + (jobDescription != null ? jobDescription : "");
-            String cacheKey = generateCacheKey("enhancement", input, mode);
-            return redisTemplate.opsForValue().get(cacheKey);
+            return deleteTagged(tag, true);
         } catch (Exception e) {
+            return 0; // Fail silently for cache errors
+        }
+    }
+
+    private int deleteTagged(String tag, boolean publish) {
+        String tagKey = TAG_PREFIX + tag;
+        int removed = 0;
+        List<String> batch = new ArrayList<>(INVALIDATION_BATCH);
+        try (Cursor<String> members = redisTemplate.opsForSet().scan(tagKey,
+                ScanOptions.scanOptions().count(INVALIDATION_BATCH).build())) {
+            while (members.hasNext()) {
+                batch.add(members.next());
+                if (batch.size() == INVALIDATION_BATCH) {
+                    removed += deleteKeys(batch, publish);
+                    batch.clear();
+                }
+            }
+        }
+        removed += deleteKeys(batch, publish);
+        redisTemplate.delete(tagKey);
+        return removed;
+    }
+
+    private void scanDelete(String pattern) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern + "*").count(INVALIDATION_BATCH).build();
+        List<String> batch = new ArrayList<>(INVALIDATION_BATCH);
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            try (Cursor<byte[]> keys = connection.scan(options)) {
+                while (keys.hasNext()) {
+                    batch.add(new String(keys.next(), StandardCharsets.UTF_8));
+                    if (batch.size() == INVALIDATION_BATCH) {
+                        deleteKeys(batch, false);
+                        batch.clear();
+                    }
+                }
+            }
             return null;
+        });
+        deleteKeys(batch, false);
+    }
+
+    private int deleteKeys(List<String> keys, boolean publish) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        redisTemplate.unlink(keys);
+        if (localCache != null) {
+            keys.forEach(localCache::invalidate);
         }
+        if (publish) {
+            publishInvalidation("keys", String.join(" ", keys));
+        }
+        return keys.size();
     }
 
-    public void cacheEnhancement(Long resumeId, String jobDescription, String mode, String response) {
-        if (!enableRedisCache || response == null) {
+    private void publishInvalidation(String kind, String payload) {
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + kind + "|" + payload);
+        invalidationsPublished.incrementAndGet();
+    }
+
+    // Message format: <sending node id>|prefix|<key prefix> or <sending node id>|keys|<key> <key> ...
+    void onInvalidation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length < 2 || parts[0].equals(nodeId)) {
             return;
         }
+        invalidationsReceived.incrementAndGet();
 
-        try {
-            String input = resumeId + "|" + (jobDescription != null ? jobDescription : "");
-            String cacheKey = generateCacheKey("enhancement", input, mode);
-            redisTemplate.opsForValue().set(cacheKey, response, Duration.ofHours(gptCacheHours));
-        } catch (Exception e) {
-            // Fail silently for cache errors
+        if (parts.length == 3 && "keys".equals(parts[1])) {
+            invalidationEpoch.incrementAndGet();
+            if (localCache != null) {
+                Arrays.stream(parts[2].split(" ")).forEach(localCache::invalidate);
+            }
+        } else {
+            // Senders before the kind field was added sent <node id>|<key prefix>
+            invalidateLocal(parts.length == 3 ? parts[2] : parts[1]);
         }
     }
 
-    public String getCachedTranslation(String text, String targetLang, String mode) {
-        if (!enableRedisCache) {
+    private void invalidateLocal(String pattern) {
+        invalidationEpoch.incrementAndGet();
+        if (localCache != null) {
+            localCache.invalidatePrefix(pattern);
+        }
+    }
+
+    String getLocal(String cacheKey) {
+        CachedValue cached = getLocalEntry(cacheKey);
+        return cached != null ? cached.value : null;
+    }
+
+    String get(String cacheKey) {
+        CachedValue cached = getEntry(cacheKey);
+        return cached != null ? cached.value : null;
+    }
+
+    // L1 only; never blocks, so callers can try it on any thread before hopping to getEntry().
+    // Misses are not counted here because the caller follows up with getEntry()
+    CachedValue getLocalEntry(String cacheKey) {
+        long start = System.nanoTime();
+        LocalCache.Entry entry = localCache != null ? localCache.getEntry(cacheKey) : null;
+        if (entry == null) {
+            return null;
+        }
+        lookups.incrementAndGet();
+        l1Hits.incrementAndGet();
+        CachedValue cached = new CachedValue(entry.value, localCache.isStale(entry));
+        recordHit(cacheKey, cached, true, start);
+        return cached;
+    }
+
+    CachedValue getEntry(String cacheKey) {
+        long start = System.nanoTime();
+        lookups.incrementAndGet();
+        LocalCache.Entry entry = localCache != null ? localCache.getEntry(cacheKey) : null;
+        if (entry != null) {
+            l1Hits.incrementAndGet();
+            CachedValue cached = new CachedValue(entry.value, localCache.isStale(entry));
+            recordHit(cacheKey, cached, true, start);
+            return cached;
+        }
+        CachedValue cached = getRemote(cacheKey);
+        if (cached != null) {
+            l2Hits.incrementAndGet();
+            recordHit(cacheKey, cached, false, start);
+        } else {
+            metrics.miss(cacheKey, System.nanoTime() - start);
+        }
+        return cached;
+    }
+
+    private void recordHit(String cacheKey, CachedValue cached, boolean local, long startNanos) {
+        metrics.hit(cacheKey, cached.value, local, System.nanoTime() - startNanos);
+        if (cached.stale) {
+            staleHits.incrementAndGet();
+            metrics.staleHit(cacheKey);
+        }
+    }
+
+    // L2 read; hits are promoted into the L1 unless an invalidation raced the read. For
+    // revalidated namespaces the entry's age is read in the same round-trip: its hard TTL minus
+    // what is left of it
+    private CachedValue getRemote(String cacheKey) {
+        if (!hasL2()) {
             return null;
         }
 
+        long epoch = invalidationEpoch.get();
+        long hardTtlNanos = TimeUnit.HOURS.toNanos(gptCacheHours);
+        long softTtlNanos = softTtlNanos(cacheKey, hardTtlNanos);
+        long remainingNanos = -1;
+        String value;
         try {
-            String input = text + "|" + targetLang;
-            String cacheKey = generateCacheKey("translation", input, mode);
-            return redisTemplate.opsForValue().get(cacheKey);
+            byte[] stored;
+            if (!enableRedisCache) {
+                DiskCache.Stored entry = diskCache.get(cacheKey);
+                stored = entry != null ? entry.value : null;
+                if (entry != null) {
+                    remainingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAtMillis - System.currentTimeMillis()));
+                }
+            } else if (softTtlNanos < 0) {
+                stored = binaryRedisTemplate.opsForValue().get(cacheKey);
+            } else {
+                byte[] rawKey = cacheKey.getBytes(StandardCharsets.UTF_8);
+                List<Object> replies = binaryRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    connection.stringCommands().get(rawKey);
+                    connection.keyCommands().pTtl(rawKey);
+                    return null;
+                });
+                stored = (byte[]) replies.get(0);
+                if (replies.get(1) instanceof Long && (Long) replies.get(1) >= 0) {
+                    remainingNanos = TimeUnit.MILLISECONDS.toNanos((Long) replies.get(1));
+                }
+            }
+            value = stored != null ? codec.decode(stored) : null;
         } catch (Exception e) {
+            metrics.error(cacheKey);
+            return null; // Fail silently for cache misses
+        }
+        if (value == null) {
             return null;
         }
+
+        // Entries without a TTL were not written by this service and never go stale
+        long staleInNanos = softTtlNanos >= 0 && remainingNanos >= 0
+                ? Math.max(0, remainingNanos - (hardTtlNanos - softTtlNanos))
+                : -1;
+        if (localCache != null && invalidationEpoch.get() == epoch) {
+            localCache.put(cacheKey, value, remainingNanos >= 0 ? remainingNanos : Long.MAX_VALUE, staleInNanos);
+        }
+        return new CachedValue(value, staleInNanos == 0);
     }
 
-    public void cacheTranslation(String text, String targetLang, String mode, String response) {
-        if (!enableRedisCache || response == null) {
+    // Soft TTL for a key with the given hard TTL, or -1 when its namespace is not revalidated.
+    // The jitter is derived from the key, so every node agrees on when an entry goes stale
+    long softTtlNanos(String cacheKey, long hardTtlNanos) {
+        if (!staleWhileRevalidate || !revalidatedNamespaces.contains(LocalCache.namespaceOf(cacheKey))) {
+            return -1;
+        }
+        double spread = (cacheKey.hashCode() & 0x7fffffff) / (double) Integer.MAX_VALUE;
+        return (long) (hardTtlNanos * softTtlRatio * (1 - softTtlJitter * spread));
+    }
+
+    // At most one background refresh per key: per node through the in-flight set, across nodes
+    // through a lock that is left to expire, so a failing refresh is retried at most once per
+    // lock TTL. Callers that get false keep serving the stale value.
+    boolean tryBeginRefresh(String cacheKey) {
+        if (!refreshing.add(cacheKey)) {
+            refreshesSkipped.incrementAndGet();
+            return false;
+        }
+        if (enableRedisCache) {
+            try {
+                Boolean acquired = redisTemplate.opsForValue().setIfAbsent(
+                        REFRESH_LOCK_PREFIX + cacheKey.substring(KEY_PREFIX.length()), nodeId, refreshLockTtl);
+                if (!Boolean.TRUE.equals(acquired)) {
+                    refreshing.remove(cacheKey);
+                    refreshesSkipped.incrementAndGet();
+                    return false;
+                }
+            } catch (Exception e) {
+                // Redis is unreachable; the in-flight set still limits this node to one refresh
+            }
+        }
+        refreshesStarted.incrementAndGet();
+        return true;
+    }
+
+    // The refreshed value has been put by then; other instances drop their stale L1 copies
+    void endRefresh(String cacheKey, boolean refreshed) {
+        refreshing.remove(cacheKey);
+        if (!refreshed) {
+            refreshesFailed.incrementAndGet();
+            return;
+        }
+        if (enableRedisCache) {
+            try {
+                publishInvalidation("keys", cacheKey);
+            } catch (Exception e) {
+                // Fail silently for cache errors
+            }
+        }
+    }
+
+    boolean isNearDuplicateEnabled() {
+        return nearDuplicateEnabled;
+    }
+
+    // Third tier, tried after an exact miss: a value cached for the same family whose job
+    // description fingerprint is within the similarity threshold
+    String getNearDuplicate(String family, long fingerprint) {
+        if (!nearDuplicateEnabled) {
+            return null;
+        }
+        nearDuplicateLookups.incrementAndGet();
+
+        for (String cacheKey : NearDuplicateIndex.rank(fingerprints(family), fingerprint, similarityThreshold)) {
+            String value = localCache != null ? localCache.get(cacheKey) : null;
+            if (value == null) {
+                CachedValue remote = getRemote(cacheKey);
+                value = remote != null ? remote.value : null;
+            }
+            if (value != null) {
+                nearDuplicateHits.incrementAndGet();
+                return value;
+            }
+        }
+        return null;
+    }
+
+    void indexNearDuplicate(String family, long fingerprint, String cacheKey) {
+        if (!nearDuplicateEnabled) {
+            return;
+        }
+        if (!enableRedisCache) {
+            nearDuplicateIndex.add(family, cacheKey, fingerprint);
             return;
         }
 
         try {
-            String input = text + "|" + targetLang;
-            String cacheKey = generateCacheKey("translation", input, mode);
-            redisTemplate.opsForValue().set(cacheKey, response, Duration.ofHours(gptCacheHours));
+            redisTemplate.opsForHash().put(family, cacheKey, Long.toHexString(fingerprint));
+            redisTemplate.expire(family, Duration.ofHours(gptCacheHours));
         } catch (Exception e) {
             // Fail silently for cache errors
         }
     }
 
-    public void clearCache(String pattern) {
+    private Map<String, Long> fingerprints(String family) {
         if (!enableRedisCache) {
+            return nearDuplicateIndex.get(family);
+        }
+
+        Map<String, Long> fingerprints = new LinkedHashMap<>();
+        try {
+            redisTemplate.<String, String>opsForHash().entries(family)
+                    .forEach((cacheKey, hex) -> fingerprints.put(cacheKey, Long.parseUnsignedLong(hex, 16)));
+        } catch (Exception e) {
+            // Fail silently for cache misses
+        }
+        return fingerprints;
+    }
+
+    void put(String cacheKey, String value) {
+        put(cacheKey, value, Collections.emptyList());
+    }
+
+    // Tags come from CacheTags; the entry's namespace is always added
+    void put(String cacheKey, String value, Collection<String> tags) {
+        if (value == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<String> allTags = new ArrayList<>(tags);
+        allTags.add(CacheTags.namespace(LocalCache.namespaceOf(cacheKey)));
+
+        if (localCache != null) {
+            long hardTtlNanos = hasL2() ? TimeUnit.HOURS.toNanos(gptCacheHours) : localCache.ttlNanos(cacheKey);
+            localCache.put(cacheKey, value, hardTtlNanos, softTtlNanos(cacheKey, hardTtlNanos));
+        }
+        if (!enableRedisCache) {
+            if (localCache == null && diskCache == null) {
+                return;
+            }
+            // compute() counts as a write, so a tag lives as long as its newest entry
+            allTags.forEach(tag -> localTagIndex.asMap().compute(tag, (t, keys) -> {
+                Set<String> updated = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                updated.add(cacheKey);
+                return updated;
+            }));
+            int storedBytes = -1;
+            if (diskCache != null) {
+                try {
+                    byte[] encoded = codec.encode(value);
+                    diskCache.put(cacheKey, encoded, TimeUnit.HOURS.toMillis(gptCacheHours));
+                    storedBytes = encoded.length;
+                } catch (Exception e) {
+                    metrics.error(cacheKey); // Fail silently for cache errors
+                }
+            }
+            metrics.set(cacheKey, value, storedBytes, System.nanoTime() - start);
             return;
         }
 
         try {
-            redisTemplate.delete(redisTemplate.keys(pattern + "*"));
+            byte[] encoded = codec.encode(value);
+            long ttlSeconds = TimeUnit.HOURS.toSeconds(gptCacheHours);
+            // Value and index entries go out in one round-trip; index sets live as long as their newest entry
+            binaryRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                byte[] rawKey = cacheKey.getBytes(StandardCharsets.UTF_8);
+                connection.stringCommands().setEx(rawKey, ttlSeconds, encoded);
+                for (String tag : allTags) {
+                    byte[] tagKey = (TAG_PREFIX + tag).getBytes(StandardCharsets.UTF_8);
+                    connection.setCommands().sAdd(tagKey, rawKey);
+                    connection.keyCommands().expire(tagKey, ttlSeconds);
+                }
+                return null;
+            });
+            metrics.set(cacheKey, value, encoded.length, System.nanoTime() - start);
         } catch (Exception e) {
-            // Fail silently for cache errors
+            metrics.error(cacheKey); // Fail silently for cache errors
         }
     }
 
-    private String generateCacheKey(String prefix, String input, String mode) {
+    // Per-namespace hit ratio, latency, value size and estimated tokens saved
+    public Map<String, Object> getNamespaceStats() {
+        return metrics.getStats();
+    }
+
+    public List<Map<String, Object>> getHotKeys(int limit) {
+        return metrics.hotKeys(limit);
+    }
+
+    // Memory held per namespace: exact L1 weight, and for Redis the tagged entry count times the
+    // mean encoded size of a random sample of at most sampleSize entries
+    public Map<String, Object> getNamespaceMemory(int sampleSize) {
+        Map<String, Long> l1Bytes = localCache != null ? localCache.weightByNamespace() : Collections.emptyMap();
+        Map<String, Long> diskBytes = diskCache != null ? diskCache.liveBytesByNamespace() : Collections.emptyMap();
+        Set<String> names = new TreeSet<>(metrics.namespaceNames());
+        names.addAll(l1Bytes.keySet());
+        names.addAll(diskBytes.keySet());
+
+        Map<String, Object> memory = new LinkedHashMap<>();
+        for (String name : names) {
+            Map<String, Object> namespace = new LinkedHashMap<>();
+            namespace.put("l1Bytes", l1Bytes.getOrDefault(name, 0L));
+            if (diskCache != null) {
+                namespace.put("diskBytes", diskBytes.getOrDefault(name, 0L));
+            }
+            if (enableRedisCache) {
+                namespace.putAll(remoteMemory(name, sampleSize));
+            }
+            memory.put(name, namespace);
+        }
+        return memory;
+    }
+
+    // Redis INFO used_memory, or null without Redis
+    public Long getRedisUsedMemory() {
+        if (!enableRedisCache) {
+            return null;
+        }
         try {
-            String combined = prefix + ":" + input + ":" + mode;
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(combined.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
+            Properties info = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                    connection.serverCommands().info("memory"));
+            String usedMemory = info != null ? info.getProperty("used_memory") : null;
+            return usedMemory != null ? Long.valueOf(usedMemory) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> remoteMemory(String namespace, int sampleSize) {
+        Map<String, Object> memory = new LinkedHashMap<>();
+        try {
+            String tagKey = TAG_PREFIX + CacheTags.namespace(namespace);
+            Long entries = redisTemplate.opsForSet().size(tagKey);
+            Set<String> sample = redisTemplate.opsForSet().distinctRandomMembers(tagKey, sampleSize);
+            long sampledBytes = 0;
+            int sampled = 0;
+            if (sample != null && !sample.isEmpty()) {
+                List<Object> lengths = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String cacheKey : sample) {
+                        connection.stringCommands().strLen(cacheKey.getBytes(StandardCharsets.UTF_8));
+                    }
+                    return null;
+                });
+                for (Object length : lengths) {
+                    // Members whose entry has expired but were not swept yet read as 0
+                    if (length instanceof Long && (Long) length > 0) {
+                        sampledBytes += (Long) length;
+                        sampled++;
+                    }
                 }
-                hexString.append(hex);
             }
-            
-            return "resume_enhancer:" + prefix + ":" + hexString.toString();
+            long count = entries != null ? entries : 0;
+            memory.put("l2Entries", count);
+            memory.put("l2SampledEntries", sampled);
+            memory.put("l2EstimatedBytes", sampled == 0 ? 0 : sampledBytes / sampled * count);
+        } catch (Exception e) {
+            memory.put("l2Error", e.getMessage());
+        }
+        return memory;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long total = lookups.get();
+        stats.put("lookups", total);
+
+        // Share of all lookups answered by each tier
+        Map<String, Object> hitRates = new LinkedHashMap<>();
+        hitRates.put("l1", ratio(l1Hits.get(), total));
+        hitRates.put("l2", ratio(l2Hits.get(), total));
+        hitRates.put("nearDuplicate", ratio(nearDuplicateHits.get(), total));
+        stats.put("hitRates", hitRates);
+
+        Map<String, Object> l1 = localCache != null ? localCache.getStats() : new LinkedHashMap<>();
+        l1.put("enabled", localCache != null);
+        l1.put("hits", l1Hits.get());
+        stats.put("l1", l1);
+
+        Map<String, Object> l2 = new LinkedHashMap<>();
+        l2.put("enabled", hasL2());
+        l2.put("backend", enableRedisCache ? "redis" : diskCache != null ? "disk" : "none");
+        l2.put("hits", l2Hits.get());
+        if (diskCache != null) {
+            l2.put("disk", diskCache.getStats());
+        }
+        stats.put("l2", l2);
+
+        Map<String, Object> nearDuplicate = new LinkedHashMap<>();
+        nearDuplicate.put("enabled", nearDuplicateEnabled);
+        nearDuplicate.put("similarityThreshold", similarityThreshold);
+        nearDuplicate.put("lookups", nearDuplicateLookups.get());
+        nearDuplicate.put("hits", nearDuplicateHits.get());
+        stats.put("nearDuplicate", nearDuplicate);
+        stats.put("compression", codec.getStats());
+
+        Map<String, Object> swr = new LinkedHashMap<>();
+        swr.put("enabled", staleWhileRevalidate);
+        swr.put("namespaces", revalidatedNamespaces);
+        swr.put("softTtlRatio", softTtlRatio);
+        swr.put("staleHits", staleHits.get());
+        swr.put("refreshesStarted", refreshesStarted.get());
+        swr.put("refreshesSkipped", refreshesSkipped.get());
+        swr.put("refreshesFailed", refreshesFailed.get());
+        swr.put("refreshesInFlight", refreshing.size());
+        stats.put("staleWhileRevalidate", swr);
+        stats.put("namespaces", metrics.getStats());
+
+        stats.put("invalidationsPublished", invalidationsPublished.get());
+        stats.put("invalidationsReceived", invalidationsReceived.get());
+        return stats;
+    }
+
+    // A cached value and whether it is past its soft TTL
+    static final class CachedValue {
+        final String value;
+        final boolean stale;
+
+        CachedValue(String value, boolean stale) {
+            this.value = value;
+            this.stale = stale;
+        }
+    }
+
+    private static double ratio(long count, long total) {
+        return total == 0 ? 0.0 : (double) count / total;
+    }
+
+    static String gptKey(String input, String mode) {
+        return generateCacheKey("gpt", input, mode);
+    }
+
+    static String enhancementKey(Long resumeId, String jobDescription, String mode) {
+        String input = resumeId + "|" + (jobDescription != null ? CacheKeyCanonicalizer.canonicalJobDescription(jobDescription) : "");
+        return generateCacheKey("enhancement", input, mode);
+    }
+
+    static String translationKey(String text, String targetLang, String mode) {
+        String input = CacheKeyCanonicalizer.canonicalResume(text) + "|" + targetLang;
+        return generateCacheKey("translation", input, mode);
+    }
+
+    // Groups cached enhancements of one resume text, language and mode for the near-duplicate tier
+    static String nearDuplicateFamily(String canonicalResume, String outputLanguage, String mode) {
+        return generateCacheKey("simhash", canonicalResume + "|" + outputLanguage, mode);
+    }
+
+    static String generateCacheKey(String prefix, String input, String mode) {
+        try {
+            return "resume_enhancer:" + prefix + ":" + sha256Hex(prefix + ":" + input + ":" + mode);
         } catch (Exception e) {
             // Fallback to simple key if hashing fails
             return "resume_enhancer:" + prefix + ":" + Math.abs((input + mode).hashCode());
         }
     }
+
+    static String sha256Hex(String input) {
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(input.getBytes());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        StringBuilder hexString = new StringBuilder();
+
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+
+        return hexString.toString();
+    }
 }
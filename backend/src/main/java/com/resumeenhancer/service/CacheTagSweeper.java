@@ -0,0 +1,139 @@
+package com.resumeenhancer.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps CacheService's tag sets from accumulating keys whose entries have expired: walks the tag
+// sets with SCAN and each set with SSCAN, checks members in pipelined EXISTS batches and removes
+// the dead ones. Redis is never blocked for longer than one batch, and a lock key makes sure only
+// one instance sweeps per interval.
+@Component
+public class CacheTagSweeper {
+
+    static final String LOCK_KEY = "resume_enhancer:tag-sweep:lock";
+
+    @Autowired(required = false)
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Value("${app.cache.enable-redis:false}")
+    private boolean enableRedisCache;
+
+    @Value("${app.cache.tag-sweep.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.tag-sweep.interval-millis:900000}")
+    private long intervalMillis;
+
+    @Value("${app.cache.tag-sweep.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicLong sweeps = new AtomicLong();
+    private final AtomicLong setsScanned = new AtomicLong();
+    private final AtomicLong membersRemoved = new AtomicLong();
+    private final AtomicLong setsDeleted = new AtomicLong();
+    private volatile long lastSweepMillis;
+
+    @Scheduled(initialDelayString = "${app.cache.tag-sweep.initial-delay-millis:60000}",
+            fixedDelayString = "${app.cache.tag-sweep.interval-millis:900000}")
+    public void sweep() {
+        if (!enabled || !enableRedisCache || redisTemplate == null) {
+            return;
+        }
+
+        try {
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofMillis(intervalMillis));
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+
+            long start = System.currentTimeMillis();
+            for (String tagKey : tagSets()) {
+                sweepSet(tagKey);
+                setsScanned.incrementAndGet();
+            }
+            sweeps.incrementAndGet();
+            lastSweepMillis = System.currentTimeMillis() - start;
+        } catch (Exception e) {
+            System.err.println("Cache tag sweep failed: " + e.getMessage());
+        }
+    }
+
+    private List<String> tagSets() {
+        ScanOptions options = ScanOptions.scanOptions().match(CacheService.TAG_PREFIX + "*").count(batchSize).build();
+        List<String> tagKeys = new ArrayList<>();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            try (Cursor<byte[]> keys = connection.scan(options)) {
+                keys.forEachRemaining(key -> tagKeys.add(new String(key, StandardCharsets.UTF_8)));
+            }
+            return null;
+        });
+        return tagKeys;
+    }
+
+    private void sweepSet(String tagKey) {
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> members = redisTemplate.opsForSet().scan(tagKey, ScanOptions.scanOptions().count(batchSize).build())) {
+            while (members.hasNext()) {
+                batch.add(members.next());
+                if (batch.size() == batchSize) {
+                    removeExpired(tagKey, batch);
+                    batch.clear();
+                }
+            }
+        }
+        removeExpired(tagKey, batch);
+
+        Long remaining = redisTemplate.opsForSet().size(tagKey);
+        if (remaining != null && remaining == 0 && Boolean.TRUE.equals(redisTemplate.delete(tagKey))) {
+            setsDeleted.incrementAndGet();
+        }
+    }
+
+    private void removeExpired(String tagKey, List<String> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+        List<Object> exists = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String member : members) {
+                connection.keyCommands().exists(member.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+
+        List<Object> expired = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            if (!Boolean.TRUE.equals(exists.get(i))) {
+                expired.add(members.get(i));
+            }
+        }
+        if (!expired.isEmpty()) {
+            redisTemplate.opsForSet().remove(tagKey, expired.toArray());
+            membersRemoved.addAndGet(expired.size());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled && enableRedisCache);
+        stats.put("sweeps", sweeps.get());
+        stats.put("setsScanned", setsScanned.get());
+        stats.put("membersRemoved", membersRemoved.get());
+        stats.put("setsDeleted", setsDeleted.get());
+        stats.put("lastSweepMillis", lastSweepMillis);
+        return stats;
+    }
+}
@@ -0,0 +1,62 @@
+package com.resumeenhancer.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Carries the user and resume a request works on through the Reactor Context, so cache entries
+// written deep in GptService are indexed under them and can be invalidated when either changes.
+public final class CacheTags {
+
+    private static final String KEY = CacheTags.class.getName();
+
+    private CacheTags() {
+    }
+
+    public static <T> Mono<T> within(Mono<T> mono, Long userId, Long resumeId) {
+        List<String> tags = tags(userId, resumeId);
+        return mono.contextWrite(context -> context.put(KEY, tags));
+    }
+
+    public static <T> Flux<T> within(Flux<T> flux, Long userId, Long resumeId) {
+        List<String> tags = tags(userId, resumeId);
+        return flux.contextWrite(context -> context.put(KEY, tags));
+    }
+
+    // Re-applies tags read with from(), for work that runs detached from the tagged request
+    static <T> Mono<T> within(Mono<T> mono, List<String> tags) {
+        return mono.contextWrite(context -> context.put(KEY, tags));
+    }
+
+    // Empty when the caller set no tags
+    public static List<String> from(ContextView context) {
+        return context.getOrDefault(KEY, Collections.emptyList());
+    }
+
+    public static String user(Long userId) {
+        return "user:" + userId;
+    }
+
+    public static String resume(Long resumeId) {
+        return "resume:" + resumeId;
+    }
+
+    static String namespace(String namespace) {
+        return "namespace:" + namespace;
+    }
+
+    private static List<String> tags(Long userId, Long resumeId) {
+        List<String> tags = new ArrayList<>(2);
+        if (userId != null) {
+            tags.add(user(userId));
+        }
+        if (resumeId != null) {
+            tags.add(resume(resumeId));
+        }
+        return Collections.unmodifiableList(tags);
+    }
+}
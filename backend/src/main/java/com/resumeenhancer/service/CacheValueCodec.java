@@ -0,0 +1,214 @@
+package com.resumeenhancer.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Binary format of cache values in Redis. New entries start with a five byte header
+// (0x00, 0xCE, format version, codec, dictionary id); values above the size threshold are
+// deflated against a preset dictionary of common resume Markdown, so even short enhancements
+// compress well. Entries written before the header existed are plain UTF-8 and never start
+// with 0x00, so they are still read as-is.
+class CacheValueCodec {
+
+    static final byte MARKER = 0x00;
+    static final byte MAGIC = (byte) 0xCE;
+    static final byte VERSION = 1;
+
+    static final byte CODEC_RAW = 0;
+    static final byte CODEC_DEFLATE = 1;
+
+    static final byte NO_DICTIONARY = 0;
+    static final byte RESUME_DICTIONARY_V1 = 1;
+
+    private static final int HEADER_BYTES = 5;
+    private static final int MAX_VALUE_BYTES = 64 * 1024 * 1024;
+
+    // Dictionaries are never changed in place: a new one gets a new id and old ids stay readable
+    private static final Map<Byte, byte[]> DICTIONARIES = Map.of(
+            RESUME_DICTIONARY_V1, loadDictionary("/cache/resume-dictionary-v1.txt"));
+
+    private final boolean enabled;
+    private final int minBytes;
+    private final int level;
+    private final byte dictionaryId;
+
+    private final AtomicLong encoded = new AtomicLong();
+    private final AtomicLong compressed = new AtomicLong();
+    private final AtomicLong decoded = new AtomicLong();
+    private final AtomicLong legacyDecoded = new AtomicLong();
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong encodeNanos = new AtomicLong();
+    private final AtomicLong decodeNanos = new AtomicLong();
+
+    CacheValueCodec(boolean enabled, int minBytes, int level) {
+        this(enabled, minBytes, level, RESUME_DICTIONARY_V1);
+    }
+
+    CacheValueCodec(boolean enabled, int minBytes, int level, byte dictionaryId) {
+        this.enabled = enabled;
+        this.minBytes = minBytes;
+        this.level = level;
+        this.dictionaryId = dictionaryId;
+    }
+
+    byte[] encode(String value) {
+        long start = System.nanoTime();
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        byte[] result = null;
+
+        if (enabled && utf8.length >= minBytes) {
+            byte[] deflated = deflate(utf8, DICTIONARIES.get(dictionaryId));
+            // Keep the raw form when compression does not pay for its own length prefix
+            if (deflated.length + 4 < utf8.length) {
+                result = ByteBuffer.allocate(HEADER_BYTES + 4 + deflated.length)
+                        .put(header(CODEC_DEFLATE, dictionaryId))
+                        .putInt(utf8.length)
+                        .put(deflated)
+                        .array();
+                compressed.incrementAndGet();
+            }
+        }
+        if (result == null) {
+            result = ByteBuffer.allocate(HEADER_BYTES + utf8.length)
+                    .put(header(CODEC_RAW, NO_DICTIONARY))
+                    .put(utf8)
+                    .array();
+        }
+
+        encoded.incrementAndGet();
+        uncompressedBytes.addAndGet(utf8.length);
+        storedBytes.addAndGet(result.length);
+        encodeNanos.addAndGet(System.nanoTime() - start);
+        return result;
+    }
+
+    // Throws IllegalArgumentException for entries this build cannot read; callers treat them as misses
+    String decode(byte[] stored) {
+        if (stored.length == 0 || stored[0] != MARKER) {
+            legacyDecoded.incrementAndGet();
+            return new String(stored, StandardCharsets.UTF_8);
+        }
+        if (stored.length < HEADER_BYTES || stored[1] != MAGIC || stored[2] != VERSION) {
+            throw new IllegalArgumentException("Unsupported cache value header");
+        }
+
+        long start = System.nanoTime();
+        String value;
+        switch (stored[3]) {
+            case CODEC_RAW:
+                value = new String(stored, HEADER_BYTES, stored.length - HEADER_BYTES, StandardCharsets.UTF_8);
+                break;
+            case CODEC_DEFLATE:
+                byte[] dictionary = null;
+                if (stored[4] != NO_DICTIONARY) {
+                    dictionary = DICTIONARIES.get(stored[4]);
+                    if (dictionary == null) {
+                        throw new IllegalArgumentException("Unknown cache dictionary " + stored[4]);
+                    }
+                }
+                int length = ByteBuffer.wrap(stored, HEADER_BYTES, 4).getInt();
+                if (length < 0 || length > MAX_VALUE_BYTES) {
+                    throw new IllegalArgumentException("Corrupt cache value length " + length);
+                }
+                value = new String(inflate(stored, HEADER_BYTES + 4, length, dictionary), StandardCharsets.UTF_8);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown cache codec " + stored[3]);
+        }
+
+        decoded.incrementAndGet();
+        decodeNanos.addAndGet(System.nanoTime() - start);
+        return value;
+    }
+
+    private static byte[] header(byte codec, byte dictionaryId) {
+        return new byte[] { MARKER, MAGIC, VERSION, codec, dictionaryId };
+    }
+
+    private byte[] deflate(byte[] input, byte[] dictionary) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 3));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int length, byte[] dictionary) {
+        // Raw deflate streams take the dictionary up front rather than on needsDictionary()
+        Inflater inflater = new Inflater(true);
+        try {
+            if (dictionary != null) {
+                inflater.setDictionary(dictionary);
+            }
+            inflater.setInput(input, offset, input.length - offset);
+            byte[] output = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int n = inflater.inflate(output, read, length - read);
+                if (n == 0) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new IllegalArgumentException("Truncated cache value");
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] loadDictionary(String resource) {
+        try (InputStream in = CacheValueCodec.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing cache dictionary " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long encodes = encoded.get();
+        long decodes = decoded.get();
+        stats.put("enabled", enabled);
+        stats.put("minBytes", minBytes);
+        stats.put("encoded", encodes);
+        stats.put("compressed", compressed.get());
+        stats.put("decoded", decodes);
+        stats.put("legacyDecoded", legacyDecoded.get());
+        stats.put("uncompressedBytes", uncompressedBytes.get());
+        stats.put("storedBytes", storedBytes.get());
+        stats.put("compressionRatio", storedBytes.get() == 0 ? 0.0 : (double) uncompressedBytes.get() / storedBytes.get());
+        stats.put("avgEncodeMicros", encodes == 0 ? 0.0 : encodeNanos.get() / 1000.0 / encodes);
+        stats.put("avgDecodeMicros", decodes == 0 ? 0.0 : decodeNanos.get() / 1000.0 / decodes);
+        return stats;
+    }
+}
@@ -0,0 +1,99 @@
+package com.resumeenhancer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Decides which user-supplied callback URLs the server may POST to. With an allowlist only those
+// hosts are accepted; otherwise any public host is, and every address it resolves to is checked,
+// so a callback cannot reach loopback, the private network (the NLP service, Redis, the database)
+// or cloud metadata at 169.254.169.254. The worker checks again at delivery and on connect, so a
+// name re-pointed after submission is caught too.
+@Component
+public class CallbackUrlPolicy {
+
+    interface Resolver {
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
+
+    private final List<String> allowedHosts;
+    private final Resolver resolver;
+
+    public CallbackUrlPolicy(@Value("${app.batch.callback-allowed-hosts:}") List<String> allowedHosts) {
+        this(allowedHosts, InetAddress::getAllByName);
+    }
+
+    CallbackUrlPolicy(List<String> allowedHosts, Resolver resolver) {
+        this.allowedHosts = allowedHosts.stream()
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toList());
+        this.resolver = resolver;
+    }
+
+    // Throws with a message fit for the API caller when the URL may not be called
+    public URI validate(String callbackUrl) {
+        URI uri;
+        try {
+            uri = new URI(callbackUrl);
+        } catch (Exception e) {
+            throw new RuntimeException("Callback URL is not a valid URL");
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        if (!scheme.equals("https") && !scheme.equals("http")) {
+            throw new RuntimeException("Callback URL must be an http(s) URL");
+        }
+        if (uri.getHost() == null || uri.getUserInfo() != null) {
+            throw new RuntimeException("Callback URL must name a host and carry no credentials");
+        }
+
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (!allowedHosts.isEmpty()) {
+            if (!allowedHosts.contains(host)) {
+                throw new RuntimeException("Callback host is not allowed: " + host);
+            }
+            return uri;
+        }
+
+        InetAddress[] addresses;
+        try {
+            addresses = resolver.resolve(host.startsWith("[") ? host.substring(1, host.length() - 1) : host);
+        } catch (UnknownHostException e) {
+            throw new RuntimeException("Callback host cannot be resolved: " + host);
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                throw new RuntimeException("Callback host must be a public address: " + host);
+            }
+        }
+        return uri;
+    }
+
+    // The connect-time check; allowlisted hosts are trusted wherever they point
+    public boolean permitsConnection(InetAddress address) {
+        return !allowedHosts.isEmpty() || isPublic(address);
+    }
+
+    static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // fc00::/7 unique local addresses
+            return (bytes[0] & 0xFE) != 0xFC;
+        }
+        int first = bytes[0] & 0xFF;
+        int second = bytes[1] & 0xFF;
+        // 0.0.0.0/8 and the 100.64.0.0/10 carrier-grade NAT range
+        return first != 0 && !(first == 100 && second >= 64 && second < 128);
+    }
+}
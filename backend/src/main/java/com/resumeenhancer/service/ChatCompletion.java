@@ -0,0 +1,160 @@
+package com.resumeenhancer.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// The parts of a /chat/completions response (or stream chunk) we use. Parsing walks the JSON
+// tokens once and keeps only the first choice's content and the usage counters, so long
+// completions are never copied into a tree or an intermediate body string.
+public class ChatCompletion {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String content;
+    private final String finishReason;
+    private final boolean hasUsage;
+    private final int promptTokens;
+    private final int cachedPromptTokens;
+    private final int completionTokens;
+
+    public ChatCompletion(String content, String finishReason) {
+        this(content, finishReason, false, 0, 0, 0);
+    }
+
+    public ChatCompletion(String content, String finishReason, boolean hasUsage,
+                          int promptTokens, int cachedPromptTokens, int completionTokens) {
+        this.content = content;
+        this.finishReason = finishReason;
+        this.hasUsage = hasUsage;
+        this.promptTokens = promptTokens;
+        this.cachedPromptTokens = cachedPromptTokens;
+        this.completionTokens = completionTokens;
+    }
+
+    public static ChatCompletion parse(InputStream in) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return parse(parser);
+        }
+    }
+
+    public static ChatCompletion parse(byte[] json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return parse(parser);
+        }
+    }
+
+    public static ChatCompletion parse(String json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return parse(parser);
+        }
+    }
+
+    private static ChatCompletion parse(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object");
+        }
+        Builder result = new Builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("choices".equals(field) && value == JsonToken.START_ARRAY) {
+                readChoices(parser, result);
+            } else if ("usage".equals(field) && value == JsonToken.START_OBJECT) {
+                readUsage(parser, result);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result.build();
+    }
+
+    private static void readChoices(JsonParser parser, Builder result) throws IOException {
+        boolean first = true;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (first && token == JsonToken.START_OBJECT) {
+                readChoice(parser, result);
+            } else {
+                parser.skipChildren();
+            }
+            first = false;
+        }
+    }
+
+    private static void readChoice(JsonParser parser, Builder result) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            // Full responses carry "message", stream chunks carry "delta"
+            if (("message".equals(field) || "delta".equals(field)) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String messageField = parser.getCurrentName();
+                    JsonToken messageValue = parser.nextToken();
+                    if ("content".equals(messageField) && messageValue == JsonToken.VALUE_STRING) {
+                        result.content = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("finish_reason".equals(field) && value == JsonToken.VALUE_STRING) {
+                result.finishReason = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readUsage(JsonParser parser, Builder result) throws IOException {
+        result.hasUsage = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("prompt_tokens".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                result.promptTokens = parser.getIntValue();
+            } else if ("completion_tokens".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                result.completionTokens = parser.getIntValue();
+            } else if ("prompt_tokens_details".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String detail = parser.getCurrentName();
+                    if (parser.nextToken() == JsonToken.VALUE_NUMBER_INT && "cached_tokens".equals(detail)) {
+                        result.cachedPromptTokens = parser.getIntValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // Null when the choice has no content, e.g. a role-only or usage-only stream chunk
+    public String getContent() { return content; }
+
+    public String getFinishReason() { return finishReason; }
+
+    public boolean hasUsage() { return hasUsage; }
+
+    public int getPromptTokens() { return promptTokens; }
+
+    public int getCachedPromptTokens() { return cachedPromptTokens; }
+
+    public int getCompletionTokens() { return completionTokens; }
+
+    private static class Builder {
+        String content;
+        String finishReason;
+        boolean hasUsage;
+        int promptTokens;
+        int cachedPromptTokens;
+        int completionTokens;
+
+        ChatCompletion build() {
+            return new ChatCompletion(content, finishReason, hasUsage, promptTokens, cachedPromptTokens, completionTokens);
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.resumeenhancer.service;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Persistent cache tier for single-node installs without Redis. Values are appended to
+// memory-mapped segment files and found through an in-memory hash index, which is rebuilt by
+// scanning the segments on startup. Each record carries a CRC, so a record torn by a crash ends
+// the scan of its segment, and a sequence number, so the newest record of a key wins whatever
+// file it is in. Compaction rewrites the live entries of all sealed segments into new files
+// (written to .tmp, forced and renamed) and drops the earliest-expiring entries when the live
+// data alone would exceed the size bound.
+class DiskCache implements AutoCloseable {
+
+    // magic, crc, sequence, expiry, key length, value length (-1 for a tombstone)
+    static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4;
+
+    private static final int MAGIC = 0x52454331; // "REC1"
+    private static final int MAX_KEY_BYTES = 1024;
+    private static final double COMPACTION_TARGET = 0.75; // of maxBytes, after evictions
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.log");
+
+    private final Path directory;
+    private final long maxBytes;
+    private final int segmentBytes;
+    private final LongSupplier clock;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+    private Segment active;
+    private int nextSegmentId;
+    private long nextSequence;
+    private long garbageBytes;
+
+    private long compactions;
+    private long evicted;
+    private long oversized;
+    private long recoveredRecords;
+    private long truncatedBytes;
+
+    DiskCache(Path directory, long maxBytes, int segmentBytes) {
+        this(directory, maxBytes, segmentBytes, System::currentTimeMillis);
+    }
+
+    DiskCache(Path directory, long maxBytes, int segmentBytes, LongSupplier clock) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.segmentBytes = segmentBytes;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+            recover();
+            if (diskBytes() > maxBytes || garbageBytes > diskBytes() / 2) {
+                compact();
+            }
+            active = createSegment(nextSegmentId++);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open disk cache in " + directory, e);
+        }
+    }
+
+    // Null when absent or expired
+    Stored get(String key) {
+        Location location = index.get(key);
+        if (location == null || location.expiresAtMillis <= clock.getAsLong()) {
+            return null;
+        }
+        // Compaction may have just retired the segment; the caller sees a miss
+        Segment segment = segments.get(location.segmentId);
+        if (segment == null) {
+            return null;
+        }
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(location.offset + location.length - location.valueLength);
+        byte[] value = new byte[location.valueLength];
+        buffer.get(value);
+        return new Stored(value, location.expiresAtMillis);
+    }
+
+    synchronized void put(String key, byte[] value, long ttlMillis) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_BYTES + keyBytes.length + value.length;
+        if (keyBytes.length > MAX_KEY_BYTES || length > segmentBytes) {
+            oversized++;
+            return;
+        }
+        try {
+            ensureCapacity(length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow disk cache", e);
+        }
+
+        long expiresAt = clock.getAsLong() + ttlMillis;
+        int offset = active.size;
+        append(active.buffer, offset, nextSequence++, expiresAt, keyBytes, value);
+        active.size += length;
+
+        Location previous = index.put(key, new Location(active.id, offset, length, value.length, expiresAt));
+        if (previous != null) {
+            garbageBytes += previous.length;
+        }
+    }
+
+    synchronized boolean delete(String key) {
+        Location removed = index.remove(key);
+        if (removed == null) {
+            return false;
+        }
+        // The tombstone keeps the value from coming back on recovery until compaction drops both
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_BYTES + keyBytes.length;
+        try {
+            ensureCapacity(length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow disk cache", e);
+        }
+        append(active.buffer, active.size, nextSequence++, 0, keyBytes, null);
+        active.size += length;
+        garbageBytes += removed.length + length;
+        return true;
+    }
+
+    int deletePrefix(String prefix) {
+        int removed = 0;
+        for (String key : new ArrayList<>(index.keySet())) {
+            if (key.startsWith(prefix) && delete(key)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (active.size + length <= segmentBytes) {
+            return;
+        }
+        // The filled segment is sealed before compaction and the new one created after, so a
+        // tombstone always lands in a newer file than the value it deletes
+        active.buffer.force();
+        active = null;
+        try {
+            if (diskBytes() > maxBytes || garbageBytes > diskBytes() / 2) {
+                compact();
+            }
+        } finally {
+            active = createSegment(nextSegmentId++);
+        }
+    }
+
+    // Rewrites every sealed segment; called with the write lock held
+    synchronized void compact() throws IOException {
+        long now = clock.getAsLong();
+        List<Segment> sealed = new ArrayList<>();
+        for (Segment segment : new TreeMap<>(segments).values()) {
+            if (segment != active) {
+                sealed.add(segment);
+            }
+        }
+
+        List<Map.Entry<String, Location>> live = new ArrayList<>();
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            Location location = entry.getValue();
+            if (location.segmentId == (active != null ? active.id : -1)) {
+                continue;
+            }
+            if (location.expiresAtMillis <= now) {
+                index.remove(entry.getKey(), location);
+            } else {
+                live.add(entry);
+            }
+        }
+
+        // Entries share one TTL, so the latest expiries are the most recently written
+        live.sort((a, b) -> Long.compare(b.getValue().expiresAtMillis, a.getValue().expiresAtMillis));
+        long budget = (long) (maxBytes * COMPACTION_TARGET) - (active != null ? segmentBytes : 0);
+        long kept = 0;
+        int keep = 0;
+        while (keep < live.size() && kept + live.get(keep).getValue().length <= budget) {
+            kept += live.get(keep++).getValue().length;
+        }
+        for (Map.Entry<String, Location> entry : live.subList(keep, live.size())) {
+            index.remove(entry.getKey(), entry.getValue());
+            evicted++;
+        }
+
+        // Records are copied verbatim, keeping their sequence numbers and checksums
+        List<Map.Entry<String, Location>> survivors = live.subList(0, keep);
+        List<Location> relocated = new ArrayList<>(keep);
+        ByteBuffer out = null;
+        int outId = -1;
+        for (Map.Entry<String, Location> entry : survivors) {
+            Location location = entry.getValue();
+            if (out == null || out.remaining() < location.length) {
+                if (out != null) {
+                    writeSegment(outId, out);
+                }
+                outId = nextSegmentId++;
+                out = ByteBuffer.allocate(segmentBytes);
+            }
+            ByteBuffer record = segments.get(location.segmentId).buffer.duplicate();
+            record.position(location.offset).limit(location.offset + location.length);
+            relocated.add(new Location(outId, out.position(), location.length,
+                    location.valueLength, location.expiresAtMillis));
+            out.put(record);
+        }
+        if (out != null) {
+            writeSegment(outId, out);
+        }
+
+        // Writers are locked out, so each entry still points at the record that was copied
+        for (int i = 0; i < survivors.size(); i++) {
+            index.replace(survivors.get(i).getKey(), survivors.get(i).getValue(), relocated.get(i));
+        }
+
+        // Oldest first: a crash part-way leaves every remaining tombstone's value deleted or newer
+        for (Segment segment : sealed) {
+            segments.remove(segment.id);
+            // The mapping stays valid for readers still holding it until it is collected
+            Files.deleteIfExists(segment.path);
+        }
+        garbageBytes = 0;
+        compactions++;
+    }
+
+    private void writeSegment(int id, ByteBuffer content) throws IOException {
+        Path tmp = directory.resolve("segment-" + id + ".tmp");
+        Path path = directory.resolve("segment-" + id + ".log");
+        content.flip();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+        segments.put(id, mapSealed(id, path));
+    }
+
+    private Segment createSegment(int id) throws IOException {
+        Path path = directory.resolve("segment-" + id + ".log");
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(segmentBytes);
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            Segment segment = new Segment(id, path, buffer, 0, segmentBytes);
+            segments.put(id, segment);
+            return segment;
+        }
+    }
+
+    private static Segment mapSealed(int id, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int size = (int) channel.size();
+            return new Segment(id, path, channel.map(FileChannel.MapMode.READ_ONLY, 0, size), size, size);
+        }
+    }
+
+    // Rebuilds the index from every segment; the record with the highest sequence number wins
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = new ArrayList<>();
+            listing.forEach(files::add);
+        }
+
+        Map<String, Long> sequences = new HashMap<>();
+        Map<String, Location> found = new HashMap<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(".tmp")) {
+                Files.delete(file); // compaction output that was never renamed
+                continue;
+            }
+            Matcher matcher = SEGMENT_NAME.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            int id = Integer.parseInt(matcher.group(1));
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+
+            Segment segment = scan(id, file, sequences, found);
+            segments.put(id, segment);
+        }
+
+        long now = clock.getAsLong();
+        long liveBytes = 0;
+        for (Map.Entry<String, Location> entry : found.entrySet()) {
+            Location location = entry.getValue();
+            if (location != Location.DELETED && location.expiresAtMillis > now) {
+                index.put(entry.getKey(), location);
+                liveBytes += location.length;
+            }
+        }
+        garbageBytes = diskBytes() - liveBytes;
+    }
+
+    private Segment scan(int id, Path file, Map<String, Long> sequences, Map<String, Location> found) throws IOException {
+        Segment segment = mapSealed(id, file);
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int position = 0;
+        while (true) {
+            int length = validRecordLength(buffer, position);
+            if (length < 0) {
+                break;
+            }
+            buffer.position(position + 8);
+            long sequence = buffer.getLong();
+            long expiresAt = buffer.getLong();
+            int keyLength = buffer.getInt();
+            int valueLength = buffer.getInt();
+            byte[] key = new byte[keyLength];
+            buffer.get(key);
+            String cacheKey = new String(key, StandardCharsets.UTF_8);
+
+            Long known = sequences.get(cacheKey);
+            if (known == null || sequence > known) {
+                sequences.put(cacheKey, sequence);
+                found.put(cacheKey, valueLength < 0 ? Location.DELETED
+                        : new Location(id, position, length, valueLength, expiresAt));
+            }
+            nextSequence = Math.max(nextSequence, sequence + 1);
+            recoveredRecords++;
+            position += length;
+        }
+
+        // Drop the zero-filled or torn tail so the file holds whole records only
+        if (position < segment.size) {
+            truncatedBytes += segment.size - position;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(position);
+            }
+            segment = mapSealed(id, file);
+        }
+        return segment;
+    }
+
+    // Length of the record at position, or -1 where the valid records end
+    private int validRecordLength(ByteBuffer buffer, int position) {
+        if (buffer.limit() - position < HEADER_BYTES || buffer.getInt(position) != MAGIC) {
+            return -1;
+        }
+        int keyLength = buffer.getInt(position + 24);
+        int valueLength = buffer.getInt(position + 28);
+        if (keyLength <= 0 || keyLength > MAX_KEY_BYTES || valueLength < -1) {
+            return -1;
+        }
+        long length = (long) HEADER_BYTES + keyLength + Math.max(0, valueLength);
+        if (length > buffer.limit() - position) {
+            return -1;
+        }
+        ByteBuffer body = buffer.duplicate();
+        body.position(position + 8).limit(position + (int) length);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue() == buffer.getInt(position + 4) ? (int) length : -1;
+    }
+
+    private static void append(ByteBuffer target, int offset, long sequence, long expiresAt, byte[] key, byte[] value) {
+        ByteBuffer record = target.duplicate();
+        record.position(offset);
+        record.putInt(MAGIC).putInt(0).putLong(sequence).putLong(expiresAt)
+                .putInt(key.length).putInt(value != null ? value.length : -1)
+                .put(key);
+        if (value != null) {
+            record.put(value);
+        }
+
+        ByteBuffer body = target.duplicate();
+        body.position(offset + 8).limit(record.position());
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        target.putInt(offset + 4, (int) crc.getValue());
+    }
+
+    private long diskBytes() {
+        long bytes = 0;
+        for (Segment segment : segments.values()) {
+            bytes += segment.capacity;
+        }
+        return bytes;
+    }
+
+    // Linear in the number of entries; for the admin API, not the request path
+    Map<String, Long> liveBytesByNamespace() {
+        Map<String, Long> bytes = new TreeMap<>();
+        index.forEach((key, location) -> bytes.merge(LocalCache.namespaceOf(key), (long) location.length, Long::sum));
+        return bytes;
+    }
+
+    synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", directory.toString());
+        stats.put("entries", index.size());
+        stats.put("segments", segments.size());
+        stats.put("diskBytes", diskBytes());
+        stats.put("garbageBytes", garbageBytes);
+        stats.put("maxBytes", maxBytes);
+        stats.put("compactions", compactions);
+        stats.put("evicted", evicted);
+        stats.put("oversized", oversized);
+        stats.put("recoveredRecords", recoveredRecords);
+        stats.put("truncatedBytes", truncatedBytes);
+        return stats;
+    }
+
+    // Trims the active segment to its records; the next start scans it like any other
+    @Override
+    public synchronized void close() {
+        if (active == null) {
+            return;
+        }
+        active.buffer.force();
+        try (FileChannel channel = FileChannel.open(active.path, StandardOpenOption.WRITE)) {
+            channel.truncate(active.size);
+        } catch (IOException e) {
+            System.err.println("Failed to trim disk cache segment: " + e.getMessage());
+        }
+        active = null;
+    }
+
+    static final class Stored {
+        final byte[] value;
+        final long expiresAtMillis;
+
+        Stored(byte[] value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class Location {
+        static final Location DELETED = new Location(-1, 0, 0, 0, 0);
+
+        final int segmentId;
+        final int offset;
+        final int length;
+        final int valueLength;
+        final long expiresAtMillis;
+
+        Location(int segmentId, int offset, int length, int valueLength, long expiresAtMillis) {
+            this.segmentId = segmentId;
+            this.offset = offset;
+            this.length = length;
+            this.valueLength = valueLength;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class Segment {
+        final int id;
+        final Path path;
+        final MappedByteBuffer buffer;
+        final int capacity; // file length; segments written in place stay preallocated until compacted
+        int size;
+
+        Segment(int id, Path path, MappedByteBuffer buffer, int size, int capacity) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+            this.size = size;
+            this.capacity = capacity;
+        }
+    }
+}
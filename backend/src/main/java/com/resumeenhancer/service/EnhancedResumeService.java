@@ -3,6 +3,7 @@ package com.resumeenhancer.service;
 import com.resumeenhancer.dto.AnalyzeRequest;
 import com.resumeenhancer.dto.EnhancedResumeResponse;
 import com.resumeenhancer.dto.EnhanceRequest;
+import com.resumeenhancer.dto.EnhancementStreamEvent;
 import com.resumeenhancer.dto.TranslateRequest;
 import com.resumeenhancer.entity.EnhancedResume;
 import com.resumeenhancer.entity.Resume;
@@ -10,11 +11,21 @@ import com.resumeenhancer.repository.EnhancedResumeRepository;
 import com.resumeenhancer.repository.ResumeRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,238 +49,388 @@ public class EnhancedResumeService {
     @Autowired(required = false)
     private CacheService cacheService;
 
+    @Autowired(required = false)
+    private IncrementalEnhancer incrementalEnhancer;
+
+    @Value("${app.gpt.analyze.fused:false}")
+    private boolean fusedAnalysis;
+
+    @Value("${app.gpt.analyze.suggestions-timeout-seconds:30}")
+    private long suggestionsTimeoutSeconds;
+
+    @Value("${app.gpt.analyze.deadline-seconds:100}")
+    private long analysisDeadlineSeconds;
+
+    private static final List<String> LOCAL_SUGGESTIONS = List.of(
+        "Add more quantifiable achievements with specific numbers and percentages",
+        "Include relevant technical skills and certifications for your target role",
+        "Tailor your experience descriptions to match the job requirements",
+        "Consider adding a professional summary section at the top",
+        "Ensure consistent formatting and remove any typos or grammatical errors"
+    );
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public EnhancedResumeResponse enhanceResume(EnhanceRequest request, Long userId) {
-        Resume resume = resumeRepository.findByIdAndUserId(request.getResumeId(), userId)
-                .orElseThrow(() -> new RuntimeException("Resume not found"));
+        return enhanceResumeAsync(request, userId).block();
+    }
 
-        if (resume.getRawText() == null || resume.getRawText().trim().isEmpty()) {
-            throw new RuntimeException("Resume text is not available yet");
+    public Mono<EnhancedResumeResponse> enhanceResumeAsync(EnhanceRequest request, Long userId) {
+        boolean useGpt = useGpt(request.getMode());
+
+        return CacheTags.within(blocking(() -> loadResumeWithText(request.getResumeId(), userId))
+                .flatMap(resume -> {
+                    Mono<String> enhancedText;
+                    AtomicBoolean degraded = new AtomicBoolean();
+                    String fingerprint = useGpt ? gptService.enhancePromptFingerprint(request.getJobDescription(), request.getOutputLanguage()) : null;
+
+                    if (useGpt) {
+                        // Use GPT for enhancement - 将简历改成模板格式，支持输出语言
+                        enhancedText = withGptQuota(userId,
+                                        enhanceWithGpt(resume, request.getJobDescription(), request.getOutputLanguage(), fingerprint))
+                                .onErrorResume(this::isGptUnavailable, e -> localFallback(degraded,
+                                        () -> enhanceWithLocalTemplate(resume.getRawText(), request.getJobDescription())));
+                    } else {
+                        // Use local template enhancement
+                        enhancedText = Mono.fromCallable(() -> enhanceWithLocalTemplate(resume.getRawText(), request.getJobDescription()));
+                    }
+
+                    return enhancedText
+                            .flatMap(text -> blocking(() -> saveRewrite(resume, text, null, userId,
+                                    degraded.get() ? null : fingerprint)))
+                            .map(response -> markDegraded(response, degraded))
+                            .onErrorMap(e -> new RuntimeException("Failed to enhance resume: " + e.getMessage(), e));
+                }), userId, request.getResumeId());
+    }
+
+    public EnhancedResumeResponse analyzeResume(AnalyzeRequest request, Long userId) {
+        return analyzeResumeAsync(request, userId).block();
+    }
+
+    public Mono<EnhancedResumeResponse> analyzeResumeAsync(AnalyzeRequest request, Long userId) {
+        boolean useGpt = useGpt(request.getMode());
+
+        return CacheTags.within(blocking(() -> loadResumeWithText(request.getResumeId(), userId))
+                .flatMap(resume -> {
+                    // Check for existing enhancement if not forcing refresh
+                    if (!Boolean.TRUE.equals(request.getForceRefresh())) {
+                        Mono<EnhancedResumeResponse> existing = blocking(() -> findLatestRewrite(request.getResumeId()));
+                        return existing.switchIfEmpty(Mono.defer(() -> generateAnalysis(resume, request, useGpt, userId)));
+                    }
+                    return generateAnalysis(resume, request, useGpt, userId);
+                }), userId, request.getResumeId());
+    }
+
+    private Mono<EnhancedResumeResponse> generateAnalysis(Resume resume, AnalyzeRequest request, boolean useGpt, Long userId) {
+        Mono<EnhancedResumeResponse> analysis;
+        AtomicBoolean degraded = new AtomicBoolean();
+
+        if (useGpt) {
+            String fingerprint = gptService.enhancePromptFingerprint(request.getJobDescription(), request.getOutputLanguage());
+
+            // Enhancement and suggestions are independent, so run them concurrently (or as one fused call)
+            Mono<Tuple2<String, Optional<List<String>>>> results = fusedAnalysis
+                    ? gptService.analyzeResumeAsync(resume.getRawText(), request.getJobDescription(), request.getOutputLanguage())
+                            .map(result -> Tuples.of(result.getEnhancedText(), Optional.of(result.getSuggestions())))
+                            .onErrorResume(e -> !isGptUnavailable(e), e -> {
+                                System.err.println("Fused analysis failed, falling back to separate calls: " + e.getMessage());
+                                return parallelAnalysis(resume, request, fingerprint, degraded);
+                            })
+                    : parallelAnalysis(resume, request, fingerprint, degraded);
+
+            // The deadline also travels in the Reactor Context so GPT calls can downgrade to a faster model
+            Duration deadline = Duration.ofSeconds(analysisDeadlineSeconds);
+            analysis = withGptQuota(userId, GptDeadline.within(results, deadline))
+                    .timeout(deadline)
+                    .flatMap(result -> blocking(() -> saveRewrite(resume, result.getT1(), result.getT2().orElse(null), userId, fingerprint)))
+                    .onErrorResume(this::isGptUnavailable, e -> localFallback(degraded,
+                                    () -> enhanceWithLocalTemplate(resume.getRawText(), request.getJobDescription()))
+                            .flatMap(text -> blocking(() -> saveRewrite(resume, text, null, userId, null))))
+                    .map(response -> markDegraded(response, degraded));
+        } else {
+            // Use local template enhancement
+            analysis = blocking(() -> saveRewrite(resume,
+                    enhanceWithLocalTemplate(resume.getRawText(), request.getJobDescription()), null, userId, null));
         }
 
-        try {
-            String enhancedText;
+        return analysis.onErrorMap(e -> new RuntimeException("Failed to analyze resume: " + e.getMessage(), e));
+    }
 
-            if ("gpt".equals(request.getMode()) && gptService.isServiceAvailable()) {
-                // Check usage limits
-                if (usageTrackingService != null && !usageTrackingService.canUseGptService(userId)) {
-                    throw new RuntimeException("Daily GPT usage limit exceeded. Please try again tomorrow or use local mode.");
-                }
-                
-                // Use GPT for enhancement - 将简历改成模板格式，支持输出语言
-                enhancedText = gptService.enhanceResume(resume.getRawText(), request.getJobDescription(), request.getOutputLanguage());
-                
-                // Track usage
-                if (usageTrackingService != null) {
-                    usageTrackingService.trackGptUsage(userId);
-                }
-            } else {
-                // Use local template enhancement
-                enhancedText = enhanceWithLocalTemplate(resume.getRawText(), request.getJobDescription());
+    // The enhancement is required; suggestions are best-effort and dropped if slow or failing
+    private Mono<Tuple2<String, Optional<List<String>>>> parallelAnalysis(Resume resume, AnalyzeRequest request,
+                                                                          String fingerprint, AtomicBoolean degraded) {
+        Mono<String> enhancement = enhanceWithGpt(resume, request.getJobDescription(), request.getOutputLanguage(), fingerprint);
+
+        Duration suggestionsTimeout = Duration.ofSeconds(suggestionsTimeoutSeconds);
+        Mono<Optional<List<String>>> suggestions = resume.getParsedJson() != null
+                ? GptDeadline.within(gptService.generateSuggestionsAsync(resume.getParsedJson(), request.getJobDescription()), suggestionsTimeout)
+                        .map(Optional::of)
+                        .timeout(suggestionsTimeout)
+                        .onErrorResume(this::isGptUnavailable, e -> {
+                            degraded.set(true);
+                            return Mono.just(Optional.of(LOCAL_SUGGESTIONS));
+                        })
+                        .onErrorResume(e -> {
+                            System.err.println("Suggestions unavailable, returning enhancement only: " + e.getMessage());
+                            return Mono.just(Optional.empty());
+                        })
+                : Mono.just(Optional.empty());
+
+        return Mono.zip(enhancement, suggestions);
+    }
+
+    public List<String> generateSuggestions(Long resumeId, String jobDescription, String mode, Long userId) {
+        return generateSuggestionsAsync(resumeId, jobDescription, mode, userId).block();
+    }
+
+    public Mono<List<String>> generateSuggestionsAsync(Long resumeId, String jobDescription, String mode, Long userId) {
+        return CacheTags.within(blocking(() -> {
+            Resume resume = resumeRepository.findByIdAndUserId(resumeId, userId)
+                    .orElseThrow(() -> new RuntimeException("Resume not found"));
+
+            if (resume.getParsedJson() == null) {
+                throw new RuntimeException("Resume has not been parsed yet");
             }
-            
-            // Track enhancement usage regardless of mode
-            if (usageTrackingService != null) {
-                usageTrackingService.trackEnhancementUsage(userId);
+            return resume;
+        }).flatMap(resume -> {
+            Mono<List<String>> suggestions;
+
+            if (useGpt(mode)) {
+                suggestions = withGptQuota(userId, gptService.generateSuggestionsAsync(resume.getParsedJson(), jobDescription))
+                        .onErrorResume(this::isGptUnavailable, e -> Mono.just(LOCAL_SUGGESTIONS));
+            } else {
+                // Return local suggestions
+                suggestions = Mono.just(LOCAL_SUGGESTIONS);
             }
 
-            // Save enhanced resume
-            EnhancedResume enhanced = new EnhancedResume();
-            enhanced.setResume(resume);
-            enhanced.setEnhancedText(enhancedText);
-            enhanced.setLanguage(EnhancedResume.Language.ORIGINAL);
-            enhanced.setEnhancementType("rewrite");
-            
-            EnhancedResume saved = enhancedResumeRepository.save(enhanced);
-            return convertToDto(saved);
+            return suggestions.onErrorMap(e -> new RuntimeException("Failed to generate suggestions: " + e.getMessage(), e));
+        }), userId, resumeId);
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to enhance resume: " + e.getMessage(), e);
-        }
+    public EnhancedResumeResponse translateResume(TranslateRequest request, Long userId) {
+        return translateResumeAsync(request, userId).block();
     }
 
-    public EnhancedResumeResponse analyzeResume(AnalyzeRequest request, Long userId) {
-        Resume resume = resumeRepository.findByIdAndUserId(request.getResumeId(), userId)
-                .orElseThrow(() -> new RuntimeException("Resume not found"));
+    public Mono<EnhancedResumeResponse> translateResumeAsync(TranslateRequest request, Long userId) {
+        return CacheTags.within(blocking(() -> resolveTranslationSource(request, userId))
+                .flatMap(source -> {
+                    String sourceText = source.getRawText();
+                    Mono<String> translatedText;
+                    AtomicBoolean degraded = new AtomicBoolean();
+
+                    System.out.println("=== TRANSLATION DEBUG ===");
+                    System.out.println("Request mode: " + request.getMode());
+                    System.out.println("GPT service available: " + gptService.isServiceAvailable());
+
+                    if (useGpt(request.getMode())) {
+                        System.out.println("Using GPT translation");
+                        translatedText = withGptQuota(userId, gptService.translateResumeAsync(sourceText, request.getTargetLang()))
+                                .onErrorResume(this::isGptUnavailable, e -> localFallback(degraded,
+                                        () -> translateWithLocalMethod(sourceText, request.getTargetLang())));
+                    } else {
+                        System.out.println("Using local translation method");
+                        System.out.println("Reason: mode=" + request.getMode() + ", gptAvailable=" + gptService.isServiceAvailable());
+                        translatedText = Mono.fromCallable(() -> translateWithLocalMethod(sourceText, request.getTargetLang()));
+                    }
+
+                    return translatedText
+                            .flatMap(text -> blocking(() -> saveTranslation(source.getId(), text, request.getTargetLang())))
+                            .map(response -> markDegraded(response, degraded))
+                            .onErrorMap(e -> new RuntimeException("Failed to translate resume: " + e.getMessage(), e));
+                }), userId, request.getResumeId());
+    }
 
-        if (resume.getRawText() == null || resume.getRawText().trim().isEmpty()) {
-            throw new RuntimeException("Resume text is not available yet");
+    public Flux<EnhancementStreamEvent> streamEnhanceResume(EnhanceRequest request, Long userId) {
+        boolean useGpt = useGpt(request.getMode());
+
+        return CacheTags.within(blocking(() -> loadResumeWithText(request.getResumeId(), userId))
+                .flatMapMany(resume -> {
+                    AtomicBoolean degraded = new AtomicBoolean();
+                    Callable<String> local = () -> enhanceWithLocalTemplate(resume.getRawText(), request.getJobDescription());
+                    Flux<String> tokens = useGpt
+                            ? withGptQuota(userId, gptService.streamEnhanceResume(
+                                    resume.getRawText(), request.getJobDescription(), request.getOutputLanguage()))
+                                    .onErrorResume(this::isGptUnavailable, e -> localFallback(degraded, local))
+                            : Mono.fromCallable(local).flux();
+
+                    // Persist the assembled text once the stream has completed
+                    StringBuilder assembled = new StringBuilder();
+                    return tokens
+                            .doOnNext(assembled::append)
+                            .map(EnhancementStreamEvent::token)
+                            .concatWith(Mono.defer(() -> {
+                                boolean fromGpt = useGpt && !degraded.get();
+                                return blocking(() -> EnhancementStreamEvent.done(markDegraded(saveRewrite(resume,
+                                                fromGpt ? assembled.toString().trim() : assembled.toString(), null, userId,
+                                                fromGpt ? gptService.enhancePromptFingerprint(request.getJobDescription(), request.getOutputLanguage()) : null),
+                                                degraded)));
+                            }));
+                }), userId, request.getResumeId());
+    }
+
+    public Flux<EnhancementStreamEvent> streamTranslateResume(TranslateRequest request, Long userId) {
+        boolean useGpt = useGpt(request.getMode());
+
+        return CacheTags.within(blocking(() -> resolveTranslationSource(request, userId))
+                .flatMapMany(source -> {
+                    AtomicBoolean degraded = new AtomicBoolean();
+                    Callable<String> local = () -> translateWithLocalMethod(source.getRawText(), request.getTargetLang());
+                    Flux<String> tokens = useGpt
+                            ? withGptQuota(userId, gptService.streamTranslateResume(source.getRawText(), request.getTargetLang()))
+                                    .onErrorResume(this::isGptUnavailable, e -> localFallback(degraded, local))
+                            : Mono.fromCallable(local).flux();
+
+                    StringBuilder assembled = new StringBuilder();
+                    return tokens
+                            .doOnNext(assembled::append)
+                            .map(EnhancementStreamEvent::token)
+                            .concatWith(Mono.defer(() -> {
+                                boolean fromGpt = useGpt && !degraded.get();
+                                return blocking(() -> EnhancementStreamEvent.done(markDegraded(saveTranslation(source.getId(),
+                                        fromGpt ? assembled.toString().trim() : assembled.toString(), request.getTargetLang()), degraded)));
+                            }));
+                }), userId, request.getResumeId());
+    }
+
+    private Resume resolveTranslationSource(TranslateRequest request, Long userId) {
+        Resume source;
+
+        if (request.getResumeId() != null) {
+            source = resumeRepository.findByIdAndUserId(request.getResumeId(), userId)
+                    .orElseThrow(() -> new RuntimeException("Resume not found"));
+        } else if (request.getText() != null && !request.getText().trim().isEmpty()) {
+            // Text-only translations are not persisted, so the resume stays transient
+            source = new Resume();
+            source.setRawText(request.getText());
+        } else {
+            throw new RuntimeException("Either resumeId or text must be provided");
         }
 
-        // Check for existing enhancement if not forcing refresh
-        if (!Boolean.TRUE.equals(request.getForceRefresh())) {
-            List<EnhancedResume> existing = enhancedResumeRepository.findByResumeIdOrderByCreatedAtDesc(request.getResumeId());
-            if (!existing.isEmpty()) {
-                EnhancedResume latest = existing.get(0);
-                if ("rewrite".equals(latest.getEnhancementType())) {
-                    return convertToDto(latest);
-                }
-            }
+        if (source.getRawText() == null || source.getRawText().trim().isEmpty()) {
+            throw new RuntimeException("Source text is empty");
         }
 
-        try {
-            String enhancedText;
-            List<String> suggestions = null;
+        return source;
+    }
 
-            if ("gpt".equals(request.getMode()) && gptService.isServiceAvailable()) {
-                // Check usage limits
-                if (usageTrackingService != null && !usageTrackingService.canUseGptService(userId)) {
-                    throw new RuntimeException("Daily GPT usage limit exceeded. Please try again tomorrow or use local mode.");
-                }
-                
-                // Use GPT for enhancement
-                enhancedText = gptService.enhanceResume(resume.getRawText(), request.getJobDescription(), request.getOutputLanguage());
-                
-                // Generate suggestions if parsed JSON is available
-                if (resume.getParsedJson() != null) {
-                    suggestions = gptService.generateSuggestions(resume.getParsedJson(), request.getJobDescription());
-                }
-                
-                // Track usage
-                if (usageTrackingService != null) {
-                    usageTrackingService.trackGptUsage(userId);
-                }
-            } else {
-                // Use local template enhancement
-                enhancedText = enhanceWithLocalTemplate(resume.getRawText(), request.getJobDescription());
-            }
-            
-            // Track enhancement usage regardless of mode
-            if (usageTrackingService != null) {
-                usageTrackingService.trackEnhancementUsage(userId);
-            }
+    private EnhancedResumeResponse saveTranslation(Long resumeId, String translatedText, String targetLang) {
+        EnhancedResume.Language language = "en".equals(targetLang) ?
+            EnhancedResume.Language.EN : EnhancedResume.Language.ZH;
+
+        // Save translation if resumeId is provided
+        if (resumeId != null) {
+            Resume resume = resumeRepository.findById(resumeId).orElseThrow();
 
-            // Save enhanced resume
             EnhancedResume enhanced = new EnhancedResume();
             enhanced.setResume(resume);
-            enhanced.setEnhancedText(enhancedText);
-            enhanced.setLanguage(EnhancedResume.Language.ORIGINAL);
-            enhanced.setEnhancementType("rewrite");
-            
-            if (suggestions != null) {
-                enhanced.setSuggestions(objectMapper.writeValueAsString(Map.of("suggestions", suggestions)));
-            }
-            
+            enhanced.setEnhancedText(translatedText);
+            enhanced.setLanguage(language);
+            enhanced.setEnhancementType("translate");
+
             EnhancedResume saved = enhancedResumeRepository.save(enhanced);
             return convertToDto(saved);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to analyze resume: " + e.getMessage(), e);
+        } else {
+            // Return temporary response for text-only translation
+            EnhancedResumeResponse response = new EnhancedResumeResponse();
+            response.setEnhancedText(translatedText);
+            response.setLanguage(language);
+            response.setEnhancementType("translate");
+            return response;
         }
     }
 
-    public List<String> generateSuggestions(Long resumeId, String jobDescription, String mode, Long userId) {
+    private Resume loadResumeWithText(Long resumeId, Long userId) {
         Resume resume = resumeRepository.findByIdAndUserId(resumeId, userId)
                 .orElseThrow(() -> new RuntimeException("Resume not found"));
 
-        if (resume.getParsedJson() == null) {
-            throw new RuntimeException("Resume has not been parsed yet");
+        if (resume.getRawText() == null || resume.getRawText().trim().isEmpty()) {
+            throw new RuntimeException("Resume text is not available yet");
         }
+        return resume;
+    }
 
-        try {
-            if ("gpt".equals(mode) && gptService.isServiceAvailable()) {
-                // Check usage limits
-                if (usageTrackingService != null && !usageTrackingService.canUseGptService(userId)) {
-                    throw new RuntimeException("Daily GPT usage limit exceeded. Please try again tomorrow or use local mode.");
-                }
-                
-                List<String> suggestions = gptService.generateSuggestions(resume.getParsedJson(), jobDescription);
-                
-                // Track usage
-                if (usageTrackingService != null) {
-                    usageTrackingService.trackGptUsage(userId);
-                }
-                
-                return suggestions;
-            } else {
-                // Return local suggestions
-                return List.of(
-                    "Add more quantifiable achievements with specific numbers and percentages",
-                    "Include relevant technical skills and certifications for your target role",
-                    "Tailor your experience descriptions to match the job requirements",
-                    "Consider adding a professional summary section at the top",
-                    "Ensure consistent formatting and remove any typos or grammatical errors"
-                );
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate suggestions: " + e.getMessage(), e);
+    private EnhancedResumeResponse findLatestRewrite(Long resumeId) {
+        List<EnhancedResume> existing = enhancedResumeRepository.findByResumeIdOrderByCreatedAtDesc(resumeId);
+        if (!existing.isEmpty() && "rewrite".equals(existing.get(0).getEnhancementType())) {
+            return convertToDto(existing.get(0));
         }
+        return null;
     }
 
-    public EnhancedResumeResponse translateResume(TranslateRequest request, Long userId) {
-        String sourceText;
-        Long resumeId = null;
-        
-        if (request.getResumeId() != null) {
-            Resume resume = resumeRepository.findByIdAndUserId(request.getResumeId(), userId)
-                    .orElseThrow(() -> new RuntimeException("Resume not found"));
-            sourceText = resume.getRawText();
-            resumeId = resume.getId();
-        } else if (request.getText() != null && !request.getText().trim().isEmpty()) {
-            sourceText = request.getText();
-        } else {
-            throw new RuntimeException("Either resumeId or text must be provided");
+    // Revises the latest GPT version made with the same prompt when only part of the resume changed
+    private Mono<String> enhanceWithGpt(Resume resume, String jobDescription, String outputLanguage, String fingerprint) {
+        Mono<String> incremental = incrementalEnhancer == null ? Mono.empty()
+                : blocking(() -> enhancedResumeRepository
+                        .findFirstByResumeIdAndEnhancementTypeAndPromptFingerprintOrderByCreatedAtDesc(resume.getId(), "rewrite", fingerprint)
+                        .orElse(null))
+                .flatMap(previous -> incrementalEnhancer.enhance(previous.getSourceText(), resume.getRawText(),
+                        previous.getEnhancedText(), jobDescription, outputLanguage));
+
+        return incremental.switchIfEmpty(Mono.defer(() ->
+                gptService.enhanceResumeAsync(resume.getRawText(), jobDescription, outputLanguage)));
+    }
+
+    private EnhancedResumeResponse saveRewrite(Resume resume, String enhancedText, List<String> suggestions,
+                                               Long userId, String promptFingerprint) throws Exception {
+        // Track enhancement usage regardless of mode
+        if (usageTrackingService != null) {
+            usageTrackingService.trackEnhancementUsage(userId);
         }
 
-        if (sourceText == null || sourceText.trim().isEmpty()) {
-            throw new RuntimeException("Source text is empty");
+        // Save enhanced resume
+        EnhancedResume enhanced = new EnhancedResume();
+        enhanced.setResume(resume);
+        enhanced.setEnhancedText(enhancedText);
+        enhanced.setLanguage(EnhancedResume.Language.ORIGINAL);
+        enhanced.setEnhancementType("rewrite");
+        enhanced.setSourceText(resume.getRawText());
+        enhanced.setPromptFingerprint(promptFingerprint);
+
+        if (suggestions != null) {
+            enhanced.setSuggestions(objectMapper.writeValueAsString(Map.of("suggestions", suggestions)));
         }
 
-        try {
-            String translatedText;
-            
-            System.out.println("=== TRANSLATION DEBUG ===");
-            System.out.println("Request mode: " + request.getMode());
-            System.out.println("GPT service available: " + gptService.isServiceAvailable());
-            
-            if ("gpt".equals(request.getMode()) && gptService.isServiceAvailable()) {
-                System.out.println("Using GPT translation");
-                
-                // Check usage limits
-                if (usageTrackingService != null && !usageTrackingService.canUseGptService(userId)) {
-                    System.out.println("GPT usage limit exceeded, falling back to local");
-                    throw new RuntimeException("Daily GPT usage limit exceeded. Please try again tomorrow or use local mode.");
-                }
-                
-                translatedText = gptService.translateResume(sourceText, request.getTargetLang());
-                
-                // Track usage
-                if (usageTrackingService != null) {
-                    usageTrackingService.trackGptUsage(userId);
-                }
-            } else {
-                System.out.println("Using local translation method");
-                System.out.println("Reason: mode=" + request.getMode() + ", gptAvailable=" + gptService.isServiceAvailable());
-                translatedText = translateWithLocalMethod(sourceText, request.getTargetLang());
-            }
+        EnhancedResume saved = enhancedResumeRepository.save(enhanced);
+        return convertToDto(saved);
+    }
 
-            // Save translation if resumeId is provided
-            if (resumeId != null) {
-                Resume resume = resumeRepository.findById(resumeId).orElseThrow();
-                
-                EnhancedResume enhanced = new EnhancedResume();
-                enhanced.setResume(resume);
-                enhanced.setEnhancedText(translatedText);
-                enhanced.setLanguage("en".equals(request.getTargetLang()) ? 
-                    EnhancedResume.Language.EN : EnhancedResume.Language.ZH);
-                enhanced.setEnhancementType("translate");
-                
-                EnhancedResume saved = enhancedResumeRepository.save(enhanced);
-                return convertToDto(saved);
-            } else {
-                // Return temporary response for text-only translation
-                EnhancedResumeResponse response = new EnhancedResumeResponse();
-                response.setEnhancedText(translatedText);
-                response.setLanguage("en".equals(request.getTargetLang()) ? 
-                    EnhancedResume.Language.EN : EnhancedResume.Language.ZH);
-                response.setEnhancementType("translate");
-                return response;
-            }
+    private boolean useGpt(String mode) {
+        return "gpt".equals(mode) && gptService.isServiceAvailable();
+    }
+
+    private <T> Mono<T> withGptQuota(Long userId, Mono<T> call) {
+        return usageTrackingService != null ? usageTrackingService.withGptQuota(userId, call) : call;
+    }
+
+    private <T> Flux<T> withGptQuota(Long userId, Flux<T> call) {
+        return usageTrackingService != null ? usageTrackingService.withGptQuota(userId, call) : call;
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to translate resume: " + e.getMessage(), e);
+    // An open circuit means GPT is down for everyone, so serve the local result instead of an error
+    private boolean isGptUnavailable(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof GptUnavailableException) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    private Mono<String> localFallback(AtomicBoolean degraded, Callable<String> local) {
+        return Mono.fromCallable(() -> {
+            degraded.set(true);
+            return local.call();
+        });
+    }
+
+    private EnhancedResumeResponse markDegraded(EnhancedResumeResponse response, AtomicBoolean degraded) {
+        response.setDegraded(degraded.get());
+        return response;
+    }
+
+    // JPA repositories and the Redis usage counters block, so run them on the bounded elastic pool
+    private <T> Mono<T> blocking(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(Schedulers.boundedElastic());
     }
 
     public EnhancedResumeResponse getEnhancedResume(Long id, Long userId) {
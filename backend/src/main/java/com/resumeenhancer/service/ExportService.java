@@ -75,8 +75,9 @@ public class ExportService {
         return "<!DOCTYPE html>" +
                 "<html lang=\"en\">" +
                 "<head>" +
-                "<meta charset=\"UTF-8\">" +
-                "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">" +
+                // Self-closed so the PDF renderer's XML parser accepts the document
+                "<meta charset=\"UTF-8\" />" +
+                "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\" />" +
                 "<title>Resume</title>" +
                 "<style>" +
                 "body { font-family: 'Arial', sans-serif; line-height: 1.6; color: #333; max-width: 800px; margin: 0 auto; padding: 20px; }" +
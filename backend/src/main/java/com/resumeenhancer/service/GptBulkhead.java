@@ -0,0 +1,216 @@
+package com.resumeenhancer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Adaptive concurrency limit for upstream GPT calls (AIMD). Fast calls grow the limit by
+// roughly one slot per limit's worth of successes; slow calls, timeouts and provider
+// throttling cut it multiplicatively. Callers beyond the limit wait in a bounded queue
+// with a deadline and are rejected with GptOverloadedException once it is full.
+@Component
+public class GptBulkhead {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final long queueTimeoutMillis;
+    private final long latencyThresholdMillis;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong rejectedQueueTimeout = new AtomicLong();
+    private final AtomicLong limitDecreases = new AtomicLong();
+
+    public GptBulkhead(@Value("${app.gpt.bulkhead.initial-limit:8}") int initialLimit,
+                       @Value("${app.gpt.bulkhead.min-limit:2}") int minLimit,
+                       @Value("${app.gpt.bulkhead.max-limit:32}") int maxLimit,
+                       @Value("${app.gpt.bulkhead.queue-capacity:50}") int queueCapacity,
+                       @Value("${app.gpt.bulkhead.queue-timeout-ms:10000}") long queueTimeoutMillis,
+                       @Value("${app.gpt.bulkhead.latency-threshold-ms:20000}") long latencyThresholdMillis,
+                       @Value("${app.gpt.bulkhead.backoff-ratio:0.75}") double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueCapacity = queueCapacity;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.latencyThresholdMillis = latencyThresholdMillis;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return acquire().flatMap(permit -> Mono.defer(call)
+                .doOnSuccess(value -> permit.complete(false))
+                .doOnError(e -> permit.complete(isOverloadSignal(e)))
+                .doFinally(signal -> permit.release()));
+    }
+
+    // Streams hold a slot until they finish, but their duration says nothing about
+    // provider health, so only overload errors feed back into the limit
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        return acquire().flatMapMany(permit -> Flux.defer(call)
+                .doOnError(e -> permit.complete(isOverloadSignal(e)))
+                .doFinally(signal -> permit.releaseWithoutSample()));
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.<Permit>create(sink -> {
+            Waiter waiter;
+            synchronized (this) {
+                if (inFlight < currentLimit() && queue.isEmpty()) {
+                    inFlight++;
+                    admitted.incrementAndGet();
+                    sink.success(new Permit());
+                    return;
+                }
+                if (queue.size() >= queueCapacity) {
+                    rejectedQueueFull.incrementAndGet();
+                    sink.error(new GptOverloadedException(GptOverloadedException.Reason.QUEUE_FULL,
+                            "GPT service is at capacity, please retry shortly", retryAfterSeconds()));
+                    return;
+                }
+                waiter = new Waiter(sink);
+                queue.addLast(waiter);
+            }
+
+            waiter.timeout = Schedulers.parallel().schedule(() -> {
+                if (removeWaiter(waiter)) {
+                    rejectedQueueTimeout.incrementAndGet();
+                    sink.error(new GptOverloadedException(GptOverloadedException.Reason.QUEUE_TIMEOUT,
+                            "Timed out waiting for GPT capacity", retryAfterSeconds()));
+                }
+            }, queueTimeoutMillis, TimeUnit.MILLISECONDS);
+            sink.onCancel(() -> {
+                if (removeWaiter(waiter)) {
+                    waiter.timeout.dispose();
+                }
+            });
+        }).doOnDiscard(Permit.class, Permit::releaseWithoutSample); // granted after the caller went away
+    }
+
+    private synchronized boolean removeWaiter(Waiter waiter) {
+        return waiter.claimed.compareAndSet(false, true) && queue.remove(waiter);
+    }
+
+    private void onRelease(long latencyNanos, boolean sampled, boolean overloaded) {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            if (overloaded || (sampled && TimeUnit.NANOSECONDS.toMillis(latencyNanos) > latencyThresholdMillis)) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                limitDecreases.incrementAndGet();
+            } else if (sampled && inFlight + 1 >= currentLimit() / 2) {
+                // Only grow while the current limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+
+            Iterator<Waiter> it = queue.iterator();
+            while (inFlight < currentLimit() && it.hasNext()) {
+                Waiter waiter = it.next();
+                it.remove();
+                if (waiter.claimed.compareAndSet(false, true)) {
+                    inFlight++;
+                    admitted.incrementAndGet();
+                    granted.add(waiter);
+                }
+            }
+        }
+
+        // Hand out permits outside the lock; subscribers start their calls synchronously
+        for (Waiter waiter : granted) {
+            waiter.timeout.dispose();
+            waiter.sink.success(new Permit());
+        }
+    }
+
+    private boolean isOverloadSignal(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException) {
+            int status = ((WebClientResponseException) e).getRawStatusCode();
+            return status == 429 || status == 503;
+        }
+        return false;
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(queueTimeoutMillis));
+    }
+
+    // Free slots right now; background work uses this to stay out of the way of interactive calls
+    public synchronized int headroom() {
+        return currentLimit() - inFlight - queue.size();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("limit", currentLimit());
+        stats.put("inFlight", inFlight);
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("admitted", admitted.get());
+        stats.put("rejectedQueueFull", rejectedQueueFull.get());
+        stats.put("rejectedQueueTimeout", rejectedQueueTimeout.get());
+        stats.put("limitDecreases", limitDecreases.get());
+        return stats;
+    }
+
+    private static class Waiter {
+        final MonoSink<Permit> sink;
+        final AtomicBoolean claimed = new AtomicBoolean();
+        volatile Disposable timeout = () -> {};
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private class Permit {
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean overloaded;
+
+        void complete(boolean overloaded) {
+            this.overloaded = overloaded;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                onRelease(System.nanoTime() - startNanos, true, overloaded);
+            }
+        }
+
+        void releaseWithoutSample() {
+            if (released.compareAndSet(false, true)) {
+                onRelease(0, false, overloaded);
+            }
+        }
+    }
+}
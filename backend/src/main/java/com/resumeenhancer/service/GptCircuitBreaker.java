@@ -0,0 +1,186 @@
+package com.resumeenhancer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Count-based circuit breaker for the GPT provider. Trips when the failure rate (errors and
+// timeouts) over the last window-size calls crosses the threshold, rejects calls instantly
+// while open, and lets a few probe calls through after open-duration to decide whether to close.
+@Component
+public class GptCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAtNanos;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timesOpened = new AtomicLong();
+
+    public GptCircuitBreaker(@Value("${app.gpt.circuit-breaker.window-size:20}") int windowSize,
+                             @Value("${app.gpt.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                             @Value("${app.gpt.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+                             @Value("${app.gpt.circuit-breaker.open-seconds:30}") long openSeconds,
+                             @Value("${app.gpt.circuit-breaker.half-open-probes:3}") int halfOpenProbes) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = TimeUnit.SECONDS.toNanos(openSeconds);
+        this.halfOpenProbes = halfOpenProbes;
+        this.window = new boolean[windowSize];
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            boolean probe = acquirePermission();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call.get()
+                    .doOnSuccess(value -> record(recorded, probe, false))
+                    .doOnError(e -> record(recorded, probe, isProviderFailure(e)))
+                    .doOnCancel(() -> releaseProbe(recorded, probe));
+        });
+    }
+
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            boolean probe = acquirePermission();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call.get()
+                    .doOnComplete(() -> record(recorded, probe, false))
+                    .doOnError(e -> record(recorded, probe, isProviderFailure(e)))
+                    .doOnCancel(() -> releaseProbe(recorded, probe));
+        });
+    }
+
+    // Returns true when the permitted call is a half-open probe
+    private synchronized boolean acquirePermission() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && probesInFlight < halfOpenProbes) {
+            probesInFlight++;
+            return true;
+        }
+
+        rejected.incrementAndGet();
+        throw new GptUnavailableException("GPT service is temporarily unavailable (circuit open)");
+    }
+
+    private void record(AtomicBoolean recorded, boolean probe, boolean failure) {
+        if (!recorded.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            if (probe) {
+                probesInFlight--;
+                if (state != State.HALF_OPEN) {
+                    return;
+                }
+                if (failure) {
+                    open();
+                } else if (++probeSuccesses >= halfOpenProbes) {
+                    close();
+                }
+                return;
+            }
+
+            if (state != State.CLOSED) {
+                return;
+            }
+            if (windowCount == windowSize && window[windowPosition]) {
+                windowFailures--;
+            }
+            window[windowPosition] = failure;
+            if (failure) {
+                windowFailures++;
+            }
+            windowPosition = (windowPosition + 1) % windowSize;
+            windowCount = Math.min(windowCount + 1, windowSize);
+
+            if (windowCount >= minimumCalls && failureRate() >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    private void releaseProbe(AtomicBoolean recorded, boolean probe) {
+        if (probe && recorded.compareAndSet(false, true)) {
+            synchronized (this) {
+                probesInFlight--;
+            }
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        timesOpened.incrementAndGet();
+        System.err.println("GPT circuit breaker opened, serving local fallbacks");
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowPosition = 0;
+        windowCount = 0;
+        windowFailures = 0;
+        System.out.println("GPT circuit breaker closed");
+    }
+
+    private double failureRate() {
+        return windowCount == 0 ? 0 : 100.0 * windowFailures / windowCount;
+    }
+
+    static boolean isProviderFailure(Throwable e) {
+        // Our own capacity rejections and request-specific client errors say nothing about provider health
+        if (e instanceof GptOverloadedException) {
+            return false;
+        }
+        if (e instanceof WebClientResponseException) {
+            int status = ((WebClientResponseException) e).getRawStatusCode();
+            return status >= 500 || status == 401 || status == 403 || status == 408 || status == 429;
+        }
+        return true;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name());
+        stats.put("failureRate", failureRate());
+        stats.put("windowCalls", windowCount);
+        stats.put("rejected", rejected.get());
+        stats.put("timesOpened", timesOpened.get());
+        return stats;
+    }
+}
@@ -0,0 +1,43 @@
+package com.resumeenhancer.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+// Carries a request's latency budget through the Reactor Context so GPT calls deep in the chain
+// can size their timeouts and pick a faster model. Nested budgets keep the tighter deadline.
+public final class GptDeadline {
+
+    private static final String KEY = GptDeadline.class.getName();
+
+    private GptDeadline() {
+    }
+
+    public static <T> Mono<T> within(Mono<T> mono, Duration budget) {
+        return mono.contextWrite(context -> tighten(context, budget));
+    }
+
+    public static <T> Flux<T> within(Flux<T> flux, Duration budget) {
+        return flux.contextWrite(context -> tighten(context, budget));
+    }
+
+    // Null when the caller set no deadline
+    public static Duration remaining(ContextView context) {
+        if (!context.hasKey(KEY)) {
+            return null;
+        }
+        long nanos = context.<Long>get(KEY) - System.nanoTime();
+        return Duration.ofNanos(Math.max(0, nanos));
+    }
+
+    private static Context tighten(Context context, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        if (context.hasKey(KEY) && context.<Long>get(KEY) - deadline < 0) {
+            return context;
+        }
+        return context.put(KEY, deadline);
+    }
+}
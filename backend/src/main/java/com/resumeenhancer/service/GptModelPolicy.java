@@ -0,0 +1,132 @@
+package com.resumeenhancer.service;
+
+import com.resumeenhancer.config.GptModelProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Chooses model, token limits, temperature and timeout per operation. Light operations
+// (suggestions, translation) can run on a cheaper model, and any operation can step down to a
+// faster profile when the caller's remaining latency budget is below its threshold.
+@Component
+public class GptModelPolicy {
+
+    public enum Operation { ENHANCE, REVISE, ANALYZE, SUGGESTIONS, TRANSLATE }
+
+    private final Map<String, GptModelProperties.Profile> profiles;
+    private final ModelProfile defaults;
+    private final Map<String, AtomicLong> selections = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> downgrades = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GptModelPolicy(GptModelProperties properties,
+                          @Value("${OPENAI_MODEL:gpt-3.5-turbo}") String model,
+                          @Value("${OPENAI_MAX_TOKENS:2000}") int maxTokens,
+                          @Value("${OPENAI_TEMPERATURE:0.3}") double temperature,
+                          @Value("${app.gpt.context-window:16385}") int contextWindow) {
+        this(properties.getProfiles(), new ModelProfile("default", model, maxTokens, temperature,
+                Duration.ofSeconds(60), contextWindow));
+    }
+
+    public GptModelPolicy(Map<String, GptModelProperties.Profile> profiles, ModelProfile defaults) {
+        this.profiles = profiles;
+        this.defaults = defaults;
+        for (Operation operation : Operation.values()) {
+            String name = name(operation);
+            ModelProfile profile = resolve(name);
+            System.out.println("GPT profile " + name + ": " + profile.getModel() + ", max_tokens=" + profile.getMaxTokens()
+                    + ", timeout=" + profile.getTimeout().getSeconds() + "s");
+        }
+    }
+
+    // remaining is null when the request carries no deadline
+    public ModelProfile select(Operation operation, Duration remaining) {
+        String name = name(operation);
+        GptModelProperties.Profile config = profiles.get(name);
+        if (remaining != null && config != null && config.getDowngradeTo() != null
+                && config.getDowngradeBelowSeconds() != null
+                && remaining.compareTo(Duration.ofSeconds(config.getDowngradeBelowSeconds())) < 0) {
+            downgrades.computeIfAbsent(name, k -> new AtomicLong()).incrementAndGet();
+            System.out.println("GPT " + name + " downgraded to profile " + config.getDowngradeTo()
+                    + " (" + remaining.toMillis() + "ms left)");
+            name = config.getDowngradeTo();
+        }
+        selections.computeIfAbsent(name, k -> new AtomicLong()).incrementAndGet();
+        return resolve(name);
+    }
+
+    // The configured profile without deadline downgrades; not counted in the stats
+    public ModelProfile baseline(Operation operation) {
+        return resolve(name(operation));
+    }
+
+    private ModelProfile resolve(String name) {
+        GptModelProperties.Profile config = profiles.get(name);
+        if (config == null) {
+            return defaults.renamed(name);
+        }
+        return new ModelProfile(name,
+                config.getModel() != null ? config.getModel() : defaults.getModel(),
+                config.getMaxTokens() != null ? config.getMaxTokens() : defaults.getMaxTokens(),
+                config.getTemperature() != null ? config.getTemperature() : defaults.getTemperature(),
+                config.getTimeoutSeconds() != null ? Duration.ofSeconds(config.getTimeoutSeconds()) : defaults.getTimeout(),
+                config.getContextWindow() != null ? config.getContextWindow() : defaults.getContextWindow());
+    }
+
+    private static String name(Operation operation) {
+        return operation.name().toLowerCase(Locale.ROOT);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Long> selected = new LinkedHashMap<>();
+        selections.forEach((name, count) -> selected.put(name, count.get()));
+        Map<String, Long> downgraded = new LinkedHashMap<>();
+        downgrades.forEach((name, count) -> downgraded.put(name, count.get()));
+        stats.put("selections", selected);
+        stats.put("downgrades", downgraded);
+        return stats;
+    }
+
+    public static class ModelProfile {
+        private final String name;
+        private final String model;
+        private final int maxTokens;
+        private final double temperature;
+        private final Duration timeout;
+        private final int contextWindow;
+
+        public ModelProfile(String name, String model, int maxTokens, double temperature,
+                            Duration timeout, int contextWindow) {
+            this.name = name;
+            this.model = model;
+            this.maxTokens = maxTokens;
+            this.temperature = temperature;
+            this.timeout = timeout;
+            this.contextWindow = contextWindow;
+        }
+
+        ModelProfile renamed(String name) {
+            return new ModelProfile(name, model, maxTokens, temperature, timeout, contextWindow);
+        }
+
+        public String getName() { return name; }
+
+        public String getModel() { return model; }
+
+        public int getMaxTokens() { return maxTokens; }
+
+        public double getTemperature() { return temperature; }
+
+        public Duration getTimeout() { return timeout; }
+
+        public int getContextWindow() { return contextWindow; }
+    }
+}
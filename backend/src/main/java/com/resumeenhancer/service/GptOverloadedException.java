@@ -0,0 +1,22 @@
+package com.resumeenhancer.service;
+
+public class GptOverloadedException extends RuntimeException {
+
+    public enum Reason {
+        QUEUE_FULL,    // rejected immediately, the caller should back off
+        QUEUE_TIMEOUT  // waited past the queue deadline without getting a slot
+    }
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public GptOverloadedException(Reason reason, String message, long retryAfterSeconds) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Reason getReason() { return reason; }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
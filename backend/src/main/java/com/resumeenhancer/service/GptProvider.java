@@ -0,0 +1,34 @@
+package com.resumeenhancer.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+// An OpenAI-compatible chat completions endpoint. Requests and responses use the OpenAI wire
+// format; implementations may rename a requested model through modelFor and must enforce the
+// shorter of their own timeout and the one passed in.
+public interface GptProvider {
+
+    String getName();
+
+    boolean isConfigured();
+
+    Duration getTimeout();
+
+    // The model this provider actually runs for a requested one
+    default String modelFor(String requested) {
+        return requested;
+    }
+
+    // Parsed /chat/completions response
+    Mono<ChatCompletion> complete(Map<String, Object> request, Duration timeout);
+
+    // Data fields of the SSE stream, up to but excluding [DONE]
+    Flux<String> stream(Map<String, Object> request, Duration timeout);
+
+    default Duration effectiveTimeout(Duration timeout) {
+        return timeout != null && timeout.compareTo(getTimeout()) < 0 ? timeout : getTimeout();
+    }
+}
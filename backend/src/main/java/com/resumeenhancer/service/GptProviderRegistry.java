@@ -0,0 +1,75 @@
+package com.resumeenhancer.service;
+
+import com.resumeenhancer.config.GptProviderProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The GPT endpoints requests can be routed to: everything under app.gpt.providers plus any
+// GptProvider beans. Without configured providers the app.openai endpoint is the only one.
+@Component
+public class GptProviderRegistry {
+
+    private final List<GptProvider> providers;
+
+    @Autowired
+    public GptProviderRegistry(GptProviderProperties properties,
+                               @Value("${app.openai.api-base:https://api.chatanywhere.tech}") String apiBase,
+                               @Value("${app.openai.api-key}") String apiKey,
+                               ObjectProvider<GptProvider> customProviders) {
+        List<GptProvider> all = new ArrayList<>();
+        List<GptProviderProperties.Provider> configured = properties.getProviders();
+        for (int i = 0; i < configured.size(); i++) {
+            if (configured.get(i).isEnabled()) {
+                all.add(create(configured.get(i), i));
+            }
+        }
+        if (all.isEmpty()) {
+            all.add(new OpenAiCompatibleProvider("default", apiBase, apiKey, null, Duration.ofSeconds(60)));
+        }
+        customProviders.orderedStream().forEach(all::add);
+        this.providers = usable(all);
+    }
+
+    public GptProviderRegistry(List<GptProvider> providers) {
+        this.providers = usable(providers);
+    }
+
+    public List<GptProvider> getProviders() {
+        return providers;
+    }
+
+    private static GptProvider create(GptProviderProperties.Provider config, int index) {
+        String name = config.getName() != null ? config.getName() : "provider-" + index;
+        Duration timeout = Duration.ofSeconds(config.getTimeoutSeconds());
+        if ("stub".equalsIgnoreCase(config.getType())) {
+            return new StubGptProvider(name, Duration.ofMillis(config.getStubLatencyMillis()), timeout);
+        }
+        if (!"openai".equalsIgnoreCase(config.getType())) {
+            throw new IllegalStateException("Unknown GPT provider type '" + config.getType() + "' for " + name);
+        }
+        if (config.getApiBase() == null) {
+            throw new IllegalStateException("GPT provider " + name + " has no api-base");
+        }
+        return new OpenAiCompatibleProvider(name, config.getApiBase(), config.getApiKey(), config.getModels(), timeout);
+    }
+
+    private static List<GptProvider> usable(List<GptProvider> providers) {
+        List<GptProvider> usable = new ArrayList<>();
+        for (GptProvider provider : providers) {
+            if (provider.isConfigured()) {
+                usable.add(provider);
+                System.out.println("GPT provider registered: " + provider.getName() + " (timeout " + provider.getTimeout().getSeconds() + "s)");
+            } else {
+                System.err.println("GPT provider " + provider.getName() + " has no API key, skipping");
+            }
+        }
+        return Collections.unmodifiableList(usable);
+    }
+}
@@ -0,0 +1,259 @@
+package com.resumeenhancer.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Picks a provider per request by expected cost: EWMA latency plus the EWMA error rate times the
+// provider's timeout (what a failed attempt costs), scaled by requests already in flight. Providers
+// that fail repeatedly are ejected for a while. A provider failure (timeout, 5xx, 429, auth) fails
+// over to the next candidate within the same request; streams only until the first chunk arrives.
+// Attempts share the request's GptDeadline, so failover stops once too little of it is left.
+@Component
+public class GptProviderRouter {
+
+    private final List<ProviderStats> providers = new ArrayList<>();
+    private final double alpha;
+    private final int ejectAfterFailures;
+    private final long ejectNanos;
+    private final long errorHalfLifeNanos;
+    private final int maxAttempts;
+    private final Duration minFailoverBudget;
+    private final AtomicLong failovers = new AtomicLong();
+
+    @Autowired
+    public GptProviderRouter(GptProviderRegistry registry,
+                             @Value("${app.gpt.routing.ewma-alpha:0.3}") double alpha,
+                             @Value("${app.gpt.routing.eject-after-failures:3}") int ejectAfterFailures,
+                             @Value("${app.gpt.routing.eject-seconds:30}") long ejectSeconds,
+                             @Value("${app.gpt.routing.error-half-life-seconds:60}") long errorHalfLifeSeconds,
+                             @Value("${app.gpt.routing.max-attempts:3}") int maxAttempts,
+                             @Value("${app.gpt.routing.min-failover-millis:2000}") long minFailoverMillis) {
+        for (GptProvider provider : registry.getProviders()) {
+            providers.add(new ProviderStats(provider));
+        }
+        this.alpha = alpha;
+        this.ejectAfterFailures = ejectAfterFailures;
+        this.ejectNanos = TimeUnit.SECONDS.toNanos(ejectSeconds);
+        this.errorHalfLifeNanos = TimeUnit.SECONDS.toNanos(Math.max(1, errorHalfLifeSeconds));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.minFailoverBudget = Duration.ofMillis(minFailoverMillis);
+    }
+
+    public boolean hasProviders() {
+        return !providers.isEmpty();
+    }
+
+    public <T> Mono<T> execute(Function<GptProvider, Mono<T>> call) {
+        return Mono.defer(() -> attempt(candidates(), 0, call));
+    }
+
+    public <T> Flux<T> executeMany(Function<GptProvider, Flux<T>> call) {
+        return Flux.defer(() -> attemptMany(candidates(), 0, call));
+    }
+
+    private <T> Mono<T> attempt(List<ProviderStats> candidates, int index, Function<GptProvider, Mono<T>> call) {
+        ProviderStats target = candidates.get(index);
+        return Mono.defer(() -> {
+                    long start = target.begin();
+                    AtomicBoolean recorded = new AtomicBoolean();
+                    return call.apply(target.provider)
+                            .doOnSuccess(value -> target.finish(recorded, start, false, true))
+                            .doOnError(e -> finishWithError(target, recorded, start, e, true))
+                            .doOnCancel(() -> target.release(recorded));
+                })
+                .onErrorResume(e -> Mono.<T>deferContextual(context -> canFailover(e, candidates, index, context)
+                        ? attempt(candidates, index + 1, call)
+                        : Mono.error(e)));
+    }
+
+    private <T> Flux<T> attemptMany(List<ProviderStats> candidates, int index, Function<GptProvider, Flux<T>> call) {
+        ProviderStats target = candidates.get(index);
+        AtomicBoolean emitted = new AtomicBoolean();
+        // Stream durations depend on output length, so only errors feed the stats, not latency
+        return Flux.defer(() -> {
+                    long start = target.begin();
+                    AtomicBoolean recorded = new AtomicBoolean();
+                    return call.apply(target.provider)
+                            .doOnNext(item -> emitted.set(true))
+                            .doOnComplete(() -> target.finish(recorded, start, false, false))
+                            .doOnError(e -> finishWithError(target, recorded, start, e, false))
+                            .doOnCancel(() -> target.release(recorded));
+                })
+                .onErrorResume(e -> Flux.<T>deferContextual(context -> !emitted.get() && canFailover(e, candidates, index, context)
+                        ? attemptMany(candidates, index + 1, call)
+                        : Flux.error(e)));
+    }
+
+    private void finishWithError(ProviderStats target, AtomicBoolean recorded, long start, Throwable e, boolean timed) {
+        if (GptCircuitBreaker.isProviderFailure(e)) {
+            target.finish(recorded, start, true, timed);
+        } else {
+            target.release(recorded);
+        }
+    }
+
+    private boolean canFailover(Throwable e, List<ProviderStats> candidates, int index, ContextView context) {
+        if (index + 1 >= candidates.size() || !GptCircuitBreaker.isProviderFailure(e)) {
+            return false;
+        }
+        Duration remaining = GptDeadline.remaining(context);
+        if (remaining != null && remaining.compareTo(minFailoverBudget) < 0) {
+            System.err.println("GPT provider " + candidates.get(index).provider.getName() + " failed (" + e
+                    + ") with " + remaining.toMillis() + "ms of the deadline left, not failing over");
+            return false;
+        }
+        failovers.incrementAndGet();
+        System.err.println("GPT provider " + candidates.get(index).provider.getName() + " failed (" + e
+                + "), failing over to " + candidates.get(index + 1).provider.getName());
+        return true;
+    }
+
+    // Healthy providers by score, then ejected ones by how soon they return
+    private List<ProviderStats> candidates() {
+        if (providers.isEmpty()) {
+            throw new GptUnavailableException("No GPT provider is configured");
+        }
+        long now = System.nanoTime();
+        List<ProviderStats> healthy = new ArrayList<>();
+        List<ProviderStats> ejected = new ArrayList<>();
+        Map<ProviderStats, Double> scores = new LinkedHashMap<>();
+        for (ProviderStats stats : providers) {
+            synchronized (stats) {
+                if (stats.isEjected(now)) {
+                    ejected.add(stats);
+                } else {
+                    healthy.add(stats);
+                    scores.put(stats, stats.score(now));
+                }
+            }
+        }
+        // Stable sort: ties keep configuration order, so the first provider is the primary
+        healthy.sort(Comparator.comparingDouble(scores::get));
+        ejected.sort(Comparator.comparingLong(stats -> stats.ejectedUntilNanos));
+        healthy.addAll(ejected);
+        return healthy.subList(0, Math.min(maxAttempts, healthy.size()));
+    }
+
+    // Providers that run something other than the requested model, as "provider=model" pairs, so a
+    // cache key can name every model that may answer it; empty when all run the model as requested
+    public String modelVariants(String model) {
+        StringBuilder variants = new StringBuilder();
+        for (ProviderStats stats : providers) {
+            String actual = stats.provider.modelFor(model);
+            if (actual != null && !actual.equals(model)) {
+                variants.append(variants.length() > 0 ? "," : "").append(stats.provider.getName()).append('=').append(actual);
+            }
+        }
+        return variants.toString();
+    }
+
+    public Map<String, Object> getStats() {
+        long now = System.nanoTime();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("failovers", failovers.get());
+        List<Map<String, Object>> perProvider = new ArrayList<>();
+        for (ProviderStats provider : providers) {
+            synchronized (provider) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("name", provider.provider.getName());
+                entry.put("healthy", !provider.isEjected(now));
+                entry.put("ewmaLatencyMs", Math.round(Math.max(0, provider.ewmaLatencyMillis)));
+                entry.put("errorRate", provider.errorRate(now));
+                entry.put("inFlight", provider.inFlight);
+                entry.put("requests", provider.requests);
+                entry.put("failures", provider.failures);
+                perProvider.add(entry);
+            }
+        }
+        stats.put("providers", perProvider);
+        return stats;
+    }
+
+    private class ProviderStats {
+        final GptProvider provider;
+        double ewmaLatencyMillis = -1; // no sample yet
+        double ewmaErrorRate;
+        long errorUpdatedNanos = System.nanoTime();
+        int inFlight;
+        int consecutiveFailures;
+        long ejectedUntilNanos;
+        long requests;
+        long failures;
+
+        ProviderStats(GptProvider provider) {
+            this.provider = provider;
+        }
+
+        synchronized long begin() {
+            inFlight++;
+            requests++;
+            return System.nanoTime();
+        }
+
+        void finish(AtomicBoolean recorded, long start, boolean failure, boolean timed) {
+            if (!recorded.compareAndSet(false, true)) {
+                return;
+            }
+            long now = System.nanoTime();
+            synchronized (this) {
+                inFlight--;
+                if (timed) {
+                    double latency = (now - start) / 1_000_000.0;
+                    ewmaLatencyMillis = ewmaLatencyMillis < 0 ? latency : alpha * latency + (1 - alpha) * ewmaLatencyMillis;
+                }
+                ewmaErrorRate = alpha * (failure ? 1 : 0) + (1 - alpha) * errorRate(now);
+                errorUpdatedNanos = now;
+
+                if (!failure) {
+                    consecutiveFailures = 0;
+                    ejectedUntilNanos = 0;
+                    return;
+                }
+                failures++;
+                if (++consecutiveFailures >= ejectAfterFailures && !isEjected(now)) {
+                    ejectedUntilNanos = now + ejectNanos;
+                    System.err.println("GPT provider " + provider.getName() + " ejected after "
+                            + consecutiveFailures + " consecutive failures");
+                }
+            }
+        }
+
+        void release(AtomicBoolean recorded) {
+            if (recorded.compareAndSet(false, true)) {
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+
+        // Errors fade with time so a provider that recovered gets traffic again
+        double errorRate(long now) {
+            return ewmaErrorRate * Math.pow(0.5, (double) (now - errorUpdatedNanos) / errorHalfLifeNanos);
+        }
+
+        boolean isEjected(long now) {
+            return ejectedUntilNanos != 0 && now - ejectedUntilNanos < 0;
+        }
+
+        double score(long now) {
+            double latency = Math.max(0, ewmaLatencyMillis);
+            double failureCost = errorRate(now) * provider.getTimeout().toMillis();
+            return (latency + failureCost) * (inFlight + 1);
+        }
+    }
+}
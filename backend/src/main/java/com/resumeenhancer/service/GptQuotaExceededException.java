@@ -0,0 +1,9 @@
+package com.resumeenhancer.service;
+
+// The user's daily GPT quota is used up; retrying before it resets cannot succeed
+public class GptQuotaExceededException extends RuntimeException {
+
+    public GptQuotaExceededException(String message) {
+        super(message);
+    }
+}
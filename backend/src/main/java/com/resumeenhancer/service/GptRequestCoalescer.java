@@ -0,0 +1,64 @@
+package com.resumeenhancer.service;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Collapses concurrent identical GPT requests into one upstream call: the first caller for a
+// cache key leads, and everyone arriving while it is in flight joins its result.
+@Component
+public class GptRequestCoalescer {
+
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong joins = new AtomicLong();
+
+    public Mono<String> execute(String key, Supplier<Mono<String>> upstream) {
+        return Mono.deferContextual(context -> {
+            CompletableFuture<String> created = new CompletableFuture<>();
+            CompletableFuture<String> existing = inFlight.putIfAbsent(key, created);
+
+            if (existing != null) {
+                joins.incrementAndGet();
+                return join(existing);
+            }
+
+            leaders.incrementAndGet();
+            created.whenComplete((value, error) -> inFlight.remove(key, created));
+
+            // Detached from the leader's subscription so joiners still get a result if the leader cancels;
+            // the leader's context (deadline, cache tags) is carried over explicitly
+            try {
+                upstream.get().contextWrite(context).subscribe(
+                        created::complete,
+                        created::completeExceptionally,
+                        () -> created.complete(null));
+            } catch (Exception e) {
+                created.completeExceptionally(e);
+            }
+            return join(created);
+        });
+    }
+
+    private Mono<String> join(CompletableFuture<String> shared) {
+        // Cancelling a dependent stage never cancels the shared upstream future
+        return Mono.fromFuture(shared.thenApply(Function.identity()));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("upstreamCalls", leaders.get());
+        stats.put("coalescedJoins", joins.get());
+        long total = leaders.get() + joins.get();
+        stats.put("joinRatio", total == 0 ? 0.0 : (double) joins.get() / total);
+        return stats;
+    }
+}
@@ -1,23 +1,140 @@
 package com.resumeenhancer.service;
 
+import com.resumeenhancer.service.GptModelPolicy.ModelProfile;
+import com.resumeenhancer.service.GptModelPolicy.Operation;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 
 @Service
 public class GptService {
 
-    private final WebClient webClient;
+    private static final String RESUME_TEMPLATE =
+            "# [FULL NAME]\n\n" +
+            "📞 [PHONE NUMBER] | 📧 [EMAIL] | 📍 [LOCATION]\n\n" +
+            "---\n\n" +
+            "## EDUCATION\n\n" +
+            "**[UNIVERSITY/INSTITUTION]** – *[DEGREE], [FIELD OF STUDY]*\n" +
+            "*[START DATE] – [END DATE]*\n\n" +
+            "**[UNIVERSITY/INSTITUTION]** – *[DEGREE], [FIELD OF STUDY]*\n" +
+            "*[START DATE] – [END DATE]*\n\n" +
+            "## SKILLS\n\n" +
+            "**Programming Languages:** [List programming languages, e.g., Python, Java, JavaScript]\n" +
+            "**Frameworks & Tools:** [List frameworks and tools, e.g., React, Node.js, Docker, AWS]\n" +
+            "**Core Strengths:** [List key strengths, e.g., problem-solving, teamwork, leadership]\n" +
+            "**Languages:** [List languages and proficiency levels, e.g., English (Native), Spanish (Fluent)]\n\n" +
+            "## EXPERIENCE\n\n" +
+            "**[JOB TITLE]** | [COMPANY NAME] ([company-website.com])  *[START DATE] – [END DATE]* · [LOCATION/REMOTE]\n\n" +
+            "- [Bullet point describing key responsibility or achievement]\n" +
+            "- [Bullet point describing key responsibility or achievement]\n" +
+            "- [Bullet point describing key responsibility or achievement]\n" +
+            "- [Bullet point describing key responsibility or achievement]\n\n" +
+            "**[JOB TITLE]** | [COMPANY NAME] ([company-website.com])  *[START DATE] – [END DATE]* · [LOCATION/REMOTE]\n\n" +
+            "- [Bullet point describing key responsibility or achievement]\n" +
+            "- [Bullet point describing key responsibility or achievement]\n" +
+            "- [Bullet point describing key responsibility or achievement]\n" +
+            "- [Bullet point describing key responsibility or achievement]\n\n" +
+            "## PROJECTS\n\n" +
+            "**[PROJECT NAME]** | *[PROJECT DURATION]*\n\n" +
+            "- [Bullet point describing project scope and technologies used]\n\n" +
+            "**[PROJECT NAME]** | *[PROJECT DURATION]*\n\n" +
+            "- [Bullet point describing project scope and technologies used]";
+
+    // System messages never change between requests, so providers that cache prompt prefixes
+    // (OpenAI caches from 1024 tokens up) can reuse them; per-request data goes in the user message
+    private static final String ENHANCE_SYSTEM_PROMPT =
+            "You are an expert career coach and resume writer.\n\n" +
+            "Transform the resume in the user message to match the EXACT template format while tailoring it for the target position.\n\n" +
+            "TEMPLATE FORMAT:\n" + RESUME_TEMPLATE + "\n\n" +
+            "ENHANCEMENT INSTRUCTIONS:\n" +
+            "1. Restructure the resume to EXACTLY match the template format\n" +
+            "2. Replace template placeholders with actual information from the current resume\n" +
+            "3. Preserve all factual information (names, dates, companies, exact metrics)\n" +
+            "4. TAILOR the content to align with the target job requirements:\n" +
+            "   - Highlight relevant skills mentioned in the job description\n" +
+            "   - Emphasize experiences that match the job requirements\n" +
+            "   - Use keywords and terminology from the job posting\n" +
+            "   - Reorder skills to prioritize those most relevant to the position\n" +
+            "5. Enhance bullet points to be results-oriented and quantified when possible\n" +
+            "6. Adjust the professional summary/objective to align with the target role\n" +
+            "7. If missing relevant skills/experience, suggest how existing experience translates\n" +
+            "8. Output ONLY the enhanced resume in the exact template format\n" +
+            "9. Do not include any explanations, notes, or additional text\n" +
+            "10. Follow any CRITICAL LANGUAGE REQUIREMENTS in the user message\n\n" +
+            "Focus on making this resume compelling for the specific target position while maintaining complete accuracy.";
+
+    // Enhancement and suggestions in one structured call, for analyze requests
+    private static final String ANALYZE_SYSTEM_PROMPT = ENHANCE_SYSTEM_PROMPT + "\n\n" +
+            "OUTPUT FORMAT (this replaces instructions 8 and 9):\n" +
+            "Return ONLY a JSON object in this exact format: " +
+            "{\"enhancedResume\": \"<the enhanced resume in the exact template format>\", \"suggestions\": [\"suggestion1\", \"suggestion2\", \"suggestion3\", \"suggestion4\"]}\n" +
+            "The suggestions are 4-6 specific, actionable improvements the candidate can realistically make to be more competitive for the target role " +
+            "(skills, experience presentation, quantified achievements, industry keywords). No other text or formatting.";
+
+    private static final String REVISE_SYSTEM_PROMPT =
+            "You are an expert career coach and resume writer.\n\n" +
+            "The user previously had their resume enhanced into a fixed Markdown template and has since edited part of the source. " +
+            "The user message contains the source text before and after the edit, and the enhanced entries generated from the old source.\n\n" +
+            "REVISION INSTRUCTIONS:\n" +
+            "1. Rewrite ONLY the given enhanced entries so they reflect the edited source text\n" +
+            "2. Keep the exact Markdown structure and formatting of the entries (headings, bold titles, dates, bullets)\n" +
+            "3. Preserve all factual information from the edited source (names, dates, companies, exact metrics)\n" +
+            "4. Apply the same enhancement style: results-oriented, quantified bullets tailored to the target job\n" +
+            "5. Drop content that the edit removed and add entries for content the edit introduced\n" +
+            "6. Follow any CRITICAL LANGUAGE REQUIREMENTS in the user message\n" +
+            "7. Output ONLY the revised entries, with no explanations, notes, or additional text";
+
+    private static final String SUGGESTIONS_SYSTEM_PROMPT =
+            "You are an expert career coach with deep knowledge of hiring practices. Analyze the resume in the user message and provide personalized improvement suggestions.\n\n" +
+            "ANALYSIS INSTRUCTIONS:\n" +
+            "1. Consider the candidate's current experience level and career stage\n" +
+            "2. Identify specific gaps between their profile and the target position\n" +
+            "3. Suggest concrete, actionable improvements they can implement\n" +
+            "4. Focus on both content and presentation enhancements\n" +
+            "5. Consider industry-specific requirements and trends\n\n" +
+            "SUGGESTION CATEGORIES TO COVER:\n" +
+            "- Skills & Technical Competencies: Missing skills, certifications, or tools\n" +
+            "- Experience Presentation: How to better highlight relevant experience\n" +
+            "- Achievement Quantification: Specific metrics or results to add\n" +
+            "- Industry Alignment: Terminology, keywords, or focus areas to emphasize\n" +
+            "- Professional Development: Learning opportunities or next steps\n\n" +
+            "Provide 4-6 specific, personalized suggestions that this candidate can realistically implement. " +
+            "Each suggestion should be practical and directly tied to improving their competitiveness for this type of role.\n\n" +
+            "Return ONLY a JSON object in this exact format: {\"suggestions\": [\"suggestion1\", \"suggestion2\", \"suggestion3\", \"suggestion4\"]} " +
+            "No other text or formatting.";
+
+    private static final String TRANSLATE_SYSTEM_PROMPT =
+            "You translate resumes. IMPORTANT RULES:\n" +
+            "1. ONLY translate the text content - DO NOT change the format, structure, or layout\n" +
+            "2. Preserve ALL Markdown formatting exactly as it is (headers, bullets, bold, italic, etc.)\n" +
+            "3. Keep dates, numbers, company names, and technology names unchanged\n" +
+            "4. Maintain the exact same line breaks and spacing\n" +
+            "5. Do not add any additional content or explanations\n" +
+            "6. Output ONLY the translated resume with original formatting\n" +
+            "7. Use native speakers' natural expressions and professional terminology";
+
+    // Chat formatting adds a few tokens per message on top of the content itself
+    private static final int MESSAGE_OVERHEAD_TOKENS = 8;
+    private static final int MIN_RESUME_TOKENS = 512;
+    private static final int MIN_COMPLETION_TOKENS = 256;
+
+    private final GptProvider defaultProvider;
     private final ObjectMapper objectMapper;
-    private final String apiKey;
     private final String model;
     private final int maxTokens;
     private final double temperature;
@@ -25,6 +142,44 @@ public class GptService {
     @Autowired(required = false)
     private CacheService cacheService;
 
+    @Autowired(required = false)
+    private GptRequestCoalescer requestCoalescer;
+
+    @Autowired(required = false)
+    private RedisSingleFlight redisSingleFlight;
+
+    @Autowired(required = false)
+    private GptBulkhead bulkhead;
+
+    @Autowired(required = false)
+    private GptCircuitBreaker circuitBreaker;
+
+    @Autowired(required = false)
+    private GptProviderRouter providerRouter;
+
+    @Autowired(required = false)
+    private GptModelPolicy modelPolicy;
+
+    @Autowired(required = false)
+    private TokenEstimator tokenEstimator;
+
+    @Autowired(required = false)
+    private PromptCompactor promptCompactor;
+
+    @Value("${app.gpt.context-window:16385}")
+    private int contextWindow;
+
+    @Value("${app.gpt.translation.section-concurrency:4}")
+    private int sectionConcurrency;
+
+    @Value("${app.gpt.translation.min-section-chars:400}")
+    private int minSectionChars;
+
+    private final Map<String, Integer> systemPromptTokens = new ConcurrentHashMap<>();
+    private final AtomicLong promptTokensTotal = new AtomicLong();
+    private final AtomicLong cachedPromptTokensTotal = new AtomicLong();
+    private final AtomicLong completionTokensTotal = new AtomicLong();
+
     public GptService(@Value("${app.openai.api-base:https://api.chatanywhere.tech}") String apiBase,
                       @Value("${app.openai.api-key}") String apiKey,
                       @Value("${OPENAI_MODEL:gpt-3.5-turbo}") String model,
@@ -36,13 +191,9 @@ public class GptService {
         System.out.println("API Key: " + (apiKey != null ? apiKey.substring(0, Math.min(10, apiKey.length())) + "..." : "null"));
         System.out.println("Model: " + model);
         
-        this.webClient = WebClient.builder()
-                .baseUrl(apiBase)
-                .defaultHeader("Authorization", "Bearer " + apiKey)
-                .defaultHeader("Content-Type", "application/json")
-                .build();
+        // Used only when no provider router is wired in
+        this.defaultProvider = new OpenAiCompatibleProvider("default", apiBase, apiKey, null, Duration.ofSeconds(60));
         this.objectMapper = new ObjectMapper();
-        this.apiKey = apiKey;
         this.model = model;
         this.maxTokens = maxTokens;
         this.temperature = temperature;
@@ -53,172 +204,548 @@ public class GptService {
     }
 
     public String enhanceResume(String resumeText, String jobDescription, String outputLanguage) {
-        System.out.println("=== GPT ENHANCE DEBUG ===");
-        System.out.println("Input text: " + resumeText.substring(0, Math.min(100, resumeText.length())) + "...");
-        System.out.println("Job description: " + (jobDescription != null ? jobDescription : "null"));
-        System.out.println("Output language: " + (outputLanguage != null ? outputLanguage : "original"));
-        
-        String prompt = buildEnhancePrompt(resumeText, jobDescription, outputLanguage);
-        System.out.println("Generated prompt length: " + prompt.length());
-        System.out.println("Language instruction included: " + (prompt.contains("CRITICAL LANGUAGE REQUIREMENTS")));
-        System.out.println("Prompt preview: " + prompt.substring(0, Math.min(500, prompt.length())) + "...");
-        
-        // Check cache first
-        if (cacheService != null) {
-            String cached = cacheService.getCachedGptResponse(prompt, "enhance");
-            if (cached != null) {
-                System.out.println("Using cached enhancement");
-                return cached;
+        return enhanceResumeAsync(resumeText, jobDescription, outputLanguage).block();
+    }
+
+    public Mono<String> enhanceResumeAsync(String resumeText, String jobDescription, String outputLanguage) {
+        return Mono.deferContextual(context -> {
+                    // Logged per subscription, not when the pipeline is assembled
+                    System.out.println("=== GPT ENHANCE DEBUG ===");
+                    System.out.println("Input text: " + resumeText.substring(0, Math.min(100, resumeText.length())) + "...");
+                    System.out.println("Job description: " + (jobDescription != null ? jobDescription : "null"));
+                    System.out.println("Output language: " + (outputLanguage != null ? outputLanguage : "original"));
+
+                    ModelProfile profile = profileFor(Operation.ENHANCE, context);
+                    String compactText = fitToBudget(profile, resumeText, ENHANCE_SYSTEM_PROMPT, buildEnhancePrompt("", jobDescription, outputLanguage));
+                    String prompt = buildEnhancePrompt(compactText, jobDescription, outputLanguage);
+                    System.out.println("Generated prompt length: " + prompt.length());
+                    System.out.println("Language instruction included: " + (prompt.contains("CRITICAL LANGUAGE REQUIREMENTS")));
+                    System.out.println("Prompt preview: " + prompt.substring(0, Math.min(500, prompt.length())) + "...");
+
+                    // Check cache first, then share one upstream call between identical in-flight prompts
+                    String cacheKey = enhanceCacheKey(compactText, jobDescription, outputLanguage, cacheMode("enhance", profile));
+                    NearDuplicate nearDuplicate = nearDuplicate(compactText, jobDescription, outputLanguage, cacheMode("enhance", profile));
+                    return cachedCompletion(cacheKey, nearDuplicate, () -> {
+                        System.out.println("Calling GPT API for enhancement...");
+                        return callGptApiAsync(profile, ENHANCE_SYSTEM_PROMPT, prompt)
+                                .map(this::extractContentFromResponse)
+                                .doOnNext(content -> System.out.println("Enhanced content preview: " + content.substring(0, Math.min(200, content.length())) + "..."));
+                    });
+                })
+                .onErrorMap(e -> {
+                    System.err.println("Enhancement error: " + e.getMessage());
+                    return new RuntimeException("Failed to enhance resume: " + e.getMessage(), e);
+                });
+    }
+
+    // Rewrites a slice of a previously enhanced resume after the user edited the matching source text
+    public Mono<String> reviseEnhancedEntriesAsync(String enhancedEntries, String oldSource, String newSource,
+                                                   String jobDescription, String outputLanguage) {
+        String prompt = buildRevisePrompt(enhancedEntries, oldSource, newSource, jobDescription, outputLanguage);
+        return Mono.deferContextual(context -> {
+                    ModelProfile profile = profileFor(Operation.REVISE, context);
+                    String cacheKey = CacheService.gptKey(prompt, cacheMode("revise", profile));
+                    return cachedCompletion(cacheKey, () -> callGptApiAsync(profile, REVISE_SYSTEM_PROMPT, prompt)
+                            .map(this::extractContentFromResponse));
+                })
+                .onErrorMap(e -> new RuntimeException("Failed to revise enhanced resume: " + e.getMessage(), e));
+    }
+
+    // Identifies everything besides the resume text that shapes an enhancement, so an earlier
+    // version is only reused as a base when it was produced the same way
+    public String enhancePromptFingerprint(String jobDescription, String outputLanguage) {
+        String models = baselineProfile(Operation.ENHANCE).getModel() + "|" + baselineProfile(Operation.REVISE).getModel();
+        return CacheService.sha256Hex(models + "|" + ENHANCE_SYSTEM_PROMPT + "|" + REVISE_SYSTEM_PROMPT + "|"
+                + buildEnhancePrompt("", jobDescription, outputLanguage));
+    }
+
+    // Single-call alternative to enhanceResumeAsync + generateSuggestionsAsync
+    public Mono<Analysis> analyzeResumeAsync(String resumeText, String jobDescription, String outputLanguage) {
+        return Mono.deferContextual(context -> {
+            ModelProfile profile = profileFor(Operation.ANALYZE, context);
+            String compactText = fitToBudget(profile, resumeText, ANALYZE_SYSTEM_PROMPT, buildEnhancePrompt("", jobDescription, outputLanguage));
+            String prompt = buildEnhancePrompt(compactText, jobDescription, outputLanguage);
+
+            // Cached entries hold the validated, re-serialized JSON object
+            String cacheKey = enhanceCacheKey(compactText, jobDescription, outputLanguage, cacheMode("analyze", profile));
+            NearDuplicate nearDuplicate = nearDuplicate(compactText, jobDescription, outputLanguage, cacheMode("analyze", profile));
+            return cachedCompletion(cacheKey, nearDuplicate, () -> callGptApiAsync(profile, ANALYZE_SYSTEM_PROMPT, prompt)
+                        .map(this::extractContentFromResponse)
+                        .flatMap(content -> Mono.justOrEmpty(parseAnalysis(content)))
+                        .map(analysis -> {
+                            Map<String, Object> json = new LinkedHashMap<>();
+                            json.put("enhancedResume", analysis.getEnhancedText());
+                            json.put("suggestions", analysis.getSuggestions());
+                            try {
+                                return objectMapper.writeValueAsString(json);
+                            } catch (Exception e) {
+                                throw new RuntimeException("Failed to serialize analysis: " + e.getMessage(), e);
+                            }
+                        })
+                        .switchIfEmpty(Mono.error(() -> new RuntimeException("Invalid analysis format from GPT"))));
+        })
+                .flatMap(json -> Mono.justOrEmpty(parseAnalysis(json)))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Invalid analysis format from GPT")))
+                .onErrorMap(e -> new RuntimeException("Failed to analyze resume: " + e.getMessage(), e));
+    }
+
+    public List<String> generateSuggestions(Object parsedJson, String jobDescription) {
+        return generateSuggestionsAsync(parsedJson, jobDescription).block();
+    }
+
+    public Mono<List<String>> generateSuggestionsAsync(Object parsedJson, String jobDescription) {
+        String prompt = buildSuggestionsPrompt(parsedJson, jobDescription);
+
+        return Mono.deferContextual(context -> {
+            ModelProfile profile = profileFor(Operation.SUGGESTIONS, context);
+            // Check cache first; cached entries always hold normalized, validated JSON
+            String cacheKey = CacheService.gptKey(buildSuggestionsPrompt(parsedJson, CacheKeyCanonicalizer.canonicalJobDescription(jobDescription)),
+                    cacheMode("suggestions", profile));
+            return cachedCompletion(cacheKey, () -> callGptApiAsync(profile, SUGGESTIONS_SYSTEM_PROMPT, prompt)
+                        .map(this::extractContentFromResponse)
+                        .flatMap(content -> {
+                            // Parse JSON response - fix single quotes to double quotes
+                            String normalizedContent = content.replaceAll("'", "\"");
+                            System.out.println("Normalized JSON content: " + normalizedContent.substring(0, Math.min(200, normalizedContent.length())) + "...");
+
+                            if (parseSuggestions(normalizedContent) == null) {
+                                return Mono.error(new RuntimeException("Invalid suggestions format from GPT"));
+                            }
+                            return Mono.just(normalizedContent);
+                        }));
+        })
+                .flatMap(json -> Mono.justOrEmpty(parseSuggestions(json)))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Invalid suggestions format from GPT")))
+                .onErrorMap(e -> new RuntimeException("Failed to generate suggestions: " + e.getMessage(), e));
+    }
+
+    public String translateResume(String resumeText, String targetLanguage) {
+        return translateResumeAsync(resumeText, targetLanguage).block();
+    }
+
+    public Mono<String> translateResumeAsync(String resumeText, String targetLanguage) {
+        Mono<String> translation = Mono.deferContextual(context -> {
+            System.out.println("=== GPT TRANSLATE DEBUG ===");
+            System.out.println("Input text: " + resumeText.substring(0, Math.min(100, resumeText.length())) + "...");
+            System.out.println("Target language: " + targetLanguage);
+
+            ModelProfile profile = profileFor(Operation.TRANSLATE, context);
+
+            // Check cache first
+            String cacheKey = CacheService.translationKey(resumeText, targetLanguage, cacheMode("gpt", profile));
+            List<ResumeSection> sections = translationSections(profile, resumeText, targetLanguage);
+
+            if (sections.size() > 1) {
+                // Long resumes are translated section by section; the whole result is cached as well
+                System.out.println("Translating " + sections.size() + " sections in parallel");
+                Supplier<Mono<String>> translate = () -> translateSections(profile, sections, targetLanguage)
+                        .collect(Collectors.joining())
+                        .map(String::trim)
+                        .flatMap(content -> cacheStore(cacheKey, content).thenReturn(content));
+                return cacheLookup(cacheKey, translate)
+                        .doOnNext(cached -> System.out.println("Using cached GPT response"))
+                        .switchIfEmpty(Mono.defer(translate));
+            }
+            // Translation input is never compacted: the prompt promises the same content and layout back
+            String prompt = buildTranslatePrompt(resumeText, targetLanguage);
+            System.out.println("Generated prompt: " + prompt.substring(0, Math.min(200, prompt.length())) + "...");
+            return cachedCompletion(cacheKey, () -> {
+                System.out.println("Calling GPT API...");
+                return callGptApiAsync(profile, TRANSLATE_SYSTEM_PROMPT, prompt)
+                        .map(this::extractContentFromResponse)
+                        .doOnNext(content -> System.out.println("Extracted content: " + content.substring(0, Math.min(200, content.length())) + "..."));
+            });
+        });
+
+        return translation
+                .onErrorMap(e -> {
+                    System.err.println("Translation error: " + e.getMessage());
+                    return new RuntimeException("Failed to translate resume: " + e.getMessage(), e);
+                });
+    }
+
+    public Flux<String> streamEnhanceResume(String resumeText, String jobDescription, String outputLanguage) {
+        return Flux.deferContextual(context -> {
+            ModelProfile profile = profileFor(Operation.ENHANCE, context);
+            String compactText = fitToBudget(profile, resumeText, ENHANCE_SYSTEM_PROMPT, buildEnhancePrompt("", jobDescription, outputLanguage));
+            String prompt = buildEnhancePrompt(compactText, jobDescription, outputLanguage);
+            return cachedStream(enhanceCacheKey(compactText, jobDescription, outputLanguage, cacheMode("enhance", profile)),
+                    nearDuplicate(compactText, jobDescription, outputLanguage, cacheMode("enhance", profile)),
+                    () -> streamGptApi(profile, ENHANCE_SYSTEM_PROMPT, prompt));
+        });
+    }
+
+    public Flux<String> streamTranslateResume(String resumeText, String targetLanguage) {
+        return Flux.deferContextual(context -> {
+            ModelProfile profile = profileFor(Operation.TRANSLATE, context);
+            String cacheKey = CacheService.translationKey(resumeText, targetLanguage, cacheMode("gpt", profile));
+            List<ResumeSection> sections = translationSections(profile, resumeText, targetLanguage);
+
+            if (sections.size() > 1) {
+                // Each section is emitted as one chunk, in document order, as soon as it and its predecessors are done
+                return cachedStream(cacheKey, () -> translateSections(profile, sections, targetLanguage));
             }
+            String prompt = buildTranslatePrompt(resumeText, targetLanguage);
+            return cachedStream(cacheKey, () -> streamGptApi(profile, TRANSLATE_SYSTEM_PROMPT, prompt));
+        });
+    }
+
+    // The raw text is split first and each section budgeted on its own: a section must fit in the
+    // context window next to the prompt, and its translation in one completion
+    private List<ResumeSection> translationSections(ModelProfile profile, String resumeText, String targetLanguage) {
+        List<ResumeSection> sections = ResumeSection.split(resumeText, minSectionChars);
+        if (tokenEstimator == null || profile.getContextWindow() <= 0) {
+            return sections;
         }
-        
+        int promptTokens = countPromptTokens(TRANSLATE_SYSTEM_PROMPT, buildTranslatePrompt("", targetLanguage));
+        int budget = Math.min(profile.getMaxTokens(), profile.getContextWindow() - promptTokens - profile.getMaxTokens());
+        return ResumeSection.fit(sections, Math.max(budget, MIN_RESUME_TOKENS), tokenEstimator::count);
+    }
+
+    // Sections run concurrently but come back in order; each is cached by its own content, so
+    // re-translating an edited resume only pays for the sections that changed
+    private Flux<String> translateSections(ModelProfile profile, List<ResumeSection> sections, String targetLanguage) {
+        return Flux.fromIterable(sections)
+                .flatMapSequential(section -> translateSection(profile, section, targetLanguage), sectionConcurrency);
+    }
+
+    private Mono<String> translateSection(ModelProfile profile, ResumeSection section, String targetLanguage) {
+        if (section.getBody().isEmpty()) {
+            return Mono.just(section.reassemble(""));
+        }
+        String prompt = buildTranslatePrompt(section.getBody(), targetLanguage);
+        String cacheKey = CacheService.translationKey(section.getBody(), targetLanguage, cacheMode("gpt-section", profile));
+        return cachedCompletion(cacheKey, () -> callGptApiAsync(profile, TRANSLATE_SYSTEM_PROMPT, prompt)
+                        .map(this::extractContentFromResponse))
+                .map(section::reassemble);
+    }
+
+    private ModelProfile profileFor(Operation operation, ContextView context) {
+        Duration remaining = GptDeadline.remaining(context);
+        return modelPolicy != null ? modelPolicy.select(operation, remaining) : baselineProfile(operation);
+    }
+
+    private ModelProfile baselineProfile(Operation operation) {
+        return modelPolicy != null ? modelPolicy.baseline(operation)
+                : new ModelProfile("default", model, maxTokens, temperature, Duration.ofSeconds(60), contextWindow);
+    }
+
+    // Outputs of different models never share a cache entry
+    // Names the model that will answer, including any provider that runs a mapped one instead
+    private String cacheMode(String mode, ModelProfile profile) {
+        String variants = providerRouter != null ? providerRouter.modelVariants(profile.getModel()) : "";
+        return mode + ":" + profile.getModel() + (variants.isEmpty() ? "" : "[" + variants + "]");
+    }
+
+    // Compacts the resume so scaffold + resume + a full-size completion fit in the context window.
+    // Only for enhancement prompts; translations must keep every line of the source.
+    private String fitToBudget(ModelProfile profile, String resumeText, String systemPrompt, String scaffold) {
+        if (promptCompactor == null || tokenEstimator == null || profile.getContextWindow() <= 0) {
+            return resumeText;
+        }
+        int budget = profile.getContextWindow() - countPromptTokens(systemPrompt, scaffold) - profile.getMaxTokens();
+        return promptCompactor.compact(resumeText, Math.max(budget, MIN_RESUME_TOKENS));
+    }
+
+    // The profile's max tokens is the ceiling; long prompts get whatever the context window has left
+    private int completionBudget(ModelProfile profile, int promptTokens) {
+        if (promptTokens < 0 || profile.getContextWindow() <= 0) {
+            return profile.getMaxTokens();
+        }
+        return Math.max(MIN_COMPLETION_TOKENS, Math.min(profile.getMaxTokens(), profile.getContextWindow() - promptTokens));
+    }
+
+    // Read when an attempt starts; the call runs under a deadline of at most the profile timeout, so
+    // a failover only gets what earlier attempts left of it
+    private static Duration callTimeout(ModelProfile profile, ContextView context) {
+        Duration remaining = GptDeadline.remaining(context);
+        return remaining != null && remaining.compareTo(profile.getTimeout()) < 0 ? remaining : profile.getTimeout();
+    }
+
+    private int countPromptTokens(String systemPrompt, String prompt) {
+        if (tokenEstimator == null) {
+            return -1;
+        }
+        int systemTokens = systemPromptTokens.computeIfAbsent(systemPrompt, tokenEstimator::count);
+        return systemTokens + tokenEstimator.count(prompt) + 2 * MESSAGE_OVERHEAD_TOKENS;
+    }
+
+    private List<Map<String, String>> buildMessages(String systemPrompt, String prompt) {
+        return List.of(
+            Map.of("role", "system", "content", systemPrompt),
+            Map.of("role", "user", "content", prompt)
+        );
+    }
+
+    private void recordUsage(ChatCompletion usage) {
+        int prompt = usage.getPromptTokens();
+        int cached = usage.getCachedPromptTokens();
+        int completion = usage.getCompletionTokens();
+        promptTokensTotal.addAndGet(prompt);
+        cachedPromptTokensTotal.addAndGet(cached);
+        completionTokensTotal.addAndGet(completion);
+        System.out.println("GPT usage: prompt_tokens=" + prompt + " (cached " + cached + "), completion_tokens=" + completion);
+    }
+
+    public Map<String, Object> getTokenStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long prompt = promptTokensTotal.get();
+        stats.put("promptTokens", prompt);
+        stats.put("cachedPromptTokens", cachedPromptTokensTotal.get());
+        stats.put("promptCacheRatio", prompt == 0 ? 0.0 : (double) cachedPromptTokensTotal.get() / prompt);
+        stats.put("completionTokens", completionTokensTotal.get());
+        return stats;
+    }
+
+    private Mono<String> cachedCompletion(String cacheKey, Supplier<Mono<String>> upstream) {
+        return cachedCompletion(cacheKey, null, upstream);
+    }
+
+    private Mono<String> cachedCompletion(String cacheKey, NearDuplicate nearDuplicate, Supplier<Mono<String>> upstream) {
+        Supplier<Mono<String>> call = () -> upstream.get()
+                .flatMap(content -> cacheStore(cacheKey, nearDuplicate, content).thenReturn(content));
+
+        // Local callers coalesce first; the local leader then coordinates with other nodes
+        Supplier<Mono<String>> load = redisSingleFlight != null
+                ? () -> redisSingleFlight.execute(cacheKey, () -> cacheLookup(cacheKey), call)
+                : call;
+
+        // A stale hit is refreshed through call: load would find the stale entry and stop there
+        return cacheLookup(cacheKey, call)
+                .switchIfEmpty(nearDuplicateLookup(nearDuplicate))
+                .doOnNext(cached -> System.out.println("Using cached GPT response"))
+                .switchIfEmpty(Mono.defer(() -> requestCoalescer != null
+                        ? requestCoalescer.execute(cacheKey, load)
+                        : load.get()));
+    }
+
+    private Flux<String> cachedStream(String cacheKey, Supplier<Flux<String>> upstream) {
+        return cachedStream(cacheKey, null, upstream);
+    }
+
+    private Flux<String> cachedStream(String cacheKey, NearDuplicate nearDuplicate, Supplier<Flux<String>> upstream) {
+        Supplier<Mono<String>> refresh = () -> upstream.get()
+                .collect(Collectors.joining())
+                .map(String::trim)
+                .filter(content -> !content.isEmpty())
+                .flatMap(content -> cacheStore(cacheKey, nearDuplicate, content).thenReturn(content));
+
+        // Serve cached results as a single chunk; streams are per client and never coalesced
+        return cacheLookup(cacheKey, refresh)
+                .switchIfEmpty(nearDuplicateLookup(nearDuplicate))
+                .doOnNext(cached -> System.out.println("Using cached GPT response (stream)"))
+                .flux()
+                .switchIfEmpty(Flux.defer(() -> {
+                    StringBuilder assembled = new StringBuilder();
+                    return upstream.get()
+                            .doOnNext(assembled::append)
+                            .doOnComplete(() -> {
+                                if (tokenEstimator != null) {
+                                    System.out.println("GPT stream completed: completion_tokens~" + tokenEstimator.count(assembled.toString()));
+                                }
+                            })
+                            .concatWith(Mono.defer(() -> cacheStore(cacheKey, nearDuplicate, assembled.toString().trim()))
+                                    .then(Mono.empty()));
+                }));
+    }
+
+    private Mono<ChatCompletion> callGptApiAsync(ModelProfile profile, String systemPrompt, String prompt) {
+        int promptTokens = countPromptTokens(systemPrompt, prompt);
+        int completionTokens = completionBudget(profile, promptTokens);
+        System.out.println("GPT request [" + profile.getName() + "/" + profile.getModel() + "]: prompt_tokens~"
+                + promptTokens + ", max_tokens=" + completionTokens);
+
+        Map<String, Object> request = Map.of(
+            "model", profile.getModel(),
+            "messages", buildMessages(systemPrompt, prompt),
+            "max_tokens", completionTokens,
+            "temperature", profile.getTemperature()
+        );
+
+        Supplier<Mono<ChatCompletion>> call = () -> GptDeadline.within(Mono.deferContextual(context -> providerRouter != null
+                ? providerRouter.execute(provider -> provider.complete(request, callTimeout(profile, context)))
+                : defaultProvider.complete(request, callTimeout(profile, context))), profile.getTimeout());
+
+        // Bulkhead rejections pass through the breaker without counting as provider failures
+        Supplier<Mono<ChatCompletion>> admitted = bulkhead != null ? () -> bulkhead.execute(call) : call;
+        return circuitBreaker != null ? circuitBreaker.execute(admitted) : admitted.get();
+    }
+
+    private Flux<String> streamGptApi(ModelProfile profile, String systemPrompt, String prompt) {
+        int promptTokens = countPromptTokens(systemPrompt, prompt);
+        int completionTokens = completionBudget(profile, promptTokens);
+        System.out.println("GPT stream request [" + profile.getName() + "/" + profile.getModel() + "]: prompt_tokens~"
+                + promptTokens + ", max_tokens=" + completionTokens);
+
+        Map<String, Object> request = Map.of(
+            "model", profile.getModel(),
+            "messages", buildMessages(systemPrompt, prompt),
+            "max_tokens", completionTokens,
+            "temperature", profile.getTemperature(),
+            "stream", true
+        );
+
+        Supplier<Flux<String>> call = () -> GptDeadline.within(Flux.deferContextual(context -> providerRouter != null
+                ? providerRouter.executeMany(provider -> provider.stream(request, callTimeout(profile, context)))
+                : defaultProvider.stream(request, callTimeout(profile, context))), profile.getTimeout())
+                .map(this::extractDeltaFromChunk)
+                .filter(delta -> !delta.isEmpty());
+
+        Supplier<Flux<String>> admitted = bulkhead != null ? () -> bulkhead.executeMany(call) : call;
+        return circuitBreaker != null ? circuitBreaker.executeMany(admitted) : admitted.get();
+    }
+
+    private String extractDeltaFromChunk(String chunk) {
+        ChatCompletion completion;
         try {
-            System.out.println("Calling GPT API for enhancement...");
-            String response = callGptApi(prompt);
-            System.out.println("GPT API response received for enhancement");
-            
-            String content = extractContentFromResponse(response);
-            System.out.println("Enhanced content preview: " + content.substring(0, Math.min(200, content.length())) + "...");
-            
-            // Cache the result
-            if (cacheService != null) {
-                cacheService.cacheGptResponse(prompt, "enhance", content);
-            }
-            
-            return content;
+            completion = ChatCompletion.parse(chunk);
         } catch (Exception e) {
-            System.err.println("Enhancement error: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to enhance resume: " + e.getMessage(), e);
+            throw new RuntimeException("Invalid stream chunk from GPT API: " + e.getMessage(), e);
         }
+        // Providers that report usage on streams send it with (or as) the final chunk
+        if (completion.hasUsage()) {
+            recordUsage(completion);
+        }
+        return completion.getContent() != null ? completion.getContent() : "";
     }
 
-    public List<String> generateSuggestions(Object parsedJson, String jobDescription) {
-        String prompt = buildSuggestionsPrompt(parsedJson, jobDescription);
-        
-        // Check cache first
-        if (cacheService != null) {
-            String cached = cacheService.getCachedGptResponse(prompt, "suggestions");
-            if (cached != null) {
-                try {
-                    JsonNode jsonNode = objectMapper.readTree(cached);
-                    JsonNode suggestions = jsonNode.get("suggestions");
-                    if (suggestions != null && suggestions.isArray()) {
-                        return objectMapper.convertValue(suggestions, 
-                            objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
-                    }
-                } catch (Exception e) {
-                    // Continue with API call if cache parsing fails
-                }
-            }
+    private String extractContentFromResponse(ChatCompletion completion) {
+        if (completion.hasUsage()) {
+            recordUsage(completion);
         }
-        
+        if (completion.getContent() == null) {
+            throw new RuntimeException("Invalid response format from GPT API");
+        }
+        return completion.getContent().trim();
+    }
+
+    private Analysis parseAnalysis(String content) {
+        // Models sometimes wrap JSON in a Markdown code fence despite instructions
+        String json = content.trim();
+        if (json.startsWith("```")) {
+            json = json.substring(json.indexOf('\n') + 1);
+            json = json.substring(0, Math.max(0, json.lastIndexOf("```"))).trim();
+        }
+
         try {
-            String response = callGptApi(prompt);
-            String content = extractContentFromResponse(response);
-            
-            // Parse JSON response - fix single quotes to double quotes
-            String normalizedContent = content.replaceAll("'", "\"");
-            System.out.println("Normalized JSON content: " + normalizedContent.substring(0, Math.min(200, normalizedContent.length())) + "...");
-            
-            JsonNode jsonNode = objectMapper.readTree(normalizedContent);
-            JsonNode suggestions = jsonNode.get("suggestions");
-            
-            if (suggestions != null && suggestions.isArray()) {
-                // Cache the result
-                if (cacheService != null) {
-                    cacheService.cacheGptResponse(prompt, "suggestions", normalizedContent);
-                }
-                
-                return objectMapper.convertValue(suggestions, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
+            JsonNode root = objectMapper.readTree(json);
+            JsonNode enhanced = root.get("enhancedResume");
+            List<String> suggestions = parseSuggestions(json);
+            if (enhanced == null || !enhanced.isTextual() || enhanced.asText().trim().isEmpty() || suggestions == null) {
+                return null;
             }
-            
-            throw new RuntimeException("Invalid suggestions format from GPT");
-            
+            return new Analysis(enhanced.asText().trim(), suggestions);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to generate suggestions: " + e.getMessage(), e);
+            return null;
         }
     }
 
-    public String translateResume(String resumeText, String targetLanguage) {
-        System.out.println("=== GPT TRANSLATE DEBUG ===");
-        System.out.println("Input text: " + resumeText.substring(0, Math.min(100, resumeText.length())) + "...");
-        System.out.println("Target language: " + targetLanguage);
-        
-        String prompt = buildTranslatePrompt(resumeText, targetLanguage);
-        System.out.println("Generated prompt: " + prompt.substring(0, Math.min(200, prompt.length())) + "...");
-        
-        // Check cache first
-        if (cacheService != null) {
-            String cached = cacheService.getCachedTranslation(resumeText, targetLanguage, "gpt");
-            if (cached != null) {
-                System.out.println("Using cached translation");
-                return cached;
-            }
-        }
-        
+    private List<String> parseSuggestions(String json) {
         try {
-            System.out.println("Calling GPT API...");
-            String response = callGptApi(prompt);
-            System.out.println("GPT API response received: " + response.substring(0, Math.min(200, response.length())) + "...");
-            
-            String content = extractContentFromResponse(response);
-            System.out.println("Extracted content: " + content.substring(0, Math.min(200, content.length())) + "...");
-            
-            // Cache the result
-            if (cacheService != null) {
-                cacheService.cacheTranslation(resumeText, targetLanguage, "gpt", content);
+            JsonNode suggestions = objectMapper.readTree(json).get("suggestions");
+            if (suggestions != null && suggestions.isArray()) {
+                return objectMapper.convertValue(suggestions,
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
             }
-            
-            return content;
         } catch (Exception e) {
-            System.err.println("Translation error: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to translate resume: " + e.getMessage(), e);
+            // Treated as an invalid format by the caller
         }
+        return null;
     }
 
-    private String callGptApi(String prompt) throws Exception {
-        Map<String, Object> request = Map.of(
-            "model", model,
-            "messages", List.of(
-                Map.of("role", "user", "content", prompt)
-            ),
-            "max_tokens", maxTokens,
-            "temperature", temperature
-        );
+    private Mono<String> cacheLookup(String cacheKey) {
+        return cacheLookup(cacheKey, null);
+    }
+
+    // L1 hits are answered in place; Redis-backed lookups block, so keep them off the servlet
+    // and event-loop threads. Stale hits are served as they are while refresh replaces the entry
+    private Mono<String> cacheLookup(String cacheKey, Supplier<Mono<String>> refresh) {
+        if (cacheService == null) {
+            return Mono.empty();
+        }
+        return Mono.deferContextual(context -> {
+            CacheService.CachedValue local = cacheService.getLocalEntry(cacheKey);
+            Mono<CacheService.CachedValue> cached = local != null
+                    ? Mono.just(local)
+                    : Mono.fromSupplier(() -> cacheService.getEntry(cacheKey)).subscribeOn(Schedulers.boundedElastic());
+            return cached.map(entry -> {
+                if (entry.stale && refresh != null) {
+                    revalidate(cacheKey, refresh, CacheTags.from(context));
+                }
+                return entry.value;
+            });
+        });
+    }
 
-        String response = webClient.post()
-                .uri("/chat/completions")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(String.class)
-                .timeout(Duration.ofSeconds(60))
-                .block();
+    // Detached from the caller, who already has the stale value. Only the cache tags are carried
+    // over, so the refresh is not cut short by the caller's deadline
+    private void revalidate(String cacheKey, Supplier<Mono<String>> refresh, List<String> tags) {
+        Mono<String> refreshed = Mono.fromCallable(() -> cacheService.tryBeginRefresh(cacheKey))
+                .subscribeOn(Schedulers.boundedElastic())
+                .filter(Boolean::booleanValue)
+                .flatMap(started -> Mono.defer(refresh)
+                        .doOnSuccess(value -> cacheService.endRefresh(cacheKey, value != null))
+                        .doOnError(e -> cacheService.endRefresh(cacheKey, false)));
+        CacheTags.within(refreshed, tags).subscribe(
+                value -> System.out.println("Refreshed stale cache entry " + cacheKey),
+                e -> System.err.println("Failed to refresh stale cache entry: " + e.getMessage()));
+    }
 
-        if (response == null) {
-            throw new RuntimeException("No response from GPT API");
+    private Mono<Void> cacheStore(String cacheKey, String value) {
+        return cacheStore(cacheKey, null, value);
+    }
+
+    private Mono<Void> cacheStore(String cacheKey, NearDuplicate nearDuplicate, String value) {
+        if (cacheService == null || value == null || value.isEmpty()) {
+            return Mono.empty();
         }
+        // Tagged with the user and resume the caller put in the context, for targeted invalidation
+        return Mono.deferContextual(context -> Mono.fromRunnable(() -> {
+                    cacheService.put(cacheKey, value, CacheTags.from(context));
+                    if (nearDuplicate != null) {
+                        cacheService.indexNearDuplicate(nearDuplicate.family, nearDuplicate.fingerprint, cacheKey);
+                    }
+                }))
+                .subscribeOn(Schedulers.boundedElastic()).then();
+    }
 
-        return response;
+    private Mono<String> nearDuplicateLookup(NearDuplicate nearDuplicate) {
+        if (nearDuplicate == null) {
+            return Mono.empty();
+        }
+        return Mono.fromSupplier(() -> cacheService.getNearDuplicate(nearDuplicate.family, nearDuplicate.fingerprint))
+                .doOnNext(cached -> System.out.println("Reusing enhancement cached for a near-identical job description"))
+                .subscribeOn(Schedulers.boundedElastic());
     }
 
-    private String extractContentFromResponse(String response) throws Exception {
-        JsonNode jsonNode = objectMapper.readTree(response);
-        JsonNode choices = jsonNode.get("choices");
-        
-        if (choices != null && choices.isArray() && choices.size() > 0) {
-            JsonNode message = choices.get(0).get("message");
-            if (message != null) {
-                JsonNode content = message.get("content");
-                if (content != null) {
-                    return content.asText().trim();
-                }
-            }
+    // Keys enhance-style prompts by their canonical inputs, so postings that differ only in
+    // formatting or job board chrome share an entry
+    private String enhanceCacheKey(String resumeText, String jobDescription, String outputLanguage, String mode) {
+        String keyPrompt = buildEnhancePrompt(CacheKeyCanonicalizer.canonicalResume(resumeText),
+                CacheKeyCanonicalizer.canonicalJobDescription(jobDescription), outputLanguage);
+        return CacheService.gptKey(keyPrompt, mode);
+    }
+
+    private NearDuplicate nearDuplicate(String resumeText, String jobDescription, String outputLanguage, String mode) {
+        if (cacheService == null || !cacheService.isNearDuplicateEnabled() || jobDescription == null) {
+            return null;
+        }
+        String canonicalJob = CacheKeyCanonicalizer.canonicalJobDescription(jobDescription);
+        if (canonicalJob.isEmpty()) {
+            return null;
+        }
+        String family = CacheService.nearDuplicateFamily(CacheKeyCanonicalizer.canonicalResume(resumeText), outputLanguage, mode);
+        return new NearDuplicate(family, CacheKeyCanonicalizer.simHash(canonicalJob));
+    }
+
+    private static final class NearDuplicate {
+        final String family;
+        final long fingerprint;
+
+        NearDuplicate(String family, long fingerprint) {
+            this.family = family;
+            this.fingerprint = fingerprint;
         }
-        
-        throw new RuntimeException("Invalid response format from GPT API");
     }
 
     private String buildEnhancePrompt(String resumeText, String jobDescription) {
@@ -226,123 +753,58 @@ public class GptService {
     }
 
     private String buildEnhancePrompt(String resumeText, String jobDescription, String outputLanguage) {
-        String template = getResumeTemplate();
         String jobFocus = jobDescription != null && !jobDescription.trim().isEmpty() ? jobDescription : "General professional improvement";
-        String languageInstruction = "";
+        StringBuilder prompt = new StringBuilder(resumeText.length() + jobFocus.length() + 1024);
+        appendLanguageRequirements(prompt, outputLanguage);
         
+        // Job descriptions are shared across many resumes, so they go ahead of the resume text
+        return prompt.append("TARGET JOB DESCRIPTION:\n").append(jobFocus).append("\n\n")
+                .append("CURRENT RESUME:\n").append(resumeText)
+                .toString();
+    }
+
+    private String buildRevisePrompt(String enhancedEntries, String oldSource, String newSource,
+                                     String jobDescription, String outputLanguage) {
+        String jobFocus = jobDescription != null && !jobDescription.trim().isEmpty() ? jobDescription : "General professional improvement";
+        StringBuilder prompt = new StringBuilder(enhancedEntries.length() + oldSource.length() + newSource.length() + 1024);
+        appendLanguageRequirements(prompt, outputLanguage);
+
+        return prompt.append("TARGET JOB DESCRIPTION:\n").append(jobFocus).append("\n\n")
+                .append("SOURCE BEFORE THE EDIT:\n").append(oldSource.isEmpty() ? "(none)" : oldSource).append("\n\n")
+                .append("SOURCE AFTER THE EDIT:\n").append(newSource.isEmpty() ? "(removed)" : newSource).append("\n\n")
+                .append("ENHANCED ENTRIES TO REVISE:\n").append(enhancedEntries)
+                .toString();
+    }
+
+    private void appendLanguageRequirements(StringBuilder prompt, String outputLanguage) {
         if (outputLanguage != null && !outputLanguage.trim().isEmpty() && !"en".equals(outputLanguage.toLowerCase())) {
             String targetLangFull = getLanguageName(outputLanguage);
-            languageInstruction = String.format(
-                "\n\nCRITICAL LANGUAGE REQUIREMENTS - THIS IS MANDATORY:\n" +
-                "- MUST write the ENTIRE resume in %s language ONLY\n" +
-                "- ALL section headers, job titles, descriptions must be in %s\n" +
-                "- Use professional %s terminology and natural expressions\n" +
-                "- Translate ALL text content to %s while maintaining template structure\n" +
-                "- Keep dates, phone numbers, and email addresses unchanged\n" +
-                "- Company names can remain in original language or be translated as appropriate\n" +
-                "- The output must be 100%% in %s language - no English text allowed",
-                targetLangFull, targetLangFull, targetLangFull, targetLangFull, targetLangFull);
+            prompt.append("CRITICAL LANGUAGE REQUIREMENTS - THIS IS MANDATORY:\n")
+                  .append("- MUST write the ENTIRE resume in ").append(targetLangFull).append(" language ONLY\n")
+                  .append("- ALL section headers, job titles, descriptions must be in ").append(targetLangFull).append("\n")
+                  .append("- Use professional ").append(targetLangFull).append(" terminology and natural expressions\n")
+                  .append("- Translate ALL text content to ").append(targetLangFull).append(" while maintaining template structure\n")
+                  .append("- Keep dates, phone numbers, and email addresses unchanged\n")
+                  .append("- Company names can remain in original language or be translated as appropriate\n")
+                  .append("- The output must be 100% in ").append(targetLangFull).append(" language - no English text allowed\n\n");
         }
-        
-        return String.format(
-            "You are an expert career coach and resume writer.%s\n\nTransform the following resume to match the EXACT template format while tailoring it for the target position:\n\n" +
-            "TEMPLATE FORMAT:\n%s\n\n" +
-            "CURRENT RESUME:\n%s\n\n" +
-            "TARGET JOB DESCRIPTION:\n%s\n\n" +
-            "ENHANCEMENT INSTRUCTIONS:\n" +
-            "1. Restructure the resume to EXACTLY match the template format\n" +
-            "2. Replace template placeholders with actual information from the current resume\n" +
-            "3. Preserve all factual information (names, dates, companies, exact metrics)\n" +
-            "4. TAILOR the content to align with the target job requirements:\n" +
-            "   - Highlight relevant skills mentioned in the job description\n" +
-            "   - Emphasize experiences that match the job requirements\n" +
-            "   - Use keywords and terminology from the job posting\n" +
-            "   - Reorder skills to prioritize those most relevant to the position\n" +
-            "5. Enhance bullet points to be results-oriented and quantified when possible\n" +
-            "6. Adjust the professional summary/objective to align with the target role\n" +
-            "7. If missing relevant skills/experience, suggest how existing experience translates\n" +
-            "8. Output ONLY the enhanced resume in the exact template format\n" +
-            "9. Do not include any explanations, notes, or additional text\n\n" +
-            "Focus on making this resume compelling for the specific target position while maintaining complete accuracy.",
-            languageInstruction, template, resumeText, jobFocus);
     }
     
-    private String getResumeTemplate() {
-        return "# [FULL NAME]\n\n" +
-               "📞 [PHONE NUMBER] | 📧 [EMAIL] | 📍 [LOCATION]\n\n" +
-               "---\n\n" +
-               "## EDUCATION\n\n" +
-               "**[UNIVERSITY/INSTITUTION]** – *[DEGREE], [FIELD OF STUDY]*\n" +
-               "*[START DATE] – [END DATE]*\n\n" +
-               "**[UNIVERSITY/INSTITUTION]** – *[DEGREE], [FIELD OF STUDY]*\n" +
-               "*[START DATE] – [END DATE]*\n\n" +
-               "## SKILLS\n\n" +
-               "**Programming Languages:** [List programming languages, e.g., Python, Java, JavaScript]\n" +
-               "**Frameworks & Tools:** [List frameworks and tools, e.g., React, Node.js, Docker, AWS]\n" +
-               "**Core Strengths:** [List key strengths, e.g., problem-solving, teamwork, leadership]\n" +
-               "**Languages:** [List languages and proficiency levels, e.g., English (Native), Spanish (Fluent)]\n\n" +
-               "## EXPERIENCE\n\n" +
-               "**[JOB TITLE]** | [COMPANY NAME] ([company-website.com])  *[START DATE] – [END DATE]* · [LOCATION/REMOTE]\n\n" +
-               "- [Bullet point describing key responsibility or achievement]\n" +
-               "- [Bullet point describing key responsibility or achievement]\n" +
-               "- [Bullet point describing key responsibility or achievement]\n" +
-               "- [Bullet point describing key responsibility or achievement]\n\n" +
-               "**[JOB TITLE]** | [COMPANY NAME] ([company-website.com])  *[START DATE] – [END DATE]* · [LOCATION/REMOTE]\n\n" +
-               "- [Bullet point describing key responsibility or achievement]\n" +
-               "- [Bullet point describing key responsibility or achievement]\n" +
-               "- [Bullet point describing key responsibility or achievement]\n" +
-               "- [Bullet point describing key responsibility or achievement]\n\n" +
-               "## PROJECTS\n\n" +
-               "**[PROJECT NAME]** | *[PROJECT DURATION]*\n\n" +
-               "- [Bullet point describing project scope and technologies used]\n\n" +
-               "**[PROJECT NAME]** | *[PROJECT DURATION]*\n\n" +
-               "- [Bullet point describing project scope and technologies used]";
-    }
-
     private String buildSuggestionsPrompt(Object parsedJson, String jobDescription) {
         try {
             String resumeJsonStr = objectMapper.writeValueAsString(parsedJson);
             String jobFocus = jobDescription != null && !jobDescription.trim().isEmpty() ? jobDescription : "General career advancement";
             
-            return String.format(
-                "You are an expert career coach with deep knowledge of hiring practices. Analyze this resume and provide personalized improvement suggestions.\n\n" +
-                "CANDIDATE'S RESUME DATA:\n%s\n\n" +
-                "TARGET POSITION/INDUSTRY:\n%s\n\n" +
-                "ANALYSIS INSTRUCTIONS:\n" +
-                "1. Consider the candidate's current experience level and career stage\n" +
-                "2. Identify specific gaps between their profile and the target position\n" +
-                "3. Suggest concrete, actionable improvements they can implement\n" +
-                "4. Focus on both content and presentation enhancements\n" +
-                "5. Consider industry-specific requirements and trends\n\n" +
-                "SUGGESTION CATEGORIES TO COVER:\n" +
-                "- Skills & Technical Competencies: Missing skills, certifications, or tools\n" +
-                "- Experience Presentation: How to better highlight relevant experience\n" +
-                "- Achievement Quantification: Specific metrics or results to add\n" +
-                "- Industry Alignment: Terminology, keywords, or focus areas to emphasize\n" +
-                "- Professional Development: Learning opportunities or next steps\n\n" +
-                "Provide 4-6 specific, personalized suggestions that this candidate can realistically implement. " +
-                "Each suggestion should be practical and directly tied to improving their competitiveness for this type of role.\n\n" +
-                "Return ONLY a JSON object in this exact format: {\"suggestions\": [\"suggestion1\", \"suggestion2\", \"suggestion3\", \"suggestion4\"]} " +
-                "No other text or formatting.",
-                resumeJsonStr, jobFocus);
+            return "TARGET POSITION/INDUSTRY:\n" + jobFocus + "\n\n" +
+                   "CANDIDATE'S RESUME DATA:\n" + resumeJsonStr;
         } catch (Exception e) {
             throw new RuntimeException("Failed to serialize resume JSON", e);
         }
     }
 
     private String buildTranslatePrompt(String resumeText, String targetLanguage) {
-        String targetLangFull = getLanguageName(targetLanguage);
-        return String.format(
-            "Translate the following resume into %s. IMPORTANT RULES:\n" +
-            "1. ONLY translate the text content - DO NOT change the format, structure, or layout\n" +
-            "2. Preserve ALL Markdown formatting exactly as it is (headers, bullets, bold, italic, etc.)\n" +
-            "3. Keep dates, numbers, company names, and technology names unchanged\n" +
-            "4. Maintain the exact same line breaks and spacing\n" +
-            "5. Do not add any additional content or explanations\n" +
-            "6. Output ONLY the translated resume with original formatting\n" +
-            "7. Use native speakers' natural expressions and professional terminology\n\n" +
-            "Resume to translate:\n%s",
-            targetLangFull, resumeText);
+        return "Translate the following resume into " + getLanguageName(targetLanguage) + ".\n\n" +
+               "Resume to translate:\n" + resumeText;
     }
 
     private String getLanguageName(String languageCode) {
@@ -359,6 +821,20 @@ public class GptService {
     }
 
     public boolean isServiceAvailable() {
-        return apiKey != null && !apiKey.isEmpty() && !"your-openai-api-key-here".equals(apiKey);
+        return providerRouter != null ? providerRouter.hasProviders() : defaultProvider.isConfigured();
+    }
+
+    public static class Analysis {
+        private final String enhancedText;
+        private final List<String> suggestions;
+
+        public Analysis(String enhancedText, List<String> suggestions) {
+            this.enhancedText = enhancedText;
+            this.suggestions = suggestions;
+        }
+
+        public String getEnhancedText() { return enhancedText; }
+
+        public List<String> getSuggestions() { return suggestions; }
     }
 }
@@ -0,0 +1,8 @@
+package com.resumeenhancer.service;
+
+public class GptUnavailableException extends RuntimeException {
+
+    public GptUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,269 @@
+package com.resumeenhancer.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Re-enhances an edited resume by revising only the parts of the previous enhanced output that
+// came from changed source paragraphs. Source versions are diffed paragraph by paragraph; each
+// changed paragraph is traced to the enhanced entry that quotes its facts, and only those entries
+// are sent back to GPT. Anything that cannot be traced confidently falls back to a full rewrite.
+@Component
+public class IncrementalEnhancer {
+
+    private static final int MIN_WORD_LENGTH = 3;
+
+    @Autowired
+    private GptService gptService;
+
+    @Value("${app.gpt.incremental.enabled:true}")
+    private boolean enabled;
+
+    // Above this share of changed source text a full rewrite is cheaper and more coherent
+    @Value("${app.gpt.incremental.max-changed-ratio:0.4}")
+    private double maxChangedRatio;
+
+    // Share of a source paragraph's words that must reappear in an enhanced entry to match it
+    @Value("${app.gpt.incremental.min-match-score:0.3}")
+    private double minMatchScore;
+
+    @Value("${app.gpt.incremental.concurrency:3}")
+    private int concurrency;
+
+    // Empty when the change cannot be applied incrementally and the caller should regenerate
+    public Mono<String> enhance(String previousSource, String newSource, String previousEnhanced,
+                                String jobDescription, String outputLanguage) {
+        if (!enabled || previousSource == null || previousEnhanced == null) {
+            return Mono.empty();
+        }
+
+        List<Revision> revisions = plan(previousSource, newSource, previousEnhanced);
+        if (revisions == null) {
+            return Mono.empty();
+        }
+        if (revisions.isEmpty()) {
+            System.out.println("Resume text unchanged since last enhancement, reusing it");
+            return Mono.just(previousEnhanced);
+        }
+
+        List<ResumeSection> entries = ResumeSection.split(previousEnhanced, 1);
+        System.out.println("Incremental enhancement: revising " + revisions.size() + " of " + entries.size() + " entries");
+        return Flux.fromIterable(revisions)
+                .flatMapSequential(revision -> gptService.reviseEnhancedEntriesAsync(
+                        revision.entriesText(entries), revision.oldText, revision.newText,
+                        jobDescription, outputLanguage), concurrency)
+                .collectList()
+                .map(revised -> splice(entries, revisions, revised));
+    }
+
+    // Null means "regenerate everything"; an empty list means nothing changed
+    List<Revision> plan(String previousSource, String newSource, String previousEnhanced) {
+        List<String> oldBlocks = blocks(previousSource);
+        List<String> newBlocks = blocks(newSource);
+        List<int[]> hunks = diff(oldBlocks, newBlocks);
+        if (hunks.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int changed = 0;
+        for (int[] hunk : hunks) {
+            changed += length(oldBlocks, hunk[0], hunk[1]) + length(newBlocks, hunk[2], hunk[3]);
+        }
+        int total = length(oldBlocks, 0, oldBlocks.size()) + length(newBlocks, 0, newBlocks.size());
+        if (total == 0 || (double) changed / total > maxChangedRatio) {
+            return null;
+        }
+
+        List<ResumeSection> entries = ResumeSection.split(previousEnhanced, 1);
+        List<Set<String>> entryWords = new ArrayList<>();
+        for (ResumeSection entry : entries) {
+            entryWords.add(words(entry.getBody()));
+        }
+
+        List<Revision> revisions = new ArrayList<>();
+        for (int[] hunk : hunks) {
+            int first = Integer.MAX_VALUE;
+            int last = -1;
+
+            for (int i = hunk[0]; i < hunk[1]; i++) {
+                int match = bestMatch(oldBlocks.get(i), entryWords);
+                if (match < 0) {
+                    return null;
+                }
+                first = Math.min(first, match);
+                last = Math.max(last, match);
+            }
+
+            if (last < 0) {
+                // Pure insertion: revise the entry generated from the paragraph just before it
+                int anchor = hunk[0] > 0 ? bestMatch(oldBlocks.get(hunk[0] - 1), entryWords)
+                        : hunk[0] < oldBlocks.size() ? bestMatch(oldBlocks.get(hunk[0]), entryWords) : -1;
+                if (anchor < 0) {
+                    return null;
+                }
+                first = anchor;
+                last = anchor;
+            }
+
+            revisions.add(new Revision(first, last,
+                    String.join("\n\n", oldBlocks.subList(hunk[0], hunk[1])),
+                    String.join("\n\n", newBlocks.subList(hunk[2], hunk[3]))));
+        }
+
+        return merge(revisions);
+    }
+
+    private List<Revision> merge(List<Revision> revisions) {
+        revisions.sort((a, b) -> Integer.compare(a.firstEntry, b.firstEntry));
+        List<Revision> merged = new ArrayList<>();
+        for (Revision revision : revisions) {
+            Revision previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous != null && revision.firstEntry <= previous.lastEntry) {
+                merged.set(merged.size() - 1, new Revision(previous.firstEntry,
+                        Math.max(previous.lastEntry, revision.lastEntry),
+                        join(previous.oldText, revision.oldText), join(previous.newText, revision.newText)));
+            } else {
+                merged.add(revision);
+            }
+        }
+        return merged;
+    }
+
+    static String splice(List<ResumeSection> entries, List<Revision> revisions, List<String> revised) {
+        StringBuilder result = new StringBuilder();
+        int next = 0;
+        for (int r = 0; r < revisions.size(); r++) {
+            Revision revision = revisions.get(r);
+            for (int i = next; i < revision.firstEntry; i++) {
+                result.append(entries.get(i).reassemble(entries.get(i).getBody()));
+            }
+            result.append(entries.get(revision.firstEntry).getLeading())
+                    .append(revised.get(r).trim())
+                    .append(entries.get(revision.lastEntry).getTrailing());
+            next = revision.lastEntry + 1;
+        }
+        for (int i = next; i < entries.size(); i++) {
+            result.append(entries.get(i).reassemble(entries.get(i).getBody()));
+        }
+        return result.toString().trim();
+    }
+
+    static List<String> blocks(String text) {
+        List<String> blocks = new ArrayList<>();
+        for (String block : text.replace("\r\n", "\n").split("\\n\\s*\\n")) {
+            String trimmed = block.trim();
+            if (!trimmed.isEmpty()) {
+                blocks.add(trimmed);
+            }
+        }
+        return blocks;
+    }
+
+    // Longest-common-subsequence diff over paragraphs; each hunk is {oldFrom, oldTo, newFrom, newTo}
+    static List<int[]> diff(List<String> a, List<String> b) {
+        int[][] lcs = new int[a.size() + 1][b.size() + 1];
+        for (int i = a.size() - 1; i >= 0; i--) {
+            for (int j = b.size() - 1; j >= 0; j--) {
+                lcs[i][j] = a.get(i).equals(b.get(j)) ? lcs[i + 1][j + 1] + 1 : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+
+        List<int[]> hunks = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < a.size() || j < b.size()) {
+            if (i < a.size() && j < b.size() && a.get(i).equals(b.get(j))) {
+                i++;
+                j++;
+                continue;
+            }
+            int oldFrom = i;
+            int newFrom = j;
+            while ((i < a.size() || j < b.size()) && !(i < a.size() && j < b.size() && a.get(i).equals(b.get(j)))) {
+                if (j >= b.size() || (i < a.size() && lcs[i + 1][j] >= lcs[i][j + 1])) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            hunks.add(new int[] {oldFrom, i, newFrom, j});
+        }
+        return hunks;
+    }
+
+    private int bestMatch(String block, List<Set<String>> entryWords) {
+        Set<String> blockWords = words(block);
+        if (blockWords.isEmpty()) {
+            return -1;
+        }
+
+        int best = -1;
+        double bestScore = minMatchScore;
+        for (int i = 0; i < entryWords.size(); i++) {
+            int shared = 0;
+            for (String word : blockWords) {
+                if (entryWords.get(i).contains(word)) {
+                    shared++;
+                }
+            }
+            double score = (double) shared / blockWords.size();
+            if (score >= bestScore && (best < 0 || score > bestScore)) {
+                best = i;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static Set<String> words(String text) {
+        Set<String> words = new HashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static int length(List<String> blocks, int from, int to) {
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            length += blocks.get(i).length();
+        }
+        return length;
+    }
+
+    private static String join(String a, String b) {
+        return a.isEmpty() ? b : b.isEmpty() ? a : a + "\n\n" + b;
+    }
+
+    static class Revision {
+        final int firstEntry;
+        final int lastEntry;
+        final String oldText;
+        final String newText;
+
+        Revision(int firstEntry, int lastEntry, String oldText, String newText) {
+            this.firstEntry = firstEntry;
+            this.lastEntry = lastEntry;
+            this.oldText = oldText;
+            this.newText = newText;
+        }
+
+        String entriesText(List<ResumeSection> entries) {
+            StringBuilder text = new StringBuilder();
+            for (int i = firstEntry; i <= lastEntry; i++) {
+                text.append(entries.get(i).reassemble(entries.get(i).getBody()));
+            }
+            return text.toString().trim();
+        }
+    }
+}
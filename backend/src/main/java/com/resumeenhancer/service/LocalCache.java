@@ -0,0 +1,151 @@
+package com.resumeenhancer.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Bounded in-process cache for CacheService. Caffeine's W-TinyLFU admission keeps frequently
+// read prompts resident when a burst of one-off resumes would otherwise flush them; entries are
+// weighed by their approximate heap size and expire after their namespace's TTL, or earlier when
+// the caller says so. Each entry also carries the time it goes stale (see CacheService).
+class LocalCache {
+
+    // String headers, the map node, the entry holder and the expiry bookkeeping
+    private static final int ENTRY_OVERHEAD_BYTES = 120;
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final Cache<String, Entry> cache;
+    private final Ticker ticker;
+    private final Map<String, Long> ttlNanosByNamespace = new LinkedHashMap<>();
+    private final long defaultTtlNanos;
+
+    LocalCache(long maxWeightBytes, Duration defaultTtl, Map<String, Duration> namespaceTtls) {
+        this(maxWeightBytes, defaultTtl, namespaceTtls, Ticker.systemTicker());
+    }
+
+    LocalCache(long maxWeightBytes, Duration defaultTtl, Map<String, Duration> namespaceTtls, Ticker ticker) {
+        this.ticker = ticker;
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        namespaceTtls.forEach((namespace, ttl) -> ttlNanosByNamespace.put(namespace, ttl.toNanos()));
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String key, Entry entry) -> weigh(key, entry.value))
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    String get(String key) {
+        Entry entry = cache.getIfPresent(key);
+        return entry != null ? entry.value : null;
+    }
+
+    Entry getEntry(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    void put(String key, String value) {
+        cache.put(key, new Entry(value, ttlNanos(key), NEVER));
+    }
+
+    // ttlNanos is capped at the namespace TTL; staleInNanos < 0 means the entry never goes stale
+    void put(String key, String value, long ttlNanos, long staleInNanos) {
+        long staleAt = staleInNanos < 0 ? NEVER : ticker.read() + staleInNanos;
+        cache.put(key, new Entry(value, Math.min(ttlNanos, ttlNanos(key)), staleAt));
+    }
+
+    boolean isStale(Entry entry) {
+        return entry.staleAtNanos != NEVER && ticker.read() - entry.staleAtNanos >= 0;
+    }
+
+    // True when the key was resident
+    boolean invalidate(String key) {
+        return cache.asMap().remove(key) != null;
+    }
+
+    // Linear in the number of resident entries, which the weight bound keeps small
+    int invalidatePrefix(String prefix) {
+        int removed = 0;
+        for (String key : cache.asMap().keySet()) {
+            if (key.startsWith(prefix) && cache.asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    long ttlNanos(String key) {
+        Long ttl = ttlNanosByNamespace.get(namespaceOf(key));
+        return ttl != null ? ttl : defaultTtlNanos;
+    }
+
+    // Keys look like resume_enhancer:<namespace>:<hash>
+    static String namespaceOf(String key) {
+        int start = key.indexOf(':') + 1;
+        int end = key.indexOf(':', start);
+        return end > start ? key.substring(start, end) : "";
+    }
+
+    // Upper bound assuming UTF-16 storage; Latin-1 strings are compacted to half this
+    static int weigh(String key, String value) {
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * (key.length() + value.length());
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    // Linear in the number of resident entries; for the admin API, not the request path
+    Map<String, Long> weightByNamespace() {
+        Map<String, Long> weights = new TreeMap<>();
+        cache.asMap().forEach((key, entry) -> weights.merge(namespaceOf(key), (long) weigh(key, entry.value), Long::sum));
+        return weights;
+    }
+
+    Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entries", cache.estimatedSize());
+        result.put("weightBytes", cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L));
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    static final class Entry {
+        final String value;
+        final long ttlNanos;
+        final long staleAtNanos;
+
+        Entry(String value, long ttlNanos, long staleAtNanos) {
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+            this.staleAtNanos = staleAtNanos;
+        }
+    }
+}
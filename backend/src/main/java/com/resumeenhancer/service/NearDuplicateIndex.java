@@ -0,0 +1,63 @@
+package com.resumeenhancer.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// In-process index of job description fingerprints, used when Redis is disabled. A family is
+// one resume text + output language + mode; its entries map cache keys to the SimHash of the
+// job description they were produced for.
+class NearDuplicateIndex {
+
+    static final int MAX_ENTRIES_PER_FAMILY = 32;
+
+    private final Cache<String, Map<String, Long>> families;
+
+    NearDuplicateIndex(long maxFamilies, Duration ttl) {
+        this.families = Caffeine.newBuilder()
+                .maximumSize(maxFamilies)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    void add(String family, String cacheKey, long fingerprint) {
+        families.asMap().compute(family, (key, entries) -> {
+            Map<String, Long> updated = entries != null ? new LinkedHashMap<>(entries) : new LinkedHashMap<>();
+            updated.remove(cacheKey);
+            updated.put(cacheKey, fingerprint);
+            while (updated.size() > MAX_ENTRIES_PER_FAMILY) {
+                updated.remove(updated.keySet().iterator().next());
+            }
+            return updated;
+        });
+    }
+
+    Map<String, Long> get(String family) {
+        Map<String, Long> entries = families.getIfPresent(family);
+        return entries != null ? entries : Collections.emptyMap();
+    }
+
+    // Cache keys at or above the similarity threshold, most similar first
+    static List<String> rank(Map<String, Long> entries, long fingerprint, double threshold) {
+        List<Map.Entry<String, Double>> matches = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : entries.entrySet()) {
+            double similarity = CacheKeyCanonicalizer.similarity(fingerprint, entry.getValue());
+            if (similarity >= threshold) {
+                matches.add(Map.entry(entry.getKey(), similarity));
+            }
+        }
+        matches.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+
+        List<String> keys = new ArrayList<>(matches.size());
+        for (Map.Entry<String, Double> match : matches) {
+            keys.add(match.getKey());
+        }
+        return keys;
+    }
+}
@@ -23,22 +23,26 @@ public class NlpService {
     }
 
     public Object parseResume(String resumeText) {
-        try {
-            Map<String, String> request = Map.of("text", resumeText);
-            
-            String response = webClient.post()
-                    .uri("/parse")
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
+        return parseResumeAsync(resumeText).block();
+    }
 
-            return objectMapper.readValue(response, Object.class);
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse resume with NLP service: " + e.getMessage(), e);
-        }
+    public Mono<Object> parseResumeAsync(String resumeText) {
+        Map<String, String> request = Map.of("text", resumeText);
+
+        return webClient.post()
+                .uri("/parse")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(30))
+                .map(response -> {
+                    try {
+                        return objectMapper.readValue(response, Object.class);
+                    } catch (Exception e) {
+                        throw new RuntimeException(e.getMessage(), e);
+                    }
+                })
+                .onErrorMap(e -> new RuntimeException("Failed to parse resume with NLP service: " + e.getMessage(), e));
     }
 
     public boolean isServiceHealthy() {
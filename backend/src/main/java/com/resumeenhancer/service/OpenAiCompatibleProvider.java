@@ -0,0 +1,113 @@
+package com.resumeenhancer.service;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class OpenAiCompatibleProvider implements GptProvider {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<ServerSentEvent<String>>() {};
+
+    // Same ceiling the String codec applied before responses were parsed from the buffers
+    private static final int MAX_RESPONSE_BYTES = 256 * 1024;
+
+    private final String name;
+    private final String apiKey;
+    private final Map<String, String> models;
+    private final Duration timeout;
+    private final WebClient webClient;
+
+    // Models missing from the map, or all of them when it is null, are sent as requested
+    public OpenAiCompatibleProvider(String name, String apiBase, String apiKey, Map<String, String> models, Duration timeout) {
+        this.name = name;
+        this.apiKey = apiKey;
+        this.models = models != null ? Map.copyOf(models) : Collections.emptyMap();
+        this.timeout = timeout;
+        this.webClient = WebClient.builder()
+                .baseUrl(apiBase)
+                .defaultHeader("Authorization", "Bearer " + apiKey)
+                .defaultHeader("Content-Type", "application/json")
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isEmpty() && !"your-openai-api-key-here".equals(apiKey);
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public String modelFor(String requested) {
+        return models.getOrDefault(requested, requested);
+    }
+
+    @Override
+    public Mono<ChatCompletion> complete(Map<String, Object> request, Duration timeout) {
+        // The body is parsed straight from the received buffers, which are released once read
+        Flux<DataBuffer> body = webClient.post()
+                .uri("/chat/completions")
+                .bodyValue(withModel(request))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+        return DataBufferUtils.join(body, MAX_RESPONSE_BYTES)
+                .map(this::parse)
+                .timeout(effectiveTimeout(timeout))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("No response from GPT API (" + name + ")")));
+    }
+
+    private ChatCompletion parse(DataBuffer buffer) {
+        try (InputStream in = buffer.asInputStream(true)) {
+            return ChatCompletion.parse(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid response format from GPT API (" + name + "): " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Flux<String> stream(Map<String, Object> request, Duration timeout) {
+        // The timeout applies to the first chunk and to every gap between chunks
+        return webClient.post()
+                .uri("/chat/completions")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(withModel(request))
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .timeout(effectiveTimeout(timeout))
+                .filter(event -> event.data() != null)
+                .map(ServerSentEvent::data)
+                .takeWhile(data -> !"[DONE]".equals(data.trim()));
+    }
+
+    private Map<String, Object> withModel(Map<String, Object> request) {
+        Object requested = request.get("model");
+        String model = requested instanceof String ? modelFor((String) requested) : null;
+        if (model == null || model.equals(requested)) {
+            return request;
+        }
+        Map<String, Object> copy = new LinkedHashMap<>(request);
+        copy.put("model", model);
+        return copy;
+    }
+}
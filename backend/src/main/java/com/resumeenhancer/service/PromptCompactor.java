@@ -0,0 +1,302 @@
+package com.resumeenhancer.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Shrinks resume text before it goes into a prompt: strips PDF extraction noise, removes
+// headers/footers repeated on every page, and when the text is still over budget drops or
+// trims the least important sections first (hobbies before experience).
+@Component
+public class PromptCompactor {
+
+    private static final Pattern PAGE_MARKER = Pattern.compile(
+            "(?i)^(page\\s*\\d+(\\s*(of|/)\\s*\\d+)?|\\d+\\s*(of|/)\\s*\\d+|-\\s*\\d+\\s*-|第\\s*\\d+\\s*页.*)$");
+    private static final Pattern HYPHENATED_BREAK = Pattern.compile("(\\p{L})-\\n(\\p{Ll})");
+    private static final Pattern INVISIBLE = Pattern.compile("[\\u200B-\\u200D\\uFEFF\\u00AD]");
+    private static final Pattern HORIZONTAL_SPACE = Pattern.compile("[\\t\\u00A0\\u2000-\\u200A\\u3000 ]+");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n{3,}");
+
+    private static final int MAX_REPEATED_LINE_LENGTH = 80;
+    private static final int MIN_REPEATS = 3;
+    private static final int MIN_PAGE_LINES = 30;
+    private static final int PAGE_EDGE_LINES = 2;
+
+    // Lower is more important; the untitled contact block at the top is never dropped
+    private static final Map<String, Integer> SECTION_PRIORITY = new LinkedHashMap<>();
+    static {
+        SECTION_PRIORITY.put("experience", 1);
+        SECTION_PRIORITY.put("employment", 1);
+        SECTION_PRIORITY.put("work", 1);
+        SECTION_PRIORITY.put("skills", 1);
+        SECTION_PRIORITY.put("工作", 1);
+        SECTION_PRIORITY.put("技能", 1);
+        SECTION_PRIORITY.put("summary", 2);
+        SECTION_PRIORITY.put("profile", 2);
+        SECTION_PRIORITY.put("objective", 2);
+        SECTION_PRIORITY.put("education", 2);
+        SECTION_PRIORITY.put("教育", 2);
+        SECTION_PRIORITY.put("project", 3);
+        SECTION_PRIORITY.put("项目", 3);
+        SECTION_PRIORITY.put("certification", 4);
+        SECTION_PRIORITY.put("award", 5);
+        SECTION_PRIORITY.put("publication", 5);
+        SECTION_PRIORITY.put("language", 5);
+        SECTION_PRIORITY.put("volunteer", 6);
+        SECTION_PRIORITY.put("activities", 6);
+        SECTION_PRIORITY.put("interest", 8);
+        SECTION_PRIORITY.put("hobbies", 8);
+        SECTION_PRIORITY.put("reference", 9);
+    }
+    private static final int DEFAULT_PRIORITY = 5;
+    // Sections at or above this priority are dropped whole before anything important is trimmed
+    private static final int DROPPABLE_PRIORITY = 5;
+
+    @Autowired
+    private TokenEstimator tokenEstimator;
+
+    // Text within budget comes back untouched: cleaning trims indentation and Markdown hard
+    // breaks, so it is only worth its cost when the text has to shrink anyway
+    public String compact(String text, int maxTokens) {
+        if (text == null || text.isEmpty() || tokenEstimator.count(text) <= maxTokens) {
+            return text;
+        }
+
+        String cleaned = clean(text);
+        int tokens = tokenEstimator.count(cleaned);
+        if (tokens <= maxTokens) {
+            return cleaned;
+        }
+
+        String truncated = truncateBySection(cleaned, maxTokens);
+        System.out.println("Compacted resume text from " + tokens + " to "
+                + tokenEstimator.count(truncated) + " tokens (budget " + maxTokens + ")");
+        return truncated;
+    }
+
+    String clean(String text) {
+        String normalized = text.replace("\r\n", "\n").replace('\r', '\n').replace('\f', '\n');
+        normalized = INVISIBLE.matcher(normalized).replaceAll("");
+        normalized = HYPHENATED_BREAK.matcher(normalized).replaceAll("$1$2");
+
+        String[] lines = normalized.split("\n", -1);
+        List<Integer> pageMarkers = new ArrayList<>();
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = HORIZONTAL_SPACE.matcher(lines[i]).replaceAll(" ").trim();
+            if (PAGE_MARKER.matcher(lines[i]).matches()) {
+                pageMarkers.add(i);
+            }
+        }
+
+        Set<String> running = findRunningLines(lines, pageMarkers);
+        Set<String> kept = new HashSet<>();
+        StringBuilder result = new StringBuilder(normalized.length());
+        for (int i = 0; i < lines.length; i++) {
+            if (pageMarkers.contains(i) || (running.contains(lines[i]) && !kept.add(lines[i]))) {
+                continue;
+            }
+            result.append(lines[i]).append('\n');
+        }
+
+        return BLANK_LINES.matcher(result.toString()).replaceAll("\n\n").trim();
+    }
+
+    // Running headers/footers: short lines that repeat only at page edges. Extracted PDF text has
+    // no page breaks, so page markers are used when present; otherwise a line must recur at least
+    // MIN_REPEATS times at wide, even intervals, which repeated job titles practically never do.
+    private Set<String> findRunningLines(String[] lines, List<Integer> pageMarkers) {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < lines.length; i++) {
+            if (!lines[i].isEmpty() && lines[i].length() <= MAX_REPEATED_LINE_LENGTH) {
+                positions.computeIfAbsent(lines[i], k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Set<String> running = new HashSet<>();
+        for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+            List<Integer> at = entry.getValue();
+            if (at.size() < 2) {
+                continue;
+            }
+            if (!pageMarkers.isEmpty()) {
+                if (at.stream().allMatch(i -> nearPageEdge(lines, i, pageMarkers))) {
+                    running.add(entry.getKey());
+                }
+                continue;
+            }
+            if (at.size() >= MIN_REPEATS && evenlySpaced(at)) {
+                running.add(entry.getKey());
+            }
+        }
+        return running;
+    }
+
+    private boolean nearPageEdge(String[] lines, int index, List<Integer> pageMarkers) {
+        if (nonEmptyLinesBetween(lines, -1, index) < PAGE_EDGE_LINES
+                || nonEmptyLinesBetween(lines, index, lines.length) < PAGE_EDGE_LINES) {
+            return true;
+        }
+        for (int marker : pageMarkers) {
+            int from = Math.min(marker, index);
+            int to = Math.max(marker, index);
+            if (nonEmptyLinesBetween(lines, from, to) < PAGE_EDGE_LINES) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int nonEmptyLinesBetween(String[] lines, int fromExclusive, int toExclusive) {
+        int count = 0;
+        for (int i = fromExclusive + 1; i < toExclusive; i++) {
+            if (!lines[i].isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean evenlySpaced(List<Integer> at) {
+        int minGap = Integer.MAX_VALUE;
+        int maxGap = 0;
+        for (int i = 1; i < at.size(); i++) {
+            int gap = at.get(i) - at.get(i - 1);
+            minGap = Math.min(minGap, gap);
+            maxGap = Math.max(maxGap, gap);
+        }
+        return minGap >= MIN_PAGE_LINES && maxGap <= minGap * 3 / 2;
+    }
+
+    String truncateBySection(String text, int maxTokens) {
+        List<Section> sections = splitSections(text);
+        int total = 0;
+        for (Section section : sections) {
+            total += section.tokens();
+        }
+
+        // Least important first; among equals, trim from the end of the document
+        List<Section> order = new ArrayList<>(sections.subList(1, sections.size()));
+        order.sort(Comparator.comparingInt((Section s) -> s.priority).reversed()
+                .thenComparing(Comparator.comparingInt((Section s) -> s.index).reversed()));
+
+        for (Section section : order) {
+            if (total <= maxTokens) {
+                break;
+            }
+            if (section.priority >= DROPPABLE_PRIORITY) {
+                total -= section.tokens();
+                section.lines.clear();
+                section.lineTokens.clear();
+                continue;
+            }
+            // Keep the heading and first entry so the model still knows the section exists
+            while (total > maxTokens && section.lines.size() > 2) {
+                int last = section.lines.size() - 1;
+                total -= section.lineTokens.remove(last);
+                section.lines.remove(last);
+            }
+        }
+
+        if (total > maxTokens) {
+            // Only the contact block and section stubs are left; trim from the end
+            Section header = sections.get(0);
+            while (total > maxTokens && header.lines.size() > 1) {
+                int last = header.lines.size() - 1;
+                total -= header.lineTokens.remove(last);
+                header.lines.remove(last);
+            }
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (Section section : sections) {
+            for (String line : section.lines) {
+                result.append(line).append('\n');
+            }
+        }
+        return BLANK_LINES.matcher(result.toString()).replaceAll("\n\n").trim();
+    }
+
+    private List<Section> splitSections(String text) {
+        List<Section> sections = new ArrayList<>();
+        Section current = new Section(0, 0);
+        sections.add(current);
+
+        for (String line : text.split("\n")) {
+            if (isHeading(line)) {
+                current = new Section(sections.size(), priorityOf(line));
+                sections.add(current);
+            }
+            current.lines.add(line);
+            current.lineTokens.add(tokenEstimator.count(line) + 1);
+        }
+        return sections;
+    }
+
+    private boolean isHeading(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 40) {
+            return false;
+        }
+        if (trimmed.startsWith("#")) {
+            return true;
+        }
+
+        String title = trimmed.endsWith(":") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+        String[] words = title.split(" ");
+        if (words.length > 4 || keywordPriority(title) == null) {
+            return false;
+        }
+        // "EXPERIENCE" and "Work Experience" are headings, "Worked on billing" is not
+        for (String word : words) {
+            if (!word.isEmpty() && Character.isLowerCase(word.charAt(0))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int priorityOf(String heading) {
+        Integer priority = keywordPriority(heading);
+        return priority != null ? priority : DEFAULT_PRIORITY;
+    }
+
+    private Integer keywordPriority(String heading) {
+        String normalized = heading.toLowerCase(Locale.ROOT).replace("#", "").trim();
+        for (Map.Entry<String, Integer> entry : SECTION_PRIORITY.entrySet()) {
+            if (normalized.contains(entry.getKey()) && normalized.length() <= entry.getKey().length() + 20) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static class Section {
+        final int index;
+        final int priority;
+        final List<String> lines = new ArrayList<>();
+        final List<Integer> lineTokens = new ArrayList<>();
+
+        Section(int index, int priority) {
+            this.index = index;
+            this.priority = priority;
+        }
+
+        int tokens() {
+            int sum = 0;
+            for (int tokens : lineTokens) {
+                sum += tokens;
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.resumeenhancer.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Cluster-wide single-flight for GPT calls. The node that wins a short-lived Redis lease on a
+// cache key calls upstream; other nodes poll the shared cache until the result appears. Leases
+// expire on their own, so a crashed holder only delays its peers until the TTL runs out.
+@Component
+public class RedisSingleFlight {
+
+    // Only the holder that set the lease may delete it
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    @Autowired(required = false)
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Value("${app.cache.enable-redis:false}")
+    private boolean enableRedisCache;
+
+    @Value("${app.gpt.single-flight.lease-seconds:90}")
+    private long leaseSeconds;
+
+    @Value("${app.gpt.single-flight.poll-millis:250}")
+    private long pollMillis;
+
+    @Value("${app.gpt.single-flight.max-wait-seconds:75}")
+    private long maxWaitSeconds;
+
+    private enum LeaseState { ACQUIRED, HELD_BY_PEER, UNAVAILABLE }
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicLong leasesAcquired = new AtomicLong();
+    private final AtomicLong peerResults = new AtomicLong();
+    private final AtomicLong takeovers = new AtomicLong();
+    private final AtomicLong waitTimeouts = new AtomicLong();
+
+    public Mono<String> execute(String cacheKey, Supplier<Mono<String>> readCache, Supplier<Mono<String>> upstream) {
+        if (!enableRedisCache || redisTemplate == null) {
+            return upstream.get();
+        }
+        return Mono.defer(() -> attempt(cacheKey, readCache, upstream,
+                System.nanoTime() + Duration.ofSeconds(maxWaitSeconds).toNanos()));
+    }
+
+    private Mono<String> attempt(String cacheKey, Supplier<Mono<String>> readCache,
+                                 Supplier<Mono<String>> upstream, long deadlineNanos) {
+        String leaseKey = leaseKey(cacheKey);
+        String token = nodeId + ":" + UUID.randomUUID();
+
+        return redis(() -> tryAcquire(leaseKey, token) ? LeaseState.ACQUIRED : LeaseState.HELD_BY_PEER)
+                .onErrorReturn(LeaseState.UNAVAILABLE)
+                .flatMap(state -> {
+                    switch (state) {
+                        case ACQUIRED:
+                            leasesAcquired.incrementAndGet();
+                            // A peer may have finished between our cache miss and the lease
+                            return readCache.get()
+                                    .switchIfEmpty(Mono.defer(upstream))
+                                    .doFinally(signal -> redis(() -> release(leaseKey, token))
+                                            .subscribe(released -> {}, e -> {}));
+                        case HELD_BY_PEER:
+                            return awaitPeer(cacheKey, readCache, upstream, deadlineNanos);
+                        default:
+                            // Redis is unreachable, so there is nothing to coordinate on
+                            return upstream.get();
+                    }
+                });
+    }
+
+    private Mono<String> awaitPeer(String cacheKey, Supplier<Mono<String>> readCache,
+                                   Supplier<Mono<String>> upstream, long deadlineNanos) {
+        return Mono.delay(Duration.ofMillis(pollMillis))
+                .then(Mono.defer(readCache))
+                .doOnNext(value -> peerResults.incrementAndGet())
+                .switchIfEmpty(Mono.defer(() -> {
+                    if (System.nanoTime() > deadlineNanos) {
+                        // Stop waiting on a slow peer and pay for our own call
+                        waitTimeouts.incrementAndGet();
+                        return upstream.get();
+                    }
+                    return redis(() -> isLeaseHeld(leaseKey(cacheKey)))
+                            .onErrorReturn(false)
+                            .flatMap(held -> {
+                                if (held) {
+                                    return awaitPeer(cacheKey, readCache, upstream, deadlineNanos);
+                                }
+                                // The holder failed or died without caching a result
+                                takeovers.incrementAndGet();
+                                return attempt(cacheKey, readCache, upstream, deadlineNanos);
+                            });
+                }));
+    }
+
+    boolean tryAcquire(String leaseKey, String token) {
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(leaseKey, token, Duration.ofSeconds(leaseSeconds));
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    boolean isLeaseHeld(String leaseKey) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(leaseKey));
+    }
+
+    boolean release(String leaseKey, String token) {
+        Long deleted = redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey), token);
+        return deleted != null && deleted > 0;
+    }
+
+    private String leaseKey(String cacheKey) {
+        return cacheKey + ":lease";
+    }
+
+    private <T> Mono<T> redis(Supplier<T> call) {
+        return Mono.fromSupplier(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enableRedisCache && redisTemplate != null);
+        stats.put("leasesAcquired", leasesAcquired.get());
+        stats.put("peerResults", peerResults.get());
+        stats.put("takeovers", takeovers.get());
+        stats.put("waitTimeouts", waitTimeouts.get());
+        return stats;
+    }
+}
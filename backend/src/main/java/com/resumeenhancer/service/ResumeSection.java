@@ -0,0 +1,105 @@
+package com.resumeenhancer.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// One independently translatable slice of a Markdown resume. Leading and trailing whitespace is
+// kept aside so the translated document can be stitched back together byte-for-byte around it.
+public class ResumeSection {
+
+    // Headings, and bold entry lines (jobs, schools, projects) that open a new paragraph
+    private static final Pattern BOUNDARY = Pattern.compile("(?m)^(?=#{1,3} )|(?<=\\n\\n)(?=\\*\\*)");
+
+    private final String leading;
+    private final String body;
+    private final String trailing;
+
+    ResumeSection(String leading, String body, String trailing) {
+        this.leading = leading;
+        this.body = body;
+        this.trailing = trailing;
+    }
+
+    // Splits at section boundaries, merging neighbours until each piece has at least minChars so
+    // a lone heading or one-line entry does not become its own upstream call
+    public static List<ResumeSection> split(String markdown, int minChars) {
+        List<ResumeSection> sections = new ArrayList<>();
+        Matcher matcher = BOUNDARY.matcher(markdown);
+        int start = 0;
+
+        while (matcher.find()) {
+            int cut = matcher.start();
+            if (cut - start >= minChars) {
+                sections.add(of(markdown.substring(start, cut)));
+                start = cut;
+            }
+        }
+
+        if (start < markdown.length()) {
+            String rest = markdown.substring(start);
+            if (rest.trim().length() < minChars / 2 && !sections.isEmpty()) {
+                // Fold a short tail into the previous section rather than sending it alone
+                ResumeSection last = sections.remove(sections.size() - 1);
+                rest = last.leading + last.body + last.trailing + rest;
+            }
+            sections.add(of(rest));
+        }
+        return sections;
+    }
+
+    // Cuts sections over maxTokens at line breaks into pieces that fit; the pieces still
+    // reassemble to the original text. A single line longer than the budget is left whole.
+    public static List<ResumeSection> fit(List<ResumeSection> sections, int maxTokens, ToIntFunction<String> tokens) {
+        List<ResumeSection> fitted = new ArrayList<>();
+        for (ResumeSection section : sections) {
+            if (tokens.applyAsInt(section.body) <= maxTokens) {
+                fitted.add(section);
+                continue;
+            }
+
+            String chunk = section.leading + section.body + section.trailing;
+            int start = 0;
+            int end = 0; // end of the last line that still fits
+            int next;
+            while ((next = chunk.indexOf('\n', end)) >= 0) {
+                next++;
+                if (end > start && tokens.applyAsInt(chunk.substring(start, next)) > maxTokens) {
+                    fitted.add(of(chunk.substring(start, end)));
+                    start = end;
+                }
+                end = next;
+            }
+            if (end > start && end < chunk.length() && tokens.applyAsInt(chunk.substring(start)) > maxTokens) {
+                fitted.add(of(chunk.substring(start, end)));
+                start = end;
+            }
+            fitted.add(of(chunk.substring(start)));
+        }
+        return fitted;
+    }
+
+    private static ResumeSection of(String chunk) {
+        int from = 0;
+        int to = chunk.length();
+        while (from < to && Character.isWhitespace(chunk.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(chunk.charAt(to - 1))) {
+            to--;
+        }
+        return new ResumeSection(chunk.substring(0, from), chunk.substring(from, to), chunk.substring(to));
+    }
+
+    public String reassemble(String translatedBody) {
+        return leading + translatedBody + trailing;
+    }
+
+    public String getLeading() { return leading; }
+
+    public String getBody() { return body; }
+
+    public String getTrailing() { return trailing; }
+}
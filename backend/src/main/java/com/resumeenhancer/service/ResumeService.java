@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
 import java.util.List;
@@ -33,6 +34,9 @@ public class ResumeService {
     @Autowired
     private NlpService nlpService;
 
+    @Autowired(required = false)
+    private CacheService cacheService;
+
     public ResumeResponse uploadResume(MultipartFile file, Long userId) throws IOException {
         // Validate file
         if (file.isEmpty()) {
@@ -114,6 +118,7 @@ public class ResumeService {
             resume.setRawText(rawText);
             resume.setParseError(false);
             resumeRepository.save(resume);
+            invalidateCachedResults(resumeId);
         });
     }
 
@@ -126,21 +131,29 @@ public class ResumeService {
 
     @Async
     public void parseResumeAsync(Long resumeId, String rawText) {
-        try {
-            Object parsedJson = nlpService.parseResume(rawText);
-            updateResumeParsedJson(resumeId, parsedJson);
-        } catch (Exception e) {
-            markParseError(resumeId, "Failed to parse resume: " + e.getMessage());
-        }
+        // The NLP call runs on the WebClient event loop; only the JPA updates need a worker thread
+        nlpService.parseResumeAsync(rawText)
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(
+                        parsedJson -> updateResumeParsedJson(resumeId, parsedJson),
+                        e -> markParseError(resumeId, "Failed to parse resume: " + e.getMessage()));
     }
 
     private void updateResumeParsedJson(Long resumeId, Object parsedJson) {
         resumeRepository.findById(resumeId).ifPresent(resume -> {
             resume.setParsedJson(parsedJson);
             resumeRepository.save(resume);
+            invalidateCachedResults(resumeId);
         });
     }
 
+    // GPT results cached for the previous text or parse no longer describe this resume
+    private void invalidateCachedResults(Long resumeId) {
+        if (cacheService != null) {
+            cacheService.invalidateResume(resumeId);
+        }
+    }
+
     public ResumeResponse getResume(Long resumeId, Long userId) {
         Resume resume = resumeRepository.findByIdAndUserId(resumeId, userId)
                 .orElseThrow(() -> new RuntimeException("Resume not found"));
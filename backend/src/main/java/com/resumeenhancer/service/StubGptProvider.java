@@ -0,0 +1,94 @@
+package com.resumeenhancer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-process provider for tests and offline development: answers every request by echoing the
+// last message after a fixed latency, and can be switched into a failing state.
+public class StubGptProvider implements GptProvider {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String name;
+    private final Duration latency;
+    private final Duration timeout;
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile RuntimeException failure;
+
+    public StubGptProvider(String name, Duration latency, Duration timeout) {
+        this.name = name;
+        this.latency = latency;
+        this.timeout = timeout;
+    }
+
+    public void failWith(RuntimeException failure) {
+        this.failure = failure;
+    }
+
+    public int getCalls() {
+        return calls.get();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return true;
+    }
+
+    @Override
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public Mono<ChatCompletion> complete(Map<String, Object> request, Duration timeout) {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            RuntimeException error = failure;
+            if (error != null) {
+                return Mono.<ChatCompletion>error(error).delaySubscription(latency);
+            }
+            String reply = reply(request);
+            // Rough token counts so usage stats move in offline runs
+            return Mono.just(new ChatCompletion(reply, "stop", true,
+                    String.valueOf(request.get("messages")).length() / 4, 0, reply.length() / 4)).delayElement(latency);
+        }).timeout(effectiveTimeout(timeout));
+    }
+
+    @Override
+    public Flux<String> stream(Map<String, Object> request, Duration timeout) {
+        return Flux.defer(() -> {
+            calls.incrementAndGet();
+            RuntimeException error = failure;
+            if (error != null) {
+                return Flux.<String>error(error).delaySubscription(latency);
+            }
+            ObjectNode chunk = OBJECT_MAPPER.createObjectNode();
+            chunk.putArray("choices").addObject().putObject("delta").put("content", reply(request));
+            return Flux.just(chunk.toString()).delaySubscription(latency);
+        }).timeout(effectiveTimeout(timeout));
+    }
+
+    @SuppressWarnings("unchecked")
+    private String reply(Map<String, Object> request) {
+        Object messages = request.get("messages");
+        if (messages instanceof List && !((List<?>) messages).isEmpty()) {
+            Object last = ((List<?>) messages).get(((List<?>) messages).size() - 1);
+            if (last instanceof Map) {
+                return String.valueOf(((Map<String, Object>) last).get("content"));
+            }
+        }
+        return "";
+    }
+}
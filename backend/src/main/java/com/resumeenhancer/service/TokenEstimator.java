@@ -0,0 +1,55 @@
+package com.resumeenhancer.service;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Counts prompt tokens in-process with the BPE encoding of the configured model family, so
+// prompts can be sized before they are sent instead of finding out from a 400 or the bill.
+@Component
+public class TokenEstimator {
+
+    private final Encoding encoding;
+
+    public TokenEstimator(@Value("${OPENAI_MODEL:gpt-3.5-turbo}") String model) {
+        Encoding resolved;
+        try {
+            EncodingRegistry registry = Encodings.newLazyEncodingRegistry();
+            // Unknown or non-OpenAI model names fall back to the GPT-3.5/4 encoding
+            resolved = registry.getEncodingForModel(model)
+                    .orElseGet(() -> registry.getEncoding(EncodingType.CL100K_BASE));
+        } catch (Exception e) {
+            System.err.println("Failed to load tokenizer, using character estimate: " + e.getMessage());
+            resolved = null;
+        }
+        this.encoding = resolved;
+    }
+
+    public int count(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        if (encoding == null) {
+            return estimate(text);
+        }
+        return encoding.countTokensOrdinary(text);
+    }
+
+    public String getEncodingName() {
+        return encoding != null ? encoding.getName() : "heuristic";
+    }
+
+    // Roughly four characters per token for Latin text and one per token for CJK
+    static int estimate(String text) {
+        int cjk = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.UnicodeScript.of(text.charAt(i)) == Character.UnicodeScript.HAN) {
+                cjk++;
+            }
+        }
+        return cjk + (text.length() - cjk + 3) / 4;
+    }
+}
@@ -1,19 +1,54 @@
 package com.resumeenhancer.service;
 
-import com.resumeenhancer.entity.User;
-import com.resumeenhancer.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.LocalDate;
-import java.util.concurrent.TimeUnit;
-
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Daily GPT and enhancement counters in Redis. GPT quota is taken with reserveGpt, which checks
+// the limit and consumes one unit in a single script call, so concurrent requests cannot overshoot
+// it; withGptQuota commits the reservation when the GPT call succeeds and refunds it otherwise.
+// Interactive requests and batch items go through the same path, so both count against one limit.
 @Service
 public class UsageTrackingService {
 
+    private static final long COUNTER_TTL_SECONDS = Duration.ofDays(1).getSeconds();
+
+    // KEYS[1] counter, ARGV[1] limit, ARGV[2] TTL seconds; the new count, or -1 when the limit is reached
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>(
+            "local used = tonumber(redis.call('GET', KEYS[1]) or '0') "
+                    + "if used >= tonumber(ARGV[1]) then return -1 end "
+                    + "used = redis.call('INCR', KEYS[1]) "
+                    + "if used == 1 then redis.call('EXPIRE', KEYS[1], ARGV[2]) end "
+                    + "return used",
+            Long.class);
+
+    // Never goes below zero, so a refund after a reset does not hand out extra quota
+    private static final RedisScript<Long> REFUND_SCRIPT = new DefaultRedisScript<>(
+            "if tonumber(redis.call('GET', KEYS[1]) or '0') > 0 then return redis.call('DECR', KEYS[1]) end "
+                    + "return 0",
+            Long.class);
+
+    // KEYS[1] counter, ARGV[1] TTL seconds
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local used = redis.call('INCR', KEYS[1]) "
+                    + "if used == 1 then redis.call('EXPIRE', KEYS[1], ARGV[1]) end "
+                    + "return used",
+            Long.class);
+
     @Autowired(required = false)
     private RedisTemplate<String, String> redisTemplate;
 
@@ -26,83 +61,161 @@ public class UsageTrackingService {
     @Value("${app.usage.enable-redis-cache:false}")
     private boolean enableRedisCache;
 
-    public boolean canUseGptService(Long userId) {
-        if (!enableRedisCache) {
-            return true; // No limits if Redis is not configured
+    // No limits if Redis is not configured
+    public boolean isTracking() {
+        return enableRedisCache && redisTemplate != null;
+    }
+
+    // One round-trip; throws when today's GPT limit is used up
+    public QuotaReservation reserveGpt(Long userId) {
+        if (!isTracking()) {
+            return QuotaReservation.UNLIMITED;
         }
 
-        String key = "gpt_usage:" + userId + ":" + LocalDate.now();
-        String usage = redisTemplate.opsForValue().get(key);
-        
-        int currentUsage = usage != null ? Integer.parseInt(usage) : 0;
-        return currentUsage < dailyGptLimit;
+        String key = gptKey(userId);
+        Long used = redisTemplate.execute(RESERVE_SCRIPT, Collections.singletonList(key),
+                String.valueOf(dailyGptLimit), String.valueOf(COUNTER_TTL_SECONDS));
+        if (used == null || used < 0) {
+            throw new GptQuotaExceededException("Daily GPT usage limit exceeded. Please try again tomorrow or use local mode.");
+        }
+        return new QuotaReservation(this, key);
     }
 
-    public boolean canUseEnhancement(Long userId) {
-        if (!enableRedisCache) {
-            return true; // No limits if Redis is not configured
+    // The quota unit is taken before the call and handed back if it fails or is cancelled, so
+    // only answers that reach the user count against the daily limit
+    public <T> Mono<T> withGptQuota(Long userId, Mono<T> call) {
+        if (!isTracking()) {
+            return call;
         }
-
-        String key = "enhancement_usage:" + userId + ":" + LocalDate.now();
-        String usage = redisTemplate.opsForValue().get(key);
-        
-        int currentUsage = usage != null ? Integer.parseInt(usage) : 0;
-        return currentUsage < dailyEnhancementLimit;
+        return Mono.usingWhen(blocking(() -> reserveGpt(userId)),
+                reservation -> call,
+                reservation -> Mono.fromCallable(reservation::commit),
+                (reservation, error) -> blocking(reservation::refund),
+                reservation -> blocking(reservation::refund));
     }
 
-    public void trackGptUsage(Long userId) {
-        if (!enableRedisCache) {
-            return;
+    public <T> Flux<T> withGptQuota(Long userId, Flux<T> call) {
+        if (!isTracking()) {
+            return call;
         }
+        return Flux.usingWhen(blocking(() -> reserveGpt(userId)),
+                reservation -> call,
+                reservation -> Mono.fromCallable(reservation::commit),
+                (reservation, error) -> blocking(reservation::refund),
+                reservation -> blocking(reservation::refund));
+    }
 
-        String key = "gpt_usage:" + userId + ":" + LocalDate.now();
-        redisTemplate.opsForValue().increment(key);
-        redisTemplate.expire(key, Duration.ofDays(1));
+    // The Redis client blocks, so scripts run on the bounded elastic pool
+    private static <T> Mono<T> blocking(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void refund(String key) {
+        redisTemplate.execute(REFUND_SCRIPT, Collections.singletonList(key));
+    }
+
+    public boolean canUseGptService(Long userId) {
+        return getDailyUsage(userId).canUseGpt();
+    }
+
+    public boolean canUseEnhancement(Long userId) {
+        return getDailyUsage(userId).canUseEnhancement();
     }
 
     public void trackEnhancementUsage(Long userId) {
-        if (!enableRedisCache) {
+        if (!isTracking()) {
             return;
         }
 
-        String key = "enhancement_usage:" + userId + ":" + LocalDate.now();
-        redisTemplate.opsForValue().increment(key);
-        redisTemplate.expire(key, Duration.ofDays(1));
+        redisTemplate.execute(INCREMENT_SCRIPT, Collections.singletonList(enhancementKey(userId)),
+                String.valueOf(COUNTER_TTL_SECONDS));
     }
 
     public int getRemainingGptUsage(Long userId) {
-        if (!enableRedisCache) {
-            return dailyGptLimit; // Return full limit if no tracking
-        }
-
-        String key = "gpt_usage:" + userId + ":" + LocalDate.now();
-        String usage = redisTemplate.opsForValue().get(key);
-        
-        int currentUsage = usage != null ? Integer.parseInt(usage) : 0;
-        return Math.max(0, dailyGptLimit - currentUsage);
+        return getDailyUsage(userId).getRemainingGpt();
     }
 
     public int getRemainingEnhancementUsage(Long userId) {
-        if (!enableRedisCache) {
-            return dailyEnhancementLimit; // Return full limit if no tracking
+        return getDailyUsage(userId).getRemainingEnhancement();
+    }
+
+    // Both counters in one MGET; full limits if no tracking
+    public DailyUsage getDailyUsage(Long userId) {
+        if (!isTracking()) {
+            return new DailyUsage(0, dailyGptLimit, 0, dailyEnhancementLimit);
         }
 
-        String key = "enhancement_usage:" + userId + ":" + LocalDate.now();
-        String usage = redisTemplate.opsForValue().get(key);
-        
-        int currentUsage = usage != null ? Integer.parseInt(usage) : 0;
-        return Math.max(0, dailyEnhancementLimit - currentUsage);
+        List<String> values = redisTemplate.opsForValue().multiGet(Arrays.asList(gptKey(userId), enhancementKey(userId)));
+        return new DailyUsage(parseCount(values, 0), dailyGptLimit, parseCount(values, 1), dailyEnhancementLimit);
+    }
+
+    private static int parseCount(List<String> values, int index) {
+        String value = values != null && values.size() > index ? values.get(index) : null;
+        return value != null ? Integer.parseInt(value) : 0;
     }
 
     public void resetDailyUsage(Long userId) {
-        if (!enableRedisCache) {
+        if (!isTracking()) {
             return;
         }
 
-        String gptKey = "gpt_usage:" + userId + ":" + LocalDate.now();
-        String enhancementKey = "enhancement_usage:" + userId + ":" + LocalDate.now();
-        
-        redisTemplate.delete(gptKey);
-        redisTemplate.delete(enhancementKey);
+        redisTemplate.delete(Arrays.asList(gptKey(userId), enhancementKey(userId)));
+    }
+
+    private static String gptKey(Long userId) {
+        return "gpt_usage:" + userId + ":" + LocalDate.now();
+    }
+
+    private static String enhancementKey(Long userId) {
+        return "enhancement_usage:" + userId + ":" + LocalDate.now();
+    }
+
+    // One unit of GPT quota taken by reserveGpt. Settling is idempotent: after commit, refund is a
+    // no-op, so a cleanup path may refund unconditionally. The key is fixed at reservation, so a
+    // refund after midnight returns the unit to the day it was taken from.
+    public static final class QuotaReservation {
+
+        static final QuotaReservation UNLIMITED = new QuotaReservation(null, null);
+
+        private final UsageTrackingService owner;
+        private final String key;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        QuotaReservation(UsageTrackingService owner, String key) {
+            this.owner = owner;
+            this.key = key;
+        }
+
+        public boolean commit() {
+            return settled.compareAndSet(false, true);
+        }
+
+        // True when this call gave the unit back
+        public boolean refund() {
+            if (key == null || !settled.compareAndSet(false, true)) {
+                return false;
+            }
+            owner.refund(key);
+            return true;
+        }
+    }
+
+    public static final class DailyUsage {
+        private final int gptUsed;
+        private final int gptLimit;
+        private final int enhancementUsed;
+        private final int enhancementLimit;
+
+        DailyUsage(int gptUsed, int gptLimit, int enhancementUsed, int enhancementLimit) {
+            this.gptUsed = gptUsed;
+            this.gptLimit = gptLimit;
+            this.enhancementUsed = enhancementUsed;
+            this.enhancementLimit = enhancementLimit;
+        }
+
+        public int getRemainingGpt() { return Math.max(0, gptLimit - gptUsed); }
+        public int getRemainingEnhancement() { return Math.max(0, enhancementLimit - enhancementUsed); }
+        public boolean canUseGpt() { return gptUsed < gptLimit; }
+        public boolean canUseEnhancement() { return enhancementUsed < enhancementLimit; }
     }
 }
@@ -0,0 +1,185 @@
+package com.resumeenhancer.controller;
+
+import com.resumeenhancer.dto.AnalyzeRequest;
+import com.resumeenhancer.dto.EnhanceRequest;
+import com.resumeenhancer.dto.EnhancedResumeResponse;
+import com.resumeenhancer.dto.EnhancementStreamEvent;
+import com.resumeenhancer.dto.TranslateRequest;
+import com.resumeenhancer.entity.User;
+import com.resumeenhancer.security.UserPrincipal;
+import com.resumeenhancer.service.EnhancedResumeService;
+import com.resumeenhancer.service.GptOverloadedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AnalysisControllerTest {
+
+    private static final long USER_ID = 7L;
+
+    private EnhancedResumeService enhancedResumeService;
+    private AnalysisController controller;
+    private UserPrincipal currentUser;
+
+    @BeforeEach
+    void setUp() {
+        enhancedResumeService = mock(EnhancedResumeService.class);
+        controller = new AnalysisController();
+        ReflectionTestUtils.setField(controller, "enhancedResumeService", enhancedResumeService);
+
+        User user = new User();
+        user.setId(USER_ID);
+        currentUser = new UserPrincipal(user);
+    }
+
+    private static EnhancedResumeResponse result(String text) {
+        EnhancedResumeResponse response = new EnhancedResumeResponse();
+        response.setId(1L);
+        response.setEnhancedText(text);
+        return response;
+    }
+
+    private static List<ServerSentEvent<Object>> collect(Flux<ServerSentEvent<Object>> events) {
+        return events.collectList().block(Duration.ofSeconds(5));
+    }
+
+    private static List<String> types(List<ServerSentEvent<Object>> events) {
+        return events.stream().map(ServerSentEvent::event).collect(Collectors.toList());
+    }
+
+    @Test
+    void testEnhanceStreamSendsTokensInOrderThenTheSavedResult() {
+        EnhancedResumeResponse saved = result("Jane Doe, Staff Engineer");
+        when(enhancedResumeService.streamEnhanceResume(any(EnhanceRequest.class), eq(USER_ID))).thenReturn(Flux.just(
+                EnhancementStreamEvent.token("Jane Doe"),
+                EnhancementStreamEvent.token(", Staff"),
+                EnhancementStreamEvent.token(" Engineer"),
+                EnhancementStreamEvent.done(saved)));
+
+        List<ServerSentEvent<Object>> events = collect(controller.streamEnhanceResume(
+                new EnhanceRequest(1L, "Backend engineer", "en", "gpt"), currentUser));
+
+        assertEquals(List.of("token", "token", "token", "done"), types(events));
+        assertEquals(List.of("Jane Doe", ", Staff", " Engineer"),
+                events.subList(0, 3).stream().map(ServerSentEvent::data).collect(Collectors.toList()));
+        assertSame(saved, events.get(3).data());
+    }
+
+    @Test
+    void testTranslateStreamCompletesWithTheSavedResult() {
+        EnhancedResumeResponse saved = result("简历");
+        when(enhancedResumeService.streamTranslateResume(any(TranslateRequest.class), eq(USER_ID))).thenReturn(Flux.just(
+                EnhancementStreamEvent.token("简"),
+                EnhancementStreamEvent.token("历"),
+                EnhancementStreamEvent.done(saved)));
+
+        List<ServerSentEvent<Object>> events = collect(controller.streamTranslateResume(
+                new TranslateRequest(1L, null, "zh", "gpt"), currentUser));
+
+        assertEquals(List.of("token", "token", "done"), types(events));
+        assertEquals("简", events.get(0).data());
+        assertSame(saved, events.get(2).data());
+    }
+
+    @Test
+    void testStreamFailureEndsWithAnErrorEvent() {
+        when(enhancedResumeService.streamTranslateResume(any(TranslateRequest.class), eq(USER_ID))).thenReturn(
+                Flux.concat(Flux.just(EnhancementStreamEvent.token("Part")),
+                        Mono.error(new RuntimeException("upstream closed"))));
+
+        List<ServerSentEvent<Object>> events = collect(controller.streamTranslateResume(
+                new TranslateRequest(1L, null, "zh", "gpt"), currentUser));
+
+        assertEquals(List.of("token", "error"), types(events));
+        assertEquals(Map.of("error", "upstream closed"), events.get(1).data());
+    }
+
+    @Test
+    void testStreamThatFailsBeforeAnyTokenSendsOnlyTheError() {
+        when(enhancedResumeService.streamEnhanceResume(any(EnhanceRequest.class), eq(USER_ID)))
+                .thenReturn(Flux.error(new RuntimeException("Resume not found")));
+
+        List<ServerSentEvent<Object>> events = collect(controller.streamEnhanceResume(
+                new EnhanceRequest(1L, "Backend engineer", "en", "gpt"), currentUser));
+
+        assertEquals(List.of("error"), types(events));
+        assertEquals(Map.of("error", "Resume not found"), events.get(0).data());
+    }
+
+    @Test
+    void testAnalyzeReturnsTheResultWithoutBlockingTheCaller() {
+        AtomicBoolean subscribed = new AtomicBoolean();
+        EnhancedResumeResponse analysis = result("Enhanced");
+        when(enhancedResumeService.analyzeResumeAsync(any(AnalyzeRequest.class), eq(USER_ID)))
+                .thenReturn(Mono.fromCallable(() -> analysis).doOnSubscribe(s -> subscribed.set(true)));
+
+        Mono<ResponseEntity<EnhancedResumeResponse>> response = controller.analyzeResume(
+                new AnalyzeRequest(1L, "Backend engineer", "en", "gpt", false), currentUser);
+
+        // Nothing runs until the framework subscribes
+        assertFalse(subscribed.get());
+        ResponseEntity<EnhancedResumeResponse> entity = response.block(Duration.ofSeconds(5));
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertSame(analysis, entity.getBody());
+    }
+
+    @Test
+    void testFullQueueMapsToTooManyRequestsWithRetryAfter() {
+        when(enhancedResumeService.enhanceResumeAsync(any(EnhanceRequest.class), eq(USER_ID))).thenReturn(Mono.error(
+                new RuntimeException("Failed to enhance resume: busy",
+                        new GptOverloadedException(GptOverloadedException.Reason.QUEUE_FULL, "busy", 3))));
+
+        ResponseEntity<?> entity = controller.enhanceResume(
+                new EnhanceRequest(1L, "Backend engineer", "en", "gpt"), currentUser).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, entity.getStatusCode());
+        assertEquals("3", entity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("{\"error\": \"Failed to enhance resume: busy\"}", entity.getBody());
+    }
+
+    @Test
+    void testQueueTimeoutMapsToServiceUnavailable() {
+        when(enhancedResumeService.translateResumeAsync(any(TranslateRequest.class), eq(USER_ID))).thenReturn(Mono.error(
+                new GptOverloadedException(GptOverloadedException.Reason.QUEUE_TIMEOUT, "timed out", 5)));
+
+        ResponseEntity<EnhancedResumeResponse> entity = controller.translateResume(
+                new TranslateRequest(1L, null, "zh", "gpt"), currentUser).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, entity.getStatusCode());
+        assertEquals("5", entity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testOtherFailuresMapToBadRequest() {
+        when(enhancedResumeService.analyzeResumeAsync(any(AnalyzeRequest.class), eq(USER_ID)))
+                .thenReturn(Mono.error(new RuntimeException("Resume not found")));
+        when(enhancedResumeService.generateSuggestionsAsync(eq(1L), any(), any(), eq(USER_ID)))
+                .thenReturn(Mono.error(new RuntimeException("Resume has not been parsed yet")));
+
+        ResponseEntity<EnhancedResumeResponse> analysis = controller.analyzeResume(
+                new AnalyzeRequest(1L, "Backend engineer", "en", "gpt", false), currentUser).block(Duration.ofSeconds(5));
+        ResponseEntity<?> suggestions = controller.generateSuggestions(
+                Map.of("resumeId", 1, "jobDescription", "Backend engineer"), currentUser).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.BAD_REQUEST, analysis.getStatusCode());
+        assertNull(analysis.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.BAD_REQUEST, suggestions.getStatusCode());
+        assertEquals("{\"error\": \"Resume has not been parsed yet\"}", suggestions.getBody());
+    }
+}
@@ -0,0 +1,88 @@
+package com.resumeenhancer.controller;
+
+import com.resumeenhancer.entity.User;
+import com.resumeenhancer.security.UserPrincipal;
+import com.resumeenhancer.service.CacheService;
+import com.resumeenhancer.service.CacheTagSweeper;
+import com.resumeenhancer.service.GptBulkhead;
+import com.resumeenhancer.service.GptCircuitBreaker;
+import com.resumeenhancer.service.GptModelPolicy;
+import com.resumeenhancer.service.GptProviderRouter;
+import com.resumeenhancer.service.GptRequestCoalescer;
+import com.resumeenhancer.service.GptService;
+import com.resumeenhancer.service.RedisSingleFlight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetricsControllerTest {
+
+    private CacheService cacheService;
+    private GptService gptService;
+    private MetricsController controller;
+
+    @BeforeEach
+    void setUp() {
+        cacheService = mock(CacheService.class);
+        when(cacheService.getNamespaceStats()).thenReturn(Map.of("gpt", Map.of("hits", 3)));
+        gptService = mock(GptService.class);
+        when(gptService.getTokenStats()).thenReturn(Map.of("requests", 5));
+
+        controller = new MetricsController();
+        ReflectionTestUtils.setField(controller, "gptService", gptService);
+        ReflectionTestUtils.setField(controller, "requestCoalescer", mock(GptRequestCoalescer.class));
+        ReflectionTestUtils.setField(controller, "redisSingleFlight", mock(RedisSingleFlight.class));
+        ReflectionTestUtils.setField(controller, "bulkhead", mock(GptBulkhead.class));
+        ReflectionTestUtils.setField(controller, "circuitBreaker", mock(GptCircuitBreaker.class));
+        ReflectionTestUtils.setField(controller, "providerRouter", mock(GptProviderRouter.class));
+        ReflectionTestUtils.setField(controller, "modelPolicy", mock(GptModelPolicy.class));
+        ReflectionTestUtils.setField(controller, "cacheService", cacheService);
+        ReflectionTestUtils.setField(controller, "cacheTagSweeper", mock(CacheTagSweeper.class));
+        ReflectionTestUtils.setField(controller, "adminEmails", List.of(" ops@example.com"));
+    }
+
+    private static UserPrincipal user(String email) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(email);
+        return new UserPrincipal(user);
+    }
+
+    @Test
+    void testNonAdminsAreForbidden() {
+        for (UserPrincipal currentUser : new UserPrincipal[] {user("jane@example.com"), null}) {
+            assertEquals(HttpStatus.FORBIDDEN, controller.getGptMetrics(currentUser).getStatusCode());
+            assertEquals(HttpStatus.FORBIDDEN, controller.getCacheMetrics(currentUser).getStatusCode());
+        }
+        verifyNoInteractions(cacheService, gptService);
+    }
+
+    @Test
+    void testAdminsReadTheMetrics() {
+        UserPrincipal admin = user("Ops@Example.com");
+
+        ResponseEntity<Map<String, Object>> gpt = controller.getGptMetrics(admin);
+        ResponseEntity<Map<String, Object>> cache = controller.getCacheMetrics(admin);
+
+        assertEquals(HttpStatus.OK, gpt.getStatusCode());
+        assertEquals(Map.of("requests", 5), gpt.getBody().get("tokens"));
+        assertEquals(HttpStatus.OK, cache.getStatusCode());
+        assertEquals(Map.of("gpt", Map.of("hits", 3)), cache.getBody());
+    }
+
+    @Test
+    void testNoConfiguredAdminsClosesTheEndpoints() {
+        ReflectionTestUtils.setField(controller, "adminEmails", List.of());
+
+        assertEquals(HttpStatus.FORBIDDEN, controller.getGptMetrics(user("ops@example.com")).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, controller.getCacheMetrics(user("ops@example.com")).getStatusCode());
+    }
+}
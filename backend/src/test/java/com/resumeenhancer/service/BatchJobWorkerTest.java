@@ -0,0 +1,397 @@
+package com.resumeenhancer.service;
+
+import com.resumeenhancer.entity.BatchJob;
+import com.resumeenhancer.entity.BatchJobItem;
+import com.resumeenhancer.entity.Resume;
+import com.resumeenhancer.entity.User;
+import com.resumeenhancer.repository.BatchJobItemRepository;
+import com.resumeenhancer.repository.BatchJobRepository;
+import com.resumeenhancer.repository.ResumeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// The repositories are backed by an in-memory H2 database through the same JDBC connection as the
+// worker's checkpoint, so the lease guards run as real SQL
+class BatchJobWorkerTest {
+
+    private static final long OWNER_ID = 7L;
+
+    private JdbcTemplate jdbc;
+    private GptService gptService;
+    private BatchJobWorker worker;
+
+    // Answers enhancement calls; tests swap it to fail, stall or interfere mid-call
+    private Function<String, Mono<String>> upstream = text -> Mono.just("ENHANCED " + text);
+
+    // Rows of generated keys the worker's statements hand back, as a driver may return fewer than inserted
+    private volatile int generatedKeyLimit = Integer.MAX_VALUE;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:batch-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table batch_jobs (id bigint primary key, status varchar(20) not null, finished_at timestamp)");
+        jdbc.execute("create table batch_job_items (id bigint primary key, batch_job_id bigint not null, resume_id bigint not null, "
+                + "status varchar(20) not null, attempts int not null default 0, enhanced_resume_id bigint, error varchar(500), "
+                + "leased_until timestamp, leased_by varchar(100))");
+        jdbc.execute("create table enhanced_resumes (id bigint auto_increment primary key, resume_id bigint, enhanced_text text, "
+                + "language varchar(20), enhancement_type varchar(20), source_text text, prompt_fingerprint varchar(64), created_at timestamp)");
+
+        gptService = mock(GptService.class);
+        when(gptService.enhanceResumeAsync(anyString(), any(), any()))
+                .thenAnswer(inv -> Mono.defer(() -> upstream.apply(inv.getArgument(0))));
+        when(gptService.enhancePromptFingerprint(any(), any())).thenReturn("fingerprint");
+
+        ResumeRepository resumes = mock(ResumeRepository.class);
+        when(resumes.findById(anyLong())).thenAnswer(inv -> {
+            Resume resume = new Resume();
+            resume.setId(inv.getArgument(0));
+            resume.setRawText("resume " + inv.getArgument(0));
+            return Optional.of(resume);
+        });
+
+        BatchJobItemRepository items = itemRepository();
+        BatchJobService batchJobService = new BatchJobService();
+        ReflectionTestUtils.setField(batchJobService, "batchJobItemRepository", items);
+
+        worker = new BatchJobWorker(WebClient.builder(), new CallbackUrlPolicy(Collections.emptyList()));
+        ReflectionTestUtils.setField(worker, "batchJobRepository", jobRepository());
+        ReflectionTestUtils.setField(worker, "batchJobItemRepository", items);
+        ReflectionTestUtils.setField(worker, "resumeRepository", resumes);
+        ReflectionTestUtils.setField(worker, "gptService", gptService);
+        ReflectionTestUtils.setField(worker, "batchJobService", batchJobService);
+        DataSource workerDataSource = limitingGeneratedKeys(dataSource);
+        ReflectionTestUtils.setField(worker, "jdbcTemplate", new JdbcTemplate(workerDataSource));
+        ReflectionTestUtils.setField(worker, "transactionTemplate",
+                new TransactionTemplate(new DataSourceTransactionManager(workerDataSource)));
+        ReflectionTestUtils.setField(worker, "enabled", true);
+        ReflectionTestUtils.setField(worker, "concurrency", 4);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(worker, "workerId", "node-a");
+    }
+
+    private void job(long id, BatchJob.Status status) {
+        jdbc.update("insert into batch_jobs (id, status) values (?, ?)", id, status.name());
+    }
+
+    private void item(long id, long jobId) {
+        jdbc.update("insert into batch_job_items (id, batch_job_id, resume_id, status) values (?, ?, ?, 'PENDING')", id, jobId, 100 + id);
+    }
+
+    private Map<String, Object> row(long itemId) {
+        return jdbc.queryForMap("select * from batch_job_items where id = ?", itemId);
+    }
+
+    private int enhancedRows() {
+        return jdbc.queryForObject("select count(*) from enhanced_resumes", Integer.class);
+    }
+
+    @Test
+    void testClaimsEnhancesAndCheckpointsPendingItems() {
+        job(1, BatchJob.Status.QUEUED);
+        item(1, 1);
+        item(2, 1);
+
+        assertEquals(2, worker.runOnce());
+
+        for (long id : new long[] {1, 2}) {
+            Map<String, Object> row = row(id);
+            assertEquals("DONE", row.get("status"));
+            assertEquals(1, row.get("attempts"));
+            assertNull(row.get("leased_until"));
+            assertNull(row.get("leased_by"));
+            assertEquals("ENHANCED resume " + (100 + id), jdbc.queryForObject(
+                    "select enhanced_text from enhanced_resumes where id = ?", String.class, row.get("enhanced_resume_id")));
+        }
+        assertEquals("COMPLETED", jdbc.queryForObject("select status from batch_jobs where id = 1", String.class));
+        assertEquals(0, worker.runOnce());
+    }
+
+    @Test
+    void testStartupRequeuesOnlyThisWorkersLeases() {
+        job(1, BatchJob.Status.RUNNING);
+        item(1, 1);
+        item(2, 1);
+        LocalDateTime lease = LocalDateTime.now().plusMinutes(5);
+        jdbc.update("update batch_job_items set status = 'RUNNING', leased_until = ?, leased_by = 'node-a' where id = 1", Timestamp.valueOf(lease));
+        jdbc.update("update batch_job_items set status = 'RUNNING', leased_until = ?, leased_by = 'node-b' where id = 2", Timestamp.valueOf(lease));
+
+        worker.resumeInterruptedItems();
+
+        assertEquals("PENDING", row(1).get("status"));
+        assertEquals("RUNNING", row(2).get("status"));
+        assertEquals("node-b", row(2).get("leased_by"));
+    }
+
+    @Test
+    void testExpiredLeasesAreRequeuedAndRetried() {
+        job(1, BatchJob.Status.RUNNING);
+        item(1, 1);
+        jdbc.update("update batch_job_items set status = 'RUNNING', leased_until = ?, leased_by = 'node-b' where id = 1",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+
+        assertEquals(1, worker.runOnce());
+
+        assertEquals("DONE", row(1).get("status"));
+        assertEquals(1, enhancedRows());
+    }
+
+    @Test
+    void testResultIsDroppedWhenTheLeaseWasLost() {
+        job(1, BatchJob.Status.QUEUED);
+        item(1, 1);
+        // While the call runs our lease expires and another worker re-claims the item
+        upstream = text -> Mono.fromCallable(() -> {
+            jdbc.update("update batch_job_items set leased_until = ?, leased_by = 'node-b' where id = 1",
+                    Timestamp.valueOf(LocalDateTime.now().plusMinutes(10)));
+            return "ENHANCED " + text;
+        });
+
+        worker.runOnce();
+
+        Map<String, Object> row = row(1);
+        assertEquals("RUNNING", row.get("status"));
+        assertEquals("node-b", row.get("leased_by"));
+        assertNull(row.get("enhanced_resume_id"));
+        assertEquals(0, enhancedRows());
+    }
+
+    @Test
+    void testFailedItemOfCancelledJobIsNotRetried() {
+        job(1, BatchJob.Status.RUNNING);
+        item(1, 1);
+        upstream = text -> Mono.fromCallable(() -> {
+            jdbc.update("update batch_jobs set status = 'CANCELLED' where id = 1");
+            throw new IllegalStateException("upstream failed");
+        });
+
+        worker.runOnce();
+
+        assertEquals("CANCELLED", row(1).get("status"));
+        assertEquals(0, worker.runOnce());
+    }
+
+    @Test
+    void testItemsOfCancelledJobsAreNotClaimed() {
+        job(1, BatchJob.Status.CANCELLED);
+        item(1, 1);
+
+        assertEquals(0, worker.runOnce());
+
+        assertEquals("PENDING", row(1).get("status"));
+        verify(gptService, never()).enhanceResumeAsync(anyString(), any(), any());
+    }
+
+    @Test
+    void testFailuresUseAttemptsUntilTheItemFails() {
+        job(1, BatchJob.Status.QUEUED);
+        item(1, 1);
+        AtomicInteger calls = new AtomicInteger();
+        upstream = text -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("malformed response"));
+        };
+
+        worker.runOnce();
+        assertEquals("PENDING", row(1).get("status"));
+        assertEquals(1, row(1).get("attempts"));
+
+        worker.runOnce();
+        worker.runOnce();
+        Map<String, Object> row = row(1);
+        assertEquals("FAILED", row.get("status"));
+        assertEquals(3, row.get("attempts"));
+        assertEquals("malformed response", row.get("error"));
+        assertEquals(3, calls.get());
+
+        assertEquals(0, worker.runOnce());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testCapacityRejectionsDoNotUseAttempts() {
+        job(1, BatchJob.Status.QUEUED);
+        item(1, 1);
+        upstream = text -> Mono.error(new GptOverloadedException(GptOverloadedException.Reason.QUEUE_FULL, "busy", 1));
+
+        // Backs off instead of looping on the same item
+        assertEquals(0, worker.runOnce());
+
+        Map<String, Object> row = row(1);
+        assertEquals("PENDING", row.get("status"));
+        assertEquals(0, row.get("attempts"));
+    }
+
+    @Test
+    void testExhaustedQuotaFailsTheItemAtOnce() {
+        UsageTrackingService usage = mock(UsageTrackingService.class);
+        when(usage.withGptQuota(eq(OWNER_ID), any(Mono.class)))
+                .thenReturn(Mono.error(new GptQuotaExceededException("Daily GPT usage limit exceeded.")));
+        ReflectionTestUtils.setField(worker, "usageTrackingService", usage);
+        job(1, BatchJob.Status.QUEUED);
+        item(1, 1);
+
+        worker.runOnce();
+
+        Map<String, Object> row = row(1);
+        assertEquals("FAILED", row.get("status"));
+        assertEquals(0, row.get("attempts"));
+        assertEquals(0, enhancedRows());
+    }
+
+    @Test
+    void testCheckpointRollsBackWhenTheDriverReturnsTooFewKeys() {
+        job(1, BatchJob.Status.QUEUED);
+        item(1, 1);
+        item(2, 1);
+        generatedKeyLimit = 1;
+
+        assertThrows(IllegalStateException.class, worker::runOnce);
+
+        assertEquals(0, enhancedRows());
+        for (long id : new long[] {1, 2}) {
+            Map<String, Object> row = row(id);
+            assertEquals("RUNNING", row.get("status"));
+            assertEquals("node-a", row.get("leased_by"));
+            assertNull(row.get("enhanced_resume_id"));
+        }
+    }
+
+    private DataSource limitingGeneratedKeys(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return intercept(Connection.class, super.getConnection());
+            }
+        };
+    }
+
+    // Wraps statements the connection prepares, and cuts their generated keys short
+    private <T> T intercept(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof PreparedStatement) {
+                return intercept(PreparedStatement.class, (PreparedStatement) result);
+            }
+            if (method.getName().equals("getGeneratedKeys")) {
+                return limited((ResultSet) result);
+            }
+            return result;
+        }));
+    }
+
+    private ResultSet limited(ResultSet keys) {
+        AtomicInteger read = new AtomicInteger();
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+            if (method.getName().equals("next")) {
+                return read.get() < generatedKeyLimit && keys.next() && read.incrementAndGet() > 0;
+            }
+            return invoke(keys, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Minimal SQL versions of the JPQL queries the worker uses
+    private BatchJobItemRepository itemRepository() {
+        BatchJobItemRepository items = mock(BatchJobItemRepository.class);
+        when(items.findWithJobByStatus(any(), anyCollection(), any(Pageable.class))).thenAnswer(inv -> {
+            Collection<BatchJob.Status> jobStatuses = inv.getArgument(1);
+            String in = jobStatuses.stream().map(s -> "'" + s.name() + "'").collect(Collectors.joining(", "));
+            return jdbc.query("select i.* from batch_job_items i join batch_jobs j on j.id = i.batch_job_id "
+                            + "where i.status = ? and j.status in (" + in + ") order by i.id limit ?",
+                    (rs, n) -> toItem(rs), inv.<BatchJobItem.Status>getArgument(0).name(), inv.<Pageable>getArgument(2).getPageSize());
+        });
+        when(items.claim(anyLong(), any(), any(), any(), anyString())).thenAnswer(inv -> jdbc.update(
+                "update batch_job_items set status = ?, leased_until = ?, leased_by = ? where id = ? and status = ?",
+                inv.<BatchJobItem.Status>getArgument(2).name(), Timestamp.valueOf(inv.<LocalDateTime>getArgument(3)),
+                inv.getArgument(4), inv.getArgument(0), inv.<BatchJobItem.Status>getArgument(1).name()));
+        when(items.requeueExpired(any(), any(), any())).thenAnswer(inv -> jdbc.update(
+                "update batch_job_items set status = ?, leased_until = null, leased_by = null where status = ? and leased_until < ?",
+                inv.<BatchJobItem.Status>getArgument(1).name(), inv.<BatchJobItem.Status>getArgument(0).name(),
+                Timestamp.valueOf(inv.<LocalDateTime>getArgument(2))));
+        when(items.requeueOwned(any(), any(), anyString())).thenAnswer(inv -> jdbc.update(
+                "update batch_job_items set status = ?, leased_until = null, leased_by = null where status = ? and leased_by = ?",
+                inv.<BatchJobItem.Status>getArgument(1).name(), inv.<BatchJobItem.Status>getArgument(0).name(), inv.getArgument(2)));
+        when(items.countByStatus(anyLong())).thenAnswer(inv -> jdbc.query(
+                "select status, count(*) from batch_job_items where batch_job_id = ? group by status",
+                (rs, n) -> new Object[] {BatchJobItem.Status.valueOf(rs.getString(1)), rs.getLong(2)}, inv.<Long>getArgument(0)));
+        return items;
+    }
+
+    private BatchJobRepository jobRepository() {
+        BatchJobRepository jobs = mock(BatchJobRepository.class);
+        when(jobs.transition(anyLong(), any(), any(), any())).thenAnswer(inv -> {
+            LocalDateTime finishedAt = inv.getArgument(3);
+            return jdbc.update("update batch_jobs set status = ?, finished_at = ? where id = ? and status = ?",
+                    inv.<BatchJob.Status>getArgument(2).name(), finishedAt != null ? Timestamp.valueOf(finishedAt) : null,
+                    inv.getArgument(0), inv.<BatchJob.Status>getArgument(1).name());
+        });
+        when(jobs.findById(anyLong())).thenAnswer(inv -> jdbc.query("select * from batch_jobs where id = ?",
+                (rs, n) -> {
+                    BatchJob job = toJob(rs.getLong("id"));
+                    job.setStatus(BatchJob.Status.valueOf(rs.getString("status")));
+                    return job;
+                }, inv.<Long>getArgument(0)).stream().findFirst());
+        return jobs;
+    }
+
+    private static BatchJobItem toItem(ResultSet rs) throws SQLException {
+        BatchJobItem item = new BatchJobItem(toJob(rs.getLong("batch_job_id")), rs.getLong("resume_id"));
+        item.setId(rs.getLong("id"));
+        item.setAttempts(rs.getInt("attempts"));
+        return item;
+    }
+
+    private static BatchJob toJob(long id) {
+        User owner = new User();
+        owner.setId(OWNER_ID);
+        BatchJob job = new BatchJob();
+        job.setId(id);
+        job.setUser(owner);
+        job.setJobDescription("Backend engineer");
+        job.setOutputLanguage("en");
+        return job;
+    }
+}
@@ -0,0 +1,72 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheKeyCanonicalizerTest {
+
+    private static final String POSTING = "Senior Java Engineer\n\n"
+            + "We are looking for a backend engineer to build payment APIs with Java, Spring Boot and PostgreSQL.\n"
+            + "- 5+ years of Java experience\n"
+            + "- Experience with Kafka and event-driven systems\n"
+            + "- Familiarity with AWS, Docker and Kubernetes\n"
+            + "You will own services end to end, mentor junior engineers and work closely with product.";
+
+    @Test
+    void testJobDescriptionsDifferingInFormattingShareAKey() {
+        String pasted = "About the job\r\n"
+                + "SENIOR JAVA ENGINEER\r\n\r\n\r\n"
+                + "We are looking for a backend engineer to build payment APIs with Java,  Spring Boot and PostgreSQL .\r\n"
+                + "• 5+ years of Java experience\r\n"
+                + "▪ Experience with Kafka and event‑driven systems\r\n"
+                + "  * Familiarity with AWS, Docker and Kubernetes  \r\n"
+                + "You will own services end to end, mentor junior engineers and work closely with product…\r\n"
+                + "Show more\r\n"
+                + "Report this job\r\n"
+                + "Posted 3 days ago\r\n"
+                + "Over 200 applicants";
+
+        String canonical = CacheKeyCanonicalizer.canonicalJobDescription(POSTING);
+        assertEquals(canonical, CacheKeyCanonicalizer.canonicalJobDescription(pasted));
+        assertEquals(CacheService.enhancementKey(1L, POSTING, "gpt"),
+                CacheService.enhancementKey(1L, POSTING.toUpperCase().replace("\n", "\r\n"), "gpt"));
+    }
+
+    @Test
+    void testResumeKeepsCasingAndLineStructure() {
+        String resume = "Jane Doe\r\n\r\n\r\nEXPERIENCE  \r\n•\tBuilt “fast” APIs…\r\n";
+
+        assertEquals("Jane Doe\n\n\nEXPERIENCE\n•\tBuilt “fast” APIs…", CacheKeyCanonicalizer.canonicalResume(resume));
+        assertNotEquals(CacheService.translationKey("Jane Doe", "zh", "gpt"),
+                CacheService.translationKey("JANE DOE", "zh", "gpt"));
+        assertEquals(CacheService.translationKey("Jane Doe\n", "zh", "gpt"),
+                CacheService.translationKey("Jane Doe  ", "zh", "gpt"));
+    }
+
+    @Test
+    void testResumeMarkdownIsPartOfTheKey() {
+        String nested = "## Experience\n- Acme\n  - Led the platform team\n  - Cut costs 30%";
+        String flat = "## Experience\n- Acme\n- Led the platform team\n- Cut costs 30%";
+
+        assertNotEquals(CacheService.translationKey(nested, "zh", "gpt"), CacheService.translationKey(flat, "zh", "gpt"));
+        assertNotEquals(CacheKeyCanonicalizer.canonicalResume("> Quote"), CacheKeyCanonicalizer.canonicalResume("- Quote"));
+        assertEquals("**Bold** `code`", CacheKeyCanonicalizer.canonicalResume("**Bold** `code`"));
+        // Composed and decomposed accents are the same text
+        assertEquals(CacheKeyCanonicalizer.canonicalResume("Jos\u00e9"), CacheKeyCanonicalizer.canonicalResume("Jose\u0301"));
+    }
+
+    @Test
+    void testSimHashSeparatesSimilarFromUnrelatedPostings() {
+        String posting = CacheKeyCanonicalizer.canonicalJobDescription(POSTING);
+        String edited = CacheKeyCanonicalizer.canonicalJobDescription(
+                POSTING.replace("5+ years", "6+ years") + "\nRemote friendly.");
+        String unrelated = CacheKeyCanonicalizer.canonicalJobDescription("Registered nurse for a busy pediatric ward. "
+                + "Night shifts, patient care planning, medication administration and family communication. "
+                + "BLS certification required; two years of hospital experience preferred.");
+
+        long fingerprint = CacheKeyCanonicalizer.simHash(posting);
+        assertTrue(CacheKeyCanonicalizer.similarity(fingerprint, CacheKeyCanonicalizer.simHash(edited)) >= 0.875);
+        assertTrue(CacheKeyCanonicalizer.similarity(fingerprint, CacheKeyCanonicalizer.simHash(unrelated)) < 0.8);
+    }
+}
@@ -0,0 +1,249 @@
+package com.resumeenhancer.service;
+
+import com.resumeenhancer.config.CacheProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheServiceTest {
+
+    @Test
+    void testCachesInProcessWhenRedisIsDisabled() {
+        CacheService cacheService = new CacheService(new CacheProperties());
+
+        assertNull(cacheService.getCachedGptResponse("prompt", "enhance"));
+        cacheService.cacheGptResponse("prompt", "enhance", "enhanced resume");
+
+        assertEquals("enhanced resume", cacheService.getCachedGptResponse("prompt", "enhance"));
+        assertEquals("enhanced resume", cacheService.getLocal(CacheService.gptKey("prompt", "enhance")));
+    }
+
+    @Test
+    void testClearCacheDropsOnlyMatchingPrefix() {
+        CacheService cacheService = new CacheService(new CacheProperties());
+        cacheService.cacheGptResponse("prompt", "enhance", "enhanced");
+        cacheService.cacheTranslation("text", "zh", "gpt", "translated");
+
+        cacheService.clearCache("resume_enhancer:gpt:");
+
+        assertNull(cacheService.getCachedGptResponse("prompt", "enhance"));
+        assertEquals("translated", cacheService.getCachedTranslation("text", "zh", "gpt"));
+    }
+
+    @Test
+    void testRemoteInvalidationClearsLocalEntries() {
+        CacheService cacheService = new CacheService(new CacheProperties());
+        cacheService.cacheTranslation("text", "zh", "gpt", "translated");
+
+        cacheService.onInvalidation("other-node|resume_enhancer:translation:");
+
+        assertNull(cacheService.getCachedTranslation("text", "zh", "gpt"));
+    }
+
+    @Test
+    void testInvalidateResumeDropsOnlyItsEntries() {
+        CacheService cacheService = new CacheService(new CacheProperties());
+        String first = CacheService.gptKey("prompt for resume 1", "enhance");
+        String second = CacheService.gptKey("prompt for resume 2", "enhance");
+        cacheService.put(first, "enhanced 1", List.of(CacheTags.user(7L), CacheTags.resume(1L)));
+        cacheService.put(second, "enhanced 2", List.of(CacheTags.user(7L), CacheTags.resume(2L)));
+
+        assertEquals(1, cacheService.invalidateResume(1L));
+        assertNull(cacheService.getLocal(first));
+        assertEquals("enhanced 2", cacheService.getLocal(second));
+
+        assertEquals(1, cacheService.invalidateUser(7L));
+        assertNull(cacheService.getLocal(second));
+        assertEquals(0, cacheService.invalidateResume(1L));
+    }
+
+    @Test
+    void testRemoteKeyInvalidationClearsOnlyListedKeys() {
+        CacheService cacheService = new CacheService(new CacheProperties());
+        cacheService.cacheGptResponse("first", "enhance", "one");
+        cacheService.cacheGptResponse("second", "enhance", "two");
+
+        cacheService.onInvalidation("other-node|keys|" + CacheService.gptKey("first", "enhance"));
+
+        assertNull(cacheService.getCachedGptResponse("first", "enhance"));
+        assertEquals("two", cacheService.getCachedGptResponse("second", "enhance"));
+    }
+
+    @Test
+    void testDisabledL1CachesNothingWithoutRedis() {
+        CacheProperties properties = new CacheProperties();
+        properties.getL1().setEnabled(false);
+        CacheService cacheService = new CacheService(properties);
+
+        cacheService.cacheGptResponse("prompt", "enhance", "enhanced");
+
+        assertNull(cacheService.getCachedGptResponse("prompt", "enhance"));
+    }
+
+    @Test
+    void testEntriesExpireAfterTheirNamespaceTtl() {
+        AtomicLong now = new AtomicLong();
+        Map<String, Duration> ttls = new LinkedHashMap<>();
+        ttls.put("enhancement", Duration.ofMinutes(30));
+        LocalCache cache = new LocalCache(1024 * 1024, Duration.ofHours(6), ttls, now::get);
+
+        String enhancementKey = CacheService.enhancementKey(1L, "job", "local");
+        String gptKey = CacheService.gptKey("prompt", "enhance");
+        cache.put(enhancementKey, "enhancement");
+        cache.put(gptKey, "completion");
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(31));
+        assertNull(cache.get(enhancementKey));
+        assertEquals("completion", cache.get(gptKey));
+
+        now.addAndGet(TimeUnit.HOURS.toNanos(6));
+        assertNull(cache.get(gptKey));
+    }
+
+    @Test
+    void testStaysWithinWeightBound() {
+        LocalCache cache = new LocalCache(64 * 1024, Duration.ofHours(1), new LinkedHashMap<>());
+        String value = new String(new char[4096]).replace('\0', 'x');
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(CacheService.gptKey("prompt " + i, "enhance"), value);
+        }
+        cache.cleanUp();
+
+        long weight = ((Number) cache.getStats().get("weightBytes")).longValue();
+        assertTrue(weight <= 64 * 1024, "weight " + weight);
+        assertTrue(((Number) cache.getStats().get("evictions")).longValue() > 0);
+    }
+
+    @Test
+    void testNearDuplicateTierReusesSimilarJobDescriptions() {
+        CacheProperties properties = new CacheProperties();
+        properties.getNearDuplicate().setEnabled(true);
+        CacheService cacheService = new CacheService(properties);
+
+        String family = CacheService.nearDuplicateFamily("Jane Doe resume", "en", "enhance:model");
+        long cached = 0b1011L;
+        cacheService.put("resume_enhancer:gpt:abc", "enhanced for posting A");
+        cacheService.indexNearDuplicate(family, cached, "resume_enhancer:gpt:abc");
+
+        // Four bits apart: 60/64 similar
+        assertEquals("enhanced for posting A", cacheService.getNearDuplicate(family, cached ^ 0xF0L));
+        // Sixteen bits apart, or another resume
+        assertNull(cacheService.getNearDuplicate(family, cached ^ 0xFFFF0L));
+        assertNull(cacheService.getNearDuplicate(
+                CacheService.nearDuplicateFamily("John Roe resume", "en", "enhance:model"), cached));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> tier = (Map<String, Object>) cacheService.getStats().get("nearDuplicate");
+        assertEquals(3L, tier.get("lookups"));
+        assertEquals(1L, tier.get("hits"));
+    }
+
+    @Test
+    void testNamespaceOfKey() {
+        assertEquals("translation", LocalCache.namespaceOf(CacheService.translationKey("text", "ja", "gpt")));
+        assertEquals("", LocalCache.namespaceOf("unprefixed"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordsMetricsPerNamespace() {
+        CacheService cacheService = new CacheService(new CacheProperties());
+        cacheService.cacheGptResponse("prompt", "enhance", "enhanced resume text");
+        cacheService.getCachedGptResponse("prompt", "enhance");
+        cacheService.getCachedGptResponse("prompt", "enhance");
+        cacheService.getCachedGptResponse("other prompt", "enhance");
+        cacheService.getCachedTranslation("text", "zh", "gpt");
+
+        Map<String, Object> gpt = (Map<String, Object>) cacheService.getNamespaceStats().get("gpt");
+        assertEquals(2L, gpt.get("hits"));
+        assertEquals(1L, gpt.get("misses"));
+        assertEquals(2.0 / 3, (double) gpt.get("hitRatio"), 1e-9);
+        assertEquals(2L * TokenEstimator.estimate("enhanced resume text"), gpt.get("estimatedTokensSaved"));
+        assertEquals(1L, ((Map<String, Object>) gpt.get("set")).get("count"));
+
+        Map<String, Object> translation = (Map<String, Object>) cacheService.getNamespaceStats().get("translation");
+        assertEquals(0L, translation.get("hits"));
+        assertEquals(1L, translation.get("misses"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListsHottestKeysAndNamespaceMemory() {
+        CacheService cacheService = new CacheService(new CacheProperties());
+        cacheService.cacheGptResponse("warm", "enhance", "warm value");
+        cacheService.cacheGptResponse("hot", "enhance", "hot value");
+        cacheService.cacheTranslation("text", "zh", "gpt", "translated");
+        cacheService.getCachedGptResponse("warm", "enhance");
+        for (int i = 0; i < 3; i++) {
+            cacheService.getCachedGptResponse("hot", "enhance");
+        }
+
+        List<Map<String, Object>> hotKeys = cacheService.getHotKeys(1);
+        assertEquals(1, hotKeys.size());
+        assertEquals(CacheService.gptKey("hot", "enhance"), hotKeys.get(0).get("key"));
+        assertEquals(3L, hotKeys.get(0).get("hits"));
+
+        Map<String, Object> memory = cacheService.getNamespaceMemory(10);
+        long gptBytes = LocalCache.weigh(CacheService.gptKey("warm", "enhance"), "warm value")
+                + LocalCache.weigh(CacheService.gptKey("hot", "enhance"), "hot value");
+        assertEquals(gptBytes,
+                ((Map<String, Object>) memory.get("gpt")).get("l1Bytes"));
+        assertTrue((Long) ((Map<String, Object>) memory.get("translation")).get("l1Bytes") > 0);
+    }
+
+    @Test
+    void testEntriesGoStaleBeforeTheyExpire() {
+        AtomicLong now = new AtomicLong();
+        LocalCache cache = new LocalCache(1024 * 1024, Duration.ofHours(6), new LinkedHashMap<>(), now::get);
+        String key = CacheService.gptKey("prompt", "enhance");
+        cache.put(key, "completion", TimeUnit.HOURS.toNanos(6), TimeUnit.HOURS.toNanos(4));
+
+        assertFalse(cache.isStale(cache.getEntry(key)));
+        now.addAndGet(TimeUnit.HOURS.toNanos(5));
+        assertTrue(cache.isStale(cache.getEntry(key)));
+        assertEquals("completion", cache.get(key));
+        now.addAndGet(TimeUnit.HOURS.toNanos(1));
+        assertNull(cache.getEntry(key));
+    }
+
+    @Test
+    void testSoftTtlAppliesToRevalidatedNamespacesOnly() {
+        CacheService cacheService = new CacheService(new CacheProperties());
+        long hard = TimeUnit.HOURS.toNanos(24);
+
+        long soft = cacheService.softTtlNanos(CacheService.gptKey("prompt", "enhance"), hard);
+        assertTrue(soft > hard * 0.75 * 0.9 - 1 && soft <= hard * 0.75, "soft " + soft);
+        assertEquals(soft, cacheService.softTtlNanos(CacheService.gptKey("prompt", "enhance"), hard));
+        assertEquals(-1, cacheService.softTtlNanos(CacheService.enhancementKey(1L, "job", "gpt"), hard));
+
+        cacheService.cacheGptResponse("prompt", "enhance", "completion");
+        assertFalse(cacheService.getEntry(CacheService.gptKey("prompt", "enhance")).stale);
+    }
+
+    @Test
+    void testOnlyOneRefreshPerKeyAtATime() {
+        CacheService cacheService = new CacheService(new CacheProperties());
+        String key = CacheService.gptKey("prompt", "enhance");
+
+        assertTrue(cacheService.tryBeginRefresh(key));
+        assertFalse(cacheService.tryBeginRefresh(key));
+        assertTrue(cacheService.tryBeginRefresh(CacheService.gptKey("other", "enhance")));
+
+        cacheService.endRefresh(key, false);
+        assertTrue(cacheService.tryBeginRefresh(key));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> swr = (Map<String, Object>) cacheService.getStats().get("staleWhileRevalidate");
+        assertEquals(3L, swr.get("refreshesStarted"));
+        assertEquals(1L, swr.get("refreshesSkipped"));
+        assertEquals(1L, swr.get("refreshesFailed"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheValueCodecTest {
+
+    private static final String ENHANCED = "# Jane Doe\n\n"
+            + "**Email:** jane@example.com | **Phone:** 555-0100 | **LinkedIn:** linkedin.com/in/janedoe\n\n"
+            + "## Professional Summary\n"
+            + "Results-driven software engineer with 6+ years of experience building scalable backend services.\n\n"
+            + "## Professional Experience\n"
+            + "**Senior Software Engineer** | Acme Corp | Seattle, WA | Jan 2020 – Present\n"
+            + "- Led the design and implementation of a payments platform, reducing latency by 35%.\n"
+            + "- Developed and maintained RESTful APIs using Java and Spring Boot.\n"
+            + "- Mentored junior engineers and conducted code reviews.\n\n"
+            + "## Education\n"
+            + "Bachelor of Science in Computer Science, University of Washington\n\n"
+            + "## Technical Skills\n"
+            + "Java, Python, SQL, Spring Boot, React, AWS, Docker, Kubernetes, PostgreSQL, Redis\n";
+
+    @Test
+    void testRoundTripsCompressedAndRawValues() {
+        CacheValueCodec codec = new CacheValueCodec(true, 512, 6);
+
+        byte[] large = codec.encode(ENHANCED);
+        assertEquals(CacheValueCodec.CODEC_DEFLATE, large[3]);
+        assertTrue(large.length < ENHANCED.length() / 2, "stored " + large.length + " bytes");
+        assertEquals(ENHANCED, codec.decode(large));
+
+        byte[] small = codec.encode("[\"Add metrics\"]");
+        assertEquals(CacheValueCodec.CODEC_RAW, small[3]);
+        assertEquals("[\"Add metrics\"]", codec.decode(small));
+
+        Map<String, Object> stats = codec.getStats();
+        assertEquals(2L, stats.get("encoded"));
+        assertEquals(1L, stats.get("compressed"));
+        assertTrue((Double) stats.get("compressionRatio") > 1.5);
+    }
+
+    @Test
+    void testDictionaryImprovesShortValues() {
+        CacheValueCodec withDictionary = new CacheValueCodec(true, 0, 6);
+        CacheValueCodec withoutDictionary = new CacheValueCodec(true, 0, 6, CacheValueCodec.NO_DICTIONARY);
+
+        byte[] plain = withoutDictionary.encode(ENHANCED);
+        byte[] trained = withDictionary.encode(ENHANCED);
+
+        assertTrue(trained.length < plain.length, trained.length + " vs " + plain.length);
+        assertEquals(ENHANCED, withDictionary.decode(plain));
+    }
+
+    @Test
+    void testReadsEntriesWrittenBeforeTheHeader() {
+        CacheValueCodec codec = new CacheValueCodec(true, 512, 6);
+
+        assertEquals(ENHANCED, codec.decode(ENHANCED.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("", codec.decode(new byte[0]));
+    }
+
+    @Test
+    void testRejectsUnknownFormats() {
+        CacheValueCodec codec = new CacheValueCodec(true, 512, 6);
+        byte[] stored = codec.encode(ENHANCED);
+
+        byte[] futureVersion = stored.clone();
+        futureVersion[2] = 9;
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(futureVersion));
+
+        byte[] unknownDictionary = stored.clone();
+        unknownDictionary[4] = 42;
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(unknownDictionary));
+
+        byte[] truncated = Arrays.copyOf(stored, stored.length / 2);
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated));
+    }
+}
@@ -0,0 +1,50 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatCompletionTest {
+
+    @Test
+    void testReadsFirstChoiceAndUsage() throws Exception {
+        String json = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion\",\"model\":\"gpt-4o\","
+                + "\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"# Jane\\n\\n- Led \\\"billing\\\"\","
+                + "\"tool_calls\":[{\"id\":\"x\"}]},\"logprobs\":null,\"finish_reason\":\"stop\"},"
+                + "{\"index\":1,\"message\":{\"role\":\"assistant\",\"content\":\"second\"}}],"
+                + "\"usage\":{\"prompt_tokens\":120,\"completion_tokens\":45,\"total_tokens\":165,"
+                + "\"prompt_tokens_details\":{\"cached_tokens\":64,\"audio_tokens\":0}}}";
+
+        ChatCompletion completion = ChatCompletion.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("# Jane\n\n- Led \"billing\"", completion.getContent());
+        assertEquals("stop", completion.getFinishReason());
+        assertTrue(completion.hasUsage());
+        assertEquals(120, completion.getPromptTokens());
+        assertEquals(64, completion.getCachedPromptTokens());
+        assertEquals(45, completion.getCompletionTokens());
+    }
+
+    @Test
+    void testReadsStreamChunks() throws Exception {
+        ChatCompletion delta = ChatCompletion.parse("{\"choices\":[{\"index\":0,\"delta\":{\"content\":\"Hel\"},\"finish_reason\":null}]}");
+        assertEquals("Hel", delta.getContent());
+        assertFalse(delta.hasUsage());
+
+        // Some providers end the stream with a usage-only chunk and an empty choices array
+        ChatCompletion usage = ChatCompletion.parse("{\"choices\":[],\"usage\":{\"prompt_tokens\":10,\"completion_tokens\":3}}");
+        assertNull(usage.getContent());
+        assertTrue(usage.hasUsage());
+        assertEquals(3, usage.getCompletionTokens());
+    }
+
+    @Test
+    void testRejectsMalformedBodies() {
+        assertThrows(Exception.class, () -> ChatCompletion.parse("[]"));
+        assertThrows(Exception.class, () -> ChatCompletion.parse("{\"choices\":[{\"message\":"));
+        assertNull(assertDoesNotThrow(() -> ChatCompletion.parse("{\"usage\":null}")).getContent());
+    }
+}
@@ -0,0 +1,152 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskCacheTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @TempDir
+    Path directory;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(DiskCache.Stored stored) {
+        return stored != null ? new String(stored.value, StandardCharsets.UTF_8) : null;
+    }
+
+    @Test
+    void testSurvivesRestart() {
+        try (DiskCache cache = new DiskCache(directory, 1 << 20, 64 * 1024)) {
+            cache.put("resume_enhancer:gpt:a", bytes("first"), HOUR);
+            cache.put("resume_enhancer:gpt:a", bytes("second"), HOUR);
+            cache.put("resume_enhancer:gpt:b", bytes("deleted"), HOUR);
+            assertTrue(cache.delete("resume_enhancer:gpt:b"));
+        }
+
+        try (DiskCache reopened = new DiskCache(directory, 1 << 20, 64 * 1024)) {
+            assertEquals("second", text(reopened.get("resume_enhancer:gpt:a")));
+            assertNull(reopened.get("resume_enhancer:gpt:b"));
+            assertEquals(1, reopened.getStats().get("entries"));
+        }
+    }
+
+    @Test
+    void testEntriesExpireAfterTheirTtl() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        try (DiskCache cache = new DiskCache(directory, 1 << 20, 64 * 1024, now::get)) {
+            cache.put("resume_enhancer:gpt:a", bytes("value"), HOUR);
+            DiskCache.Stored stored = cache.get("resume_enhancer:gpt:a");
+            assertEquals(now.get() + HOUR, stored.expiresAtMillis);
+
+            now.addAndGet(HOUR);
+            assertNull(cache.get("resume_enhancer:gpt:a"));
+        }
+
+        // Expired records are not brought back on recovery
+        try (DiskCache reopened = new DiskCache(directory, 1 << 20, 64 * 1024, now::get)) {
+            assertNull(reopened.get("resume_enhancer:gpt:a"));
+        }
+    }
+
+    @Test
+    void testRecoveryStopsAtTornRecord() throws IOException {
+        try (DiskCache cache = new DiskCache(directory, 1 << 20, 64 * 1024)) {
+            cache.put("resume_enhancer:gpt:a", bytes("kept"), HOUR);
+            cache.put("resume_enhancer:gpt:b", bytes("torn by a crash"), HOUR);
+        }
+
+        // Flip the last byte of the second record, as a write cut short would leave it
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(p -> p.toString().endsWith(".log")).findFirst().orElseThrow(AssertionError::new);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long last = file.length() - 1;
+            file.seek(last);
+            int b = file.read();
+            file.seek(last);
+            file.write(b ^ 0xFF);
+        }
+
+        try (DiskCache reopened = new DiskCache(directory, 1 << 20, 64 * 1024)) {
+            assertEquals("kept", text(reopened.get("resume_enhancer:gpt:a")));
+            assertNull(reopened.get("resume_enhancer:gpt:b"));
+            assertTrue((long) reopened.getStats().get("truncatedBytes") > 0);
+
+            // The segment now ends after the last good record, so new writes recover cleanly
+            reopened.put("resume_enhancer:gpt:c", bytes("after"), HOUR);
+        }
+        try (DiskCache reopened = new DiskCache(directory, 1 << 20, 64 * 1024)) {
+            assertEquals("after", text(reopened.get("resume_enhancer:gpt:c")));
+        }
+    }
+
+    @Test
+    void testCompactionStaysWithinSizeBound() {
+        long maxBytes = 256 * 1024;
+        int segmentBytes = 16 * 1024;
+        byte[] value = new byte[1000];
+        try (DiskCache cache = new DiskCache(directory, maxBytes, segmentBytes)) {
+            for (int i = 0; i < 2000; i++) {
+                cache.put("resume_enhancer:gpt:" + i, value, HOUR);
+                assertTrue((long) cache.getStats().get("diskBytes") <= maxBytes + segmentBytes);
+            }
+            assertTrue((long) cache.getStats().get("compactions") > 0);
+            assertTrue((long) cache.getStats().get("evicted") > 0);
+
+            // The most recent writes are the ones kept
+            assertNotNull(cache.get("resume_enhancer:gpt:1999"));
+            assertNull(cache.get("resume_enhancer:gpt:0"));
+        }
+    }
+
+    @Test
+    void testCompactionDropsOverwrittenRecords() {
+        try (DiskCache cache = new DiskCache(directory, 1 << 20, 4 * 1024)) {
+            for (int i = 0; i < 500; i++) {
+                cache.put("resume_enhancer:gpt:hot", bytes("version " + i), HOUR);
+            }
+            assertEquals("version 499", text(cache.get("resume_enhancer:gpt:hot")));
+            assertTrue((long) cache.getStats().get("compactions") > 0);
+            assertTrue((int) cache.getStats().get("segments") <= 3);
+        }
+    }
+
+    @Test
+    void testDeletePrefixRemovesOnlyMatchingKeys() {
+        try (DiskCache cache = new DiskCache(directory, 1 << 20, 64 * 1024)) {
+            cache.put("resume_enhancer:gpt:a", bytes("1"), HOUR);
+            cache.put("resume_enhancer:gpt:b", bytes("2"), HOUR);
+            cache.put("resume_enhancer:translation:a", bytes("3"), HOUR);
+
+            assertEquals(2, cache.deletePrefix("resume_enhancer:gpt:"));
+            assertNull(cache.get("resume_enhancer:gpt:a"));
+            assertEquals("3", text(cache.get("resume_enhancer:translation:a")));
+            assertEquals(Collections.singleton("translation"), cache.liveBytesByNamespace().keySet());
+        }
+    }
+
+    @Test
+    void testSkipsValuesLargerThanASegment() {
+        try (DiskCache cache = new DiskCache(directory, 1 << 20, 4 * 1024)) {
+            cache.put("resume_enhancer:gpt:large", new byte[8 * 1024], HOUR);
+            assertNull(cache.get("resume_enhancer:gpt:large"));
+            assertEquals(1L, cache.getStats().get("oversized"));
+        }
+    }
+}
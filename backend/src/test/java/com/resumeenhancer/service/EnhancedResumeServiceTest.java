@@ -0,0 +1,139 @@
+package com.resumeenhancer.service;
+
+import com.resumeenhancer.dto.AnalyzeRequest;
+import com.resumeenhancer.dto.EnhanceRequest;
+import com.resumeenhancer.dto.EnhancedResumeResponse;
+import com.resumeenhancer.dto.EnhancementStreamEvent;
+import com.resumeenhancer.entity.EnhancedResume;
+import com.resumeenhancer.entity.Resume;
+import com.resumeenhancer.repository.EnhancedResumeRepository;
+import com.resumeenhancer.repository.ResumeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EnhancedResumeServiceTest {
+
+    private static final long USER_ID = 7L;
+    private static final long RESUME_ID = 42L;
+
+    private GptService gptService;
+    private EnhancedResumeService service;
+
+    @BeforeEach
+    void setUp() {
+        Resume resume = new Resume();
+        resume.setId(RESUME_ID);
+        resume.setRawText("Jane Doe\nSoftware Engineer");
+        resume.setParsedJson(Map.of("name", "Jane Doe"));
+
+        ResumeRepository resumeRepository = mock(ResumeRepository.class);
+        when(resumeRepository.findByIdAndUserId(RESUME_ID, USER_ID)).thenReturn(Optional.of(resume));
+
+        EnhancedResumeRepository enhancedResumeRepository = mock(EnhancedResumeRepository.class);
+        when(enhancedResumeRepository.save(any(EnhancedResume.class))).thenAnswer(inv -> {
+            EnhancedResume saved = inv.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+
+        gptService = mock(GptService.class);
+        when(gptService.isServiceAvailable()).thenReturn(true);
+        when(gptService.enhancePromptFingerprint(any(), any())).thenReturn("fingerprint");
+        when(gptService.enhanceResumeAsync(anyString(), any(), any())).thenReturn(Mono.just("Enhanced resume"));
+        when(gptService.generateSuggestionsAsync(any(), any())).thenReturn(Mono.just(List.of("Quantify impact")));
+
+        service = new EnhancedResumeService();
+        ReflectionTestUtils.setField(service, "resumeRepository", resumeRepository);
+        ReflectionTestUtils.setField(service, "enhancedResumeRepository", enhancedResumeRepository);
+        ReflectionTestUtils.setField(service, "gptService", gptService);
+        ReflectionTestUtils.setField(service, "suggestionsTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(service, "analysisDeadlineSeconds", 100L);
+    }
+
+    private EnhancedResumeResponse analyze() {
+        AnalyzeRequest request = new AnalyzeRequest(RESUME_ID, "Backend engineer", "en", "gpt", true);
+        return service.analyzeResumeAsync(request, USER_ID).block(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void testFusedAnalysisMakesOneCall() {
+        ReflectionTestUtils.setField(service, "fusedAnalysis", true);
+        when(gptService.analyzeResumeAsync(anyString(), any(), any()))
+                .thenReturn(Mono.just(new GptService.Analysis("Fused resume", List.of("Add metrics"))));
+
+        EnhancedResumeResponse response = analyze();
+
+        assertEquals("Fused resume", response.getEnhancedText());
+        assertEquals(List.of("Add metrics"), response.getSuggestions());
+        verify(gptService, never()).enhanceResumeAsync(anyString(), any(), any());
+        verify(gptService, never()).generateSuggestionsAsync(any(), any());
+    }
+
+    @Test
+    void testMalformedFusedResponseFallsBackToSeparateCalls() {
+        ReflectionTestUtils.setField(service, "fusedAnalysis", true);
+        // What analyzeResumeAsync emits when the model's JSON does not parse
+        when(gptService.analyzeResumeAsync(anyString(), any(), any())).thenReturn(Mono.error(
+                new RuntimeException("Failed to analyze resume: Invalid analysis format from GPT")));
+
+        EnhancedResumeResponse response = analyze();
+
+        assertEquals("Enhanced resume", response.getEnhancedText());
+        assertEquals(List.of("Quantify impact"), response.getSuggestions());
+        assertFalse(response.isDegraded());
+        verify(gptService).enhanceResumeAsync(anyString(), any(), any());
+        verify(gptService).generateSuggestionsAsync(any(), any());
+    }
+
+    @Test
+    void testSlowSuggestionsAreDroppedAfterTheirTimeout() {
+        ReflectionTestUtils.setField(service, "suggestionsTimeoutSeconds", 1L);
+        when(gptService.generateSuggestionsAsync(any(), any())).thenReturn(Mono.never());
+
+        long start = System.nanoTime();
+        EnhancedResumeResponse response = analyze();
+
+        assertEquals("Enhanced resume", response.getEnhancedText());
+        assertNull(response.getSuggestions());
+        assertFalse(response.isDegraded());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+    }
+
+    @Test
+    void testFailedEnhancementFailsTheAnalysis() {
+        when(gptService.enhanceResumeAsync(anyString(), any(), any()))
+                .thenReturn(Mono.error(new RuntimeException("upstream 500")));
+
+        RuntimeException error = assertThrows(RuntimeException.class, this::analyze);
+
+        assertTrue(error.getMessage().startsWith("Failed to analyze resume: "));
+    }
+
+    @Test
+    void testStreamedEnhancementSavesTheAssembledText() {
+        when(gptService.streamEnhanceResume(anyString(), any(), any())).thenReturn(Flux.just("Jane Doe", "\n", "Staff Engineer\n"));
+
+        List<EnhancementStreamEvent> events = service.streamEnhanceResume(
+                new EnhanceRequest(RESUME_ID, "Backend engineer", "en", "gpt"), USER_ID)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(List.of("token", "token", "token", "done"),
+                events.stream().map(EnhancementStreamEvent::getType).collect(Collectors.toList()));
+        assertEquals("Jane Doe", events.get(0).getContent());
+        assertEquals("Jane Doe\nStaff Engineer", events.get(3).getResult().getEnhancedText());
+    }
+}
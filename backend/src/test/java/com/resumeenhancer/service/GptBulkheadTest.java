@@ -0,0 +1,73 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GptBulkheadTest {
+
+    private GptBulkhead newBulkhead(int limit, int queueCapacity, long queueTimeoutMillis) {
+        return new GptBulkhead(limit, 1, 16, queueCapacity, queueTimeoutMillis, 1000, 0.5);
+    }
+
+    @Test
+    void testQueuedCallRunsWhenSlotFrees() {
+        GptBulkhead bulkhead = newBulkhead(1, 5, 5000);
+        Sinks.One<String> first = Sinks.one();
+
+        Mono<String> running = bulkhead.execute(first::asMono).cache();
+        running.subscribe();
+        Mono<String> queued = bulkhead.execute(() -> Mono.just("second")).cache();
+        queued.subscribe();
+
+        assertEquals(1, bulkhead.getStats().get("inFlight"));
+        assertEquals(1, bulkhead.getStats().get("queueDepth"));
+
+        first.tryEmitValue("first");
+
+        assertEquals("first", running.block(Duration.ofSeconds(1)));
+        assertEquals("second", queued.block(Duration.ofSeconds(1)));
+        assertEquals(0, bulkhead.getStats().get("inFlight"));
+        assertEquals(0, bulkhead.getStats().get("queueDepth"));
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() {
+        GptBulkhead bulkhead = newBulkhead(1, 0, 5000);
+        bulkhead.execute(() -> Sinks.<String>one().asMono()).subscribe();
+
+        GptOverloadedException error = assertThrows(GptOverloadedException.class,
+                () -> bulkhead.execute(() -> Mono.just("x")).block(Duration.ofSeconds(1)));
+        assertEquals(GptOverloadedException.Reason.QUEUE_FULL, error.getReason());
+    }
+
+    @Test
+    void testQueuedCallTimesOut() {
+        GptBulkhead bulkhead = newBulkhead(1, 5, 50);
+        bulkhead.execute(() -> Sinks.<String>one().asMono()).subscribe();
+
+        GptOverloadedException error = assertThrows(GptOverloadedException.class,
+                () -> bulkhead.execute(() -> Mono.just("x")).block(Duration.ofSeconds(1)));
+        assertEquals(GptOverloadedException.Reason.QUEUE_TIMEOUT, error.getReason());
+        assertEquals(0, bulkhead.getStats().get("queueDepth"));
+    }
+
+    @Test
+    void testLimitAdaptsToUpstreamHealth() {
+        GptBulkhead bulkhead = newBulkhead(8, 5, 5000);
+
+        bulkhead.execute(() -> Mono.<String>error(new TimeoutException())).onErrorResume(e -> Mono.empty()).block();
+        assertEquals(4, bulkhead.getStats().get("limit"));
+
+        for (int i = 0; i < 20; i++) {
+            bulkhead.execute(() -> Mono.just("ok")).block();
+        }
+        // Sequential calls never use half the limit, so it must not grow
+        assertEquals(4, bulkhead.getStats().get("limit"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GptCircuitBreakerTest {
+
+    private void fail(GptCircuitBreaker breaker, Throwable error) {
+        assertThrows(RuntimeException.class, () -> breaker.execute(() -> Mono.<String>error(error)).block());
+    }
+
+    @Test
+    void testOpensAfterFailureRateAndRejectsWithoutCallingUpstream() {
+        GptCircuitBreaker breaker = new GptCircuitBreaker(4, 4, 50, 60, 1);
+        breaker.execute(() -> Mono.just("ok")).block();
+        breaker.execute(() -> Mono.just("ok")).block();
+        fail(breaker, new TimeoutException());
+        assertEquals(GptCircuitBreaker.State.CLOSED, breaker.getState());
+        fail(breaker, new RuntimeException("connection refused"));
+        assertEquals(GptCircuitBreaker.State.OPEN, breaker.getState());
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(GptUnavailableException.class, () -> breaker.execute(() -> {
+            calls.incrementAndGet();
+            return Mono.just("ok");
+        }).block());
+        assertEquals(0, calls.get());
+        assertEquals(1L, breaker.getStats().get("rejected"));
+    }
+
+    @Test
+    void testBulkheadRejectionsDoNotTrip() {
+        GptCircuitBreaker breaker = new GptCircuitBreaker(2, 2, 50, 60, 1);
+        fail(breaker, new GptOverloadedException(GptOverloadedException.Reason.QUEUE_FULL, "full", 1));
+        fail(breaker, new GptOverloadedException(GptOverloadedException.Reason.QUEUE_TIMEOUT, "timeout", 1));
+        assertEquals(GptCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenProbeClosesOrReopens() {
+        GptCircuitBreaker breaker = new GptCircuitBreaker(2, 2, 50, 0, 1);
+        fail(breaker, new TimeoutException());
+        fail(breaker, new TimeoutException());
+
+        // Open duration of zero moves straight to half-open; a failed probe reopens
+        fail(breaker, new TimeoutException());
+        assertEquals(GptCircuitBreaker.State.OPEN, breaker.getState());
+
+        assertEquals("ok", breaker.execute(() -> Mono.just("ok")).block());
+        assertEquals(GptCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
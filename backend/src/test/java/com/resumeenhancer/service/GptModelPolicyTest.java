@@ -0,0 +1,76 @@
+package com.resumeenhancer.service;
+
+import com.resumeenhancer.config.GptModelProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GptModelPolicyTest {
+
+    private final GptModelPolicy.ModelProfile defaults =
+            new GptModelPolicy.ModelProfile("default", "big-model", 2000, 0.3, Duration.ofSeconds(60), 16385);
+
+    private GptModelPolicy policy() {
+        Map<String, GptModelProperties.Profile> profiles = new LinkedHashMap<>();
+
+        GptModelProperties.Profile enhance = new GptModelProperties.Profile();
+        enhance.setDowngradeTo("fast");
+        enhance.setDowngradeBelowSeconds(20L);
+        profiles.put("enhance", enhance);
+
+        GptModelProperties.Profile suggestions = new GptModelProperties.Profile();
+        suggestions.setModel("small-model");
+        suggestions.setMaxTokens(500);
+        profiles.put("suggestions", suggestions);
+
+        GptModelProperties.Profile fast = new GptModelProperties.Profile();
+        fast.setModel("small-model");
+        fast.setTimeoutSeconds(15L);
+        profiles.put("fast", fast);
+
+        return new GptModelPolicy(profiles, defaults);
+    }
+
+    @Test
+    void testLightOperationsUseTheirOwnProfile() {
+        GptModelPolicy policy = policy();
+
+        GptModelPolicy.ModelProfile suggestions = policy.select(GptModelPolicy.Operation.SUGGESTIONS, null);
+        assertEquals("small-model", suggestions.getModel());
+        assertEquals(500, suggestions.getMaxTokens());
+        assertEquals(0.3, suggestions.getTemperature());
+
+        // Operations without a profile use the OPENAI_* defaults
+        assertEquals("big-model", policy.select(GptModelPolicy.Operation.TRANSLATE, null).getModel());
+    }
+
+    @Test
+    void testDowngradesOnlyWhenDeadlineIsShort() {
+        GptModelPolicy policy = policy();
+
+        assertEquals("big-model", policy.select(GptModelPolicy.Operation.ENHANCE, null).getModel());
+        assertEquals("big-model", policy.select(GptModelPolicy.Operation.ENHANCE, Duration.ofSeconds(90)).getModel());
+
+        GptModelPolicy.ModelProfile downgraded = policy.select(GptModelPolicy.Operation.ENHANCE, Duration.ofSeconds(10));
+        assertEquals("fast", downgraded.getName());
+        assertEquals("small-model", downgraded.getModel());
+        assertEquals(Duration.ofSeconds(15), downgraded.getTimeout());
+        assertEquals(Map.of("enhance", 1L), policy.getStats().get("downgrades"));
+    }
+
+    @Test
+    void testNestedDeadlinesKeepTheTighterOne() {
+        Mono<Duration> remaining = Mono.deferContextual(context -> Mono.just(GptDeadline.remaining(context)));
+
+        assertNull(Mono.deferContextual(context -> Mono.justOrEmpty(GptDeadline.remaining(context))).block());
+        Duration inner = GptDeadline.within(GptDeadline.within(remaining, Duration.ofSeconds(5)), Duration.ofSeconds(100)).block();
+        assertTrue(inner.compareTo(Duration.ofSeconds(5)) <= 0);
+        Duration outer = GptDeadline.within(GptDeadline.within(remaining, Duration.ofSeconds(100)), Duration.ofSeconds(5)).block();
+        assertTrue(outer.compareTo(Duration.ofSeconds(5)) <= 0);
+    }
+}
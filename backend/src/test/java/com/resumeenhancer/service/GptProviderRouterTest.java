@@ -0,0 +1,157 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GptProviderRouterTest {
+
+    private static final Map<String, Object> REQUEST = Map.of(
+            "model", "gpt-3.5-turbo",
+            "messages", List.of(Map.of("role", "user", "content", "hello")));
+
+    private GptProviderRouter router(GptProvider... providers) {
+        return new GptProviderRouter(new GptProviderRegistry(List.of(providers)), 0.5, 2, 60, 60, 3, 100);
+    }
+
+    @Test
+    void testFailsOverOnTimeoutWithinTheSameRequest() {
+        StubGptProvider slow = new StubGptProvider("slow", Duration.ofMillis(500), Duration.ofMillis(50));
+        StubGptProvider fast = new StubGptProvider("fast", Duration.ZERO, Duration.ofSeconds(1));
+        GptProviderRouter router = router(slow, fast);
+
+        ChatCompletion response = router.execute(provider -> provider.complete(REQUEST, null)).block();
+
+        assertTrue(response.getContent().contains("hello"));
+        assertEquals(1, slow.getCalls());
+        assertEquals(1, fast.getCalls());
+        assertEquals(1L, router.getStats().get("failovers"));
+    }
+
+    @Test
+    void testRoutesAwayFromFailingProvider() {
+        StubGptProvider flaky = new StubGptProvider("flaky", Duration.ZERO, Duration.ofSeconds(1));
+        StubGptProvider steady = new StubGptProvider("steady", Duration.ofMillis(20), Duration.ofSeconds(1));
+        GptProviderRouter router = router(flaky, steady);
+
+        flaky.failWith(WebClientResponseException.create(503, "Service Unavailable", null, null, null));
+        router.execute(provider -> provider.complete(REQUEST, null)).block();
+
+        // A failure costs a full timeout, which outweighs the steady provider's latency
+        flaky.failWith(null);
+        for (int i = 0; i < 3; i++) {
+            router.execute(provider -> provider.complete(REQUEST, null)).block();
+        }
+        assertEquals(1, flaky.getCalls());
+        assertEquals(4, steady.getCalls());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEjectsAfterConsecutiveFailures() {
+        StubGptProvider a = new StubGptProvider("a", Duration.ZERO, Duration.ofSeconds(1));
+        StubGptProvider b = new StubGptProvider("b", Duration.ZERO, Duration.ofSeconds(1));
+        a.failWith(new RuntimeException("connection refused"));
+        b.failWith(new RuntimeException("connection refused"));
+        GptProviderRouter router = router(a, b);
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(RuntimeException.class, () -> router.execute(provider -> provider.complete(REQUEST, null)).block());
+        }
+
+        List<Map<String, Object>> providers = (List<Map<String, Object>>) router.getStats().get("providers");
+        assertEquals(false, providers.get(0).get("healthy"));
+        assertEquals(false, providers.get(1).get("healthy"));
+
+        // With every provider ejected, requests still go to the one that returns first
+        a.failWith(null);
+        assertTrue(router.execute(provider -> provider.complete(REQUEST, null)).block().getContent().contains("hello"));
+    }
+
+    @Test
+    void testRequestErrorsDoNotFailOver() {
+        StubGptProvider first = new StubGptProvider("first", Duration.ZERO, Duration.ofSeconds(1));
+        StubGptProvider second = new StubGptProvider("second", Duration.ZERO, Duration.ofSeconds(1));
+        first.failWith(WebClientResponseException.create(400, "Bad Request", null, null, null));
+        GptProviderRouter router = router(first, second);
+
+        assertThrows(WebClientResponseException.class,
+                () -> router.execute(provider -> provider.complete(REQUEST, null)).block());
+        assertEquals(0, second.getCalls());
+    }
+
+    @Test
+    void testStreamFailsOverBeforeFirstChunk() {
+        StubGptProvider down = new StubGptProvider("down", Duration.ZERO, Duration.ofSeconds(1));
+        StubGptProvider up = new StubGptProvider("up", Duration.ZERO, Duration.ofSeconds(1));
+        down.failWith(new RuntimeException("connection refused"));
+        GptProviderRouter router = router(down, up);
+
+        List<String> chunks = router.executeMany(provider -> provider.stream(REQUEST, null)).collectList().block();
+
+        assertEquals(1, chunks.size());
+        assertTrue(chunks.get(0).contains("hello"));
+    }
+
+    // What GptService does: each attempt is given whatever is left of the request deadline
+    private static Mono<ChatCompletion> withinDeadline(GptProviderRouter router, Duration budget, List<Duration> timeouts) {
+        return GptDeadline.within(Mono.deferContextual(context -> router.execute(provider -> {
+            Duration timeout = GptDeadline.remaining(context);
+            timeouts.add(timeout);
+            return provider.complete(REQUEST, timeout);
+        })), budget);
+    }
+
+    @Test
+    void testFailoverGetsOnlyTheRemainingBudget() {
+        // Times out on its own 300ms limit, well inside the request's one second
+        StubGptProvider slow = new StubGptProvider("slow", Duration.ofSeconds(5), Duration.ofMillis(300));
+        StubGptProvider fast = new StubGptProvider("fast", Duration.ZERO, Duration.ofSeconds(5));
+        GptProviderRouter router = router(slow, fast);
+        List<Duration> timeouts = new CopyOnWriteArrayList<>();
+
+        ChatCompletion response = withinDeadline(router, Duration.ofSeconds(1), timeouts).block();
+
+        assertTrue(response.getContent().contains("hello"));
+        assertEquals(2, timeouts.size());
+        assertTrue(timeouts.get(0).compareTo(Duration.ofMillis(900)) > 0);
+        assertTrue(timeouts.get(1).compareTo(Duration.ofMillis(700)) <= 0);
+        assertTrue(timeouts.get(1).compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    void testNoFailoverOnceTheDeadlineIsSpent() {
+        StubGptProvider slow = new StubGptProvider("slow", Duration.ofSeconds(5), Duration.ofSeconds(5));
+        StubGptProvider fast = new StubGptProvider("fast", Duration.ZERO, Duration.ofSeconds(5));
+        GptProviderRouter router = router(slow, fast);
+        List<Duration> timeouts = new CopyOnWriteArrayList<>();
+
+        long start = System.nanoTime();
+        assertThrows(RuntimeException.class, () -> withinDeadline(router, Duration.ofMillis(300), timeouts).block());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals(0, fast.getCalls());
+        assertEquals(0L, router.getStats().get("failovers"));
+    }
+
+    @Test
+    void testProvidersRenameOnlyMappedModels() {
+        OpenAiCompatibleProvider backup = new OpenAiCompatibleProvider("backup", "https://backup.test/v1", "key",
+                Map.of("gpt-4o", "llama-3.1-70b"), Duration.ofSeconds(1));
+        StubGptProvider primary = new StubGptProvider("primary", Duration.ZERO, Duration.ofSeconds(1));
+        GptProviderRouter router = router(primary, backup);
+
+        assertEquals("llama-3.1-70b", backup.modelFor("gpt-4o"));
+        // Profiles on the light model keep it
+        assertEquals("gpt-4o-mini", backup.modelFor("gpt-4o-mini"));
+        assertEquals("backup=llama-3.1-70b", router.modelVariants("gpt-4o"));
+        assertEquals("", router.modelVariants("gpt-4o-mini"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GptRequestCoalescerTest {
+
+    private final GptRequestCoalescer coalescer = new GptRequestCoalescer();
+
+    @Test
+    void testConcurrentCallersShareOneUpstreamCall() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Sinks.One<String> response = Sinks.one();
+
+        Mono<String> first = coalescer.execute("key", () -> {
+            upstreamCalls.incrementAndGet();
+            return response.asMono();
+        });
+        Mono<String> second = coalescer.execute("key", () -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just("unexpected");
+        });
+
+        Mono<String> firstResult = first.cache();
+        Mono<String> secondResult = second.cache();
+        firstResult.subscribe();
+        secondResult.subscribe();
+
+        response.tryEmitValue("enhanced");
+
+        assertEquals("enhanced", firstResult.block(Duration.ofSeconds(1)));
+        assertEquals("enhanced", secondResult.block(Duration.ofSeconds(1)));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1L, coalescer.getStats().get("upstreamCalls"));
+        assertEquals(1L, coalescer.getStats().get("coalescedJoins"));
+        assertEquals(0, coalescer.getStats().get("inFlight"));
+    }
+
+    @Test
+    void testCompletedCallIsNotReused() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        coalescer.execute("key", () -> Mono.fromCallable(() -> "v" + upstreamCalls.incrementAndGet())).block();
+        String second = coalescer.execute("key", () -> Mono.fromCallable(() -> "v" + upstreamCalls.incrementAndGet())).block();
+
+        assertEquals("v2", second);
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void testErrorsPropagateToAllCallers() {
+        Sinks.One<String> response = Sinks.one();
+
+        Mono<String> first = coalescer.execute("key", response::asMono).cache();
+        Mono<String> second = coalescer.execute("key", () -> Mono.just("unexpected")).cache();
+        first.subscribe(v -> {}, e -> {});
+        second.subscribe(v -> {}, e -> {});
+
+        response.tryEmitError(new RuntimeException("upstream down"));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> second.block(Duration.ofSeconds(1)));
+        assertTrue(error.getMessage().contains("upstream down"));
+        assertEquals(0, coalescer.getStats().get("inFlight"));
+    }
+
+    @Test
+    void testUpstreamSeesLeaderContext() {
+        String tags = coalescer.execute("key", () -> Mono.deferContextual(
+                        context -> Mono.just(String.join(",", CacheTags.from(context)))))
+                .as(mono -> CacheTags.within(mono, 7L, 42L))
+                .block(Duration.ofSeconds(1));
+
+        assertEquals("user:7,resume:42", tags);
+    }
+}
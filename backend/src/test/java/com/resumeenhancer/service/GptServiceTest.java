@@ -8,6 +8,14 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 class GptServiceTest {
 
@@ -112,4 +120,79 @@ class GptServiceTest {
             fail("Failed to test buildEnhancePrompt with English language: " + e.getMessage());
         }
     }
+
+    @Test
+    void testParseAnalysis_RejectsMalformedResponses() {
+        try {
+            java.lang.reflect.Method method = GptService.class.getDeclaredMethod("parseAnalysis", String.class);
+            method.setAccessible(true);
+
+            GptService.Analysis fenced = (GptService.Analysis) method.invoke(gptService,
+                    "```json\n{\"enhancedResume\": \"Jane Doe\", \"suggestions\": [\"Add metrics\"]}\n```");
+            assertEquals("Jane Doe", fenced.getEnhancedText());
+            assertEquals(java.util.List.of("Add metrics"), fenced.getSuggestions());
+
+            assertNull(method.invoke(gptService, "Here is your improved resume: Jane Doe"));
+            assertNull(method.invoke(gptService, "{\"enhancedResume\": \"Jane Doe\""));
+            assertNull(method.invoke(gptService, "{\"enhancedResume\": \"Jane Doe\"}"));
+            assertNull(method.invoke(gptService, "{\"enhancedResume\": \"  \", \"suggestions\": []}"));
+        } catch (Exception e) {
+            fail("Failed to test parseAnalysis method: " + e.getMessage());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSystemMessagesAreStablePrefixesWithoutRequestData() {
+        List<Map<String, Object>> requests = new ArrayList<>();
+        GptProvider recorder = new GptProvider() {
+            @Override public String getName() { return "recorder"; }
+            @Override public boolean isConfigured() { return true; }
+            @Override public Duration getTimeout() { return Duration.ofSeconds(5); }
+            @Override public Mono<ChatCompletion> complete(Map<String, Object> request, Duration timeout) {
+                requests.add(request);
+                return Mono.just(new ChatCompletion("{\"suggestions\": [\"Add metrics\"]}", "stop", false, 0, 0, 0));
+            }
+            @Override public Flux<String> stream(Map<String, Object> request, Duration timeout) {
+                return Flux.error(new UnsupportedOperationException());
+            }
+        };
+        ReflectionTestUtils.setField(gptService, "providerRouter",
+                new GptProviderRouter(new GptProviderRegistry(List.of(recorder)), 0.5, 2, 60, 60, 1, 0));
+        ReflectionTestUtils.setField(gptService, "minSectionChars", 100_000);
+
+        String[][] resumes = {
+                {"Jane Doe, payments engineer at Acme", "Senior Java Engineer", "zh", "Chinese (Simplified)"},
+                {"John Roe, data analyst at Globex", "Analytics Lead", "ja", "Japanese"}};
+        for (String[] resume : resumes) {
+            gptService.enhanceResumeAsync(resume[0], resume[1], resume[2]).block();
+            gptService.translateResumeAsync(resume[0], resume[2]).block();
+            gptService.generateSuggestionsAsync(Map.of("summary", resume[0]), resume[1]).block();
+        }
+
+        assertEquals(6, requests.size());
+        for (int call = 0; call < 3; call++) {
+            List<Map<String, String>> first = (List<Map<String, String>>) requests.get(call).get("messages");
+            List<Map<String, String>> second = (List<Map<String, String>>) requests.get(call + 3).get("messages");
+            assertEquals("system", first.get(0).get("role"));
+            assertEquals("system", second.get(0).get("role"));
+            assertEquals(first.get(0).get("content"), second.get(0).get("content"));
+
+            for (int r = 0; r < resumes.length; r++) {
+                List<Map<String, String>> messages = r == 0 ? first : second;
+                String system = messages.get(0).get("content");
+                String user = messages.get(1).get("content");
+                assertEquals("user", messages.get(1).get("role"));
+                for (String[] any : resumes) {
+                    assertFalse(system.contains(any[0]), "resume text in the system message");
+                    assertFalse(system.contains(any[1]), "job description in the system message");
+                    assertFalse(system.contains(any[3]), "output language in the system message");
+                }
+                // Everything that varies per request travels in the user message
+                assertTrue(user.contains(resumes[r][0]));
+                assertEquals(call != 1, user.contains(resumes[r][1]));
+                assertEquals(call != 2, user.contains(resumes[r][3]));
+            }
+        }
+    }
 }
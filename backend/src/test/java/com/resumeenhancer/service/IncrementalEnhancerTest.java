@@ -0,0 +1,79 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IncrementalEnhancerTest {
+
+    private static final String SOURCE = "Jane Doe\njane@example.com\n\n"
+            + "Acme Corp, Senior Engineer, 2020-2024. Responsible for billing APIs and payment retries.\n\n"
+            + "Globex, Engineer, 2017-2020. Worked on ingestion pipeline and nightly reporting jobs.\n\n"
+            + "MIT, BSc Computer Science, 2013-2017";
+
+    private static final String ENHANCED = "# Jane Doe\n\n📧 jane@example.com\n\n---\n\n"
+            + "## EXPERIENCE\n\n"
+            + "**Senior Engineer** | Acme Corp  *2020 – 2024*\n\n- Led billing APIs serving payment retries\n\n"
+            + "**Engineer** | Globex  *2017 – 2020*\n\n- Developed ingestion pipeline and nightly reporting jobs\n\n"
+            + "## EDUCATION\n\n**MIT** – *BSc, Computer Science*\n*2013 – 2017*";
+
+    private GptService gptService;
+    private IncrementalEnhancer enhancer;
+
+    @BeforeEach
+    void setUp() {
+        gptService = mock(GptService.class);
+        enhancer = new IncrementalEnhancer();
+        ReflectionTestUtils.setField(enhancer, "gptService", gptService);
+        ReflectionTestUtils.setField(enhancer, "enabled", true);
+        ReflectionTestUtils.setField(enhancer, "maxChangedRatio", 0.4);
+        ReflectionTestUtils.setField(enhancer, "minMatchScore", 0.3);
+        ReflectionTestUtils.setField(enhancer, "concurrency", 2);
+    }
+
+    @Test
+    void testUnchangedSourceReusesPreviousOutputWithoutGpt() {
+        String result = enhancer.enhance(SOURCE, SOURCE.replace("\n\n", "\n \n"), ENHANCED, "Java", null).block();
+
+        assertEquals(ENHANCED, result);
+        verifyNoInteractions(gptService);
+    }
+
+    @Test
+    void testRevisesOnlyTheEntryOfTheEditedParagraph() {
+        String edited = SOURCE.replace("nightly reporting jobs", "nightly reporting jobs and on-call rotation");
+        when(gptService.reviseEnhancedEntriesAsync(anyString(), anyString(), anyString(), any(), any()))
+                .thenReturn(Mono.just("**Engineer** | Globex  *2017 – 2020*\n\n- Ran on-call rotation"));
+
+        String result = enhancer.enhance(SOURCE, edited, ENHANCED, "Java", null).block();
+
+        verify(gptService).reviseEnhancedEntriesAsync(
+                eq("**Engineer** | Globex  *2017 – 2020*\n\n- Developed ingestion pipeline and nightly reporting jobs"),
+                contains("Worked on ingestion"), contains("on-call rotation"), eq("Java"), isNull());
+        assertEquals(ENHANCED.replace("- Developed ingestion pipeline and nightly reporting jobs", "- Ran on-call rotation"), result);
+    }
+
+    @Test
+    void testFallsBackWhenTooMuchChanged() {
+        String rewritten = "Completely different person\n\nWith a new career in marine biology and oceanography research";
+
+        assertNull(enhancer.enhance(SOURCE, rewritten, ENHANCED, "Java", null).block());
+        verifyNoInteractions(gptService);
+    }
+
+    @Test
+    void testDiffFindsInsertedAndRemovedParagraphs() {
+        List<int[]> hunks = IncrementalEnhancer.diff(List.of("a", "b", "c", "d"), List.of("a", "x", "c"));
+
+        assertEquals(2, hunks.size());
+        assertArrayEquals(new int[] {1, 2, 1, 2}, hunks.get(0));
+        assertArrayEquals(new int[] {3, 4, 3, 3}, hunks.get(1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptCompactorTest {
+
+    private PromptCompactor compactor;
+    private TokenEstimator tokenEstimator;
+
+    @BeforeEach
+    void setUp() {
+        tokenEstimator = new TokenEstimator("gpt-3.5-turbo");
+        compactor = new PromptCompactor();
+        ReflectionTestUtils.setField(compactor, "tokenEstimator", tokenEstimator);
+    }
+
+    @Test
+    void testCleanCollapsesWhitespaceAndPdfArtifacts() {
+        String raw = "Jane   Doe\r\n\tSenior Engineer​\n\n\n\nPage 1 of 2\nBuilt scal-\nable services\n";
+
+        String cleaned = compactor.clean(raw);
+
+        assertEquals("Jane Doe\nSenior Engineer\n\nBuilt scalable services", cleaned);
+    }
+
+    @Test
+    void testCleanDropsRunningHeadersButKeepsRepeatedJobTitles() {
+        String raw = "Jane Doe - Resume\nEXPERIENCE\n"
+                + job("Acme") + job("Globex") + "Page 1 of 2\n"
+                + "Jane Doe - Resume\n" + job("Initech") + "Page 2 of 2";
+
+        String cleaned = compactor.clean(raw);
+
+        assertEquals(1, occurrences(cleaned, "Jane Doe - Resume"));
+        assertEquals(3, occurrences(cleaned, "Software Engineer"));
+        assertFalse(cleaned.contains("Page"));
+    }
+
+    @Test
+    void testCompactLeavesTextWithinBudgetUntouched() {
+        String text = "## Experience  \n- Led the platform team\n  - Nested bullet\n\n\n\nWell-\nknown\n";
+
+        assertSame(text, compactor.compact(text, 10_000));
+    }
+
+    @Test
+    void testCompactDropsLowPrioritySectionsBeforeExperience() {
+        StringBuilder text = new StringBuilder("Jane Doe\njane@example.com\n\nEXPERIENCE\n");
+        for (int i = 0; i < 20; i++) {
+            text.append("- Led migration of billing service number ").append(i).append(" to Kubernetes\n");
+        }
+        text.append("\nINTERESTS\n");
+        for (int i = 0; i < 20; i++) {
+            text.append("- Enjoys hiking, photography and chess tournaments in region ").append(i).append("\n");
+        }
+
+        int budget = tokenEstimator.count(text.toString()) / 2 + 20;
+        String compacted = compactor.compact(text.toString(), budget);
+
+        assertTrue(tokenEstimator.count(compacted) <= budget);
+        assertTrue(compacted.startsWith("Jane Doe\njane@example.com"));
+        assertTrue(compacted.contains("number 19 to Kubernetes"));
+        assertFalse(compacted.contains("INTERESTS"));
+    }
+
+    @Test
+    void testCompactTrimsImportantSectionsOnlyWhenNothingElseLeft() {
+        StringBuilder text = new StringBuilder("Jane Doe\n\nEXPERIENCE\n");
+        for (int i = 0; i < 50; i++) {
+            text.append("- Shipped feature ").append(i).append(" for the payments platform\n");
+        }
+
+        String compacted = compactor.compact(text.toString(), 100);
+
+        assertTrue(tokenEstimator.count(compacted) <= 100);
+        assertTrue(compacted.contains("EXPERIENCE\n- Shipped feature 0 "));
+        assertFalse(compacted.contains("feature 49 "));
+    }
+
+    private String job(String company) {
+        return "Software Engineer\n" + company + "\n- Built services\n- Reviewed code\n- Mentored juniors\n";
+    }
+
+    private int occurrences(String text, String needle) {
+        int count = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,118 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RedisSingleFlightTest {
+
+    // In-memory stand-in for the Redis keyspace shared by all "nodes"
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+
+    private RedisSingleFlight nodeA;
+    private RedisSingleFlight nodeB;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedisTemplate<String, String> template = mock(RedisTemplate.class);
+        ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+
+        when(template.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenAnswer(inv -> redis.putIfAbsent(inv.getArgument(0), inv.getArgument(1)) == null);
+        when(template.hasKey(anyString())).thenAnswer(inv -> redis.containsKey(inv.<String>getArgument(0)));
+        when(template.execute(any(RedisScript.class), anyList(), any()))
+                .thenAnswer(inv -> redis.remove(inv.<List<String>>getArgument(1).get(0), inv.getArgument(2)) ? 1L : 0L);
+
+        nodeA = newNode(template);
+        nodeB = newNode(template);
+    }
+
+    private RedisSingleFlight newNode(RedisTemplate<String, String> template) {
+        RedisSingleFlight node = new RedisSingleFlight();
+        ReflectionTestUtils.setField(node, "redisTemplate", template);
+        ReflectionTestUtils.setField(node, "enableRedisCache", true);
+        ReflectionTestUtils.setField(node, "leaseSeconds", 90L);
+        ReflectionTestUtils.setField(node, "pollMillis", 10L);
+        ReflectionTestUtils.setField(node, "maxWaitSeconds", 5L);
+        return node;
+    }
+
+    private Mono<String> readCache(String key) {
+        return Mono.fromSupplier(() -> redis.get(key));
+    }
+
+    private boolean eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    void testPeerWaitsForLeaseHolderResult() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Mono<String> upstream = Mono.delay(Duration.ofMillis(100))
+                .map(tick -> {
+                    upstreamCalls.incrementAndGet();
+                    redis.put("key", "enhanced");
+                    return "enhanced";
+                });
+
+        Mono<String> a = nodeA.execute("key", () -> readCache("key"), () -> upstream);
+        Mono<String> b = nodeB.execute("key", () -> readCache("key"), () -> upstream);
+
+        List<String> results = Mono.zip(a, b, List::of).block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("enhanced", "enhanced"), results);
+        assertEquals(1, upstreamCalls.get());
+        // The lease is released asynchronously after the result has been delivered
+        assertTrue(eventually(() -> !redis.containsKey("key:lease")));
+    }
+
+    @Test
+    void testPeerTakesOverWhenLeaseDisappears() {
+        // A holder that died: its lease is gone and it never cached a result
+        redis.put("key:lease", "dead-node");
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        Mono<String> result = nodeB.execute("key", () -> readCache("key"),
+                () -> Mono.fromSupplier(() -> "v" + upstreamCalls.incrementAndGet()));
+        Mono.delay(Duration.ofMillis(50)).subscribe(tick -> redis.remove("key:lease"));
+
+        assertEquals("v1", result.block(Duration.ofSeconds(5)));
+        assertEquals(1L, nodeB.getStats().get("takeovers"));
+    }
+
+    @Test
+    void testReleaseOnlyDeletesOwnLease() {
+        redis.put("key:lease", "other-token");
+        assertFalse(nodeA.release("key:lease", "my-token"));
+        assertTrue(redis.containsKey("key:lease"));
+    }
+}
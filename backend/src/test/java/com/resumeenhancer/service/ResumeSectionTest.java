@@ -0,0 +1,70 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeSectionTest {
+
+    private static final String RESUME = "# Jane Doe\n\njane@example.com | Berlin\n\n---\n\n"
+            + "## EXPERIENCE\n\n"
+            + "**Senior Engineer** | Acme  *2020 – 2024*\n\n- Led the billing rewrite\n- Cut p99 latency by 40%\n\n"
+            + "**Engineer** | Globex  *2017 – 2020*\n\n- Built the ingestion pipeline\n\n"
+            + "## EDUCATION\n\n**MIT** – *BSc, Computer Science*\n*2013 – 2017*\n";
+
+    @Test
+    void testSplitsAtHeadingsAndEntries() {
+        List<ResumeSection> sections = ResumeSection.split(RESUME, 1);
+
+        assertEquals(6, sections.size());
+        assertEquals("# Jane Doe\n\njane@example.com | Berlin\n\n---", sections.get(0).getBody());
+        assertEquals("## EXPERIENCE", sections.get(1).getBody());
+        assertTrue(sections.get(2).getBody().startsWith("**Senior Engineer**"));
+        assertTrue(sections.get(3).getBody().startsWith("**Engineer**"));
+        assertEquals("## EDUCATION", sections.get(4).getBody());
+        assertTrue(sections.get(5).getBody().startsWith("**MIT**"));
+    }
+
+    @Test
+    void testReassemblyPreservesFormatting() {
+        for (int minChars : new int[] {1, 60, 120, 10_000}) {
+            StringBuilder rebuilt = new StringBuilder();
+            for (ResumeSection section : ResumeSection.split(RESUME, minChars)) {
+                rebuilt.append(section.reassemble(section.getBody()));
+            }
+            assertEquals(RESUME, rebuilt.toString());
+        }
+    }
+
+    @Test
+    void testMergesShortPieces() {
+        List<ResumeSection> sections = ResumeSection.split(RESUME, 120);
+
+        assertEquals(2, sections.size());
+        assertTrue(sections.get(0).getBody().contains("## EXPERIENCE\n\n**Senior Engineer**"));
+        assertTrue(sections.get(1).getBody().startsWith("**Engineer**"));
+        assertTrue(sections.get(1).getBody().endsWith("*2013 – 2017*"));
+    }
+
+    @Test
+    void testFitCutsOversizedSectionsAtLineBreaks() {
+        List<ResumeSection> sections = ResumeSection.fit(ResumeSection.split(RESUME, 10_000), 60, String::length);
+
+        assertTrue(sections.size() > 1);
+        StringBuilder rebuilt = new StringBuilder();
+        for (ResumeSection section : sections) {
+            assertTrue(section.getBody().length() <= 60, section.getBody());
+            rebuilt.append(section.reassemble(section.getBody()));
+        }
+        assertEquals(RESUME, rebuilt.toString());
+    }
+
+    @Test
+    void testFitKeepsSectionsWithinBudget() {
+        List<ResumeSection> sections = ResumeSection.split(RESUME, 120);
+
+        assertEquals(sections, ResumeSection.fit(sections, 10_000, String::length));
+    }
+}
@@ -0,0 +1,167 @@
+package com.resumeenhancer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UsageTrackingServiceTest {
+
+    // In-memory stand-in for the Redis keyspace; scripts run atomically, as they do in Redis
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+
+    private RedisTemplate<String, String> template;
+    private ValueOperations<String, String> valueOps;
+    private UsageTrackingService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        template = mock(RedisTemplate.class);
+        valueOps = mock(ValueOperations.class);
+
+        when(template.opsForValue()).thenReturn(valueOps);
+        when(valueOps.multiGet(anyCollection())).thenAnswer(inv -> {
+            List<String> values = new ArrayList<>();
+            for (Object key : inv.<List<String>>getArgument(0)) {
+                values.add(redis.get(key));
+            }
+            return values;
+        });
+        when(template.execute(any(RedisScript.class), anyList())).thenAnswer(this::runScript);
+        when(template.execute(any(RedisScript.class), anyList(), any())).thenAnswer(this::runScript);
+        when(template.execute(any(RedisScript.class), anyList(), any(), any())).thenAnswer(this::runScript);
+
+        service = new UsageTrackingService();
+        ReflectionTestUtils.setField(service, "redisTemplate", template);
+        ReflectionTestUtils.setField(service, "enableRedisCache", true);
+        ReflectionTestUtils.setField(service, "dailyGptLimit", 3);
+        ReflectionTestUtils.setField(service, "dailyEnhancementLimit", 5);
+    }
+
+    private synchronized Long runScript(InvocationOnMock inv) {
+        String script = inv.<RedisScript<Long>>getArgument(0).getScriptAsString();
+        String key = inv.<List<String>>getArgument(1).get(0);
+        long used = Long.parseLong(redis.getOrDefault(key, "0"));
+
+        if (script.contains("DECR")) {
+            used = Math.max(0, used - 1);
+        } else if (script.contains("ARGV[2]")) {
+            if (used >= Long.parseLong(inv.getArgument(2))) {
+                return -1L;
+            }
+            used++;
+        } else {
+            used++;
+        }
+        redis.put(key, String.valueOf(used));
+        return used;
+    }
+
+    @Test
+    void testReservesUpToTheDailyLimit() {
+        for (int i = 0; i < 3; i++) {
+            service.reserveGpt(1L).commit();
+        }
+
+        assertThrows(RuntimeException.class, () -> service.reserveGpt(1L));
+        assertEquals(0, service.getRemainingGptUsage(1L));
+        assertFalse(service.canUseGptService(1L));
+        assertTrue(service.canUseGptService(2L));
+    }
+
+    @Test
+    void testConcurrentReservationsNeverExceedTheLimit() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            pool.submit(() -> {
+                start.await();
+                service.reserveGpt(1L);
+                granted.incrementAndGet();
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(3, granted.get());
+        assertEquals(0, service.getRemainingGptUsage(1L));
+    }
+
+    @Test
+    void testRefundReturnsTheUnitOnce() {
+        UsageTrackingService.QuotaReservation reservation = service.reserveGpt(1L);
+        assertEquals(2, service.getRemainingGptUsage(1L));
+
+        assertTrue(reservation.refund());
+        assertFalse(reservation.refund());
+        assertEquals(3, service.getRemainingGptUsage(1L));
+    }
+
+    @Test
+    void testCommittedReservationIsNotRefunded() {
+        UsageTrackingService.QuotaReservation reservation = service.reserveGpt(1L);
+
+        assertTrue(reservation.commit());
+        assertFalse(reservation.refund());
+        assertEquals(2, service.getRemainingGptUsage(1L));
+    }
+
+    @Test
+    void testWithGptQuotaRefundsFailedCalls() {
+        assertEquals("enhanced", service.withGptQuota(1L, Mono.just("enhanced")).block());
+        assertThrows(IllegalStateException.class,
+                () -> service.withGptQuota(1L, Mono.error(new IllegalStateException("upstream failed"))).block());
+        assertEquals(2, service.getRemainingGptUsage(1L));
+
+        service.withGptQuota(1L, Mono.just("second")).block();
+        service.withGptQuota(1L, Mono.just("third")).block();
+        assertThrows(GptQuotaExceededException.class, () -> service.withGptQuota(1L, Mono.just("fourth")).block());
+    }
+
+    @Test
+    void testDailyUsageReadsBothCountersInOneCall() {
+        service.reserveGpt(1L);
+        service.trackEnhancementUsage(1L);
+        service.trackEnhancementUsage(1L);
+
+        UsageTrackingService.DailyUsage usage = service.getDailyUsage(1L);
+        assertEquals(2, usage.getRemainingGpt());
+        assertEquals(3, usage.getRemainingEnhancement());
+        assertTrue(usage.canUseGpt());
+        assertTrue(usage.canUseEnhancement());
+        verify(valueOps, times(1)).multiGet(anyCollection());
+        verify(valueOps, never()).get(any());
+    }
+
+    @Test
+    void testUnlimitedWithoutRedis() {
+        ReflectionTestUtils.setField(service, "enableRedisCache", false);
+
+        UsageTrackingService.QuotaReservation reservation = service.reserveGpt(1L);
+        assertFalse(reservation.refund());
+        assertEquals(3, service.getRemainingGptUsage(1L));
+        verifyNoInteractions(template);
+    }
+}
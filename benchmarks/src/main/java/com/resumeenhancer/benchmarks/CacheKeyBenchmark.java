@@ -0,0 +1,46 @@
+package com.resumeenhancer.benchmarks;
+
+import com.resumeenhancer.service.CacheService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+// CacheService.generateCacheKey runs for every GPT call and translation lookup: it concatenates
+// prefix, prompt and mode, hashes the result with SHA-256 and hex-encodes the digest.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+    private static final MethodHandle GENERATE_CACHE_KEY =
+            Internals.method(CacheService.class, "generateCacheKey", String.class, String.class, String.class);
+
+    @Param({"1", "3", "10"})
+    public int pages;
+
+    private String prompt;
+
+    @Setup
+    public void setUp() {
+        prompt = "TARGET JOB DESCRIPTION:\n" + ResumeCorpus.jobDescription() + "\n\nCURRENT RESUME:\n" + ResumeCorpus.sourceText(pages);
+    }
+
+    @Benchmark
+    public String generateCacheKey() throws Throwable {
+        return (String) GENERATE_CACHE_KEY.invokeExact("gpt", prompt, "enhance:gpt-4o");
+    }
+}
@@ -0,0 +1,59 @@
+package com.resumeenhancer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+// CacheValueCodec runs on every Redis write (encode) and every L2 hit (decode). Prints the
+// stored size per page count at setup, for comparing against the raw UTF-8 length.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheValueCodecBenchmark {
+
+    private static final Class<?> CODEC = Internals.type("com.resumeenhancer.service.CacheValueCodec");
+    private static final MethodHandle ENCODE = Internals.method(CODEC, "encode", String.class);
+    private static final MethodHandle DECODE = Internals.method(CODEC, "decode", byte[].class);
+
+    @Param({"1", "3", "10"})
+    public int pages;
+
+    @Param({"true", "false"})
+    public boolean compress;
+
+    private Object codec;
+    private String value;
+    private byte[] stored;
+
+    @Setup
+    public void setUp() throws Throwable {
+        codec = Internals.construct(CODEC, new Class<?>[] { boolean.class, int.class, int.class }, compress, 512, 6);
+        value = ResumeCorpus.enhancedMarkdown(pages);
+        stored = (byte[]) ENCODE.invoke(codec, value);
+        System.out.println("\n" + pages + " page(s): " + value.getBytes("UTF-8").length + " bytes raw, " + stored.length + " stored");
+    }
+
+    @Benchmark
+    public byte[] encode() throws Throwable {
+        return (byte[]) ENCODE.invoke(codec, value);
+    }
+
+    @Benchmark
+    public String decode() throws Throwable {
+        return (String) DECODE.invoke(codec, stored);
+    }
+}
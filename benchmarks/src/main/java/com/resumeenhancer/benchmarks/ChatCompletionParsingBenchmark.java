@@ -0,0 +1,103 @@
+package com.resumeenhancer.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.resumeenhancer.service.ChatCompletion;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Old vs new handling of a /chat/completions body. Both start from the network buffers a
+// WebClient response arrives in: the tree path decodes them into a String and calls readTree,
+// the streaming path parses the joined buffers with ChatCompletion.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatCompletionParsingBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final NettyDataBufferFactory BUFFERS = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+    // Reactor Netty hands the body over in chunks of roughly this size
+    private static final int CHUNK_BYTES = 8192;
+
+    @Param({"1", "3", "10"})
+    public int pages;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        ObjectNode response = OBJECT_MAPPER.createObjectNode();
+        response.put("id", "chatcmpl-benchmark");
+        response.put("object", "chat.completion");
+        response.put("model", "gpt-4o");
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", ResumeCorpus.enhancedMarkdown(pages));
+        choice.put("finish_reason", "stop");
+        ObjectNode usage = response.putObject("usage");
+        usage.put("prompt_tokens", 1800 * pages);
+        usage.put("completion_tokens", 900 * pages);
+        usage.put("total_tokens", 2700 * pages);
+        usage.putObject("prompt_tokens_details").put("cached_tokens", 1024);
+        body = response.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String treeFromString() throws Exception {
+        DataBuffer joined = join();
+        String json;
+        try {
+            json = joined.toString(StandardCharsets.UTF_8);
+        } finally {
+            DataBufferUtils.release(joined);
+        }
+        JsonNode root = OBJECT_MAPPER.readTree(json);
+        JsonNode usage = root.get("usage");
+        int tokens = usage.path("prompt_tokens").asInt() + usage.path("prompt_tokens_details").path("cached_tokens").asInt()
+                + usage.path("completion_tokens").asInt();
+        String content = root.get("choices").get(0).get("message").get("content").asText().trim();
+        return tokens > 0 ? content : null;
+    }
+
+    @Benchmark
+    public String streamingFromBuffers() throws Exception {
+        try (InputStream in = join().asInputStream(true)) {
+            ChatCompletion completion = ChatCompletion.parse(in);
+            int tokens = completion.getPromptTokens() + completion.getCachedPromptTokens() + completion.getCompletionTokens();
+            return tokens > 0 ? completion.getContent().trim() : null;
+        }
+    }
+
+    private DataBuffer join() {
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int offset = 0; offset < body.length; offset += CHUNK_BYTES) {
+            int length = Math.min(CHUNK_BYTES, body.length - offset);
+            chunks.add(BUFFERS.allocateBuffer(length).write(body, offset, length));
+        }
+        return DataBufferUtils.join(Flux.fromIterable(chunks)).block();
+    }
+}
@@ -0,0 +1,56 @@
+package com.resumeenhancer.benchmarks;
+
+import com.resumeenhancer.service.ExportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+// ExportService's two stages, measured separately because their costs differ by orders of
+// magnitude: flexmark Markdown parse + HTML render (also behind the HTML and comparison
+// exports), and openhtmltopdf layout + PDF writing.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+
+    private static final MethodHandle CONVERT_HTML_TO_PDF =
+            Internals.method(ExportService.class, "convertHtmlToPdf", String.class);
+
+    @Param({"1", "3", "10"})
+    public int pages;
+
+    private ExportService exportService;
+    private String markdown;
+    private String html;
+
+    @Setup
+    public void setUp() {
+        exportService = new ExportService();
+        markdown = ResumeCorpus.enhancedMarkdown(pages);
+        html = exportService.convertMarkdownToHtml(markdown);
+    }
+
+    @Benchmark
+    public String markdownToHtml() {
+        return exportService.convertMarkdownToHtml(markdown);
+    }
+
+    @Benchmark
+    public byte[] htmlToPdf() throws Throwable {
+        return (byte[]) CONVERT_HTML_TO_PDF.invokeExact(exportService, html);
+    }
+}
@@ -0,0 +1,42 @@
+package com.resumeenhancer.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+// Handles to non-public backend methods, so hot paths are measured exactly as the services run
+// them instead of through copies that drift. Kept in static finals so the JIT can inline them.
+final class Internals {
+
+    private Internals() {
+    }
+
+    static MethodHandle method(Class<?> owner, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = owner.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+    static Class<?> type(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot load " + className, e);
+        }
+    }
+
+    static Object construct(Class<?> owner, Class<?>[] parameterTypes, Object... args) {
+        try {
+            Constructor<?> constructor = owner.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return constructor.newInstance(args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot construct " + owner.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.resumeenhancer.benchmarks;
+
+import com.resumeenhancer.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// JwtUtil on every authenticated request. authenticateRequest replays what
+// JwtAuthenticationFilter does per request (read the subject, then validateToken), which parses
+// and verifies the same token three times.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    // Same length as the default app.jwt.secret; HS512 needs at least 64 bytes
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret-"
+            + "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 24);
+        token = jwtUtil.generateToken("jane.doe@example.com", 42L);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("jane.doe@example.com", 42L);
+    }
+
+    @Benchmark
+    public String parseSubject() {
+        return jwtUtil.getEmailFromToken(token);
+    }
+
+    @Benchmark
+    public boolean authenticateRequest() {
+        String email = jwtUtil.getEmailFromToken(token);
+        return jwtUtil.validateToken(token, email);
+    }
+}
@@ -0,0 +1,51 @@
+package com.resumeenhancer.benchmarks;
+
+import com.resumeenhancer.service.EnhancedResumeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+// EnhancedResumeService.enhanceWithLocalTemplate: the "local" mode and the fallback whenever GPT
+// is unavailable. Splits the resume into paragraphs and runs three case-insensitive
+// String.replaceAll calls on each.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalTemplateBenchmark {
+
+    private static final MethodHandle ENHANCE_WITH_LOCAL_TEMPLATE =
+            Internals.method(EnhancedResumeService.class, "enhanceWithLocalTemplate", String.class, String.class);
+
+    @Param({"1", "3", "10"})
+    public int pages;
+
+    private EnhancedResumeService service;
+    private String resume;
+    private String jobDescription;
+
+    @Setup
+    public void setUp() {
+        service = new EnhancedResumeService();
+        resume = ResumeCorpus.sourceText(pages);
+        jobDescription = ResumeCorpus.jobDescription();
+    }
+
+    @Benchmark
+    public String enhanceWithLocalTemplate() throws Throwable {
+        return (String) ENHANCE_WITH_LOCAL_TEMPLATE.invokeExact(service, resume, jobDescription);
+    }
+}
@@ -0,0 +1,56 @@
+package com.resumeenhancer.benchmarks;
+
+import com.resumeenhancer.service.GptService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+// GptService.buildEnhancePrompt, which every enhance and analyze call runs twice (once with an
+// empty resume to size the scaffold, once for real), with and without the language block.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptBuildingBenchmark {
+
+    private static final MethodHandle BUILD_ENHANCE_PROMPT =
+            Internals.method(GptService.class, "buildEnhancePrompt", String.class, String.class, String.class);
+
+    @Param({"1", "3", "10"})
+    public int pages;
+
+    private GptService gptService;
+    private String resume;
+    private String jobDescription;
+
+    @Setup
+    public void setUp() {
+        // Not started as a bean; prompt building uses none of the injected collaborators
+        gptService = new GptService("http://localhost", "benchmark", "gpt-4o", 2000, 0.7);
+        resume = ResumeCorpus.sourceText(pages);
+        jobDescription = ResumeCorpus.jobDescription();
+    }
+
+    @Benchmark
+    public String enhancePrompt() throws Throwable {
+        return (String) BUILD_ENHANCE_PROMPT.invokeExact(gptService, resume, jobDescription, (String) null);
+    }
+
+    @Benchmark
+    public String enhancePromptWithLanguage() throws Throwable {
+        return (String) BUILD_ENHANCE_PROMPT.invokeExact(gptService, resume, jobDescription, "zh");
+    }
+}
@@ -0,0 +1,70 @@
+package com.resumeenhancer.benchmarks;
+
+// Synthetic resumes shaped like real ones: a contact block, a summary, then experience entries
+// with bullets until the requested page count is reached (about 3,000 characters per page).
+public final class ResumeCorpus {
+
+    private static final int CHARS_PER_PAGE = 3000;
+
+    private static final String[] COMPANIES = {"Acme Corp", "Globex", "Initech", "Umbrella Health", "Stark Logistics"};
+    private static final String[] BULLETS = {
+        "Led the migration of the billing platform to event-driven services, cutting p99 latency by 40%",
+        "Designed a \"zero-downtime\" deployment pipeline used by 12 teams and 300+ services",
+        "Mentored 6 engineers; two were promoted to senior within 18 months",
+        "Reduced cloud spend by $1.2M/year by right-sizing clusters and introducing autoscaling",
+        "Owned the on-call rotation and brought mean time to recovery from 45 to 12 minutes",
+        "Built a feature-flag service handling 50k requests/s with sub-millisecond reads"
+    };
+
+    private ResumeCorpus() {
+    }
+
+    // Unedited source text as users paste or upload it, with the phrasing the local template rewrites
+    public static String sourceText(int pages) {
+        StringBuilder text = new StringBuilder();
+        text.append("Jane Doe\njane.doe@example.com | +1 555 0100 | Berlin, Germany\n\n")
+                .append("SUMMARY\nBackend engineer who worked on payment and logistics platforms for ten years.\n\n")
+                .append("EXPERIENCE\n");
+        int entry = 0;
+        while (text.length() < pages * CHARS_PER_PAGE) {
+            text.append("Senior Software Engineer, ").append(COMPANIES[entry % COMPANIES.length])
+                    .append(", ").append(2023 - 2 * entry).append(" - ").append(2025 - 2 * entry).append('\n')
+                    .append("Responsible for the billing platform and its on-call rotation. ")
+                    .append("Worked on the migration to event-driven services. ")
+                    .append("Helped with hiring and mentoring new engineers.\n");
+            for (int i = 0; i < 3; i++) {
+                text.append("- ").append(BULLETS[(entry + i) % BULLETS.length]).append('\n');
+            }
+            text.append('\n');
+            entry++;
+        }
+        text.append("EDUCATION\nTechnische Universität München, MSc Computer Science, 2011 - 2013\n");
+        return text.toString();
+    }
+
+    public static String jobDescription() {
+        return "Staff Backend Engineer, Payments. You will own the reliability and cost of our payment platform, "
+                + "lead migrations to event-driven services, and mentor a team of six. We use Java, Spring Boot, "
+                + "Kafka, PostgreSQL and Kubernetes on AWS.";
+    }
+
+    public static String enhancedMarkdown(int pages) {
+        StringBuilder text = new StringBuilder();
+        text.append("# Jane Doe\n\njane.doe@example.com | +1 555 0100 | Berlin, Germany | linkedin.com/in/janedoe\n\n---\n\n")
+                .append("## SUMMARY\n\nStaff engineer with 10+ years building payment and logistics platforms. ")
+                .append("Known for turning fragile legacy systems into reliable, observable services.\n\n")
+                .append("## EXPERIENCE\n\n");
+        int entry = 0;
+        while (text.length() < pages * CHARS_PER_PAGE) {
+            text.append("**Senior Software Engineer** | ").append(COMPANIES[entry % COMPANIES.length])
+                    .append("  *").append(2023 - 2 * entry).append(" – ").append(2025 - 2 * entry).append("*\n\n");
+            for (int i = 0; i < 4; i++) {
+                text.append("- ").append(BULLETS[(entry + i) % BULLETS.length]).append('\n');
+            }
+            text.append('\n');
+            entry++;
+        }
+        text.append("## EDUCATION\n\n**Technische Universität München** – *MSc, Computer Science*\n*2011 – 2013*\n");
+        return text.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.resumeenhancer.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Latency histogram and outcome counts for one endpoint. Latencies are recorded in
+// microseconds for every completed request, successful or not; transport failures and
+// timeouts count as status 0.
+public class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final String name;
+    private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong degraded = new AtomicLong();
+    private final Map<Integer, AtomicLong> failures = new ConcurrentHashMap<>();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public void record(long latencyNanos, int status, boolean degradedResponse) {
+        latency.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (status >= 200 && status < 300) {
+            successes.incrementAndGet();
+            if (degradedResponse) {
+                degraded.incrementAndGet();
+            }
+        } else {
+            failures.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    public String getName() { return name; }
+
+    public long getCount() { return latency.getTotalCount(); }
+
+    public long getSuccesses() { return successes.get(); }
+
+    // Successful responses served by the local fallback because GPT was unavailable
+    public long getDegraded() { return degraded.get(); }
+
+    public long getFailures() {
+        return failures.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    // 429/503 are the backend shedding load on purpose, reported apart from real errors
+    public long getRejections() {
+        return count(429) + count(503);
+    }
+
+    public Map<Integer, Long> getFailuresByStatus() {
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        failures.forEach((status, count) -> byStatus.put(status, count.get()));
+        return byStatus;
+    }
+
+    public double percentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double meanMillis() {
+        return latency.getMean() / 1000.0;
+    }
+
+    public double maxMillis() {
+        return latency.getMaxValue() / 1000.0;
+    }
+
+    private long count(int status) {
+        AtomicLong count = failures.get(status);
+        return count != null ? count.get() : 0;
+    }
+}
@@ -0,0 +1,174 @@
+package com.resumeenhancer.loadtest;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// OpenAI-compatible /chat/completions stand-in. Answers in the shape each backend operation
+// expects (Markdown for enhance/translate/revise, JSON for analyze and suggestions), sized
+// after the resume in the prompt, with usage counts, optional SSE streaming, and injected
+// 500s and 429s.
+public class GptStubServer extends StubServer {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final double rateLimitRate;
+    private final int streamChunkChars;
+    private final long streamChunkMillis;
+
+    public GptStubServer(int port, LatencyDistribution latency, double errorRate, double rateLimitRate,
+                         int streamChunkChars, long streamChunkMillis, long seed) {
+        super("GPT", port, latency, errorRate, seed);
+        this.rateLimitRate = rateLimitRate;
+        this.streamChunkChars = streamChunkChars;
+        this.streamChunkMillis = streamChunkMillis;
+    }
+
+    @Override
+    protected void register(HttpServer server) {
+        server.createContext("/", this::handle);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (!"POST".equals(exchange.getRequestMethod()) || !exchange.getRequestURI().getPath().endsWith("/chat/completions")) {
+            sendJson(exchange, 404, Map.of("error", Map.of("message", "Unknown endpoint")));
+            return;
+        }
+
+        Map<String, Object> request = readJson(exchange);
+        simulateLatency();
+        if (shouldFail()) {
+            sendJson(exchange, 500, Map.of("error", Map.of("message", "Injected failure", "type", "server_error")));
+            return;
+        }
+        if (random.nextDouble() < rateLimitRate) {
+            injectedErrors.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendJson(exchange, 429, Map.of("error", Map.of("message", "Rate limit reached", "type", "rate_limit_error")));
+            return;
+        }
+
+        String systemPrompt = message(request, 0);
+        String userPrompt = message(request, -1);
+        int maxChars = request.get("max_tokens") instanceof Number
+                ? ((Number) request.get("max_tokens")).intValue() * CHARS_PER_TOKEN : Integer.MAX_VALUE;
+        String content = reply(systemPrompt, userPrompt, maxChars);
+        int promptTokens = (systemPrompt.length() + userPrompt.length()) / CHARS_PER_TOKEN;
+        int completionTokens = content.length() / CHARS_PER_TOKEN;
+
+        if (Boolean.TRUE.equals(request.get("stream"))) {
+            stream(exchange, content, promptTokens, completionTokens);
+            return;
+        }
+
+        ObjectNode response = OBJECT_MAPPER.createObjectNode();
+        response.put("id", "chatcmpl-stub-" + requests.get());
+        response.put("object", "chat.completion");
+        response.put("model", String.valueOf(request.get("model")));
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        usage(response, promptTokens, completionTokens);
+        sendJson(exchange, 200, response);
+    }
+
+    private void stream(HttpExchange exchange, String content, int promptTokens, int completionTokens) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < content.length(); i += streamChunkChars) {
+                ObjectNode chunk = OBJECT_MAPPER.createObjectNode();
+                chunk.putArray("choices").addObject().putObject("delta")
+                        .put("content", content.substring(i, Math.min(content.length(), i + streamChunkChars)));
+                writeEvent(out, chunk.toString());
+                sleep(streamChunkMillis);
+            }
+            ObjectNode last = OBJECT_MAPPER.createObjectNode();
+            last.putArray("choices");
+            usage(last, promptTokens, completionTokens);
+            writeEvent(out, last.toString());
+            writeEvent(out, "[DONE]");
+        }
+    }
+
+    private static void writeEvent(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void usage(ObjectNode response, int promptTokens, int completionTokens) {
+        ObjectNode usage = response.putObject("usage");
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", promptTokens + completionTokens);
+        usage.putObject("prompt_tokens_details").put("cached_tokens", 0);
+    }
+
+    private String reply(String systemPrompt, String userPrompt, int maxChars) {
+        String markdown = markdownFrom(userPrompt, maxChars);
+        if (systemPrompt.contains("\"enhancedResume\"")) {
+            ObjectNode json = OBJECT_MAPPER.createObjectNode();
+            json.put("enhancedResume", markdown);
+            suggestions(json.putArray("suggestions"), random);
+            return json.toString();
+        }
+        if (systemPrompt.contains("\"suggestions\"")) {
+            ObjectNode json = OBJECT_MAPPER.createObjectNode();
+            suggestions(json.putArray("suggestions"), random);
+            return json.toString();
+        }
+        return markdown;
+    }
+
+    // Rewrites the prompt's lines as a Markdown resume of about the same length as the input
+    private static String markdownFrom(String prompt, int maxChars) {
+        StringBuilder markdown = new StringBuilder("# Enhanced Resume\n\n## EXPERIENCE\n\n");
+        for (String line : prompt.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (markdown.length() + trimmed.length() + 3 > maxChars) {
+                break;
+            }
+            markdown.append("- ").append(trimmed).append('\n');
+        }
+        return markdown.toString().trim();
+    }
+
+    private static void suggestions(ArrayNode array, Random random) {
+        String[] pool = {
+            "Quantify the impact of the billing migration with revenue or latency figures",
+            "Move cloud cost savings into the summary; it is the strongest signal for this role",
+            "Add Kubernetes and Terraform to the skills section, both appear in the job description",
+            "Shorten bullets to one line and lead each with an action verb",
+            "Mention team size and mentoring outcomes for the senior roles",
+            "Drop the objective statement in favour of a two-line summary"
+        };
+        int count = 4 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            array.add(pool[i % pool.length]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String message(Map<String, Object> request, int index) {
+        Object messages = request.get("messages");
+        if (!(messages instanceof List) || ((List<?>) messages).isEmpty()) {
+            return "";
+        }
+        List<Object> list = (List<Object>) messages;
+        Object message = list.get(index < 0 ? list.size() + index : index);
+        return message instanceof Map ? String.valueOf(((Map<String, Object>) message).get("content")) : "";
+    }
+}
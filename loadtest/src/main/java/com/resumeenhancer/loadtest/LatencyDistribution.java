@@ -0,0 +1,67 @@
+package com.resumeenhancer.loadtest;
+
+import java.util.Random;
+
+// Latency model for the stand-in services, parsed from a short spec:
+//   fixed:200            always 200ms
+//   uniform:100-400      evenly spread between 100 and 400ms
+//   lognormal:300:2000   median 300ms, 99th percentile 2000ms (long right tail, like real LLM calls)
+public class LatencyDistribution {
+
+    private static final double Z_99 = 2.3263;
+
+    private final String spec;
+    private final String kind;
+    private final double a;
+    private final double b;
+
+    private LatencyDistribution(String spec, String kind, double a, double b) {
+        this.spec = spec;
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    public static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return new LatencyDistribution(spec, "fixed", Double.parseDouble(parts[1]), 0);
+                case "uniform": {
+                    String[] range = parts[1].split("-");
+                    return new LatencyDistribution(spec, "uniform", Double.parseDouble(range[0]), Double.parseDouble(range[1]));
+                }
+                case "lognormal": {
+                    double median = Double.parseDouble(parts[1]);
+                    double p99 = Double.parseDouble(parts[2]);
+                    if (median <= 0 || p99 < median) {
+                        throw new IllegalArgumentException("lognormal needs 0 < median <= p99");
+                    }
+                    // mu and sigma of the underlying normal
+                    return new LatencyDistribution(spec, "lognormal", Math.log(median), Math.log(p99 / median) / Z_99);
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown distribution: " + parts[0]);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency spec '" + spec + "': " + e.getMessage(), e);
+        }
+    }
+
+    public long sampleMillis(Random random) {
+        switch (kind) {
+            case "fixed":
+                return (long) a;
+            case "uniform":
+                return (long) (a + random.nextDouble() * (b - a));
+            default:
+                return (long) Math.exp(a + b * random.nextGaussian());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -0,0 +1,338 @@
+package com.resumeenhancer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Drives a running backend with a weighted mix of the user-facing operations and reports
+// throughput and latency percentiles per endpoint.
+//
+// Closed model (default): each virtual user runs one operation at a time with a think time in
+// between. Open model (--rate > 0): operations start on a fixed schedule regardless of how the
+// backend keeps up, and latency is measured from the scheduled start, so queueing delay is not
+// hidden when the backend falls behind.
+public class LoadDriver {
+
+    static final Map<String, String> DEFAULTS = LoadTestOptions.defaults(
+            "base-url", "http://127.0.0.1:8080/api/v1",
+            "users", "16",
+            "warmup-seconds", "15",
+            "duration-seconds", "120",
+            "rate", "0",
+            "think-millis", "500",
+            "mix", "upload=5,text=10,analyze=25,enhance=30,translate=15,export=15",
+            "pages", "1=60,3=30,10=10",
+            "gpt-share", "0.8",
+            "distinct-jobs", "20",
+            "pdf-export-share", "0.3",
+            "timeout-seconds", "120",
+            "report", "loadtest-report.json",
+            "baseline", "",
+            "max-regression", "0.2",
+            "metrics-token", "",
+            "seed", "42");
+
+    private static final String[] LANGUAGES = {"zh", "es", "fr", "de", "ja"};
+
+    private final LoadTestOptions options;
+    private final BackendClient client;
+    private final ExecutorService workers = Executors.newCachedThreadPool();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final List<String> operations = new ArrayList<>();
+    private final List<Integer> pageWeights = new ArrayList<>();
+    private final List<String> jobDescriptions;
+    private final AtomicInteger completed = new AtomicInteger();
+    private volatile long measureFromNanos;
+    private volatile long stopAtNanos;
+
+    public LoadDriver(LoadTestOptions options) {
+        this.options = options;
+        this.client = new BackendClient(options.get("base-url"),
+                Duration.ofSeconds(options.getLong("timeout-seconds")), Executors.newCachedThreadPool());
+        // "stream" (/enhance/stream, timed until the last event) is available but not in the default mix
+        for (String operation : new String[] {"upload", "text", "analyze", "enhance", "translate", "export", "stream"}) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+        // Weighted choices are expanded into lists so picking one is a single random index
+        options.getWeights("mix").forEach((operation, weight) -> {
+            if (!stats.containsKey(operation)) {
+                throw new IllegalArgumentException("Unknown operation in --mix: " + operation);
+            }
+            operations.addAll(Collections.nCopies(weight, operation));
+        });
+        options.getWeights("pages").forEach((pages, weight) -> pageWeights.addAll(Collections.nCopies(weight, Integer.parseInt(pages))));
+        this.jobDescriptions = ResumeFixtures.jobDescriptions(options.getInt("distinct-jobs"), new Random(options.getLong("seed")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args, DEFAULTS);
+        LoadDriver driver = new LoadDriver(options);
+        int exitCode = driver.run();
+        System.exit(exitCode);
+    }
+
+    public int run() throws Exception {
+        List<Session> sessions = setUp();
+        long warmup = TimeUnit.SECONDS.toNanos(options.getLong("warmup-seconds"));
+        long duration = TimeUnit.SECONDS.toNanos(options.getLong("duration-seconds"));
+        long start = System.nanoTime();
+        measureFromNanos = start + warmup;
+        stopAtNanos = measureFromNanos + duration;
+
+        double rate = options.getDouble("rate");
+        System.out.println("Running " + (rate > 0 ? "open model at " + rate + " req/s" : "closed model with " + sessions.size() + " users")
+                + ": " + options.get("warmup-seconds") + "s warmup, " + options.get("duration-seconds") + "s measured, mix " + options.get("mix"));
+        Thread progress = new Thread(this::reportProgress, "loadtest-progress");
+        progress.setDaemon(true);
+        progress.start();
+
+        if (rate > 0) {
+            runOpenModel(sessions, rate);
+        } else {
+            runClosedModel(sessions);
+        }
+        workers.shutdown();
+        workers.awaitTermination(options.getLong("timeout-seconds") + 10, TimeUnit.SECONDS);
+
+        LoadReport report = new LoadReport(stats.values(), duration / 1e9, optionValues());
+        JsonNode gptMetrics = gptMetrics();
+        if (gptMetrics != null) {
+            report.attach("backendGptMetrics", gptMetrics);
+        }
+        report.print();
+        report.write(new File(options.get("report")));
+
+        if (options.has("baseline")) {
+            List<String> regressions = report.compareTo(new File(options.get("baseline")), options.getDouble("max-regression"));
+            if (!regressions.isEmpty()) {
+                System.out.println("Regressions against " + options.get("baseline") + ":");
+                regressions.forEach(regression -> System.out.println("  " + regression));
+                return 1;
+            }
+            System.out.println("No regressions against " + options.get("baseline"));
+        }
+        return 0;
+    }
+
+    private List<Session> setUp() throws Exception {
+        int users = options.getInt("users");
+        long runId = System.currentTimeMillis();
+        Random seeds = new Random(options.getLong("seed"));
+        List<Session> sessions = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            Session session = new Session(new Random(seeds.nextLong()));
+            String email = "loadtest-" + runId + "-" + i + "@example.com";
+            Thread thread = new Thread(() -> {
+                try {
+                    BackendClient.Response response = client.postJson("/auth/register", null,
+                            Map.of("email", email, "password", "loadtest-password", "fullName", "Load Test " + email));
+                    JsonNode json = response.json();
+                    if (!response.isSuccess() || json == null || !json.hasNonNull("token")) {
+                        throw new IllegalStateException("Registration failed with status " + response.getStatus());
+                    }
+                    session.token = json.get("token").asText();
+                    Long resumeId = createTextResume(session);
+                    if (resumeId == null) {
+                        throw new IllegalStateException("Could not create a resume for " + email);
+                    }
+                    sessions.add(session);
+                } catch (Exception e) {
+                    System.err.println("Setup failed for " + email + ": " + e.getMessage());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (sessions.isEmpty()) {
+            throw new IllegalStateException("No virtual user could be set up; is the backend running at " + options.get("base-url") + "?");
+        }
+        System.out.println("Set up " + sessions.size() + " of " + users + " users");
+        return sessions;
+    }
+
+    private void runClosedModel(List<Session> sessions) throws InterruptedException {
+        long thinkMillis = options.getLong("think-millis");
+        List<Thread> threads = new ArrayList<>();
+        for (Session session : sessions) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < stopAtNanos) {
+                    execute(pick(operations, session.random), session, System.nanoTime());
+                    if (thinkMillis > 0) {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(thinkMillis / 2 + session.random.nextInt((int) thinkMillis + 1)));
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void runOpenModel(List<Session> sessions, double rate) {
+        long interval = (long) (1e9 / rate);
+        long next = System.nanoTime();
+        for (long i = 0; next < stopAtNanos; i++) {
+            long scheduled = next;
+            Session session = sessions.get((int) (i % sessions.size()));
+            String operation = pick(operations, session.random);
+            workers.execute(() -> execute(operation, session, scheduled));
+            next += interval;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+    }
+
+    private void execute(String operation, Session session, long startNanos) {
+        String recordAs = operation;
+        int status;
+        boolean degraded = false;
+        try {
+            BackendClient.Response response;
+            switch (operation) {
+                case "upload":
+                    response = upload(session);
+                    break;
+                case "text":
+                    response = client.postJson("/resumes/text", session.token, Map.of("text", resume(session)));
+                    rememberId(response, session.resumeIds);
+                    break;
+                case "export":
+                    Long enhancedId = pick(session.enhancedIds, session.random);
+                    if (enhancedId != null) {
+                        // Same calls as the frontend's download buttons
+                        response = session.random.nextDouble() < options.getDouble("pdf-export-share")
+                                ? client.postJson("/export", session.token, Map.of("enhancedResumeId", enhancedId, "format", "pdf"))
+                                : client.get("/export/markdown/" + enhancedId, session.token);
+                        break;
+                    }
+                    // Nothing to export yet; enhance first, as a real user would
+                    recordAs = "enhance";
+                    response = enhance("/enhance", session);
+                    break;
+                case "translate":
+                    response = client.postJson("/translate", session.token, Map.of("resumeId", pick(session.resumeIds, session.random),
+                            "targetLang", LANGUAGES[session.random.nextInt(LANGUAGES.length)], "mode", mode(session)));
+                    break;
+                case "stream":
+                    response = enhance("/enhance/stream", session);
+                    break;
+                default:
+                    response = enhance("/" + operation, session);
+                    break;
+            }
+            status = response.getStatus();
+            JsonNode json = response.json();
+            degraded = json != null && json.path("degraded").asBoolean(false);
+        } catch (Exception e) {
+            status = 0;
+        }
+
+        completed.incrementAndGet();
+        if (startNanos >= measureFromNanos && startNanos < stopAtNanos) {
+            stats.get(recordAs).record(System.nanoTime() - startNanos, status, degraded);
+        }
+    }
+
+    private BackendClient.Response upload(Session session) throws Exception {
+        // Text extraction from uploads is asynchronous, so uploaded resumes are not reused for enhancement
+        return client.postFile("/resumes/upload", session.token, "resume.pdf", "application/pdf",
+                ResumeFixtures.pdf(resume(session)));
+    }
+
+    private BackendClient.Response enhance(String path, Session session) throws Exception {
+        BackendClient.Response response = client.postJson(path, session.token, Map.of(
+                "resumeId", pick(session.resumeIds, session.random),
+                "jobDescription", pick(jobDescriptions, session.random),
+                "mode", mode(session)));
+        rememberId(response, session.enhancedIds);
+        return response;
+    }
+
+    private Long createTextResume(Session session) throws Exception {
+        BackendClient.Response response = client.postJson("/resumes/text", session.token, Map.of("text", resume(session)));
+        return rememberId(response, session.resumeIds);
+    }
+
+    private String resume(Session session) {
+        return ResumeFixtures.resume(pick(pageWeights, session.random), session.random);
+    }
+
+    private String mode(Session session) {
+        return session.random.nextDouble() < options.getDouble("gpt-share") ? "gpt" : "local";
+    }
+
+    private static Long rememberId(BackendClient.Response response, List<Long> ids) {
+        JsonNode json = response.json();
+        if (response.isSuccess() && json != null && json.hasNonNull("id")) {
+            ids.add(json.get("id").asLong());
+            return json.get("id").asLong();
+        }
+        return null;
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        synchronized (values) {
+            return values.isEmpty() ? null : values.get(random.nextInt(values.size()));
+        }
+    }
+
+    // /metrics is admin-only, so the snapshot needs the token of an account in app.admin.emails
+    private JsonNode gptMetrics() {
+        if (!options.has("metrics-token")) {
+            return null;
+        }
+        try {
+            BackendClient.Response response = client.get("/metrics/gpt", options.get("metrics-token"));
+            return response.isSuccess() ? response.json() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void reportProgress() {
+        while (System.nanoTime() < stopAtNanos) {
+            LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(10));
+            String phase = System.nanoTime() < measureFromNanos ? "warmup" : "measuring";
+            System.out.println("[" + phase + "] " + completed.get() + " operations completed");
+        }
+    }
+
+    private Map<String, String> optionValues() {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String key : DEFAULTS.keySet()) {
+            // Credentials stay out of the written report
+            if (!key.equals("metrics-token")) {
+                values.put(key, options.get(key));
+            }
+        }
+        return values;
+    }
+
+    private static class Session {
+        final Random random;
+        final List<Long> resumeIds = Collections.synchronizedList(new ArrayList<>());
+        final List<Long> enhancedIds = Collections.synchronizedList(new ArrayList<>());
+        volatile String token;
+
+        Session(Random random) {
+            this.random = random;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.resumeenhancer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Summarizes a run per endpoint (throughput, error and rejection rates, latency percentiles),
+// writes it as JSON, and compares it against an earlier report to flag regressions
+public class LoadReport {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final double[] PERCENTILES = {50, 90, 95, 99};
+    private static final Set<String> SCENARIO_INDEPENDENT = Set.of("base-url", "report", "baseline", "max-regression");
+
+    private final ObjectNode json = OBJECT_MAPPER.createObjectNode();
+
+    public LoadReport(Collection<EndpointStats> endpoints, double measuredSeconds, Map<String, String> options) {
+        json.put("finishedAt", Instant.now().toString());
+        json.put("measuredSeconds", measuredSeconds);
+        ObjectNode settings = json.putObject("options");
+        options.forEach(settings::put);
+
+        ObjectNode results = json.putObject("endpoints");
+        for (EndpointStats stats : endpoints) {
+            if (stats.getCount() == 0) {
+                continue;
+            }
+            ObjectNode endpoint = results.putObject(stats.getName());
+            endpoint.put("requests", stats.getCount());
+            endpoint.put("throughputPerSecond", round(stats.getSuccesses() / measuredSeconds));
+            endpoint.put("errorRate", round((double) (stats.getFailures() - stats.getRejections()) / stats.getCount()));
+            endpoint.put("rejectionRate", round((double) stats.getRejections() / stats.getCount()));
+            endpoint.put("degradedRate", round(stats.getSuccesses() == 0 ? 0 : (double) stats.getDegraded() / stats.getSuccesses()));
+            ObjectNode latency = endpoint.putObject("latencyMillis");
+            latency.put("mean", round(stats.meanMillis()));
+            for (double percentile : PERCENTILES) {
+                latency.put("p" + (int) percentile, round(stats.percentileMillis(percentile)));
+            }
+            latency.put("max", round(stats.maxMillis()));
+            ObjectNode failures = endpoint.putObject("failuresByStatus");
+            stats.getFailuresByStatus().forEach((status, count) -> failures.put(String.valueOf(status), count));
+        }
+    }
+
+    public void attach(String key, JsonNode value) {
+        json.set(key, value);
+    }
+
+    public void print() {
+        System.out.println();
+        System.out.println(String.format("%-10s %8s %9s %7s %7s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "req/s", "errors", "shed", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+        Iterator<Map.Entry<String, JsonNode>> endpoints = json.get("endpoints").fields();
+        while (endpoints.hasNext()) {
+            Map.Entry<String, JsonNode> entry = endpoints.next();
+            JsonNode endpoint = entry.getValue();
+            JsonNode latency = endpoint.get("latencyMillis");
+            System.out.println(String.format("%-10s %8d %9.2f %6.1f%% %6.1f%% %9.1f %9.1f %9.1f %9.1f %9.1f",
+                    entry.getKey(), endpoint.get("requests").asLong(), endpoint.get("throughputPerSecond").asDouble(),
+                    100 * endpoint.get("errorRate").asDouble(), 100 * endpoint.get("rejectionRate").asDouble(),
+                    latency.get("p50").asDouble(), latency.get("p90").asDouble(), latency.get("p95").asDouble(),
+                    latency.get("p99").asDouble(), latency.get("max").asDouble()));
+        }
+        System.out.println();
+    }
+
+    public void write(File file) throws IOException {
+        OBJECT_MAPPER.writeValue(file, json);
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+
+    // Regressions beyond the allowed ratio in p95/p99 latency or throughput, or more than one
+    // percentage point of extra errors; endpoints missing from either run are skipped
+    public List<String> compareTo(File baselineFile, double maxRegression) throws IOException {
+        JsonNode baselineReport = OBJECT_MAPPER.readTree(baselineFile);
+        JsonNode baseline = baselineReport.get("endpoints");
+        // Numbers are only comparable between runs of the same scenario
+        Iterator<Map.Entry<String, JsonNode>> settings = json.get("options").fields();
+        while (settings.hasNext()) {
+            Map.Entry<String, JsonNode> setting = settings.next();
+            JsonNode was = baselineReport.path("options").get(setting.getKey());
+            if (!SCENARIO_INDEPENDENT.contains(setting.getKey()) && was != null && !was.equals(setting.getValue())) {
+                System.out.println("Warning: baseline ran with --" + setting.getKey() + "=" + was.asText()
+                        + ", this run with " + setting.getValue().asText());
+            }
+        }
+
+        List<String> regressions = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> endpoints = json.get("endpoints").fields();
+        while (endpoints.hasNext()) {
+            Map.Entry<String, JsonNode> entry = endpoints.next();
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            for (String percentile : new String[] {"p95", "p99"}) {
+                double was = before.get("latencyMillis").get(percentile).asDouble();
+                double now = after.get("latencyMillis").get(percentile).asDouble();
+                if (was > 0 && now > was * (1 + maxRegression)) {
+                    regressions.add(String.format("%s %s latency %.1f ms -> %.1f ms", entry.getKey(), percentile, was, now));
+                }
+            }
+            double wasThroughput = before.get("throughputPerSecond").asDouble();
+            double nowThroughput = after.get("throughputPerSecond").asDouble();
+            if (nowThroughput < wasThroughput * (1 - maxRegression)) {
+                regressions.add(String.format("%s throughput %.2f/s -> %.2f/s", entry.getKey(), wasThroughput, nowThroughput));
+            }
+            double wasErrors = before.get("errorRate").asDouble();
+            double nowErrors = after.get("errorRate").asDouble();
+            if (nowErrors > wasErrors + 0.01) {
+                regressions.add(String.format("%s error rate %.1f%% -> %.1f%%", entry.getKey(), 100 * wasErrors, 100 * nowErrors));
+            }
+        }
+        return regressions;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.resumeenhancer.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// --key=value command-line options with defaults; unknown keys are rejected so typos don't
+// silently run the default scenario
+public class LoadTestOptions {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public LoadTestOptions(String[] args, Map<String, String> defaults) {
+        values.putAll(defaults);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            if (!defaults.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown option --" + key + "; known options: " + defaults.keySet());
+            }
+            values.put(key, arg.substring(arg.indexOf('=') + 1));
+        }
+    }
+
+    public static Map<String, String> defaults(String... keysAndValues) {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            defaults.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return defaults;
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public int getInt(String key) {
+        return Integer.parseInt(values.get(key));
+    }
+
+    public long getLong(String key) {
+        return Long.parseLong(values.get(key));
+    }
+
+    public double getDouble(String key) {
+        return Double.parseDouble(values.get(key));
+    }
+
+    public boolean has(String key) {
+        String value = values.get(key);
+        return value != null && !value.isEmpty();
+    }
+
+    // "a=5,b=10" -> {a: 5, b: 10}, in the order given
+    public Map<String, Integer> getWeights(String key) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : values.get(key).split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected name=weight in --" + key + ", got: " + part);
+            }
+            weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+}
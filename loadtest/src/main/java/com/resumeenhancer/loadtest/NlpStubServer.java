@@ -0,0 +1,72 @@
+package com.resumeenhancer.loadtest;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+// Stand-in for the Python NLP service: /parse returns the ParsedResume shape (skills,
+// experiences, education) built from the submitted text, /health reports healthy.
+public class NlpStubServer extends StubServer {
+
+    private static final String[] KNOWN_SKILLS = {
+        "java", "spring", "python", "kubernetes", "terraform", "aws", "postgresql", "kafka", "react", "go"
+    };
+
+    public NlpStubServer(int port, LatencyDistribution latency, double errorRate, long seed) {
+        super("NLP", port, latency, errorRate, seed);
+    }
+
+    @Override
+    protected void register(HttpServer server) {
+        server.createContext("/parse", this::parse);
+        server.createContext("/health", exchange -> sendJson(exchange, 200, Map.of("status", "healthy", "spacy_loaded", true)));
+    }
+
+    private void parse(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Map<String, Object> request = readJson(exchange);
+        simulateLatency();
+        if (shouldFail()) {
+            sendJson(exchange, 500, Map.of("detail", "Injected failure"));
+            return;
+        }
+
+        String text = String.valueOf(request.getOrDefault("text", ""));
+        String lower = text.toLowerCase(Locale.ROOT);
+        ObjectNode parsed = OBJECT_MAPPER.createObjectNode();
+        ArrayNode skills = parsed.putArray("skills");
+        for (String skill : KNOWN_SKILLS) {
+            if (lower.contains(skill)) {
+                skills.add(skill);
+            }
+        }
+
+        ArrayNode experiences = parsed.putArray("experiences");
+        for (String block : text.split("\\n\\s*\\n")) {
+            String[] lines = block.trim().split("\n");
+            if (lines.length > 1 && lines[0].contains("|")) {
+                String[] header = lines[0].split("\\|");
+                ObjectNode experience = experiences.addObject();
+                experience.put("title", header[0].trim());
+                experience.put("company", header.length > 1 ? header[1].trim() : "");
+                experience.put("years", header.length > 2 ? header[2].trim() : "");
+                ArrayNode bullets = experience.putArray("bullets");
+                for (int i = 1; i < lines.length; i++) {
+                    bullets.add(lines[i].replaceFirst("^[-•*]\\s*", "").trim());
+                }
+            }
+        }
+
+        parsed.putArray("education").addObject()
+                .put("institution", "Technical University of Munich")
+                .put("degree", "MSc")
+                .put("field", "Computer Science")
+                .put("years", "2011 - 2013");
+        sendJson(exchange, 200, parsed);
+    }
+}
@@ -0,0 +1,128 @@
+package com.resumeenhancer.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Plain-text source resumes of a given page count (about 3,000 characters a page), job
+// descriptions, and the same resumes rendered as minimal text PDFs for /resumes/upload.
+public final class ResumeFixtures {
+
+    private static final int CHARS_PER_PAGE = 3000;
+    private static final int PDF_LINES_PER_PAGE = 55;
+    private static final int PDF_LINE_CHARS = 95;
+
+    private static final String[] FIRST_NAMES = {"Jane", "Omar", "Li", "Priya", "Lukas", "Ana", "Kofi", "Mei"};
+    private static final String[] LAST_NAMES = {"Doe", "Haddad", "Wei", "Sharma", "Becker", "Silva", "Mensah", "Tanaka"};
+    private static final String[] COMPANIES = {"Acme Corp", "Globex", "Initech", "Umbrella Health", "Stark Logistics", "Wayne Fintech"};
+    private static final String[] TITLES = {"Senior Software Engineer", "Backend Engineer", "Platform Engineer", "Tech Lead"};
+    private static final String[] BULLETS = {
+        "Migrated the billing platform to event-driven services on Kafka, cutting p99 latency by 40%",
+        "Built a zero-downtime deployment pipeline on Kubernetes used by 12 teams",
+        "Mentored six engineers and ran the backend interview loop",
+        "Reduced AWS spend by $1.2M a year by right-sizing clusters and adding autoscaling",
+        "Owned on-call for payments and brought mean time to recovery from 45 to 12 minutes",
+        "Designed a feature-flag service in Java and Spring handling 50k requests per second",
+        "Rewrote reporting queries in PostgreSQL, taking the nightly batch from 3 hours to 20 minutes",
+        "Introduced Terraform modules for all environments and removed manual console changes"
+    };
+    private static final String[] ROLES = {"Senior Backend Engineer", "Staff Engineer", "Platform Engineer", "Engineering Manager", "Data Engineer"};
+    private static final String[] DOMAINS = {"payments", "logistics", "healthcare", "e-commerce", "developer tooling"};
+
+    private ResumeFixtures() {
+    }
+
+    public static String resume(int pages, Random random) {
+        StringBuilder text = new StringBuilder();
+        text.append(pick(FIRST_NAMES, random)).append(' ').append(pick(LAST_NAMES, random)).append('\n')
+                .append("jane.doe").append(random.nextInt(100000)).append("@example.com | +1 555 0100 | Berlin\n\n")
+                .append("SUMMARY\n")
+                .append("Engineer with ").append(5 + random.nextInt(15)).append(" years building ")
+                .append(pick(DOMAINS, random)).append(" platforms.\n\n")
+                .append("EXPERIENCE\n");
+        int year = 2025;
+        while (text.length() < pages * CHARS_PER_PAGE) {
+            text.append(pick(TITLES, random)).append(" | ").append(pick(COMPANIES, random))
+                    .append(" | ").append(year - 2).append(" - ").append(year).append('\n');
+            for (int i = 0; i < 4; i++) {
+                text.append("- ").append(pick(BULLETS, random)).append('\n');
+            }
+            text.append('\n');
+            year -= 2;
+        }
+        text.append("EDUCATION\nTechnical University of Munich - MSc Computer Science - 2011 - 2013\n\n")
+                .append("SKILLS\nJava, Spring, Kubernetes, Terraform, AWS, PostgreSQL, Kafka\n");
+        return text.toString();
+    }
+
+    public static List<String> jobDescriptions(int count, Random random) {
+        List<String> jobs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            jobs.add(pick(ROLES, random) + " (" + pick(DOMAINS, random) + ", posting " + i + "): we are looking for an engineer "
+                    + "with strong Java and Spring experience, Kubernetes in production, and a track record of "
+                    + "improving reliability and cost. Experience with Kafka and PostgreSQL is a plus.");
+        }
+        return jobs;
+    }
+
+    // A valid single-font PDF with one text object per page, enough for PDFBox text extraction
+    public static byte[] pdf(String text) {
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\n", -1)) {
+            String ascii = line.replaceAll("[^\\x20-\\x7E]", "-");
+            do {
+                lines.add(ascii.substring(0, Math.min(PDF_LINE_CHARS, ascii.length())));
+                ascii = ascii.length() > PDF_LINE_CHARS ? ascii.substring(PDF_LINE_CHARS) : "";
+            } while (!ascii.isEmpty());
+        }
+        int pages = Math.max(1, (lines.size() + PDF_LINES_PER_PAGE - 1) / PDF_LINES_PER_PAGE);
+
+        // Objects: 1 catalog, 2 page tree, 3 font, then a page and its content stream per page
+        List<String> objects = new ArrayList<>();
+        StringBuilder kids = new StringBuilder();
+        for (int p = 0; p < pages; p++) {
+            kids.append(4 + 2 * p).append(" 0 R ");
+        }
+        objects.add("<< /Type /Catalog /Pages 2 0 R >>");
+        objects.add("<< /Type /Pages /Kids [" + kids.toString().trim() + "] /Count " + pages + " >>");
+        objects.add("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica >>");
+        for (int p = 0; p < pages; p++) {
+            StringBuilder content = new StringBuilder("BT /F1 10 Tf 12 TL 50 750 Td\n");
+            for (String line : lines.subList(p * PDF_LINES_PER_PAGE, Math.min(lines.size(), (p + 1) * PDF_LINES_PER_PAGE))) {
+                content.append('(').append(line.replace("\\", "\\\\").replace("(", "\\(").replace(")", "\\)")).append(") Tj T*\n");
+            }
+            content.append("ET");
+            objects.add("<< /Type /Page /Parent 2 0 R /MediaBox [0 0 612 792] /Resources << /Font << /F1 3 0 R >> >> /Contents "
+                    + (5 + 2 * p) + " 0 R >>");
+            objects.add("<< /Length " + content.length() + " >>\nstream\n" + content + "\nendstream");
+        }
+
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        write(pdf, "%PDF-1.4\n");
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < objects.size(); i++) {
+            offsets.add(pdf.size());
+            write(pdf, (i + 1) + " 0 obj\n" + objects.get(i) + "\nendobj\n");
+        }
+        int xref = pdf.size();
+        StringBuilder table = new StringBuilder("xref\n0 " + (objects.size() + 1) + "\n0000000000 65535 f \n");
+        for (int offset : offsets) {
+            table.append(String.format("%010d 00000 n \n", offset));
+        }
+        table.append("trailer\n<< /Size ").append(objects.size() + 1).append(" /Root 1 0 R >>\nstartxref\n")
+                .append(xref).append("\n%%EOF\n");
+        write(pdf, table.toString());
+        return pdf.toByteArray();
+    }
+
+    private static void write(ByteArrayOutputStream out, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
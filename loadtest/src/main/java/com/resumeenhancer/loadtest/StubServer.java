@@ -0,0 +1,118 @@
+package com.resumeenhancer.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Shared plumbing for the stand-in services: a JDK HTTP server on a thread per request (latency
+// is simulated with sleeps), a seeded random source, and injected failures.
+public abstract class StubServer {
+
+    protected static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    protected final Random random;
+    protected final LatencyDistribution latency;
+    protected final double errorRate;
+    protected final AtomicLong requests = new AtomicLong();
+    protected final AtomicLong injectedErrors = new AtomicLong();
+
+    private final String name;
+    private final int port;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    protected StubServer(String name, int port, LatencyDistribution latency, double errorRate, long seed) {
+        this.name = name;
+        this.port = port;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.random = new Random(seed);
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 256);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        register(server);
+        server.start();
+        System.out.println(name + " stub listening on http://127.0.0.1:" + port + " (latency " + latency
+                + ", error rate " + errorRate + ")");
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    protected abstract void register(HttpServer server);
+
+    protected boolean shouldFail() {
+        if (random.nextDouble() < errorRate) {
+            injectedErrors.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    protected void simulateLatency() {
+        sleep(latency.sampleMillis(random));
+    }
+
+    protected static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static Map<String, Object> readJson(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readAllBytes();
+            return body.length == 0 ? Map.of() : OBJECT_MAPPER.readValue(body, Map.class);
+        }
+    }
+
+    protected static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = OBJECT_MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    protected static void sendText(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
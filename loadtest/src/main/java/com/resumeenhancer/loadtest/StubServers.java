@@ -0,0 +1,42 @@
+package com.resumeenhancer.loadtest;
+
+import java.util.Map;
+
+// Runs the GPT and NLP stand-ins until the process is stopped. Point the backend at them with
+// --app.openai.api-base=http://127.0.0.1:<gpt-port>/v1 --app.nlp.service.base-url=http://127.0.0.1:<nlp-port>
+public class StubServers {
+
+    static final Map<String, String> DEFAULTS = LoadTestOptions.defaults(
+            "gpt-port", "9911",
+            "gpt-latency", "lognormal:800:4000",
+            "gpt-error-rate", "0.01",
+            "gpt-rate-limit-rate", "0.01",
+            "gpt-stream-chunk-chars", "16",
+            "gpt-stream-chunk-millis", "15",
+            "nlp-port", "9912",
+            "nlp-latency", "lognormal:60:300",
+            "nlp-error-rate", "0.005",
+            "seed", "42");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args, DEFAULTS);
+        long seed = options.getLong("seed");
+
+        GptStubServer gpt = new GptStubServer(options.getInt("gpt-port"),
+                LatencyDistribution.parse(options.get("gpt-latency")),
+                options.getDouble("gpt-error-rate"), options.getDouble("gpt-rate-limit-rate"),
+                options.getInt("gpt-stream-chunk-chars"), options.getLong("gpt-stream-chunk-millis"), seed);
+        NlpStubServer nlp = new NlpStubServer(options.getInt("nlp-port"),
+                LatencyDistribution.parse(options.get("nlp-latency")), options.getDouble("nlp-error-rate"), seed + 1);
+
+        gpt.start();
+        nlp.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            gpt.stop();
+            nlp.stop();
+            System.out.println("Stubs stopped: GPT " + gpt.getRequests() + " requests (" + gpt.getInjectedErrors()
+                    + " injected errors), NLP " + nlp.getRequests() + " requests (" + nlp.getInjectedErrors() + " injected errors)");
+        }));
+        Thread.currentThread().join();
+    }
+}
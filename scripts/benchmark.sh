@@ -0,0 +1,26 @@
+#!/bin/bash
+
+# Resume Enhancer - JMH microbenchmarks
+# Builds the benchmarks module and runs it with allocation profiling. Results go to
+# benchmarks/results/<timestamp>-<commit>.json in JMH's JSON format so runs can be compared over
+# time. Arguments are passed to JMH, e.g. a benchmark regex or shorter runs:
+#   scripts/benchmark.sh Export -wi 1 -i 3
+
+set -e
+
+PROJECT_ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+cd "$PROJECT_ROOT"
+
+command -v mvn >/dev/null 2>&1 || { echo "❌ Maven not found"; exit 1; }
+
+echo "🔨 Building benchmarks..."
+mvn -B -q -pl benchmarks -am package -DskipTests
+
+mkdir -p benchmarks/results
+COMMIT=$(git rev-parse --short HEAD 2>/dev/null || echo unknown)
+RESULT="benchmarks/results/$(date +%Y%m%d-%H%M%S)-$COMMIT.json"
+
+echo "⏱️  Running benchmarks..."
+java -jar benchmarks/target/benchmarks.jar -prof gc -rf json -rff "$RESULT" "$@"
+
+echo "✅ Results written to $RESULT"
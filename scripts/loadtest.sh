@@ -0,0 +1,65 @@
+#!/bin/bash
+
+# Resume Enhancer - End-to-end load test
+# Starts the GPT/NLP stand-ins and a local backend (H2, no Redis), runs the load driver against
+# it, and stops everything again. Arguments are passed to the driver, e.g.
+#   scripts/loadtest.sh --users=32 --duration-seconds=300 --baseline=loadtest-baseline.json
+# Stand-in and backend settings can be overridden with STUB_OPTS and BACKEND_OPTS.
+
+set -e
+
+PROJECT_ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+cd "$PROJECT_ROOT"
+
+BACKEND_PORT=${BACKEND_PORT:-18080}
+GPT_PORT=${GPT_PORT:-9911}
+NLP_PORT=${NLP_PORT:-9912}
+LOG_DIR=${LOG_DIR:-loadtest/target/logs}
+
+command -v mvn >/dev/null 2>&1 || { echo "❌ Maven not found"; exit 1; }
+
+echo "🔨 Building backend and load test..."
+mvn -B -q -pl backend,loadtest -am package -DskipTests
+
+mkdir -p "$LOG_DIR"
+PIDS=()
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+    wait 2>/dev/null || true
+}
+trap cleanup EXIT
+
+echo "🧪 Starting GPT (:$GPT_PORT) and NLP (:$NLP_PORT) stand-ins..."
+java -cp loadtest/target/loadtest.jar com.resumeenhancer.loadtest.StubServers \
+    --gpt-port="$GPT_PORT" --nlp-port="$NLP_PORT" $STUB_OPTS > "$LOG_DIR/stubs.log" 2>&1 &
+PIDS+=($!)
+
+echo "🔧 Starting backend on :$BACKEND_PORT..."
+java ${BACKEND_JAVA_OPTS:--Xmx1g} -jar backend/target/resume-enhancer-backend-0.0.1-SNAPSHOT-exec.jar \
+    --spring.profiles.active=local \
+    --server.port="$BACKEND_PORT" \
+    "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;INIT=CREATE DOMAIN IF NOT EXISTS JSONB AS VARCHAR" \
+    --app.openai.api-base="http://127.0.0.1:$GPT_PORT/v1" \
+    --app.openai.api-key=loadtest \
+    --app.nlp.service.base-url="http://127.0.0.1:$NLP_PORT" \
+    --app.storage.local-path="$LOG_DIR/uploads" \
+    --app.usage.daily-gpt-limit=1000000 \
+    --app.usage.daily-enhancement-limit=1000000 \
+    --app.usage.enable-redis-cache=false \
+    --logging.level.org.springframework.security=INFO \
+    $BACKEND_OPTS > "$LOG_DIR/backend.log" 2>&1 &
+PIDS+=($!)
+
+for i in $(seq 1 120); do
+    curl -sf "http://127.0.0.1:$BACKEND_PORT/api/v1/health" >/dev/null && break
+    if [ "$i" = 120 ]; then
+        echo "❌ Backend did not become healthy; see $LOG_DIR/backend.log"
+        exit 1
+    fi
+    sleep 1
+done
+
+echo "🚀 Running load driver..."
+java -jar loadtest/target/loadtest.jar --base-url="http://127.0.0.1:$BACKEND_PORT/api/v1" "$@"